@@ -0,0 +1,129 @@
+package com.bonitasoft.processbuilder.enums;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Defines how a paginated REST API tells where the next page of a listing is.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public enum RestPaginationType {
+
+    /**
+     * Single page: the response holds every item (default).
+     */
+    NONE("none", "Single page, no further page is requested"),
+
+    /**
+     * Next page requested with a cursor read from the response body (e.g. {@code nextPageToken}).
+     */
+    CURSOR("cursor", "Cursor read from the response and sent as a query parameter"),
+
+    /**
+     * Next page requested by advancing an offset query parameter (e.g. {@code startAt}, {@code sysparm_offset}).
+     */
+    OFFSET("offset", "Offset query parameter advanced by the number of items received"),
+
+    /**
+     * Next page URL read from the {@code Link} response header ({@code rel="next"}).
+     */
+    LINK_HEADER("linkHeader", "Next page URL read from the Link header"),
+
+    /**
+     * Next page URL read from the response body (e.g. {@code @odata.nextLink}, {@code nextRecordsUrl}).
+     */
+    NEXT_LINK("nextLink", "Next page URL read from the response body");
+
+    private final String key;
+    private final String description;
+
+    /**
+     * Private constructor for the enumeration.
+     *
+     * @param key         The technical key
+     * @param description A human-readable description
+     */
+    RestPaginationType(String key, String description) {
+        this.key = key;
+        this.description = description;
+    }
+
+    /**
+     * Gets the technical key.
+     *
+     * @return The key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the description.
+     *
+     * @return The description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Checks if a given string corresponds to a valid type.
+     *
+     * @param input The string to validate (case-insensitive)
+     * @return {@code true} if the string is valid
+     */
+    public static boolean isValid(String input) {
+        return fromKey(input).isPresent();
+    }
+
+    /**
+     * Finds a type by its key or constant name (case-insensitive).
+     *
+     * @param key The key to search for (e.g. {@code linkHeader} or {@code LINK_HEADER})
+     * @return Optional containing the matching type, or empty if not found
+     */
+    public static Optional<RestPaginationType> fromKey(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        String normalizedKey = key.trim();
+        return Arrays.stream(values())
+                .filter(type -> type.getKey().equalsIgnoreCase(normalizedKey)
+                        || type.name().equalsIgnoreCase(normalizedKey))
+                .findFirst();
+    }
+
+    /**
+     * Retrieves all types as a read-only Map.
+     *
+     * @return A map containing all type data (Key -> Description)
+     */
+    public static Map<String, String> getAllData() {
+        Map<String, String> data = Arrays.stream(values())
+                .collect(Collectors.toMap(
+                        RestPaginationType::getKey,
+                        RestPaginationType::getDescription,
+                        (oldValue, newValue) -> oldValue,
+                        LinkedHashMap::new
+                ));
+        return Collections.unmodifiableMap(data);
+    }
+
+    /**
+     * Retrieves all keys as a read-only List.
+     *
+     * @return A list containing all type keys
+     */
+    public static List<String> getAllKeysList() {
+        return Arrays.stream(values())
+                .map(RestPaginationType::getKey)
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,123 @@
+package com.bonitasoft.processbuilder.enums;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Defines how the body of a REST response is received and held.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public enum RestResponseMode {
+
+    /**
+     * Body decoded as a String on the heap (default).
+     */
+    STRING("string", "Body decoded as text and held in memory"),
+
+    /**
+     * Body kept as raw bytes on the heap (binary-safe).
+     */
+    BYTES("bytes", "Body kept as raw bytes in memory"),
+
+    /**
+     * Body exposed as a live input stream, read by the caller.
+     */
+    STREAM("stream", "Body streamed to the caller as it is read"),
+
+    /**
+     * Body kept in memory up to a threshold, then spilled to a temporary file.
+     */
+    FILE("file", "Body spilled to a temporary file above a size threshold");
+
+    private final String key;
+    private final String description;
+
+    /**
+     * Private constructor for the enumeration.
+     *
+     * @param key         The technical key
+     * @param description A human-readable description
+     */
+    RestResponseMode(String key, String description) {
+        this.key = key;
+        this.description = description;
+    }
+
+    /**
+     * Gets the technical key.
+     *
+     * @return The key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the description.
+     *
+     * @return The description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Checks if a given string corresponds to a valid mode.
+     *
+     * @param input The string to validate (case-insensitive)
+     * @return {@code true} if the string is valid
+     */
+    public static boolean isValid(String input) {
+        return fromKey(input).isPresent();
+    }
+
+    /**
+     * Finds a mode by its key (case-insensitive).
+     *
+     * @param key The key to search for
+     * @return Optional containing the matching mode, or empty if not found
+     */
+    public static Optional<RestResponseMode> fromKey(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        String normalizedKey = key.trim();
+        return Arrays.stream(values())
+                .filter(mode -> mode.getKey().equalsIgnoreCase(normalizedKey))
+                .findFirst();
+    }
+
+    /**
+     * Retrieves all modes as a read-only Map.
+     *
+     * @return A map containing all mode data (Key -> Description)
+     */
+    public static Map<String, String> getAllData() {
+        Map<String, String> data = Arrays.stream(values())
+                .collect(Collectors.toMap(
+                        RestResponseMode::getKey,
+                        RestResponseMode::getDescription,
+                        (oldValue, newValue) -> oldValue,
+                        LinkedHashMap::new
+                ));
+        return Collections.unmodifiableMap(data);
+    }
+
+    /**
+     * Retrieves all keys as a read-only List.
+     *
+     * @return A list containing all mode keys
+     */
+    public static List<String> getAllKeysList() {
+        return Arrays.stream(values())
+                .map(RestResponseMode::getKey)
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,173 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestBulkheadOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caps the calls in flight to one downstream API (host or configured name).
+ * <p>
+ * A call takes a slot while one is free, otherwise waits in a bounded FIFO queue, otherwise is shed.
+ * With adaptive options the limit is adjusted after every call (AIMD): a fast successful call adds
+ * {@code 1 / limit}, so the limit grows by about one slot per limit's worth of calls; a slow or
+ * failed call multiplies it by {@value #BACKOFF_RATIO}. The limit stays between
+ * {@code minConcurrent} and {@code maxConcurrent}.
+ * </p>
+ * <p>
+ * Thread-safe. Every slot granted by {@link #acquire()} must be returned with
+ * {@link #release(long, boolean)}, or {@link #abandon()} if the call was cancelled. Queued calls
+ * are resumed outside the lock.
+ * </p>
+ */
+public final class Bulkhead {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Bulkhead.class);
+
+    /** Factor applied to the adaptive limit after a slow or failed call. */
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final RestBulkheadOptions options;
+    private final ArrayDeque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private int peakInFlight;
+    private long completedTotal;
+    private long queuedTotal;
+    private long shedTotal;
+
+    Bulkhead(String name, RestBulkheadOptions options) {
+        this.name = name;
+        this.options = options;
+        this.limit = options.maxConcurrent();
+    }
+
+    /**
+     * Asks for a slot.
+     *
+     * @return A future completed once the call holds a slot (already completed when one is free),
+     *         or null if the queue is full and the call must be shed
+     */
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (inFlight < permits() && waiting.isEmpty()) {
+                take();
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiting.size() >= options.maxQueue()) {
+                shedTotal++;
+                return null;
+            }
+            CompletableFuture<Void> turn = new CompletableFuture<>();
+            waiting.add(turn);
+            queuedTotal++;
+            return turn;
+        }
+    }
+
+    /**
+     * Returns the slot of a finished call and hands freed slots to queued calls.
+     *
+     * @param durationMs How long the call took
+     * @param failed     Whether the call failed (no response or a server error)
+     */
+    public void release(long durationMs, boolean failed) {
+        ArrayDeque<CompletableFuture<Void>> resumed;
+        synchronized (this) {
+            inFlight--;
+            completedTotal++;
+            if (options.adaptive()) {
+                adapt(durationMs, failed);
+            }
+            resumed = resume();
+        }
+        resumed.forEach(turn -> turn.complete(null));
+    }
+
+    /**
+     * Returns the slot of a call that was cancelled, without counting it nor adjusting the limit.
+     */
+    void abandon() {
+        ArrayDeque<CompletableFuture<Void>> resumed;
+        synchronized (this) {
+            inFlight--;
+            resumed = resume();
+        }
+        resumed.forEach(turn -> turn.complete(null));
+    }
+
+    /**
+     * Removes a cancelled call from the queue; a call already given a slot returns it with
+     * {@link #abandon()} instead.
+     *
+     * @param turn The future returned by {@link #acquire()}
+     */
+    synchronized void leave(CompletableFuture<Void> turn) {
+        waiting.remove(turn);
+    }
+
+    /**
+     * @return The name of the bulkhead (target host or configured name)
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return A point-in-time snapshot of the bulkhead
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, permits(), inFlight, waiting.size(), peakInFlight, completedTotal, queuedTotal,
+                shedTotal);
+    }
+
+    private void adapt(long durationMs, boolean failed) {
+        int before = permits();
+        if (failed || durationMs >= options.slowCallMs()) {
+            limit = Math.max(options.minConcurrent(), limit * BACKOFF_RATIO);
+        } else {
+            limit = Math.min(options.maxConcurrent(), limit + 1 / limit);
+        }
+        int after = permits();
+        if (after != before) {
+            LOGGER.debug("Bulkhead '{}' concurrency limit changed from {} to {}", name, before, after);
+        }
+    }
+
+    private ArrayDeque<CompletableFuture<Void>> resume() {
+        ArrayDeque<CompletableFuture<Void>> resumed = new ArrayDeque<>();
+        while (inFlight < permits() && !waiting.isEmpty()) {
+            take();
+            resumed.add(waiting.poll());
+        }
+        return resumed;
+    }
+
+    private void take() {
+        inFlight++;
+        peakInFlight = Math.max(peakInFlight, inFlight);
+    }
+
+    private int permits() {
+        return Math.max(1, (int) limit);
+    }
+
+    /**
+     * Snapshot of a bulkhead.
+     *
+     * @param name           The bulkhead name (target host or configured name)
+     * @param limit          The current concurrency limit
+     * @param inFlightCalls  Calls currently holding a slot
+     * @param queuedCalls    Calls currently waiting for a slot
+     * @param peakInFlight   Largest number of calls in flight at the same time
+     * @param completedCalls Total calls that held a slot and finished
+     * @param totalQueued    Total calls that had to wait for a slot
+     * @param shedCalls      Total calls shed because the queue was full
+     */
+    public record Snapshot(String name, int limit, int inFlightCalls, int queuedCalls, int peakInFlight,
+                           long completedCalls, long totalQueued, long shedCalls) {}
+}
@@ -0,0 +1,131 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestBulkheadOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * The bulkheads of {@link HttpExecutor}, one per target host or configured bulkhead name.
+ * <p>
+ * A bulkhead is created with the options of the first call that uses it; later calls share its
+ * slots and limits. Bulkheads are not tenant-scoped: they protect the callers from the target.
+ * </p>
+ * <p>
+ * {@link HttpExecutor} applies the bulkhead to every call it sends (each retry attempt, each hedge),
+ * right above the HTTP exchange: a slot is never held across a retry or rate-limit wait, and calls
+ * refused by a circuit breaker or a rate limiter never take a slot nor adjust the adaptive limit.
+ * </p>
+ */
+public final class BulkheadRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkheadRegistry.class);
+
+    private final ConcurrentHashMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    /**
+     * Creates an empty registry.
+     */
+    public BulkheadRegistry() {
+        this(System::currentTimeMillis);
+    }
+
+    BulkheadRegistry(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sends a call once its bulkhead has a slot for it, or sheds it when the queue is full.
+     *
+     * @param request The REST service request (its bulkhead options must be enabled)
+     * @param send    Sends the call; its future only fails with a {@link CallRejectedException}, and
+     *                cancelling it aborts the call
+     * @return A future completed with the response, or completed exceptionally with a
+     *         {@link CallRejectedException} when the call was shed; cancelling it aborts the call, or
+     *         gives up its place in the queue
+     */
+    CompletableFuture<RestServiceResponse> execute(RestServiceRequest request,
+            Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> send) {
+        RestBulkheadOptions options = request.bulkheadOptions();
+        String name = nameOf(request);
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(name, key -> new Bulkhead(key, options));
+        CompletableFuture<Void> turn = bulkhead.acquire();
+        if (turn == null) {
+            LOGGER.warn("Bulkhead '{}' is full: {} {} shed", name, request.method(), request.url());
+            return CompletableFuture.failedFuture(
+                    new CallRejectedException("Bulkhead '" + name + "' is full: call shed"));
+        }
+        InFlightCall call = new InFlightCall();
+        CompletableFuture<RestServiceResponse> result = call.cancelledWith(new CompletableFuture<>());
+        // Cancelled while queued: the call leaves the queue, or hands back the slot granted meanwhile
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                bulkhead.leave(turn);
+            }
+        });
+        turn.thenRun(() -> {
+            if (result.isDone()) {
+                bulkhead.abandon();
+                return;
+            }
+            long start = clock.getAsLong();
+            call.send(() -> send.apply(request)).whenComplete((response, error) -> {
+                if (result.isCancelled() || CallRejectedException.isCause(error)) {
+                    // Cancelled, or refused locally (oversized body): not an outcome of the target
+                    bulkhead.abandon();
+                } else {
+                    bulkhead.release(clock.getAsLong() - start, error != null || CircuitBreaker.isFailure(response));
+                }
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * @param name The bulkhead name (target host as {@code scheme://host:port}, or configured name)
+     * @return The bulkhead, or null if no call used it yet
+     */
+    public Bulkhead bulkhead(String name) {
+        return bulkheads.get(name);
+    }
+
+    /**
+     * @return A point-in-time snapshot of every bulkhead, sorted by name
+     */
+    public List<Bulkhead.Snapshot> snapshot() {
+        return bulkheads.values().stream()
+                .map(Bulkhead::snapshot)
+                .sorted(Comparator.comparing(Bulkhead.Snapshot::name))
+                .toList();
+    }
+
+    /**
+     * Removes every bulkhead. Calls in flight release their slot into the removed bulkhead.
+     */
+    public void reset() {
+        bulkheads.clear();
+    }
+
+    /**
+     * @param request The REST service request
+     * @return The configured bulkhead name, or the target host as {@code scheme://host:port}
+     */
+    static String nameOf(RestServiceRequest request) {
+        String configured = request.bulkheadOptions().name();
+        return configured != null ? configured : RequestFingerprint.origin(request.url());
+    }
+}
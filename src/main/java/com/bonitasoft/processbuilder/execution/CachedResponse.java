@@ -0,0 +1,134 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestContentType;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A response held by a {@link ResponseCache}, with the instants bounding its reuse.
+ *
+ * @param statusCode  The HTTP status code
+ * @param headers     The response headers
+ * @param body        The body bytes (not copied; never modified)
+ * @param charset     The charset the body is decoded with
+ * @param contentType The content type of the response
+ * @param url         The URL that was called
+ * @param storedAt    When the response was received or last revalidated (epoch millis)
+ * @param freshUntil  Until when the response is served without contacting the server
+ * @param staleUntil  Until when the response may be served stale while it is revalidated in the background
+ */
+public record CachedResponse(
+        int statusCode,
+        Map<String, String> headers,
+        byte[] body,
+        Charset charset,
+        RestContentType contentType,
+        String url,
+        long storedAt,
+        long freshUntil,
+        long staleUntil
+) {
+
+    /** Rough per-entry bookkeeping cost counted on top of the body and headers. */
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    public CachedResponse {
+        headers = headers != null ? Map.copyOf(headers) : Map.of();
+        body = body != null ? body : new byte[0];
+        charset = charset != null ? charset : StandardCharsets.UTF_8;
+        staleUntil = Math.max(staleUntil, freshUntil);
+    }
+
+    /**
+     * @return The approximate heap footprint of the entry, used for the cache byte budget
+     */
+    public long sizeBytes() {
+        long headerChars = 0;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            headerChars += header.getKey().length() + header.getValue().length();
+        }
+        return body.length + 2 * headerChars + 2L * (url != null ? url.length() : 0) + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /**
+     * @param now The current epoch millis
+     * @return true if the response can be served without contacting the server
+     */
+    public boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    /**
+     * @param now The current epoch millis
+     * @return true if the response is stale but may still be served while it is revalidated
+     */
+    public boolean isStaleServable(long now) {
+        return now >= freshUntil && now < staleUntil;
+    }
+
+    /**
+     * Gets a response header, ignoring the case of its name.
+     *
+     * @param name The header name
+     * @return The header value, or null if absent
+     */
+    public String header(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the response carries an {@code ETag} or {@code Last-Modified} validator
+     */
+    public boolean hasValidators() {
+        return header("ETag") != null || header("Last-Modified") != null;
+    }
+
+    /**
+     * Copies this entry after a {@code 304 Not Modified}: the headers of the revalidation response
+     * replace the stored ones and the freshness restarts.
+     *
+     * @param updatedHeaders The headers of the 304 response
+     * @param now            When the entry was revalidated
+     * @param newFreshUntil  The new freshness end
+     * @param newStaleUntil  The new end of the stale window
+     * @return The refreshed entry
+     */
+    public CachedResponse revalidated(Map<String, String> updatedHeaders, long now, long newFreshUntil,
+                                      long newStaleUntil) {
+        Map<String, String> merged = new HashMap<>(headers);
+        updatedHeaders.forEach((name, value) -> {
+            // A 304 describes the stored body: it must not change its length or encoding
+            if (!name.equalsIgnoreCase("Content-Length") && !name.equalsIgnoreCase("Content-Encoding")) {
+                merged.keySet().removeIf(existing -> existing.equalsIgnoreCase(name));
+                merged.put(name, value);
+            }
+        });
+        return new CachedResponse(statusCode, merged, body, charset, contentType, url, now, newFreshUntil,
+                newStaleUntil);
+    }
+
+    /**
+     * Rebuilds a response from this entry in the form requested.
+     *
+     * @param mode            The response mode of the request ({@code STRING} decodes the body)
+     * @param executionTimeMs Time taken to serve the response
+     * @return The response
+     */
+    public RestServiceResponse toResponse(RestResponseMode mode, long executionTimeMs) {
+        ResponseBody content = mode == RestResponseMode.STRING
+                ? ResponseBody.ofText(new String(body, charset))
+                : ResponseBody.ofBytes(body, charset);
+        return RestServiceResponse.success(statusCode, headers, content, contentType, executionTimeMs, url);
+    }
+}
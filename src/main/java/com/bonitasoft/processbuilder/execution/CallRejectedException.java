@@ -0,0 +1,34 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Signals that a call was refused locally: never sent, by an open circuit breaker, a full bulkhead or
+ * an exhausted rate limit, or its response refused because the body exceeded {@code maxResponseBytes}.
+ * <p>
+ * Completes the future of the refused call so that the layers above it can tell it apart from a
+ * call that failed downstream: retries stop, and the call is not recorded as an outcome of the
+ * target. Mapped by {@link HttpExecutor} to an error response with status -1.
+ * </p>
+ */
+final class CallRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    CallRejectedException(String message) {
+        // Expected outcome under load: no stack trace
+        super(message, null, false, false);
+    }
+
+    /**
+     * @param error The error of a completed future, possibly wrapped in a {@link CompletionException}
+     * @return true if the call was refused locally
+     */
+    static boolean isCause(Throwable error) {
+        Throwable current = error;
+        while (current instanceof CompletionException && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current instanceof CallRejectedException;
+    }
+}
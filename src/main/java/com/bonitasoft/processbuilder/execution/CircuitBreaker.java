@@ -0,0 +1,238 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestCircuitBreakerOptions;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker over a count-based window of the most recent calls to one target.
+ * <p>
+ * {@code CLOSED}: calls go through and their outcome is recorded; once the window holds
+ * {@code minimumCalls} outcomes and the failure or slow-call rate reaches its threshold, the
+ * breaker opens. {@code OPEN}: calls are rejected until {@code openMs} has elapsed.
+ * {@code HALF_OPEN}: up to {@code halfOpenCalls} trial calls go through; the breaker closes with
+ * an empty window once they all succeed in time, and opens again as soon as one fails or is slow.
+ * </p>
+ * <p>
+ * Thread-safe. Every call admitted by {@link #tryAcquire()} must report its outcome with
+ * {@link #onResult(long, boolean)}, or {@link #onNotSent()} if it was refused further down.
+ * </p>
+ */
+public final class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * Breaker states.
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final RestCircuitBreakerOptions options;
+    private final LongSupplier clock;
+
+    // Ring buffer of the last windowSize outcomes
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slows;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsAdmitted;
+    private int trialsSucceeded;
+
+    private long successfulTotal;
+    private long failedTotal;
+    private long slowTotal;
+    private long rejectedTotal;
+    private long timesOpened;
+
+    CircuitBreaker(String name, RestCircuitBreakerOptions options, LongSupplier clock) {
+        this.name = name;
+        this.options = options;
+        this.clock = clock;
+        this.failedCalls = new boolean[options.windowSize()];
+        this.slowCalls = new boolean[options.windowSize()];
+    }
+
+    /**
+     * Checks whether a response counts as a failure of the target: no response at all
+     * (connection error, timeout) or a 5xx status.
+     *
+     * @param response The response of the call
+     * @return true if the call failed
+     */
+    static boolean isFailure(RestServiceResponse response) {
+        return response.statusCode() <= 0 || response.isServerError();
+    }
+
+    /**
+     * Asks to send a call.
+     *
+     * @return true if the call may be sent, false if it must fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < options.openMs()) {
+                rejectedTotal++;
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+            trialsAdmitted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsAdmitted >= options.halfOpenCalls()) {
+                rejectedTotal++;
+                return false;
+            }
+            trialsAdmitted++;
+        }
+        return true;
+    }
+
+    /**
+     * Records the outcome of a call admitted by {@link #tryAcquire()}.
+     *
+     * @param durationMs How long the call took
+     * @param failed     Whether the call failed (see {@link #isFailure})
+     */
+    public synchronized void onResult(long durationMs, boolean failed) {
+        boolean slow = durationMs >= options.slowCallMs();
+        if (failed) {
+            failedTotal++;
+        } else {
+            successfulTotal++;
+        }
+        if (slow) {
+            slowTotal++;
+        }
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed || slow) {
+                    open();
+                } else if (++trialsSucceeded >= options.halfOpenCalls()) {
+                    resetWindow();
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                record(failed, slow);
+                if (recorded >= options.minimumCalls()
+                        && (failureRate() >= options.failureRateThreshold()
+                        || slowCallRate() >= options.slowCallRateThreshold())) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // Late outcome of a call admitted before the breaker opened
+            }
+        }
+    }
+
+    /**
+     * Gives back the admission of a call that was refused further down and never sent
+     * (e.g. shed by a bulkhead): no outcome is recorded, and a half-open trial is freed.
+     */
+    public synchronized void onNotSent() {
+        if (state == State.HALF_OPEN && trialsAdmitted > 0) {
+            trialsAdmitted--;
+        }
+    }
+
+    /**
+     * @return The current state (an expired open period shows as {@code OPEN} until the next call)
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return The name of the breaker (target host or configured name)
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return A point-in-time snapshot of the breaker
+     */
+    public synchronized Snapshot snapshot() {
+        long retryAt = state == State.OPEN ? openedAt + options.openMs() : 0;
+        return new Snapshot(name, state, failureRate(), slowCallRate(), recorded, successfulTotal, failedTotal,
+                slowTotal, rejectedTotal, timesOpened, retryAt);
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recorded == failedCalls.length) {
+            // Window full: drop the oldest outcome
+            failures -= failedCalls[next] ? 1 : 0;
+            slows -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[next] = failed;
+        slowCalls[next] = slow;
+        failures += failed ? 1 : 0;
+        slows += slow ? 1 : 0;
+        next = (next + 1) % failedCalls.length;
+    }
+
+    private void open() {
+        openedAt = clock.getAsLong();
+        timesOpened++;
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slows = 0;
+    }
+
+    private void transitionTo(State target) {
+        if (state != target) {
+            if (target == State.OPEN) {
+                LOGGER.warn("Circuit breaker '{}' is OPEN for {} ms: calls fail fast", name, options.openMs());
+            } else {
+                LOGGER.info("Circuit breaker '{}' changed from {} to {}", name, state, target);
+            }
+            state = target;
+        }
+    }
+
+    private double failureRate() {
+        return recorded == 0 ? 0 : 100.0 * failures / recorded;
+    }
+
+    private double slowCallRate() {
+        return recorded == 0 ? 0 : 100.0 * slows / recorded;
+    }
+
+    /**
+     * Snapshot of a circuit breaker.
+     *
+     * @param name          The breaker name (target host or configured name)
+     * @param state         The current state
+     * @param failureRate   Percentage of failed calls in the current window
+     * @param slowCallRate  Percentage of slow calls in the current window
+     * @param bufferedCalls Number of outcomes in the current window
+     * @param successfulCalls Total successful calls
+     * @param failedCalls   Total failed calls
+     * @param slowCalls     Total slow calls
+     * @param rejectedCalls Total calls rejected without being sent
+     * @param timesOpened   Number of times the breaker opened
+     * @param retryAt       When an open breaker lets trial calls through (epoch millis), 0 otherwise
+     */
+    public record Snapshot(String name, State state, double failureRate, double slowCallRate, int bufferedCalls,
+                           long successfulCalls, long failedCalls, long slowCalls, long rejectedCalls,
+                           long timesOpened, long retryAt) {}
+}
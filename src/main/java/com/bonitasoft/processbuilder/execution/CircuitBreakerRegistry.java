@@ -0,0 +1,100 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestCircuitBreakerOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * The circuit breakers of {@link HttpExecutor}, one per target host or configured breaker name.
+ * <p>
+ * A breaker is created with the options of the first call that uses it; later calls share its
+ * state and thresholds. Breakers are not tenant-scoped: they track the health of the target.
+ * </p>
+ */
+public final class CircuitBreakerRegistry {
+
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    /**
+     * Creates an empty registry.
+     */
+    public CircuitBreakerRegistry() {
+        this(System::currentTimeMillis);
+    }
+
+    CircuitBreakerRegistry(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sends a call through the breaker of its target, or fails fast while that breaker is open.
+     *
+     * @param request The REST service request (its breaker options must be enabled)
+     * @param send    Sends the call; its future only fails with a {@link CallRejectedException}
+     * @return A future completed with the response, or completed exceptionally with a
+     *         {@link CallRejectedException} when the call was rejected
+     */
+    CompletableFuture<RestServiceResponse> execute(RestServiceRequest request,
+            Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> send) {
+        RestCircuitBreakerOptions options = request.circuitBreakerOptions();
+        String name = nameOf(request);
+        CircuitBreaker breaker = breakers.computeIfAbsent(name, key -> new CircuitBreaker(key, options, clock));
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new CallRejectedException("Circuit breaker '" + name + "' is open: call not sent"));
+        }
+        long start = clock.getAsLong();
+        CompletableFuture<RestServiceResponse> sent = send.apply(request);
+        return InFlightCall.linked(sent, sent.whenComplete((response, error) -> {
+            if (CallRejectedException.isCause(error) || error instanceof CancellationException) {
+                // Refused further down (e.g. shed by a bulkhead) or cancelled: not an outcome of the target
+                breaker.onNotSent();
+            } else {
+                breaker.onResult(clock.getAsLong() - start, error != null || CircuitBreaker.isFailure(response));
+            }
+        }));
+    }
+
+    /**
+     * @param name The breaker name (target host as {@code scheme://host:port}, or configured name)
+     * @return The breaker, or null if no call used it yet
+     */
+    public CircuitBreaker breaker(String name) {
+        return breakers.get(name);
+    }
+
+    /**
+     * @return A point-in-time snapshot of every breaker, sorted by name
+     */
+    public List<CircuitBreaker.Snapshot> snapshot() {
+        return breakers.values().stream()
+                .map(CircuitBreaker::snapshot)
+                .sorted(Comparator.comparing(CircuitBreaker.Snapshot::name))
+                .toList();
+    }
+
+    /**
+     * Removes every breaker: the next calls start with closed breakers.
+     */
+    public void reset() {
+        breakers.clear();
+    }
+
+    /**
+     * @param request The REST service request
+     * @return The configured breaker name, or the target host as {@code scheme://host:port}
+     */
+    static String nameOf(RestServiceRequest request) {
+        String configured = request.circuitBreakerOptions().name();
+        return configured != null ? configured : RequestFingerprint.origin(request.url());
+    }
+}
@@ -0,0 +1,112 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.extension.template.RestApiTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in warm-up of the endpoints of PBConfigurations, so the first real call after a node restart,
+ * an idle period or a configuration change does not pay DNS, TCP, TLS and authentication costs.
+ * <p>
+ * Each configuration is compiled into the {@link ConnectorPlanCache} and its base URL is warmed up by
+ * {@link HttpExecutor#warmUp}: host resolution, a connection opened through the pooled client the
+ * configuration uses (HTTP/2 where the server supports it) and the OAuth2 token or Bonita session
+ * pre-fetched into the credential caches. Warm-up runs in the background: the returned futures
+ * never complete exceptionally and callers at startup need not wait for them. The latest readiness
+ * of every endpoint is kept and can be queried at any time.
+ * </p>
+ */
+public final class ConnectionWarmer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionWarmer.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpExecutor httpExecutor;
+    private final ConnectorPlanCache planCache;
+    private final Map<String, EndpointReadiness> readiness = new ConcurrentHashMap<>();
+
+    public ConnectionWarmer(HttpExecutor httpExecutor) {
+        this(httpExecutor, ConnectorPlanCache.shared());
+    }
+
+    public ConnectionWarmer(HttpExecutor httpExecutor, ConnectorPlanCache planCache) {
+        this.httpExecutor = httpExecutor;
+        this.planCache = planCache;
+    }
+
+    /**
+     * Warms up the endpoints of PBConfiguration JSONs. Identical configurations are warmed up once.
+     *
+     * @param configJsons The PBConfiguration.configValue JSONs
+     * @return A future completed with the readiness of each distinct configuration, in input order
+     */
+    public CompletableFuture<List<EndpointReadiness>> warmUp(Collection<String> configJsons) {
+        List<CompletableFuture<EndpointReadiness>> results = new ArrayList<>();
+        int index = 0;
+        for (String configJson : new LinkedHashSet<>(configJsons)) {
+            results.add(warmUpConfig(configJson, index++));
+        }
+        LOGGER.info("Warming up {} configuration endpoints", results.size());
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Warms up the endpoints of catalog templates.
+     *
+     * @param templates The REST API templates (e.g. from {@code RestApiCatalog})
+     * @return A future completed with the readiness of each distinct template, in input order
+     */
+    public CompletableFuture<List<EndpointReadiness>> warmUpTemplates(Collection<RestApiTemplate> templates) {
+        return warmUp(templates.stream().map(template -> template.toJsonString(MAPPER)).toList());
+    }
+
+    /**
+     * @param endpoint The endpoint (base URL of a configuration)
+     * @return The latest readiness of the endpoint, or empty if it was never warmed up
+     */
+    public Optional<EndpointReadiness> readiness(String endpoint) {
+        return Optional.ofNullable(readiness.get(endpoint));
+    }
+
+    /**
+     * @return A snapshot of the latest readiness of every warmed-up endpoint, by endpoint
+     */
+    public Map<String, EndpointReadiness> readiness() {
+        return Map.copyOf(readiness);
+    }
+
+    private CompletableFuture<EndpointReadiness> warmUpConfig(String configJson, int index) {
+        ConnectorPlan plan;
+        try {
+            plan = planCache.get(configJson);
+        } catch (Exception e) {
+            LOGGER.warn("Warm-up skipped for configuration #{}: {}", index, e.getMessage());
+            return CompletableFuture.completedFuture(
+                    EndpointReadiness.skipped("config[" + index + "]", "Invalid configuration: " + e.getMessage()));
+        }
+        String endpoint = plan.endpoint();
+        return plan.warmUpRequest()
+                .map(request -> {
+                    readiness.put(endpoint, EndpointReadiness.pending(endpoint));
+                    return httpExecutor.warmUp(request).thenApply(result -> record(endpoint, result));
+                })
+                .orElseGet(() -> CompletableFuture.completedFuture(record(endpoint,
+                        EndpointReadiness.skipped(endpoint, "Endpoint URL depends on request parameters"))));
+    }
+
+    private EndpointReadiness record(String endpoint, EndpointReadiness result) {
+        readiness.put(endpoint, result);
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a batch of connector calls with bounded concurrency, without dedicating a thread per call.
+ * <p>
+ * At most {@code maxParallelism} "lanes" are active. Each lane starts the next pending item and,
+ * when that item's future completes, moves on to the following one. Results are stored by input
+ * position so the output order always matches the input order.
+ * </p>
+ * <p>
+ * When the batch is cut short (fail-fast or deadline), the items still running are cancelled, and a
+ * response arriving afterwards is released: its body (temp file, open stream) is never handed out.
+ * </p>
+ */
+final class ConnectorBatchExecution {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorBatchExecution.class);
+
+    private final int size;
+    private final IntFunction<CompletableFuture<ConnectorResponse>> itemExecutor;
+    private final ConnectorBatchOptions options;
+    private final long startTime = System.currentTimeMillis();
+
+    private final AtomicReferenceArray<ConnectorResponse> results;
+    private final AtomicReferenceArray<CompletableFuture<ConnectorResponse>> running;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger completedCount = new AtomicInteger();
+    private final AtomicBoolean aborted = new AtomicBoolean();
+    private final AtomicBoolean deadlineExceeded = new AtomicBoolean();
+    private final CompletableFuture<ConnectorBatchResult> done = new CompletableFuture<>();
+
+    ConnectorBatchExecution(int size, IntFunction<CompletableFuture<ConnectorResponse>> itemExecutor,
+                            ConnectorBatchOptions options) {
+        this.size = size;
+        this.itemExecutor = itemExecutor;
+        this.options = options;
+        this.results = new AtomicReferenceArray<>(size);
+        this.running = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Starts the batch.
+     *
+     * @return A future completed once every item has a result (or the batch was cut short)
+     */
+    CompletableFuture<ConnectorBatchResult> start() {
+        if (size == 0) {
+            done.complete(new ConnectorBatchResult(List.of(), false, false, 0));
+            return done;
+        }
+        if (options.deadline() != null) {
+            // Cancelled with the batch, which also unschedules its timer
+            CompletableFuture<Void> deadline = new CompletableFuture<>();
+            deadline.completeOnTimeout(null, options.deadline().toMillis(), TimeUnit.MILLISECONDS)
+                    .thenRun(this::onDeadline);
+            done.whenComplete((result, error) -> deadline.cancel(false));
+        }
+        int lanes = Math.min(options.maxParallelism(), size);
+        for (int i = 0; i < lanes && !done.isDone(); i++) {
+            runLane();
+        }
+        return done;
+    }
+
+    private void runLane() {
+        while (!done.isDone()) {
+            int index = nextIndex.getAndIncrement();
+            if (index >= size) {
+                return;
+            }
+            CompletableFuture<ConnectorResponse> future = executeItem(index);
+            if (future.isDone()) {
+                // Completed synchronously (e.g. preparation error): continue in the loop
+                // instead of recursing through whenComplete
+                record(index, future.join());
+                continue;
+            }
+            running.set(index, future);
+            future.whenComplete((response, error) -> {
+                running.set(index, null);
+                record(index, response != null ? response : itemError(error));
+                runLane();
+            });
+            if (done.isDone()) {
+                // Cut short while the item was being started
+                future.cancel(true);
+            }
+            return;
+        }
+    }
+
+    private CompletableFuture<ConnectorResponse> executeItem(int index) {
+        try {
+            CompletableFuture<ConnectorResponse> item = itemExecutor.apply(index);
+            return InFlightCall.linked(item, item.exceptionally(ConnectorBatchExecution::itemError));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(itemError(e));
+        }
+    }
+
+    private void record(int index, ConnectorResponse response) {
+        if (!results.compareAndSet(index, null, response)) {
+            // Slot already filled by abort / deadline: nobody will read this response
+            response.release();
+            return;
+        }
+        if (options.failFast() && !response.success() && aborted.compareAndSet(false, true)) {
+            LOGGER.info("Batch aborted (fail-fast) after failure of item {}: {}", index, response.errorMessage());
+            finish("Aborted: batch stopped after failure of item " + index);
+            return;
+        }
+        if (completedCount.incrementAndGet() == size) {
+            finish(null);
+        }
+    }
+
+    private void onDeadline() {
+        if (!done.isDone() && deadlineExceeded.compareAndSet(false, true)) {
+            LOGGER.warn("Batch deadline of {} exceeded, {} of {} items completed",
+                    options.deadline(), completedCount.get(), size);
+            finish("Deadline exceeded: batch did not complete within " + options.deadline().toMillis() + "ms");
+        }
+    }
+
+    private void finish(String pendingMessage) {
+        long elapsed = System.currentTimeMillis() - startTime;
+        List<ConnectorResponse> responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ConnectorResponse response = results.get(i);
+            if (response == null) {
+                ConnectorResponse pending = ConnectorResponse.error(pendingMessage, elapsed, null);
+                response = results.compareAndSet(i, null, pending) ? pending : results.get(i);
+            }
+            responses.add(response);
+        }
+        done.complete(new ConnectorBatchResult(responses, aborted.get(), deadlineExceeded.get(), elapsed));
+        for (int i = 0; i < size; i++) {
+            CompletableFuture<ConnectorResponse> future = running.get(i);
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static ConnectorResponse itemError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause != null ? cause.getMessage() : "Unknown error";
+        return ConnectorResponse.error(message, 0, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.time.Duration;
+
+/**
+ * Options for {@link ConnectorExecutionEngine#executeAll(java.util.List, ConnectorBatchOptions)}.
+ *
+ * @param maxParallelism Maximum number of calls in flight at the same time (must be positive)
+ * @param failFast       When true, the batch stops at the first failed item: items not yet
+ *                       completed are reported as aborted
+ * @param deadline       Optional overall deadline for the whole batch (null = no deadline).
+ *                       Items not completed when it expires are reported as timed out
+ */
+public record ConnectorBatchOptions(int maxParallelism, boolean failFast, Duration deadline) {
+
+    /** Default maximum number of concurrent calls. */
+    public static final int DEFAULT_MAX_PARALLELISM = 8;
+
+    public ConnectorBatchOptions {
+        if (maxParallelism <= 0) {
+            throw new IllegalArgumentException("maxParallelism must be positive: " + maxParallelism);
+        }
+        if (deadline != null && (deadline.isNegative() || deadline.isZero())) {
+            throw new IllegalArgumentException("deadline must be positive: " + deadline);
+        }
+    }
+
+    /**
+     * @return Collect-all options with {@link #DEFAULT_MAX_PARALLELISM} and no deadline
+     */
+    public static ConnectorBatchOptions defaults() {
+        return new ConnectorBatchOptions(DEFAULT_MAX_PARALLELISM, false, null);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxParallelism = DEFAULT_MAX_PARALLELISM;
+        private boolean failFast = false;
+        private Duration deadline = null;
+
+        private Builder() {}
+
+        public Builder maxParallelism(int maxParallelism) { this.maxParallelism = maxParallelism; return this; }
+        public Builder failFast(boolean failFast) { this.failFast = failFast; return this; }
+        public Builder deadline(Duration deadline) { this.deadline = deadline; return this; }
+
+        public ConnectorBatchOptions build() {
+            return new ConnectorBatchOptions(maxParallelism, failFast, deadline);
+        }
+    }
+}
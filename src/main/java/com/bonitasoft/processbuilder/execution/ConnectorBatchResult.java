@@ -0,0 +1,55 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Aggregated result of a batch of connector calls.
+ *
+ * @param responses        One response per request, in the same order as the input list
+ * @param aborted          Whether the batch was stopped early by fail-fast
+ * @param deadlineExceeded Whether the overall deadline expired before every item completed
+ * @param executionTimeMs  Wall-clock time of the whole batch in milliseconds
+ */
+public record ConnectorBatchResult(
+        List<ConnectorResponse> responses,
+        boolean aborted,
+        boolean deadlineExceeded,
+        long executionTimeMs
+) {
+
+    public ConnectorBatchResult {
+        responses = List.copyOf(responses);
+    }
+
+    /**
+     * @return The number of successful items
+     */
+    public long successCount() {
+        return responses.stream().filter(ConnectorResponse::success).count();
+    }
+
+    /**
+     * @return The number of failed, aborted or timed-out items
+     */
+    public long failureCount() {
+        return responses.size() - successCount();
+    }
+
+    /**
+     * @return true if every item succeeded
+     */
+    public boolean allSuccessful() {
+        return !aborted && !deadlineExceeded && failureCount() == 0;
+    }
+
+    /**
+     * @return The input positions of the items that did not succeed
+     */
+    public List<Integer> failedIndexes() {
+        return IntStream.range(0, responses.size())
+                .filter(i -> !responses.get(i).success())
+                .boxed()
+                .toList();
+    }
+}
@@ -1,19 +1,18 @@
 package com.bonitasoft.processbuilder.execution;
 
 import com.bonitasoft.processbuilder.enums.RestHttpMethod;
-import com.bonitasoft.processbuilder.records.RestAuthConfig;
+import com.bonitasoft.processbuilder.records.ResponseBody;
 import com.bonitasoft.processbuilder.records.RestServiceRequest;
 import com.bonitasoft.processbuilder.records.RestServiceResponse;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Base64;
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Facade for executing REST connectors.
@@ -25,28 +24,40 @@ import java.util.Map;
  *   <li><b>Custom Bonita Connector</b> (RestExecutionConnector in RestAPIConnector process)</li>
  * </ul>
  * <p>
- * The engine parses the PBConfiguration JSON, resolves the method template,
- * substitutes parameters, normalizes + decrypts authentication, and executes
- * the HTTP call via {@link HttpExecutor}.
+ * The engine compiles the PBConfiguration JSON into a {@link ConnectorPlan} (cached by content
+ * hash in a {@link ConnectorPlanCache}), resolves the method, substitutes parameters and
+ * executes the HTTP call via {@link HttpExecutor}.
  * </p>
  */
 public final class ConnectorExecutionEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorExecutionEngine.class);
-    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private final HttpExecutor httpExecutor;
+    private final ConnectorPlanCache planCache;
 
     public ConnectorExecutionEngine() {
-        this.httpExecutor = new HttpExecutor();
+        this(new HttpExecutor());
     }
 
     public ConnectorExecutionEngine(HttpExecutor httpExecutor) {
+        this(httpExecutor, ConnectorPlanCache.shared());
+    }
+
+    public ConnectorExecutionEngine(HttpExecutor httpExecutor, ConnectorPlanCache planCache) {
         this.httpExecutor = httpExecutor;
+        this.planCache = planCache;
     }
 
     /**
-     * Executes a REST connector request.
+     * @return The cache of compiled connector plans used by this engine
+     */
+    public ConnectorPlanCache planCache() {
+        return planCache;
+    }
+
+    /**
+     * Executes a REST connector request, blocking until the HTTP call completes.
      *
      * @param request The connector request containing configJson, methodName, params, etc.
      * @return The connector response with success/error, statusCode, responseBody, etc.
@@ -55,62 +66,10 @@ public final class ConnectorExecutionEngine {
         long startTime = System.currentTimeMillis();
 
         try {
-            LOGGER.info("ConnectorExecutionEngine: executing actionType={}, methodName={}",
-                    request.actionType(), request.methodName());
-
-            // 1. Parse the PBConfiguration JSON
-            JsonNode configJson = MAPPER.readTree(request.configJson());
-
-            // 2. Detect structure type and build RestServiceRequest
-            boolean isNewStructure = configJson.has("baseUrl") && configJson.has("methods");
-            boolean isLegacyStructure = configJson.has("url");
-
-            RestServiceRequest.Builder builder;
-
-            if (isNewStructure) {
-                builder = buildFromNewStructure(configJson, request);
-            } else if (isLegacyStructure) {
-                builder = buildFromLegacyStructure(configJson, request);
-            } else {
-                return ConnectorResponse.error(
-                        "Invalid configuration: missing 'baseUrl'+'methods' or 'url'",
-                        elapsed(startTime), null);
-            }
-
-            // 3. Apply runtime overrides from ConnectorRequest
-            applyOverrides(builder, request);
-
-            // 4. Handle multipart file upload if fileContentBase64 is provided
-            if (!request.fileContentBase64().isEmpty()) {
-                handleFileUpload(builder, request);
-            }
-
-            RestServiceRequest restRequest = builder.build();
-
-            // 4. Execute HTTP call
+            RestServiceRequest restRequest = prepare(request);
+            FieldMapping mapping = FieldMapping.of(request.fieldMappingJson());
             RestServiceResponse restResponse = httpExecutor.execute(restRequest);
-
-            // 5. Map to ConnectorResponse
-            long executionTime = elapsed(startTime);
-
-            if (restResponse.isSuccessful()) {
-                return ConnectorResponse.success(
-                        restResponse.statusCode(),
-                        restResponse.body(),
-                        restResponse.headers(),
-                        executionTime,
-                        restResponse.url());
-            } else {
-                String errorMsg = restResponse.errorMessage() != null
-                        ? restResponse.errorMessage()
-                        : "HTTP " + restResponse.statusCode();
-                return ConnectorResponse.error(
-                        restResponse.statusCode(),
-                        restResponse.body(),
-                        errorMsg,
-                        executionTime,
-                        restResponse.url());
-            }
+            return toConnectorResponse(restResponse, startTime, mapping);
 
         } catch (Exception e) {
             LOGGER.error("ConnectorExecutionEngine failed: {}", e.getMessage(), e);
@@ -118,163 +77,194 @@ public final class ConnectorExecutionEngine {
         }
     }
 
-    // ========================================================================
-    // NEW structure: baseUrl + methods[]
-    // ========================================================================
-
-    private RestServiceRequest.Builder buildFromNewStructure(JsonNode configJson, ConnectorRequest request)
-            throws Exception {
-
-        String baseUrl = configJson.get("baseUrl").asText();
-
-        // Substitute {{param}} in baseUrl
-        Map<String, String> allParams = new HashMap<>(request.params());
-        baseUrl = TemplateSubstitution.substitute(baseUrl, allParams);
-
-        // Find method by methodName
-        JsonNode methodsArray = configJson.get("methods");
-        if (methodsArray == null || !methodsArray.isArray()) {
-            throw new IllegalArgumentException("Missing or invalid 'methods' array in configuration");
-        }
-
-        String methodName = request.methodName();
-        if (methodName.isEmpty()) {
-            throw new IllegalArgumentException("methodName is required. Available: " + getMethodNames(methodsArray));
-        }
-
-        JsonNode methodConfig = null;
-        for (JsonNode method : methodsArray) {
-            if (method.has("name") && methodName.equals(method.get("name").asText())) {
-                methodConfig = method;
-                break;
-            }
-        }
-
-        if (methodConfig == null) {
-            throw new IllegalArgumentException(
-                    "Method '" + methodName + "' not found. Available: " + getMethodNames(methodsArray));
-        }
-
-        // Apply placeholderConfig resolution (FIXED / DEFAULT / DYNAMIC / DOC_NAME / DOC_MIMETYPE)
-        Map<String, String> resolvedParams = resolvePlaceholderConfig(methodConfig, allParams, request);
-
-        // Extract HTTP method and path
-        String httpMethod = methodConfig.has("httpMethod") ? methodConfig.get("httpMethod").asText() : "GET";
-        String path = methodConfig.has("path") ? methodConfig.get("path").asText() : "";
+    /**
+     * Executes a REST connector request without holding the calling thread during the HTTP round trip.
+     * <p>
+     * Request preparation (plan lookup, placeholder substitution) runs on the calling thread;
+     * the HTTP call and the auth round trips it needs run on {@link HttpExecutor#executeAsync}.
+     * The returned future never completes exceptionally: failures are mapped to an error response.
+     * </p>
+     *
+     * @param request The connector request containing configJson, methodName, params, etc.
+     * @return A future completed with the connector response
+     */
+    public CompletableFuture<ConnectorResponse> executeAsync(ConnectorRequest request) {
+        long startTime = System.currentTimeMillis();
 
-        // Apply path override (used by the frontend to test an unsaved method edit).
-        // Placeholder substitution below still applies, so override paths may contain {{...}}.
-        if (!request.pathOverride().isEmpty()) {
-            path = request.pathOverride();
+        RestServiceRequest restRequest;
+        FieldMapping mapping;
+        try {
+            restRequest = prepare(request);
+            mapping = FieldMapping.of(request.fieldMappingJson());
+        } catch (Exception e) {
+            LOGGER.error("ConnectorExecutionEngine failed: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(ConnectorResponse.error(e.getMessage(), elapsed(startTime), null));
         }
+        return send(restRequest, startTime, mapping);
+    }
 
-        // Substitute {{param}} in path
-        path = TemplateSubstitution.substitute(path, resolvedParams);
-
-        // Build final URL
-        String finalUrl = TemplateSubstitution.buildFinalUrl(baseUrl, path);
-        LOGGER.debug("Built final URL: {}", finalUrl);
-
-        RestServiceRequest.Builder builder = RestServiceRequest.builder(finalUrl);
-
-        // Set HTTP method
-        RestHttpMethod.fromKey(httpMethod).ifPresent(builder::method);
+    /**
+     * Executes a list of connector requests with the default batch options
+     * (collect-all, {@link ConnectorBatchOptions#DEFAULT_MAX_PARALLELISM}, no deadline).
+     *
+     * @param requests The requests to execute
+     * @return The aggregated result, in input order
+     */
+    public ConnectorBatchResult executeAll(List<ConnectorRequest> requests) {
+        return executeAll(requests, ConnectorBatchOptions.defaults());
+    }
 
-        // Apply base configuration (auth, headers, timeout, SSL)
-        applyBaseConfig(builder, configJson, resolvedParams);
+    /**
+     * Executes a list of connector requests, blocking until the batch completes.
+     *
+     * @param requests The requests to execute
+     * @param options  Parallelism, fail-fast and deadline options
+     * @return The aggregated result, in input order
+     */
+    public ConnectorBatchResult executeAll(List<ConnectorRequest> requests, ConnectorBatchOptions options) {
+        return executeAllAsync(requests, options).join();
+    }
 
-        // Apply query parameters with REPLACE semantics.
-        // When request.queryParams() is non-empty, it fully replaces the method's queryParams
-        // (rather than being merged). Placeholder substitution applies in both cases.
-        if (!request.queryParams().isEmpty()) {
-            request.queryParams().forEach((key, value) ->
-                    builder.queryParam(key, TemplateSubstitution.substitute(value, resolvedParams)));
-        } else if (methodConfig.has("queryParams") && methodConfig.get("queryParams").isObject()) {
-            methodConfig.get("queryParams").fields().forEachRemaining(entry -> {
-                String value = TemplateSubstitution.substitute(entry.getValue().asText(), resolvedParams);
-                builder.queryParam(entry.getKey(), value);
-            });
-        }
+    /**
+     * Scatter-gather execution of a list of connector requests.
+     * <p>
+     * Each distinct configuration is resolved to its {@link ConnectorPlan} once for the whole batch.
+     * At most {@code options.maxParallelism()} calls are in flight at a time, and no thread is held
+     * while they run. Every item gets its own success or error response, in input order.
+     * </p>
+     *
+     * @param requests The requests to execute
+     * @param options  Parallelism, fail-fast and deadline options
+     * @return A future completed with the aggregated result
+     */
+    public CompletableFuture<ConnectorBatchResult> executeAllAsync(List<ConnectorRequest> requests,
+                                                                   ConnectorBatchOptions options) {
+        List<ConnectorRequest> items = List.copyOf(requests);
+        ConnectorBatchOptions batchOptions = options != null ? options : ConnectorBatchOptions.defaults();
+        Map<String, ConnectorPlan> plans = new ConcurrentHashMap<>();
+
+        LOGGER.info("ConnectorExecutionEngine: executing batch of {} requests (maxParallelism={}, failFast={})",
+                items.size(), batchOptions.maxParallelism(), batchOptions.failFast());
+
+        return new ConnectorBatchExecution(items.size(), index -> {
+            long startTime = System.currentTimeMillis();
+            ConnectorRequest request = items.get(index);
+            RestServiceRequest restRequest;
+            FieldMapping mapping;
+            try {
+                ConnectorPlan plan = plans.get(request.configJson());
+                if (plan == null) {
+                    plan = planCache.get(request.configJson());
+                    plans.putIfAbsent(request.configJson(), plan);
+                }
+                restRequest = prepare(request, plan);
+                mapping = FieldMapping.of(request.fieldMappingJson());
+            } catch (Exception e) {
+                LOGGER.error("ConnectorExecutionEngine batch item {} failed: {}", index, e.getMessage(), e);
+                return CompletableFuture.completedFuture(
+                        ConnectorResponse.error(e.getMessage(), elapsed(startTime), null));
+            }
+            return send(restRequest, startTime, mapping);
+        }, batchOptions).start();
+    }
 
-        // Apply headers with REPLACE semantics.
-        // When request.headers() is non-empty, it fully replaces the method's headers
-        // (rather than being merged). Placeholder substitution applies in both cases.
-        if (!request.headers().isEmpty()) {
-            request.headers().forEach((key, value) ->
-                    builder.header(key, TemplateSubstitution.substitute(value, resolvedParams)));
-        } else if (methodConfig.has("headers") && methodConfig.get("headers").isObject()) {
-            methodConfig.get("headers").fields().forEachRemaining(entry -> {
-                String value = TemplateSubstitution.substitute(entry.getValue().asText(), resolvedParams);
-                builder.header(entry.getKey(), value);
-            });
-        }
+    /**
+     * Lists the items of a paginated method: the pages are requested as the items are consumed.
+     * <p>
+     * The method's {@link com.bonitasoft.processbuilder.records.RestPagination} (its {@code pagination*}
+     * keys) tells where the items are in a page and how the next page is requested. Each page is a
+     * regular call through {@link HttpExecutor#executeAsync}; the next page is requested as soon as the
+     * current one is received. Without pagination, the listing holds the items of the single response.
+     * Failures do not throw: the listing ends and {@link ConnectorPages#failure()} holds the error.
+     * </p>
+     *
+     * @param request The connector request of the first page
+     * @return The listing, to iterate or {@link ConnectorPages#stream() stream}, and to close when
+     *         abandoned before its end
+     */
+    public ConnectorPages paginate(ConnectorRequest request) {
+        long startTime = System.currentTimeMillis();
 
-        // Apply body template
-        if (methodConfig.has("bodyTemplate") && !methodConfig.get("bodyTemplate").asText().isEmpty()) {
-            String body = TemplateSubstitution.substitute(methodConfig.get("bodyTemplate").asText(), resolvedParams);
-            builder.body(body);
+        try {
+            ConnectorPlan plan = planCache.get(request.configJson());
+            RestServiceRequest first = prepare(request, plan);
+            return ConnectorPages.start(first, plan.pagination(request.methodName()),
+                    page -> send(page, System.currentTimeMillis(), null));
+        } catch (Exception e) {
+            LOGGER.error("ConnectorExecutionEngine failed: {}", e.getMessage(), e);
+            return ConnectorPages.failed(ConnectorResponse.error(e.getMessage(), elapsed(startTime), null));
         }
-
-        return builder;
     }
 
-    // ========================================================================
-    // LEGACY structure: url
-    // ========================================================================
+    private CompletableFuture<ConnectorResponse> send(RestServiceRequest restRequest, long startTime,
+                                                      FieldMapping mapping) {
+        CompletableFuture<RestServiceResponse> exchange = httpExecutor.executeAsync(restRequest);
+        CompletableFuture<ConnectorResponse> result = exchange
+                .thenApply(restResponse -> toConnectorResponse(restResponse, startTime, mapping))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    LOGGER.error("ConnectorExecutionEngine failed: {}", cause.getMessage(), cause);
+                    return ConnectorResponse.error(cause.getMessage(), elapsed(startTime), restRequest.url());
+                });
+        // Cancelled (e.g. by a batch cut short): abort the call, or free a response that arrived meanwhile
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled() && !exchange.cancel(true)) {
+                exchange.thenAccept(RestServiceResponse::release);
+            }
+        });
+        return result;
+    }
 
-    private RestServiceRequest.Builder buildFromLegacyStructure(JsonNode configJson, ConnectorRequest request) {
-        String url = configJson.get("url").asText();
+    /**
+     * Resolves the compiled plan and builds the HTTP request for a connector request.
+     */
+    private RestServiceRequest prepare(ConnectorRequest request) throws Exception {
+        // Get the compiled plan for this PBConfiguration (parsed once, then cached)
+        return prepare(request, planCache.get(request.configJson()));
+    }
 
-        RestServiceRequest.Builder builder = RestServiceRequest.builder(url);
+    /**
+     * Builds the HTTP request for a connector request from an already resolved plan.
+     */
+    private RestServiceRequest prepare(ConnectorRequest request, ConnectorPlan plan) {
+        LOGGER.info("ConnectorExecutionEngine: executing actionType={}, methodName={}",
+                request.actionType(), request.methodName());
 
-        // Apply method
-        if (configJson.has("method")) {
-            RestHttpMethod.fromKey(configJson.get("method").asText()).ifPresent(builder::method);
-        }
+        // 1. Build the RestServiceRequest from the plan (method lookup, placeholders, templates)
+        RestServiceRequest.Builder builder = plan.newRequestBuilder(request);
 
-        // Apply headers
-        if (configJson.has("headers") && configJson.get("headers").isObject()) {
-            Map<String, String> headers = new HashMap<>();
-            configJson.get("headers").fields().forEachRemaining(entry ->
-                    headers.put(entry.getKey(), entry.getValue().asText()));
-            builder.headers(headers);
-        }
+        // 2. Apply runtime overrides from ConnectorRequest
+        applyOverrides(builder, request);
 
-        // Apply query params from config
-        if (configJson.has("queryParams") && configJson.get("queryParams").isObject()) {
-            Map<String, String> qp = new HashMap<>();
-            configJson.get("queryParams").fields().forEachRemaining(entry ->
-                    qp.put(entry.getKey(), entry.getValue().asText()));
-            builder.queryParams(qp);
+        // 3. Handle multipart file upload if a file source or fileContentBase64 is provided
+        if (request.hasFileUpload()) {
+            handleFileUpload(builder, request);
         }
 
-        // Apply timeout
-        if (configJson.has("timeoutMs")) {
-            builder.timeout(configJson.get("timeoutMs").asInt());
-        }
+        return builder.build();
+    }
 
-        // Apply SSL
-        if (configJson.has("verifySsl")) {
-            builder.verifySsl(configJson.get("verifySsl").asBoolean(true));
+    /**
+     * Maps the HTTP-level response to the connector response, extracting the {@code fieldMapping}
+     * values of a successful response.
+     */
+    private ConnectorResponse toConnectorResponse(RestServiceResponse restResponse, long startTime,
+                                                  FieldMapping mapping) {
+        ConnectorResponse response = ConnectorResponse.from(restResponse, elapsed(startTime));
+        if (mapping == null || !response.success() || response.content() == null) {
+            return response;
         }
-
-        // Apply redirects
-        if (configJson.has("followRedirects")) {
-            builder.followRedirects(configJson.get("followRedirects").asBoolean(true));
+        if (response.content() instanceof ResponseBody.Stream) {
+            // Reading it would consume the live stream handed to the caller
+            LOGGER.debug("fieldMapping not applied to a streamed response body");
+            return response;
         }
-
-        // Apply auth with normalize + decrypt pipeline (FIX for legacy bug)
-        if (configJson.has("auth") && configJson.get("auth").isObject()) {
-            RestAuthConfig authConfig = AuthPipeline.resolve(configJson.get("auth"));
-            builder.auth(authConfig);
+        try {
+            return response.withMappedData(mapping.apply(response.content()).toString());
+        } catch (IOException e) {
+            LOGGER.warn("fieldMapping not applied: the response body is not valid JSON: {}", e.getMessage());
+            return response;
         }
-
-        // Legacy: merge request overrides on top of config values (preserved behavior,
-        // no placeholder substitution in legacy).
-        request.headers().forEach(builder::header);
-        request.queryParams().forEach(builder::queryParam);
-
-        return builder;
     }
 
     // ========================================================================
@@ -282,114 +272,28 @@ public final class ConnectorExecutionEngine {
     // ========================================================================
 
     /**
-     * Resolves templateParams based on the method's placeholderConfig.
-     * <ul>
-     *   <li><b>FIXED</b>  — admin value wins, PM input is ignored</li>
-     *   <li><b>DEFAULT</b> — PM value wins if provided, otherwise admin default is used</li>
-     *   <li><b>DYNAMIC</b> — PM must provide the value (no change, current behaviour)</li>
-     * </ul>
-     */
-    private Map<String, String> resolvePlaceholderConfig(JsonNode methodConfig, Map<String, String> templateParams,
-                                                         ConnectorRequest request) {
-        Map<String, String> resolved = new HashMap<>(templateParams);
-
-        if (!methodConfig.has("placeholderConfig") || !methodConfig.get("placeholderConfig").isObject()) {
-            return resolved;
-        }
-
-        JsonNode placeholderConfig = methodConfig.get("placeholderConfig");
-        placeholderConfig.fields().forEachRemaining(entry -> {
-            String name = entry.getKey();
-            JsonNode cfg = entry.getValue();
-            String mode = cfg.has("mode") ? cfg.get("mode").asText() : "DYNAMIC";
-            String adminValue = cfg.has("value") ? cfg.get("value").asText() : null;
-
-            switch (mode) {
-                case "FIXED":
-                    if (adminValue != null) {
-                        resolved.put(name, adminValue);
-                    } else {
-                        LOGGER.warn("placeholderConfig: FIXED placeholder '{}' has no value — treating as DYNAMIC", name);
-                    }
-                    break;
-                case "DEFAULT":
-                    if (adminValue != null) {
-                        if (!resolved.containsKey(name) || resolved.get(name) == null || resolved.get(name).isBlank()) {
-                            resolved.put(name, adminValue);
-                        }
-                    } else {
-                        LOGGER.warn("placeholderConfig: DEFAULT placeholder '{}' has no value — treating as DYNAMIC", name);
-                    }
-                    break;
-                case "DOC_NAME":
-                    if (!request.fileName().isEmpty()) {
-                        resolved.put(name, request.fileName());
-                    } else {
-                        LOGGER.warn("placeholderConfig: DOC_NAME placeholder '{}' but no fileName provided", name);
-                    }
-                    break;
-                case "DOC_MIMETYPE":
-                    if (!request.fileContentType().isEmpty()) {
-                        resolved.put(name, request.fileContentType());
-                    } else {
-                        LOGGER.warn("placeholderConfig: DOC_MIMETYPE placeholder '{}' but no fileContentType provided", name);
-                    }
-                    break;
-                case "DYNAMIC":
-                default:
-                    break;
-            }
-        });
-
-        return resolved;
-    }
-
-    private void applyBaseConfig(RestServiceRequest.Builder builder, JsonNode configJson, Map<String, String> params) {
-        if (configJson.has("timeoutMs")) {
-            builder.timeout(configJson.get("timeoutMs").asInt());
-        }
-        if (configJson.has("verifySsl")) {
-            builder.verifySsl(configJson.get("verifySsl").asBoolean(true));
-        }
-        if (configJson.has("followRedirects")) {
-            builder.followRedirects(configJson.get("followRedirects").asBoolean(true));
-        }
-
-        // Apply base headers with template substitution
-        if (configJson.has("headers") && configJson.get("headers").isObject()) {
-            configJson.get("headers").fields().forEachRemaining(entry -> {
-                String value = TemplateSubstitution.substitute(entry.getValue().asText(), params);
-                builder.header(entry.getKey(), value);
-            });
-        }
-
-        // Apply auth with full pipeline (normalize + decrypt)
-        if (configJson.has("auth") && configJson.get("auth").isObject()) {
-            RestAuthConfig authConfig = AuthPipeline.resolve(configJson.get("auth"));
-            builder.auth(authConfig);
-        }
-    }
-
-    /**
-     * Builds a multipart/related body from the current text body (metadata JSON)
-     * and the Base64-encoded file content from the connector request.
+     * Builds a streaming multipart/related body from the current text body (metadata JSON) and the
+     * file: an {@link UploadSource} is read while the request is sent, and {@code fileContentBase64}
+     * is decoded chunk by chunk into the body, so the file bytes are never held in memory.
      */
     private void handleFileUpload(RestServiceRequest.Builder builder, ConnectorRequest request) {
-        String fileContentType = request.fileContentType().isEmpty()
-                ? "application/octet-stream"
-                : request.fileContentType();
-
-        byte[] fileContent = Base64.getDecoder().decode(request.fileContentBase64());
         String metadataJson = builder.peekBody() != null ? builder.peekBody() : "{}";
+        UploadSource file = request.fileUpload() != null
+                ? request.fileUpload()
+                : UploadSource.ofBase64(request.fileContentBase64());
 
-        MultipartRelatedBuilder.MultipartBody multipart =
-                MultipartRelatedBuilder.build(metadataJson, fileContent, fileContentType);
+        MultipartRelatedBuilder.StreamingMultipartBody multipart =
+                MultipartRelatedBuilder.stream(metadataJson, file, fileContentType(request));
 
-        builder.rawBody(multipart.content());
+        builder.bodyPublisher(multipart.publisher(), file.repeatable());
         builder.contentTypeOverride(multipart.contentType());
 
-        LOGGER.info("Multipart/related body built: {} bytes (file: {} bytes, type: {})",
-                multipart.content().length, fileContent.length, fileContentType);
+        LOGGER.info("Streaming multipart/related body prepared: {} bytes (file: {} bytes, type: {})",
+                multipart.publisher().contentLength(), file.length(), fileContentType(request));
+    }
+
+    private static String fileContentType(ConnectorRequest request) {
+        return request.fileContentType().isEmpty() ? "application/octet-stream" : request.fileContentType();
     }
 
     private void applyOverrides(RestServiceRequest.Builder builder, ConnectorRequest request) {
@@ -413,19 +317,8 @@ public final class ConnectorExecutionEngine {
             builder.verifySsl(request.verifySsl());
         }
 
-        // NOTE: headers and queryParams overrides are applied inline by
-        // buildFromNewStructure (with placeholder substitution and REPLACE semantics) and
-        // buildFromLegacyStructure (merge on top of config-level values).
-    }
-
-    private String getMethodNames(JsonNode methodsArray) {
-        List<String> names = new ArrayList<>();
-        for (JsonNode method : methodsArray) {
-            if (method.has("name")) {
-                names.add(method.get("name").asText());
-            }
-        }
-        return String.join(", ", names);
+        // NOTE: headers, queryParams and path overrides are applied by ConnectorPlan
+        // (NEW: placeholder substitution and REPLACE semantics, LEGACY: merge on top of config values).
     }
 
     private long elapsed(long startTime) {
@@ -0,0 +1,354 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestPaginationType;
+import com.bonitasoft.processbuilder.extension.JsonNodeUtils;
+import com.bonitasoft.processbuilder.records.RestPagination;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The items of a paginated listing, fetched page by page while they are consumed.
+ * <p>
+ * The first page is requested when the listing is created. As soon as a page is received the next
+ * one is requested, so that it downloads while the items of the current page are consumed; at most
+ * one page is fetched ahead. Listing stops after the last page, at the first failed page (see
+ * {@link #failure()}), or at the {@code maxItems} and {@code maxPages} caps of the
+ * {@link RestPagination} (see {@link #capped()}).
+ * </p>
+ * <p>
+ * Not thread-safe: a listing is consumed by one thread. {@link #close()}, or closing the
+ * {@link #stream()}, discards the page fetched ahead.
+ * </p>
+ */
+public final class ConnectorPages implements Iterator<JsonNode>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorPages.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // One "<url>; param; param" entry of a Link header, and the rel parameter of its params
+    private static final Pattern LINK = Pattern.compile("<([^>]*)>([^<]*)");
+    private static final Pattern REL = Pattern.compile("rel\\s*=\\s*\"?([^\";,]*)", Pattern.CASE_INSENSITIVE);
+
+    private final RestPagination pagination;
+    private final Function<RestServiceRequest, CompletableFuture<ConnectorResponse>> fetch;
+
+    private Iterator<JsonNode> items = Collections.emptyIterator();
+    private RestServiceRequest aheadRequest;
+    private CompletableFuture<ConnectorResponse> ahead;
+    // A further page exists but was not requested because of a cap
+    private boolean morePages;
+    private long offset;
+    // Last cursor or link followed, to stop on an API that keeps returning the same one
+    private String lastPosition;
+
+    private int pagesRequested;
+    private int pagesReceived;
+    private long itemsReturned;
+    private ConnectorResponse failure;
+    private boolean capped;
+    private boolean closed;
+
+    private ConnectorPages(RestPagination pagination,
+                           Function<RestServiceRequest, CompletableFuture<ConnectorResponse>> fetch) {
+        this.pagination = pagination;
+        this.fetch = fetch;
+    }
+
+    /**
+     * Starts a listing by requesting its first page.
+     *
+     * @param first      The request of the first page
+     * @param pagination How items are read and further pages requested
+     * @param fetch      Fetches one page; its future never completes exceptionally
+     * @return The listing
+     */
+    static ConnectorPages start(RestServiceRequest first, RestPagination pagination,
+                                Function<RestServiceRequest, CompletableFuture<ConnectorResponse>> fetch) {
+        ConnectorPages pages = new ConnectorPages(pagination, fetch);
+        RestServiceRequest request = first;
+        if (pagination.type() == RestPaginationType.OFFSET) {
+            pages.offset = parseOffset(first.queryParams().get(pagination.offsetParam()));
+            if (pagination.pageSize() > 0) {
+                request = first.toBuilder()
+                        .queryParam(pagination.limitParam(), String.valueOf(pagination.pageSize()))
+                        .build();
+            }
+        }
+        pages.request(request);
+        return pages;
+    }
+
+    /**
+     * Creates an empty listing whose first page could not be requested.
+     *
+     * @param failure The error response
+     * @return The listing
+     */
+    static ConnectorPages failed(ConnectorResponse failure) {
+        ConnectorPages pages = new ConnectorPages(RestPagination.none(), null);
+        pages.failure = failure;
+        return pages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!closed) {
+            if (itemsReturned >= pagination.maxItems()) {
+                capped = capped || items.hasNext() || ahead != null || morePages;
+                return false;
+            }
+            if (items.hasNext()) {
+                return true;
+            }
+            if (ahead == null) {
+                capped = capped || morePages;
+                return false;
+            }
+            receive(ahead.join());
+        }
+        return false;
+    }
+
+    @Override
+    public JsonNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        itemsReturned++;
+        return items.next();
+    }
+
+    /**
+     * @return The remaining items as a sequential stream; closing it closes the listing
+     */
+    public Stream<JsonNode> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    /**
+     * @return The number of pages received
+     */
+    public int pageCount() {
+        return pagesReceived;
+    }
+
+    /**
+     * @return The number of items returned so far
+     */
+    public long itemCount() {
+        return itemsReturned;
+    }
+
+    /**
+     * @return The response of the page that failed (error status, connection error or a body that is
+     *         not JSON), or null if every page was received
+     */
+    public ConnectorResponse failure() {
+        return failure;
+    }
+
+    /**
+     * @return true if listing stopped at the {@code maxItems} or {@code maxPages} cap while the API
+     *         had more items
+     */
+    public boolean capped() {
+        return capped;
+    }
+
+    /**
+     * Stops the listing and discards the page fetched ahead.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        items = Collections.emptyIterator();
+        if (ahead != null) {
+            ahead.thenAccept(ConnectorResponse::release);
+            ahead = null;
+        }
+    }
+
+    private void request(RestServiceRequest request) {
+        pagesRequested++;
+        LOGGER.debug("Requesting page {}: {} {}", pagesRequested, request.method(), request.url());
+        aheadRequest = request;
+        ahead = fetch.apply(request);
+    }
+
+    private void receive(ConnectorResponse page) {
+        RestServiceRequest current = aheadRequest;
+        ahead = null;
+        pagesReceived++;
+        if (!page.success()) {
+            LOGGER.warn("Listing stopped: page {} failed: {}", pagesReceived, page.errorMessage());
+            failure = page;
+            return;
+        }
+        JsonNode body;
+        try {
+            String text = page.responseBody();
+            body = text != null && !text.isBlank() ? MAPPER.readTree(text) : MAPPER.missingNode();
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Listing stopped: page {} is not valid JSON: {}", pagesReceived, e.getOriginalMessage());
+            failure = ConnectorResponse.error(page.statusCode(), null,
+                    "Page " + pagesReceived + " is not valid JSON: " + e.getOriginalMessage(),
+                    page.executionTimeMs(), page.requestUrl());
+            return;
+        } finally {
+            page.release();
+        }
+
+        List<JsonNode> pageItems = itemsOf(body);
+        RestServiceRequest next = nextRequest(current, page, body, pageItems.size());
+        if (next != null) {
+            if (pagesRequested >= pagination.maxPages()
+                    || itemsReturned + pageItems.size() >= pagination.maxItems()) {
+                morePages = true;
+            } else {
+                // Fetch the next page while the items of this one are consumed
+                request(next);
+            }
+        }
+        items = pageItems.iterator();
+    }
+
+    private List<JsonNode> itemsOf(JsonNode body) {
+        JsonNode node = pagination.itemsPath() != null ? at(body, pagination.itemsPath()) : body;
+        if (node == null || node.isMissingNode() || node.isNull()) {
+            return List.of();
+        }
+        if (!node.isArray()) {
+            return List.of(node);
+        }
+        List<JsonNode> list = new ArrayList<>(node.size());
+        node.forEach(list::add);
+        return list;
+    }
+
+    private RestServiceRequest nextRequest(RestServiceRequest current, ConnectorResponse page, JsonNode body,
+                                           int itemCount) {
+        return switch (pagination.type()) {
+            case CURSOR -> {
+                String cursor = text(at(body, pagination.cursorPath()));
+                yield advance(cursor)
+                        ? current.toBuilder().queryParam(pagination.cursorParam(), cursor).build()
+                        : null;
+            }
+            case OFFSET -> {
+                if (itemCount == 0 || (pagination.pageSize() > 0 && itemCount < pagination.pageSize())) {
+                    yield null;
+                }
+                offset += itemCount;
+                yield current.toBuilder().queryParam(pagination.offsetParam(), String.valueOf(offset)).build();
+            }
+            case LINK_HEADER -> follow(current, nextLink(header(page.responseHeaders(), "Link")));
+            case NEXT_LINK -> follow(current, text(at(body, pagination.nextLinkPath())));
+            default -> null;
+        };
+    }
+
+    private RestServiceRequest follow(RestServiceRequest current, String link) {
+        if (link == null) {
+            return null;
+        }
+        String url;
+        try {
+            // Relative links (e.g. Salesforce nextRecordsUrl) are resolved against the page URL
+            url = URI.create(current.url()).resolve(link).toString();
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Listing stopped: invalid next page link '{}': {}", link, e.getMessage());
+            return null;
+        }
+        return advance(url) ? current.withUrl(url) : null;
+    }
+
+    private boolean advance(String position) {
+        if (position == null || position.equals(lastPosition)) {
+            return false;
+        }
+        lastPosition = position;
+        return true;
+    }
+
+    /**
+     * @param value A {@code Link} header value
+     * @return The URL of its {@code rel="next"} entry, or null if there is none
+     */
+    static String nextLink(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher link = LINK.matcher(value);
+        while (link.find()) {
+            Matcher rel = REL.matcher(link.group(2));
+            if (rel.find()) {
+                for (String relation : rel.group(1).trim().split("\\s+")) {
+                    if ("next".equalsIgnoreCase(relation)) {
+                        return link.group(1).trim();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a value by path; a field whose name contains dots (e.g. {@code @odata.nextLink}) is
+     * matched as a whole before the path is split.
+     */
+    private static JsonNode at(JsonNode root, String path) {
+        if (root == null || !root.isObject()) {
+            return null;
+        }
+        JsonNode whole = root.get(path);
+        if (whole != null) {
+            return whole.isNull() ? null : whole;
+        }
+        return JsonNodeUtils.getValueByPath(root, path);
+    }
+
+    private static String text(JsonNode node) {
+        if (node == null || !node.isValueNode()) {
+            return null;
+        }
+        String text = node.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String header(Map<String, String> headers, String name) {
+        return headers.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(name))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static long parseOffset(String value) {
+        try {
+            return value != null ? Math.max(0, Long.parseLong(value.trim())) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.execution.TemplateSubstitution.CompiledTemplate;
+import com.bonitasoft.processbuilder.records.RestAuthConfig;
+import com.bonitasoft.processbuilder.records.RestBulkheadOptions;
+import com.bonitasoft.processbuilder.records.RestConnectionOptions;
+import com.bonitasoft.processbuilder.records.RestCacheOptions;
+import com.bonitasoft.processbuilder.records.RestCircuitBreakerOptions;
+import com.bonitasoft.processbuilder.records.RestHedgePolicy;
+import com.bonitasoft.processbuilder.records.RestPagination;
+import com.bonitasoft.processbuilder.records.RestRateLimit;
+import com.bonitasoft.processbuilder.records.RestRequestCompression;
+import com.bonitasoft.processbuilder.records.RestRetryPolicy;
+import com.bonitasoft.processbuilder.records.RestResponseOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, pre-compiled form of a PBConfiguration JSON.
+ * <p>
+ * Compiling a plan parses the configuration once: the structure (NEW {@code baseUrl + methods[]}
+ * or LEGACY {@code url}) is detected, methods are indexed by name, {@code {{param}}} templates
+ * are pre-parsed, {@code placeholderConfig} rules are extracted and the authentication is
+ * normalized + decrypted through {@link AuthPipeline}. A plan is then turned into a
+ * {@link RestServiceRequest.Builder} for each {@link ConnectorRequest} without touching the JSON again.
+ * </p>
+ * <p>
+ * Plans are shared between threads through {@link ConnectorPlanCache}.
+ * </p>
+ */
+public final class ConnectorPlan {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorPlan.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Configuration layout detected at compile time.
+     */
+    public enum Structure {
+        /** {@code baseUrl} + {@code methods[]} */
+        NEW,
+        /** Single {@code url} */
+        LEGACY
+    }
+
+    /**
+     * Placeholder resolution mode declared in a method's {@code placeholderConfig}.
+     */
+    public enum PlaceholderMode {
+        /** Admin value wins, PM input is ignored */
+        FIXED,
+        /** PM value wins if provided, otherwise admin default is used */
+        DEFAULT,
+        /** PM must provide the value */
+        DYNAMIC,
+        /** Resolved from the uploaded file name */
+        DOC_NAME,
+        /** Resolved from the uploaded file MIME type */
+        DOC_MIMETYPE;
+
+        static PlaceholderMode fromKey(String key) {
+            for (PlaceholderMode mode : values()) {
+                if (mode.name().equals(key)) {
+                    return mode;
+                }
+            }
+            return DYNAMIC;
+        }
+    }
+
+    /**
+     * A single compiled {@code placeholderConfig} entry.
+     *
+     * @param name       The placeholder name
+     * @param mode       The resolution mode
+     * @param adminValue The admin-provided value (null when absent)
+     */
+    public record PlaceholderRule(String name, PlaceholderMode mode, String adminValue) {}
+
+    /**
+     * A compiled entry of the {@code methods[]} array.
+     *
+     * @param name         The method name
+     * @param httpMethod   The HTTP method (null if the configured value is unknown)
+     * @param path         The raw path template
+     * @param queryParams  Pre-parsed query parameter templates
+     * @param headers      Pre-parsed header templates
+     * @param bodyTemplate Pre-parsed body template (null when absent or empty)
+     * @param placeholders Compiled placeholderConfig rules
+     * @param responseOptions How the response body is received ({@code responseMode}, {@code spillThresholdBytes})
+     * @param requestCompression Whether the body is sent gzip compressed ({@code compressRequest})
+     * @param cacheOptions Whether and how long GET responses are cached ({@code cacheResponses}, {@code cacheTtlMs})
+     * @param retryPolicy When and how failed calls are retried ({@code maxRetries}, {@code waitTimeSeconds})
+     * @param circuitBreakerOptions The circuit breaker guarding the calls ({@code circuitBreaker*})
+     * @param rateLimit The client-side rate limit of the calls ({@code rateLimitPerSecond}, {@code rateLimit*})
+     * @param bulkheadOptions The bulkhead capping the calls in flight ({@code bulkhead*})
+     * @param hedgePolicy When slow GET calls are sent a second time ({@code hedge}, {@code hedgeDelayMs})
+     * @param pagination How the items of a paginated listing are read ({@code pagination}, {@code pagination*})
+     */
+    public record MethodPlan(
+            String name,
+            RestHttpMethod httpMethod,
+            CompiledTemplate path,
+            Map<String, CompiledTemplate> queryParams,
+            Map<String, CompiledTemplate> headers,
+            CompiledTemplate bodyTemplate,
+            List<PlaceholderRule> placeholders,
+            RestResponseOptions responseOptions,
+            RestRequestCompression requestCompression,
+            RestCacheOptions cacheOptions,
+            RestRetryPolicy retryPolicy,
+            RestCircuitBreakerOptions circuitBreakerOptions,
+            RestRateLimit rateLimit,
+            RestBulkheadOptions bulkheadOptions,
+            RestHedgePolicy hedgePolicy,
+            RestPagination pagination
+    ) {
+        public MethodPlan {
+            queryParams = Collections.unmodifiableMap(new LinkedHashMap<>(queryParams));
+            headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+            placeholders = List.copyOf(placeholders);
+        }
+    }
+
+    /**
+     * The per-call options declared at the top level of a configuration: the options of a LEGACY
+     * plan, and the defaults inherited by every method of a NEW plan. Read once per plan.
+     */
+    private record MethodDefaults(
+            RestResponseOptions responseOptions,
+            RestRequestCompression requestCompression,
+            RestCacheOptions cacheOptions,
+            RestRetryPolicy retryPolicy,
+            RestCircuitBreakerOptions circuitBreakerOptions,
+            RestRateLimit rateLimit,
+            RestBulkheadOptions bulkheadOptions,
+            RestHedgePolicy hedgePolicy,
+            RestPagination pagination
+    ) {
+        static MethodDefaults fromJson(JsonNode configJson) {
+            return new MethodDefaults(
+                    RestResponseOptions.fromJson(configJson),
+                    RestRequestCompression.fromJson(configJson),
+                    RestCacheOptions.fromJson(configJson),
+                    RestRetryPolicy.fromJson(configJson),
+                    RestCircuitBreakerOptions.fromJson(configJson),
+                    RestRateLimit.fromJson(configJson),
+                    RestBulkheadOptions.fromJson(configJson),
+                    RestHedgePolicy.fromJson(configJson),
+                    RestPagination.fromJson(configJson));
+        }
+    }
+
+    private final Structure structure;
+    private final Integer timeoutMs;
+    private final Boolean verifySsl;
+    private final Boolean followRedirects;
+    private final RestAuthConfig auth;
+    private final RestConnectionOptions connectionOptions;
+    private final MethodDefaults defaults;
+
+    // NEW structure
+    private final CompiledTemplate baseUrl;
+    private final Map<String, CompiledTemplate> baseHeaders;
+    private final Map<String, MethodPlan> methods;
+
+    // LEGACY structure
+    private final String legacyUrl;
+    private final RestHttpMethod legacyMethod;
+    private final Map<String, String> legacyHeaders;
+    private final Map<String, String> legacyQueryParams;
+
+    private ConnectorPlan(JsonNode configJson, Structure structure) {
+        this.structure = structure;
+        this.timeoutMs = configJson.has("timeoutMs") ? configJson.get("timeoutMs").asInt() : null;
+        this.verifySsl = configJson.has("verifySsl") ? configJson.get("verifySsl").asBoolean(true) : null;
+        this.followRedirects = configJson.has("followRedirects")
+                ? configJson.get("followRedirects").asBoolean(true) : null;
+        this.auth = configJson.has("auth") && configJson.get("auth").isObject()
+                ? AuthPipeline.resolve(configJson.get("auth")) : null;
+        this.connectionOptions = RestConnectionOptions.fromJson(configJson);
+        // Top-level options are the default of every method
+        this.defaults = MethodDefaults.fromJson(configJson);
+
+        if (structure == Structure.NEW) {
+            this.baseUrl = TemplateSubstitution.compile(configJson.get("baseUrl").asText());
+            this.baseHeaders = compileTemplates(configJson.get("headers"));
+            this.methods = compileMethods(configJson.get("methods"), defaults);
+            this.legacyUrl = null;
+            this.legacyMethod = null;
+            this.legacyHeaders = Collections.emptyMap();
+            this.legacyQueryParams = Collections.emptyMap();
+        } else {
+            this.baseUrl = null;
+            this.baseHeaders = Collections.emptyMap();
+            this.methods = Collections.emptyMap();
+            this.legacyUrl = configJson.get("url").asText();
+            this.legacyMethod = configJson.has("method")
+                    ? RestHttpMethod.fromKey(configJson.get("method").asText()).orElse(null) : null;
+            this.legacyHeaders = readTextMap(configJson.get("headers"));
+            this.legacyQueryParams = readTextMap(configJson.get("queryParams"));
+        }
+    }
+
+    /**
+     * Parses and compiles a PBConfiguration JSON string.
+     *
+     * @param configJson The full PBConfiguration.configValue JSON
+     * @return The compiled plan
+     * @throws JsonProcessingException  if the JSON is malformed
+     * @throws IllegalArgumentException if the JSON matches neither the NEW nor the LEGACY structure
+     */
+    public static ConnectorPlan compile(String configJson) throws JsonProcessingException {
+        return compile(MAPPER.readTree(configJson));
+    }
+
+    /**
+     * Compiles an already parsed PBConfiguration JSON.
+     *
+     * @param configJson The parsed configuration
+     * @return The compiled plan
+     * @throws IllegalArgumentException if the JSON matches neither the NEW nor the LEGACY structure
+     */
+    public static ConnectorPlan compile(JsonNode configJson) {
+        if (configJson == null) {
+            throw new IllegalArgumentException("Invalid configuration: missing 'baseUrl'+'methods' or 'url'");
+        }
+        if (configJson.has("baseUrl") && configJson.has("methods")) {
+            JsonNode methodsArray = configJson.get("methods");
+            if (methodsArray == null || !methodsArray.isArray()) {
+                throw new IllegalArgumentException("Missing or invalid 'methods' array in configuration");
+            }
+            return new ConnectorPlan(configJson, Structure.NEW);
+        }
+        if (configJson.has("url")) {
+            return new ConnectorPlan(configJson, Structure.LEGACY);
+        }
+        throw new IllegalArgumentException("Invalid configuration: missing 'baseUrl'+'methods' or 'url'");
+    }
+
+    // ========================================================================
+    // Accessors
+    // ========================================================================
+
+    public Structure structure() {
+        return structure;
+    }
+
+    /**
+     * @return The configured base URL template (NEW) or url (LEGACY)
+     */
+    public String endpoint() {
+        return structure == Structure.NEW ? baseUrl.source() : legacyUrl;
+    }
+
+    /**
+     * @return The resolved (normalized + decrypted) auth, or null if the config declares none
+     */
+    public RestAuthConfig auth() {
+        return auth;
+    }
+
+    /**
+     * @param name The method name
+     * @return The compiled method, or empty if unknown (always empty for LEGACY plans)
+     */
+    public Optional<MethodPlan> method(String name) {
+        return Optional.ofNullable(methods.get(name));
+    }
+
+    /**
+     * @return The configured method names, in declaration order
+     */
+    public List<String> methodNames() {
+        return List.copyOf(methods.keySet());
+    }
+
+    /**
+     * @param methodName The method name (ignored for LEGACY plans)
+     * @return How the items of the method's responses are read and further pages requested
+     *         (the configuration-level pagination for LEGACY plans and unknown methods)
+     */
+    public RestPagination pagination(String methodName) {
+        MethodPlan methodPlan = methods.get(methodName);
+        return methodPlan != null ? methodPlan.pagination() : defaults.pagination();
+    }
+
+    // ========================================================================
+    // Request building
+    // ========================================================================
+
+    /**
+     * Builds a request builder for the given connector request.
+     * Runtime overrides other than path, headers and query params are applied by the caller.
+     *
+     * @param request The connector request
+     * @return A builder with URL, method, base config, query params, headers and body applied
+     * @throws IllegalArgumentException if the method name is missing or unknown
+     */
+    public RestServiceRequest.Builder newRequestBuilder(ConnectorRequest request) {
+        return structure == Structure.NEW
+                ? buildFromNewStructure(request)
+                : buildFromLegacyStructure(request);
+    }
+
+    /**
+     * Builds the request used to warm up the configured endpoint: a {@code HEAD} on the base URL
+     * (or the LEGACY url) carrying the configured timeout, SSL, redirect, connection settings and auth.
+     *
+     * @return The warm-up request, or empty when the URL depends on request parameters
+     */
+    public Optional<RestServiceRequest> warmUpRequest() {
+        if (structure == Structure.NEW && baseUrl.hasPlaceholders()) {
+            return Optional.empty();
+        }
+        String url = endpoint();
+        if (url == null || url.isBlank() || url.contains("{{")) {
+            return Optional.empty();
+        }
+        RestServiceRequest.Builder builder = RestServiceRequest.builder(url).method(RestHttpMethod.HEAD);
+        applyCommonConfig(builder);
+        if (auth != null) {
+            builder.auth(auth);
+        }
+        return Optional.of(builder.build());
+    }
+
+    private RestServiceRequest.Builder buildFromNewStructure(ConnectorRequest request) {
+        String methodName = request.methodName();
+        if (methodName.isEmpty()) {
+            throw new IllegalArgumentException("methodName is required. Available: " + availableMethods());
+        }
+        MethodPlan methodPlan = methods.get(methodName);
+        if (methodPlan == null) {
+            throw new IllegalArgumentException(
+                    "Method '" + methodName + "' not found. Available: " + availableMethods());
+        }
+
+        // Substitute {{param}} in baseUrl
+        String resolvedBaseUrl = baseUrl.render(request.params());
+
+        // Apply placeholderConfig resolution (FIXED / DEFAULT / DYNAMIC / DOC_NAME / DOC_MIMETYPE)
+        Map<String, String> resolvedParams = resolvePlaceholders(methodPlan, request);
+
+        // Apply path override (used by the frontend to test an unsaved method edit).
+        // Placeholder substitution still applies, so override paths may contain {{...}}.
+        String path = !request.pathOverride().isEmpty()
+                ? TemplateSubstitution.substitute(request.pathOverride(), resolvedParams)
+                : methodPlan.path().render(resolvedParams);
+
+        String finalUrl = TemplateSubstitution.buildFinalUrl(resolvedBaseUrl, path);
+        LOGGER.debug("Built final URL: {}", finalUrl);
+
+        RestServiceRequest.Builder builder = RestServiceRequest.builder(finalUrl);
+        if (methodPlan.httpMethod() != null) {
+            builder.method(methodPlan.httpMethod());
+        }
+
+        // Apply base configuration (timeout, SSL, redirects, headers, auth)
+        applyCommonConfig(builder);
+        baseHeaders.forEach((key, value) -> builder.header(key, value.render(resolvedParams)));
+        if (auth != null) {
+            builder.auth(auth);
+        }
+
+        // Apply query parameters with REPLACE semantics.
+        // When request.queryParams() is non-empty, it fully replaces the method's queryParams
+        // (rather than being merged). Placeholder substitution applies in both cases.
+        if (!request.queryParams().isEmpty()) {
+            request.queryParams().forEach((key, value) ->
+                    builder.queryParam(key, TemplateSubstitution.substitute(value, resolvedParams)));
+        } else {
+            methodPlan.queryParams().forEach((key, value) -> builder.queryParam(key, value.render(resolvedParams)));
+        }
+
+        // Apply headers with REPLACE semantics (same rules as query parameters)
+        if (!request.headers().isEmpty()) {
+            request.headers().forEach((key, value) ->
+                    builder.header(key, TemplateSubstitution.substitute(value, resolvedParams)));
+        } else {
+            methodPlan.headers().forEach((key, value) -> builder.header(key, value.render(resolvedParams)));
+        }
+
+        if (methodPlan.bodyTemplate() != null) {
+            builder.body(methodPlan.bodyTemplate().render(resolvedParams));
+        }
+        builder.responseOptions(methodPlan.responseOptions());
+        builder.requestCompression(methodPlan.requestCompression());
+        builder.cacheOptions(methodPlan.cacheOptions());
+        builder.retryPolicy(methodPlan.retryPolicy());
+        builder.circuitBreakerOptions(methodPlan.circuitBreakerOptions());
+        builder.rateLimit(methodPlan.rateLimit());
+        builder.bulkheadOptions(methodPlan.bulkheadOptions());
+        builder.hedgePolicy(methodPlan.hedgePolicy());
+
+        return builder;
+    }
+
+    private RestServiceRequest.Builder buildFromLegacyStructure(ConnectorRequest request) {
+        RestServiceRequest.Builder builder = RestServiceRequest.builder(legacyUrl);
+
+        if (legacyMethod != null) {
+            builder.method(legacyMethod);
+        }
+        builder.headers(legacyHeaders);
+        builder.queryParams(legacyQueryParams);
+        builder.responseOptions(defaults.responseOptions());
+        builder.requestCompression(defaults.requestCompression());
+        builder.cacheOptions(defaults.cacheOptions());
+        builder.retryPolicy(defaults.retryPolicy());
+        builder.circuitBreakerOptions(defaults.circuitBreakerOptions());
+        builder.rateLimit(defaults.rateLimit());
+        builder.bulkheadOptions(defaults.bulkheadOptions());
+        builder.hedgePolicy(defaults.hedgePolicy());
+        applyCommonConfig(builder);
+        if (auth != null) {
+            builder.auth(auth);
+        }
+
+        // Legacy: merge request overrides on top of config values (preserved behavior,
+        // no placeholder substitution in legacy).
+        request.headers().forEach(builder::header);
+        request.queryParams().forEach(builder::queryParam);
+
+        return builder;
+    }
+
+    private void applyCommonConfig(RestServiceRequest.Builder builder) {
+        if (timeoutMs != null) {
+            builder.timeout(timeoutMs);
+        }
+        if (verifySsl != null) {
+            builder.verifySsl(verifySsl);
+        }
+        if (followRedirects != null) {
+            builder.followRedirects(followRedirects);
+        }
+        builder.connectionOptions(connectionOptions);
+    }
+
+    /**
+     * Resolves templateParams based on the method's compiled placeholderConfig.
+     */
+    private Map<String, String> resolvePlaceholders(MethodPlan methodPlan, ConnectorRequest request) {
+        Map<String, String> resolved = new HashMap<>(request.params());
+
+        for (PlaceholderRule rule : methodPlan.placeholders()) {
+            String name = rule.name();
+            switch (rule.mode()) {
+                case FIXED -> resolved.put(name, rule.adminValue());
+                case DEFAULT -> {
+                    String current = resolved.get(name);
+                    if (current == null || current.isBlank()) {
+                        resolved.put(name, rule.adminValue());
+                    }
+                }
+                case DOC_NAME -> {
+                    if (!request.fileName().isEmpty()) {
+                        resolved.put(name, request.fileName());
+                    } else {
+                        LOGGER.warn("placeholderConfig: DOC_NAME placeholder '{}' but no fileName provided", name);
+                    }
+                }
+                case DOC_MIMETYPE -> {
+                    if (!request.fileContentType().isEmpty()) {
+                        resolved.put(name, request.fileContentType());
+                    } else {
+                        LOGGER.warn("placeholderConfig: DOC_MIMETYPE placeholder '{}' but no fileContentType provided",
+                                name);
+                    }
+                }
+                default -> { /* DYNAMIC: PM must provide the value */ }
+            }
+        }
+
+        return resolved;
+    }
+
+    private String availableMethods() {
+        return String.join(", ", methods.keySet());
+    }
+
+    // ========================================================================
+    // Compilation helpers
+    // ========================================================================
+
+    private static Map<String, MethodPlan> compileMethods(JsonNode methodsArray, MethodDefaults defaults) {
+        Map<String, MethodPlan> compiled = new LinkedHashMap<>();
+        for (JsonNode method : methodsArray) {
+            if (!method.has("name")) {
+                continue;
+            }
+            String name = method.get("name").asText();
+            // First declaration wins, as with the former linear scan
+            compiled.putIfAbsent(name, compileMethod(name, method, defaults));
+        }
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    private static MethodPlan compileMethod(String name, JsonNode method, MethodDefaults defaults) {
+        String httpMethod = method.has("httpMethod") ? method.get("httpMethod").asText() : "GET";
+        String path = method.has("path") ? method.get("path").asText() : "";
+        String body = method.has("bodyTemplate") ? method.get("bodyTemplate").asText() : "";
+
+        return new MethodPlan(
+                name,
+                RestHttpMethod.fromKey(httpMethod).orElse(null),
+                TemplateSubstitution.compile(path),
+                compileTemplates(method.get("queryParams")),
+                compileTemplates(method.get("headers")),
+                body.isEmpty() ? null : TemplateSubstitution.compile(body),
+                compilePlaceholders(name, method.get("placeholderConfig")),
+                RestResponseOptions.fromJson(method, defaults.responseOptions()),
+                RestRequestCompression.fromJson(method, defaults.requestCompression()),
+                RestCacheOptions.fromJson(method, defaults.cacheOptions()),
+                RestRetryPolicy.fromJson(method, defaults.retryPolicy()),
+                RestCircuitBreakerOptions.fromJson(method, defaults.circuitBreakerOptions()),
+                RestRateLimit.fromJson(method, defaults.rateLimit()),
+                RestBulkheadOptions.fromJson(method, defaults.bulkheadOptions()),
+                RestHedgePolicy.fromJson(method, defaults.hedgePolicy()),
+                RestPagination.fromJson(method, defaults.pagination()));
+    }
+
+    private static List<PlaceholderRule> compilePlaceholders(String methodName, JsonNode placeholderConfig) {
+        if (placeholderConfig == null || !placeholderConfig.isObject()) {
+            return Collections.emptyList();
+        }
+        List<PlaceholderRule> rules = new ArrayList<>();
+        placeholderConfig.fields().forEachRemaining(entry -> {
+            String name = entry.getKey();
+            JsonNode cfg = entry.getValue();
+            PlaceholderMode mode = PlaceholderMode.fromKey(cfg.has("mode") ? cfg.get("mode").asText() : "DYNAMIC");
+            String adminValue = cfg.has("value") ? cfg.get("value").asText() : null;
+
+            if ((mode == PlaceholderMode.FIXED || mode == PlaceholderMode.DEFAULT) && adminValue == null) {
+                LOGGER.warn("placeholderConfig: {} placeholder '{}' of method '{}' has no value — treating as DYNAMIC",
+                        mode, name, methodName);
+                mode = PlaceholderMode.DYNAMIC;
+            }
+            rules.add(new PlaceholderRule(name, mode, adminValue));
+        });
+        return rules;
+    }
+
+    private static Map<String, CompiledTemplate> compileTemplates(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return Collections.emptyMap();
+        }
+        Map<String, CompiledTemplate> templates = new LinkedHashMap<>();
+        node.fields().forEachRemaining(entry ->
+                templates.put(entry.getKey(), TemplateSubstitution.compile(entry.getValue().asText())));
+        return Collections.unmodifiableMap(templates);
+    }
+
+    private static Map<String, String> readTextMap(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        node.fields().forEachRemaining(entry -> values.put(entry.getKey(), entry.getValue().asText()));
+        return Collections.unmodifiableMap(values);
+    }
+}
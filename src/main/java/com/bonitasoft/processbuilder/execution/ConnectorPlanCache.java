@@ -0,0 +1,170 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of {@link ConnectorPlan}s keyed by a SHA-256 content hash of the configuration JSON.
+ * <p>
+ * Because the key is derived from the configuration content, an edited PBConfiguration
+ * always compiles into a fresh plan; stale plans are simply never hit again and age out of the LRU.
+ * {@link #invalidate(String)} and {@link #invalidateAll()} allow eager removal (e.g. when a
+ * configuration is deleted or the master password changes).
+ * </p>
+ * <p>
+ * Compilation happens outside the cache lock, so a slow compile never blocks lookups of other plans.
+ * </p>
+ */
+public final class ConnectorPlanCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorPlanCache.class);
+
+    /** Default maximum number of cached plans. */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final ConnectorPlanCache SHARED = new ConnectorPlanCache(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+    private final Map<String, ConnectorPlan> plans;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code maxSize} plans.
+     *
+     * @param maxSize The maximum number of plans (must be positive)
+     */
+    public ConnectorPlanCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ConnectorPlan> eldest) {
+                if (size() > ConnectorPlanCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return The process-wide cache used by default by {@link ConnectorExecutionEngine}
+     */
+    public static ConnectorPlanCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the compiled plan for a configuration, compiling and caching it on a miss.
+     *
+     * @param configJson The PBConfiguration JSON
+     * @return The compiled plan
+     * @throws JsonProcessingException  if the JSON is malformed (nothing is cached)
+     * @throws IllegalArgumentException if the configuration structure is invalid (nothing is cached)
+     */
+    public ConnectorPlan get(String configJson) throws JsonProcessingException {
+        String key = contentHash(configJson);
+
+        ConnectorPlan plan;
+        synchronized (plans) {
+            plan = plans.get(key);
+        }
+        if (plan != null) {
+            hits.increment();
+            return plan;
+        }
+
+        misses.increment();
+        ConnectorPlan compiled = ConnectorPlan.compile(configJson);
+        synchronized (plans) {
+            // Another thread may have compiled the same config concurrently: keep the first one
+            ConnectorPlan existing = plans.putIfAbsent(key, compiled);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        LOGGER.debug("Compiled and cached connector plan {}", key);
+        return compiled;
+    }
+
+    /**
+     * Removes the plan compiled from the given configuration, if present.
+     *
+     * @param configJson The PBConfiguration JSON
+     * @return true if a plan was removed
+     */
+    public boolean invalidate(String configJson) {
+        String key = contentHash(configJson);
+        synchronized (plans) {
+            return plans.remove(key) != null;
+        }
+    }
+
+    /**
+     * Removes all cached plans. Statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (plans) {
+            plans.clear();
+        }
+    }
+
+    /**
+     * @return A point-in-time snapshot of the cache statistics
+     */
+    public Stats stats() {
+        int size;
+        synchronized (plans) {
+            size = plans.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, maxSize);
+    }
+
+    /**
+     * Computes the cache key of a configuration: the hex SHA-256 of its UTF-8 bytes.
+     */
+    static String contentHash(String configJson) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((configJson != null ? configJson : "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every Java platform
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Snapshot of plan cache statistics.
+     *
+     * @param hits      Lookups served from the cache
+     * @param misses    Lookups that required a compilation
+     * @param evictions Plans evicted because the cache was full
+     * @param size      Current number of cached plans
+     * @param maxSize   Maximum number of cached plans
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {
+
+        /**
+         * @return The ratio of hits over all lookups (0 when there was no lookup)
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bonitasoft.processbuilder.execution;
 
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,7 +18,7 @@ import java.util.Map;
  * @param params           Runtime parameters for {{param}} substitution (query + path combined)
  * @param body             Optional request body override
  * @param headers          Optional additional headers
- * @param fieldMappingJson Optional field mapping JSON for response transformation
+ * @param fieldMappingJson Optional field mapping JSON (output name to response path, see {@link FieldMapping})
  * @param timeoutMs        Optional timeout override (0 = use config default)
  * @param verifySsl        Optional SSL verification override (null = use config default)
  * @param methodOverride      Optional HTTP method override (e.g., "GET", "POST")
@@ -30,6 +31,8 @@ import java.util.Map;
  * @param pathOverride        Optional path override for the selected method. When non-empty in the
  *                            NEW structure, it REPLACES the method's path before placeholder
  *                            substitution. Used by the frontend to test an unsaved method edit.
+ * @param fileUpload          Optional file content streamed from disk or a stream (takes precedence over
+ *                            fileContentBase64); the file bytes are never loaded in memory
  */
 public record ConnectorRequest(
         String configJson,
@@ -46,7 +49,8 @@ public record ConnectorRequest(
         String fileContentBase64,
         String fileContentType,
         String fileName,
-        String pathOverride
+        String pathOverride,
+        UploadSource fileUpload
 ) {
 
     public ConnectorRequest {
@@ -65,6 +69,21 @@ public record ConnectorRequest(
         pathOverride = pathOverride != null ? pathOverride : "";
     }
 
+    public ConnectorRequest(String configJson, String actionType, String methodName, Map<String, String> params,
+                            String body, Map<String, String> headers, String fieldMappingJson, int timeoutMs,
+                            Boolean verifySsl, String methodOverride, Map<String, String> queryParams,
+                            String fileContentBase64, String fileContentType, String fileName, String pathOverride) {
+        this(configJson, actionType, methodName, params, body, headers, fieldMappingJson, timeoutMs, verifySsl,
+                methodOverride, queryParams, fileContentBase64, fileContentType, fileName, pathOverride, null);
+    }
+
+    /**
+     * @return true if the request carries a file to upload (streamed or Base64-encoded)
+     */
+    public boolean hasFileUpload() {
+        return fileUpload != null || !fileContentBase64.isEmpty();
+    }
+
     public static Builder builder(String configJson) {
         return new Builder(configJson);
     }
@@ -85,6 +104,7 @@ public record ConnectorRequest(
         private String fileContentType = "";
         private String fileName = "";
         private String pathOverride = "";
+        private UploadSource fileUpload;
 
         private Builder(String configJson) {
             this.configJson = configJson;
@@ -107,11 +127,13 @@ public record ConnectorRequest(
         public Builder fileContentType(String fileContentType) { this.fileContentType = fileContentType; return this; }
         public Builder fileName(String fileName) { this.fileName = fileName; return this; }
         public Builder pathOverride(String pathOverride) { this.pathOverride = pathOverride; return this; }
+        public Builder fileUpload(UploadSource fileUpload) { this.fileUpload = fileUpload; return this; }
+        public Builder filePath(Path file) { this.fileUpload = UploadSource.ofPath(file); return this; }
 
         public ConnectorRequest build() {
             return new ConnectorRequest(configJson, actionType, methodName, params, body, headers,
                     fieldMappingJson, timeoutMs, verifySsl, methodOverride, queryParams,
-                    fileContentBase64, fileContentType, fileName, pathOverride);
+                    fileContentBase64, fileContentType, fileName, pathOverride, fileUpload);
         }
     }
 }
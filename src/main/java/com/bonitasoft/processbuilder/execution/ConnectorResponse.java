@@ -1,5 +1,8 @@
 package com.bonitasoft.processbuilder.execution;
 
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+
 import java.util.Collections;
 import java.util.Map;
 
@@ -8,12 +11,15 @@ import java.util.Map;
  *
  * @param success        Whether the execution was successful (HTTP 2xx)
  * @param statusCode     The HTTP status code (-1 if connection error)
- * @param responseBody   The response body as string
+ * @param responseBody   The response body as string (decoded on first access for binary bodies)
  * @param responseHeaders The response headers
  * @param errorMessage   Error description (null if successful)
  * @param executionTimeMs Time taken in milliseconds
  * @param requestUrl     The final URL that was called
- * @param mappedData     Optional transformed data from fieldMapping (null if no mapping)
+ * @param mappedData     The values extracted by fieldMapping as a JSON object (null if no mapping)
+ * @param content        The response body as received (bytes, temporary file or stream), null if none
+ * @param truncated      Whether the body was cut at the configured {@code maxResponseBytes} limit
+ * @param attempts       Number of times the HTTP request was sent (1 unless it was retried)
  */
 public record ConnectorResponse(
         boolean success,
@@ -23,11 +29,90 @@ public record ConnectorResponse(
         String errorMessage,
         long executionTimeMs,
         String requestUrl,
-        String mappedData
+        String mappedData,
+        ResponseBody content,
+        boolean truncated,
+        int attempts
 ) {
 
     public ConnectorResponse {
         responseHeaders = responseHeaders != null ? Map.copyOf(responseHeaders) : Collections.emptyMap();
+        if (content == null && responseBody != null) {
+            content = ResponseBody.ofText(responseBody);
+        }
+        attempts = Math.max(1, attempts);
+    }
+
+    public ConnectorResponse(boolean success, int statusCode, String responseBody,
+                             Map<String, String> responseHeaders, String errorMessage,
+                             long executionTimeMs, String requestUrl, String mappedData,
+                             ResponseBody content, boolean truncated) {
+        this(success, statusCode, responseBody, responseHeaders, errorMessage, executionTimeMs, requestUrl,
+                mappedData, content, truncated, 1);
+    }
+
+    public ConnectorResponse(boolean success, int statusCode, String responseBody,
+                             Map<String, String> responseHeaders, String errorMessage,
+                             long executionTimeMs, String requestUrl, String mappedData) {
+        this(success, statusCode, responseBody, responseHeaders, errorMessage, executionTimeMs, requestUrl,
+                mappedData, null, false);
+    }
+
+    /**
+     * Gets the response body as a string. Binary bodies are decoded on each call;
+     * use {@link #content()} to read bytes, files or streams without decoding.
+     *
+     * @return The body text, or null if there is no body
+     */
+    @Override
+    public String responseBody() {
+        if (responseBody != null) {
+            return responseBody;
+        }
+        return content != null ? content.text() : null;
+    }
+
+    /**
+     * Creates a copy carrying the values extracted by the request's {@code fieldMapping}.
+     *
+     * @param newMappedData The mapped values as a JSON object
+     * @return The response with its mapped data
+     */
+    public ConnectorResponse withMappedData(String newMappedData) {
+        return new ConnectorResponse(success, statusCode, responseBody, responseHeaders, errorMessage,
+                executionTimeMs, requestUrl, newMappedData, content, truncated, attempts);
+    }
+
+    /**
+     * Releases the resources held by the body (temporary file, open stream).
+     */
+    public void release() {
+        if (content != null) {
+            content.release();
+        }
+    }
+
+    /**
+     * Maps an HTTP-level response, keeping its body in the received form.
+     *
+     * @param restResponse    The HTTP-level response
+     * @param executionTimeMs Time taken in milliseconds
+     * @return A success response for 2xx statuses, an error response otherwise
+     */
+    public static ConnectorResponse from(RestServiceResponse restResponse, long executionTimeMs) {
+        // Read the components directly: body() would decode a binary body into a String
+        String text = restResponse.content() instanceof ResponseBody.Text textBody ? textBody.value() : null;
+        if (restResponse.isSuccessful() && restResponse.errorMessage() == null) {
+            return new ConnectorResponse(true, restResponse.statusCode(), text, restResponse.headers(),
+                    null, executionTimeMs, restResponse.url(), null, restResponse.content(), restResponse.truncated(),
+                    restResponse.attempts());
+        }
+        String errorMsg = restResponse.errorMessage() != null
+                ? restResponse.errorMessage()
+                : "HTTP " + restResponse.statusCode();
+        return new ConnectorResponse(false, restResponse.statusCode(), text, Collections.emptyMap(),
+                errorMsg, executionTimeMs, restResponse.url(), null, restResponse.content(), restResponse.truncated(),
+                restResponse.attempts());
     }
 
     public static ConnectorResponse success(int statusCode, String responseBody,
@@ -0,0 +1,266 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, tenant-scoped cache of expiring credentials (OAuth2 tokens, Bonita sessions).
+ * <p>
+ * Entries are keyed by {@code (tenantId, key)} so that identical client ids or usernames
+ * of different tenants never share a credential. The cache holds at most {@code maxSize}
+ * entries and evicts the least recently used one when full. Each value carries its own
+ * expiry instant: expired entries are dropped on lookup and by {@link #sweepExpired()},
+ * which runs on writes at most once per sweep interval. The sweep deliberately uses no timer: a
+ * static timer task referencing the cache would keep the classloader of a redeployed extension alive.
+ * </p>
+ *
+ * @param <V> The cached credential type
+ */
+public final class CredentialCache<V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CredentialCache.class);
+
+    /** Default maximum number of cached credentials. */
+    public static final int DEFAULT_MAX_SIZE = 1_000;
+
+    /** Tenant used when the caller does not scope its credentials. */
+    public static final String DEFAULT_TENANT = "default";
+
+    static final long SWEEP_INTERVAL_MS = 60_000L;
+
+    private final String name;
+    private final int maxSize;
+    private final ToLongFunction<V> expiresAt;
+    private final LongSupplier clock;
+    private final Map<Key, V> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private long nextSweepAt;
+
+    /**
+     * Creates a cache holding at most {@code maxSize} credentials.
+     *
+     * @param name      The cache name, used in logs
+     * @param maxSize   The maximum number of entries (must be positive)
+     * @param expiresAt Returns the epoch-millis expiry of a value
+     */
+    public CredentialCache(String name, int maxSize, ToLongFunction<V> expiresAt) {
+        this(name, maxSize, expiresAt, System::currentTimeMillis);
+    }
+
+    CredentialCache(String name, int maxSize, ToLongFunction<V> expiresAt, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.expiresAt = expiresAt;
+        this.clock = clock;
+        this.nextSweepAt = clock.getAsLong() + SWEEP_INTERVAL_MS;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                if (size() > CredentialCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the unexpired credential for a key, counting a hit or a miss.
+     *
+     * @param tenantId The tenant scope
+     * @param key      The credential key within the tenant
+     * @return The credential, or null if absent or expired
+     */
+    public V get(String tenantId, String key) {
+        Key cacheKey = new Key(tenant(tenantId), key);
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            V value = entries.get(cacheKey);
+            if (value != null && now >= expiresAt.applyAsLong(value)) {
+                entries.remove(cacheKey);
+                expirations.increment();
+                value = null;
+            }
+            if (value == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Returns the current entry for a key without counting a hit or a miss.
+     *
+     * @param tenantId The tenant scope
+     * @param key      The credential key within the tenant
+     * @return The entry (possibly expired), or null if absent
+     */
+    public V peek(String tenantId, String key) {
+        Key cacheKey = new Key(tenant(tenantId), key);
+        synchronized (entries) {
+            return entries.get(cacheKey);
+        }
+    }
+
+    /**
+     * Stores a freshly loaded credential.
+     *
+     * @param tenantId The tenant scope
+     * @param key      The credential key within the tenant
+     * @param value    The credential
+     */
+    public void put(String tenantId, String key, V value) {
+        long now = clock.getAsLong();
+        boolean sweepDue;
+        synchronized (entries) {
+            entries.put(new Key(tenant(tenantId), key), value);
+            sweepDue = now >= nextSweepAt;
+        }
+        loads.increment();
+        if (sweepDue) {
+            sweepExpired();
+        }
+    }
+
+    /**
+     * Removes every expired entry.
+     *
+     * @return The number of entries removed
+     */
+    public int sweepExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<V> values = entries.values().iterator();
+            while (values.hasNext()) {
+                if (now >= expiresAt.applyAsLong(values.next())) {
+                    values.remove();
+                    removed++;
+                }
+            }
+            nextSweepAt = now + SWEEP_INTERVAL_MS;
+        }
+        if (removed > 0) {
+            expirations.add(removed);
+            LOGGER.debug("{} cache: swept {} expired entries", name, removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the entry for a key, if present.
+     *
+     * @param tenantId The tenant scope
+     * @param key      The credential key within the tenant
+     * @return true if an entry was removed
+     */
+    public boolean invalidate(String tenantId, String key) {
+        synchronized (entries) {
+            return entries.remove(new Key(tenant(tenantId), key)) != null;
+        }
+    }
+
+    /**
+     * Removes the entry for a key only if it is still the given value, so that a caller
+     * dropping a rejected credential never removes a newer one stored meanwhile.
+     *
+     * @param tenantId The tenant scope
+     * @param key      The credential key within the tenant
+     * @param expected The value to remove
+     * @return true if the entry was removed
+     */
+    public boolean invalidate(String tenantId, String key, V expected) {
+        synchronized (entries) {
+            return entries.remove(new Key(tenant(tenantId), key), expected);
+        }
+    }
+
+    /**
+     * Removes every entry of a tenant.
+     *
+     * @param tenantId The tenant scope
+     * @return The number of entries removed
+     */
+    public int invalidateTenant(String tenantId) {
+        String tenant = tenant(tenantId);
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Key> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().tenantId().equals(tenant)) {
+                    keys.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all entries. Statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return A point-in-time snapshot of the cache statistics
+     */
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(name, hits.sum(), misses.sum(), loads.sum(), evictions.sum(), expirations.sum(),
+                size, maxSize);
+    }
+
+    private static String tenant(String tenantId) {
+        return tenantId == null || tenantId.isBlank() ? DEFAULT_TENANT : tenantId;
+    }
+
+    private record Key(String tenantId, String key) {}
+
+    /**
+     * Snapshot of credential cache statistics.
+     *
+     * @param name        The cache name
+     * @param hits        Lookups that found an unexpired credential
+     * @param misses      Lookups that found nothing or an expired credential
+     * @param loads       Credentials stored after a fetch
+     * @param evictions   Entries evicted because the cache was full
+     * @param expirations Expired entries removed on lookup or by a sweep
+     * @param size        Current number of entries
+     * @param maxSize     Maximum number of entries
+     */
+    public record Stats(String name, long hits, long misses, long loads, long evictions, long expirations,
+                        int size, int maxSize) {
+
+        /**
+         * @return The ratio of hits over all lookups (0 when there was no lookup)
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link ResponseCacheStore} keeping each entry in a file of a local directory, bounded by the total
+ * file size and evicting the least recently used entries first.
+ * <p>
+ * Entries written by a previous run are picked up at construction, oldest first, so the cache
+ * survives a node restart. Use it as the overflow tier of a {@link MemoryResponseCacheStore}.
+ * Cached bodies are written unencrypted: only enable the disk tier for data that may rest on the
+ * node's disk.
+ * </p>
+ */
+public final class DiskResponseCacheStore implements ResponseCacheStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskResponseCacheStore.class);
+
+    private static final String SUFFIX = ".entry";
+    private static final int FORMAT_VERSION = 1;
+    private static final Pattern SAFE_KEY = Pattern.compile("[0-9a-zA-Z_-]{1,128}");
+
+    private final Path directory;
+    private final long maxBytes;
+    /** File size of every entry, in access order. */
+    private final Map<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    /**
+     * Creates a store in {@code directory}, holding at most {@code maxBytes} of entry files.
+     *
+     * @param directory The cache directory (created if missing)
+     * @param maxBytes  The byte budget (must be positive)
+     * @throws UncheckedIOException if the directory cannot be created or listed
+     */
+    public DiskResponseCacheStore(Path directory, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                List<Path> existing = files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                        .sorted(Comparator.comparing(DiskResponseCacheStore::lastModified))
+                        .toList();
+                for (Path file : existing) {
+                    String name = file.getFileName().toString();
+                    long size = Files.size(file);
+                    index.put(name.substring(0, name.length() - SUFFIX.length()), size);
+                    bytes += size;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open response cache directory " + directory, e);
+        }
+        LOGGER.info("Response cache disk tier at {}: {} entries, {} bytes", directory, index.size(), bytes);
+        synchronized (index) {
+            evictOverflow();
+        }
+    }
+
+    @Override
+    public CachedResponse get(String key) {
+        String name = fileName(key);
+        synchronized (index) {
+            if (index.get(name) == null) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(file(name))))) {
+                return read(in);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Dropping unreadable response cache file {}: {}", file(name), e.getMessage());
+                delete(name);
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void put(String key, CachedResponse response) {
+        String name = fileName(key);
+        synchronized (index) {
+            Path target = file(name);
+            Path temp = directory.resolve(name + ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(temp)))) {
+                    write(out, response);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                long size = Files.size(target);
+                Long previous = index.put(name, size);
+                bytes += size - (previous != null ? previous : 0);
+                evictOverflow();
+            } catch (IOException e) {
+                LOGGER.warn("Cannot write response cache file {}: {}", target, e.getMessage());
+                deleteQuietly(temp);
+                delete(name);
+            }
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        synchronized (index) {
+            delete(fileName(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (index) {
+            for (String name : List.copyOf(index.keySet())) {
+                delete(name);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    @Override
+    public long sizeBytes() {
+        synchronized (index) {
+            return bytes;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            bytes -= entry.getValue();
+            eldest.remove();
+            deleteQuietly(file(entry.getKey()));
+        }
+    }
+
+    private void delete(String name) {
+        Long size = index.remove(name);
+        if (size != null) {
+            bytes -= size;
+        }
+        deleteQuietly(file(name));
+    }
+
+    private Path file(String name) {
+        return directory.resolve(name + SUFFIX);
+    }
+
+    private static String fileName(String key) {
+        return SAFE_KEY.matcher(key).matches() ? key : RequestFingerprint.digest(key);
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.debug("Cannot delete response cache file {}", file, e);
+        }
+    }
+
+    // ========================================================================
+    // Entry format
+    // ========================================================================
+
+    private static void write(DataOutputStream out, CachedResponse response) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(response.statusCode());
+        writeString(out, response.url());
+        writeString(out, response.contentType() != null ? response.contentType().name() : null);
+        writeString(out, response.charset().name());
+        out.writeLong(response.storedAt());
+        out.writeLong(response.freshUntil());
+        out.writeLong(response.staleUntil());
+        out.writeInt(response.headers().size());
+        for (Map.Entry<String, String> header : response.headers().entrySet()) {
+            writeString(out, header.getKey());
+            writeString(out, header.getValue());
+        }
+        out.writeInt(response.body().length);
+        out.write(response.body());
+    }
+
+    private static CachedResponse read(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported response cache file version");
+        }
+        int statusCode = in.readInt();
+        String url = readString(in);
+        String contentType = readString(in);
+        Charset charset = Charset.forName(readString(in));
+        long storedAt = in.readLong();
+        long freshUntil = in.readLong();
+        long staleUntil = in.readLong();
+        int headerCount = in.readInt();
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(readString(in), readString(in));
+        }
+        int length = in.readInt();
+        byte[] body = in.readNBytes(length);
+        if (body.length != length) {
+            throw new IOException("Truncated response cache file");
+        }
+        return new CachedResponse(statusCode, headers, body, charset,
+                contentType != null ? RestContentType.valueOf(contentType) : null,
+                url, storedAt, freshUntil, staleUntil);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
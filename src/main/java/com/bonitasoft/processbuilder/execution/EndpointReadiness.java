@@ -0,0 +1,66 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.net.http.HttpClient;
+
+/**
+ * Outcome of warming up one configured endpoint.
+ *
+ * @param endpoint    The warmed-up URL (base URL of the configuration)
+ * @param status      The readiness of the endpoint
+ * @param httpVersion The protocol negotiated on the warmed connection (null if no connection was opened)
+ * @param statusCode  The status of the probe request (0 if no response was received)
+ * @param durationMs  Time spent warming up the endpoint
+ * @param error       Why the endpoint is not ready (null when ready)
+ */
+public record EndpointReadiness(
+        String endpoint,
+        Status status,
+        HttpClient.Version httpVersion,
+        int statusCode,
+        long durationMs,
+        String error
+) {
+
+    /**
+     * Readiness of a warmed-up endpoint.
+     */
+    public enum Status {
+        /** Warm-up in progress */
+        PENDING,
+        /** Connection open and credentials (if any) cached */
+        READY,
+        /** Connection open, but the OAuth2 token or Bonita session could not be obtained */
+        DEGRADED,
+        /** Host not resolved or connection failed */
+        FAILED,
+        /** Not warmed up: invalid configuration or URL depending on request parameters */
+        SKIPPED
+    }
+
+    /**
+     * @return true if the connection is open and credentials are cached
+     */
+    public boolean isReady() {
+        return status == Status.READY;
+    }
+
+    static EndpointReadiness pending(String endpoint) {
+        return new EndpointReadiness(endpoint, Status.PENDING, null, 0, 0, null);
+    }
+
+    static EndpointReadiness connected(String endpoint, HttpClient.Version version, int statusCode,
+                                       boolean credentialsReady, long durationMs) {
+        return credentialsReady
+                ? new EndpointReadiness(endpoint, Status.READY, version, statusCode, durationMs, null)
+                : new EndpointReadiness(endpoint, Status.DEGRADED, version, statusCode, durationMs,
+                        "Credentials could not be obtained");
+    }
+
+    static EndpointReadiness failed(String endpoint, String error, long durationMs) {
+        return new EndpointReadiness(endpoint, Status.FAILED, null, 0, durationMs, error);
+    }
+
+    static EndpointReadiness skipped(String endpoint, String reason) {
+        return new EndpointReadiness(endpoint, Status.SKIPPED, null, 0, 0, reason);
+    }
+}
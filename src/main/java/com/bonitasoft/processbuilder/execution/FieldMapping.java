@@ -0,0 +1,378 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled {@code fieldMapping}: extracts a few values from a JSON response in one streaming pass.
+ * <p>
+ * The mapping is a JSON object whose keys are the output names and whose values are paths into the
+ * response, e.g. {@code {"id": "data.id", "email": "data.emails[0].value", "names": "items[*].name"}}.
+ * A path is a sequence of field names separated by dots, array indexes {@code [n]} and array
+ * wildcards {@code [*]}; a field whose name contains dots or brackets is written {@code ['@odata.count']};
+ * a leading {@code $} is ignored. The result is a JSON object with every output name: the value at its
+ * path (null when absent), or an array of every match for a path containing a wildcard.
+ * </p>
+ * <p>
+ * The paths are compiled once into a tree shared by all of them. Applying the mapping reads the
+ * response with a {@link JsonParser}: branches no path goes into are skipped without being
+ * materialized, only the matched values are built as trees, and reading stops as soon as every
+ * single-valued output is found. Compiled mappings are immutable, thread-safe and cached by
+ * {@link #of(String)}.
+ * </p>
+ */
+public final class FieldMapping {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Maximum number of compiled mappings kept by {@link #of(String)}. */
+    static final int CACHE_SIZE = 256;
+
+    private static final Map<String, FieldMapping> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FieldMapping> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final List<String> names;
+    private final boolean[] multiple;
+    private final Node root = new Node();
+    private final boolean singleValued;
+
+    private FieldMapping(Map<String, String> paths) {
+        this.names = List.copyOf(paths.keySet());
+        this.multiple = new boolean[names.size()];
+        int slot = 0;
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            Node node = root;
+            for (Segment segment : parsePath(entry.getKey(), entry.getValue())) {
+                node = node.child(segment);
+                multiple[slot] |= segment.index() == Segment.EACH;
+            }
+            node.slots.add(slot);
+            slot++;
+        }
+        boolean single = true;
+        for (boolean many : multiple) {
+            single &= !many;
+        }
+        this.singleValued = single;
+    }
+
+    /**
+     * Compiles a field mapping.
+     *
+     * @param mappingJson The mapping JSON object (output name to path)
+     * @return The compiled mapping
+     * @throws IllegalArgumentException if the mapping is not a JSON object of paths or a path is invalid
+     */
+    public static FieldMapping compile(String mappingJson) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(mappingJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid fieldMapping JSON: " + e.getOriginalMessage(), e);
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Invalid fieldMapping: expected an object of output name to path");
+        }
+        Map<String, String> paths = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().isTextual()) {
+                throw new IllegalArgumentException("Invalid fieldMapping: path of '" + field.getKey()
+                        + "' must be a string");
+            }
+            paths.put(field.getKey(), field.getValue().asText());
+        }
+        return new FieldMapping(paths);
+    }
+
+    /**
+     * Returns the compiled mapping, compiling and caching it on first use.
+     *
+     * @param mappingJson The mapping JSON object, or null or blank for none
+     * @return The compiled mapping, or null when no mapping is given
+     * @throws IllegalArgumentException if the mapping is invalid (nothing is cached)
+     */
+    public static FieldMapping of(String mappingJson) {
+        if (mappingJson == null || mappingJson.isBlank()) {
+            return null;
+        }
+        synchronized (CACHE) {
+            FieldMapping cached = CACHE.get(mappingJson);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        FieldMapping compiled = compile(mappingJson);
+        synchronized (CACHE) {
+            FieldMapping existing = CACHE.putIfAbsent(mappingJson, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    /**
+     * @return The output names, in declaration order
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * Applies the mapping to a JSON document.
+     *
+     * @param json The JSON document
+     * @return The mapped values
+     * @throws IOException if the document is not valid JSON
+     */
+    public ObjectNode apply(String json) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            return apply(parser);
+        }
+    }
+
+    /**
+     * Applies the mapping to a response body without loading it as a whole: a temporary file is read
+     * as a stream. A {@link ResponseBody.Stream} body is consumed.
+     *
+     * @param body The response body
+     * @return The mapped values
+     * @throws IOException if the body cannot be read or is not valid JSON
+     */
+    public ObjectNode apply(ResponseBody body) throws IOException {
+        if (body instanceof ResponseBody.Text text) {
+            return apply(text.value());
+        }
+        if (body instanceof ResponseBody.Bytes bytes && StandardCharsets.UTF_8.equals(bytes.charset())) {
+            try (JsonParser parser = MAPPER.createParser(bytes.content())) {
+                return apply(parser);
+            }
+        }
+        // Jackson detects UTF-8/16/32 from raw bytes only: decode other charsets explicitly
+        try (JsonParser parser = StandardCharsets.UTF_8.equals(body.charset())
+                ? MAPPER.createParser(body.openStream())
+                : MAPPER.createParser(new InputStreamReader(body.openStream(), body.charset()))) {
+            return apply(parser);
+        }
+    }
+
+    private ObjectNode apply(JsonParser parser) throws IOException {
+        Result result = new Result();
+        if (parser.nextToken() != null) {
+            walk(parser, List.of(root), result);
+        }
+        ObjectNode mapped = MAPPER.createObjectNode();
+        for (int slot = 0; slot < names.size(); slot++) {
+            JsonNode value = multiple[slot] ? result.arrays.get(slot) : result.values.get(slot);
+            mapped.set(names.get(slot), value != null ? value : multiple[slot]
+                    ? MAPPER.createArrayNode() : NullNode.getInstance());
+        }
+        return mapped;
+    }
+
+    /**
+     * Visits the value at the parser's current token, reached through the given path nodes.
+     */
+    private void walk(JsonParser parser, List<Node> nodes, Result result) throws IOException {
+        boolean capture = false;
+        for (Node node : nodes) {
+            capture |= !node.slots.isEmpty();
+        }
+        if (capture) {
+            // A path ends here: build this value only, and resolve deeper paths on it
+            JsonNode value = parser.readValueAsTree();
+            for (Node node : nodes) {
+                resolve(node, value != null ? value : NullNode.getInstance(), result);
+            }
+            return;
+        }
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME && !result.complete()) {
+                String name = parser.currentName();
+                parser.nextToken();
+                List<Node> next = new ArrayList<>(1);
+                for (Node node : nodes) {
+                    Node child = node.fields.get(name);
+                    if (child != null) {
+                        next.add(child);
+                    }
+                }
+                visit(parser, next, result);
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY && !result.complete()) {
+                List<Node> next = new ArrayList<>(1);
+                for (Node node : nodes) {
+                    Node child = node.indexes.get(index);
+                    if (child != null) {
+                        next.add(child);
+                    }
+                    if (node.each != null) {
+                        next.add(node.each);
+                    }
+                }
+                visit(parser, next, result);
+                index++;
+            }
+        }
+    }
+
+    private void visit(JsonParser parser, List<Node> next, Result result) throws IOException {
+        if (next.isEmpty()) {
+            parser.skipChildren();
+        } else {
+            walk(parser, next, result);
+        }
+    }
+
+    /**
+     * Resolves a path node and everything below it on an already built value.
+     */
+    private void resolve(Node node, JsonNode value, Result result) {
+        if (value == null || value.isMissingNode()) {
+            return;
+        }
+        for (int slot : node.slots) {
+            result.add(slot, value);
+        }
+        if (value.isObject()) {
+            node.fields.forEach((name, child) -> resolve(child, value.get(name), result));
+        } else if (value.isArray()) {
+            node.indexes.forEach((index, child) -> resolve(child, value.get(index), result));
+            if (node.each != null) {
+                value.forEach(element -> resolve(node.each, element, result));
+            }
+        }
+    }
+
+    // ========================================================================
+    // Path compilation
+    // ========================================================================
+
+    /**
+     * One step of a path: a field name, or an array index ({@link #EACH} for every element).
+     */
+    private record Segment(String field, int index) {
+        static final int EACH = -1;
+    }
+
+    private static List<Segment> parsePath(String name, String path) {
+        String source = path.trim();
+        if (source.startsWith("$")) {
+            source = source.substring(1);
+        }
+        List<Segment> segments = new ArrayList<>();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '.') {
+                i++;
+                continue;
+            }
+            if (c != '[') {
+                int end = i;
+                while (end < source.length() && source.charAt(end) != '.' && source.charAt(end) != '[') {
+                    end++;
+                }
+                segments.add(new Segment(source.substring(i, end), 0));
+                i = end;
+                continue;
+            }
+            int close = source.indexOf(']', i);
+            if (close < 0) {
+                throw invalidPath(name, path);
+            }
+            String inside = source.substring(i + 1, close).trim();
+            if (inside.length() >= 2 && (inside.charAt(0) == '\'' || inside.charAt(0) == '"')
+                    && inside.charAt(inside.length() - 1) == inside.charAt(0)) {
+                segments.add(new Segment(inside.substring(1, inside.length() - 1), 0));
+            } else if ("*".equals(inside)) {
+                segments.add(new Segment(null, Segment.EACH));
+            } else {
+                try {
+                    int index = Integer.parseInt(inside);
+                    if (index < 0) {
+                        throw invalidPath(name, path);
+                    }
+                    segments.add(new Segment(null, index));
+                } catch (NumberFormatException e) {
+                    throw invalidPath(name, path);
+                }
+            }
+            i = close + 1;
+        }
+        return segments;
+    }
+
+    private static IllegalArgumentException invalidPath(String name, String path) {
+        return new IllegalArgumentException("Invalid fieldMapping: path '" + path + "' of '" + name + "'");
+    }
+
+    /**
+     * A node of the compiled path tree: the steps that follow, and the outputs whose path ends here.
+     */
+    private static final class Node {
+        final Map<String, Node> fields = new HashMap<>();
+        final Map<Integer, Node> indexes = new HashMap<>();
+        Node each;
+        final List<Integer> slots = new ArrayList<>(1);
+
+        Node child(Segment segment) {
+            if (segment.field() != null) {
+                return fields.computeIfAbsent(segment.field(), key -> new Node());
+            }
+            if (segment.index() == Segment.EACH) {
+                if (each == null) {
+                    each = new Node();
+                }
+                return each;
+            }
+            return indexes.computeIfAbsent(segment.index(), key -> new Node());
+        }
+    }
+
+    /**
+     * The values found while applying the mapping once.
+     */
+    private final class Result {
+        final Map<Integer, JsonNode> values = new HashMap<>();
+        final Map<Integer, ArrayNode> arrays = new HashMap<>();
+
+        void add(int slot, JsonNode value) {
+            if (multiple[slot]) {
+                arrays.computeIfAbsent(slot, key -> MAPPER.createArrayNode()).add(value);
+            } else {
+                values.putIfAbsent(slot, value);
+            }
+        }
+
+        /**
+         * @return true once every output has its value, so that the rest of the document can be skipped
+         */
+        boolean complete() {
+            return singleValued && values.size() == names.size();
+        }
+    }
+}
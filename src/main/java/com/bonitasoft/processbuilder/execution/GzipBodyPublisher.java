@@ -0,0 +1,175 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a request body with gzip while it is sent.
+ * <p>
+ * Each chunk of the source publisher is deflated as the client pulls it, so neither the whole body
+ * nor its compressed form is ever buffered. The compressed length is unknown in advance: the request
+ * goes out with chunked transfer encoding (HTTP/1.1) or without a content length (HTTP/2). Every
+ * subscription (e.g. a resend after a redirect or a session renewal) compresses the source afresh.
+ * </p>
+ */
+final class GzipBodyPublisher implements HttpRequest.BodyPublisher {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final HttpRequest.BodyPublisher source;
+
+    GzipBodyPublisher(HttpRequest.BodyPublisher source) {
+        this.source = source;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        source.subscribe(new Compressor(subscriber));
+    }
+
+    /**
+     * Sits between the source publisher and the client: forwards the client's demand upstream and emits
+     * one compressed buffer per source chunk. A chunk that deflates to nothing requests the next one
+     * itself; the final buffer (remaining deflate output and gzip trailer) waits for demand if needed.
+     * The deflater is only used under its own lock, so a cancel from the client can end it mid-stream.
+     */
+    private static final class Compressor implements Flow.Subscriber<ByteBuffer>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean finalEmitted = new AtomicBoolean();
+        private Flow.Subscription upstream;
+        private long size;
+        private boolean headerWritten;
+        private volatile ByteBuffer finalBuffer;
+        private volatile boolean cancelled;
+
+        Compressor(Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("non-positive subscription request: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            if (finalBuffer != null) {
+                emitFinal();
+            } else {
+                upstream.request(n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            synchronized (deflater) {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            ByteArrayOutputStream out;
+            synchronized (deflater) {
+                if (cancelled) {
+                    return;
+                }
+                size += item.remaining();
+                crc.update(item.duplicate());
+                out = start();
+                deflater.setInput(item);
+                while (!deflater.needsInput()) {
+                    drain(out);
+                }
+            }
+            if (out.size() == 0) {
+                upstream.request(1);
+                return;
+            }
+            demand.decrementAndGet();
+            downstream.onNext(ByteBuffer.wrap(out.toByteArray()));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (deflater) {
+                deflater.end();
+            }
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            ByteArrayOutputStream out;
+            synchronized (deflater) {
+                if (cancelled) {
+                    return;
+                }
+                out = start();
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain(out);
+                }
+                deflater.end();
+            }
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, (int) size);
+            finalBuffer = ByteBuffer.wrap(out.toByteArray());
+            emitFinal();
+        }
+
+        private ByteArrayOutputStream start() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (!headerWritten) {
+                headerWritten = true;
+                out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+            return out;
+        }
+
+        private void drain(ByteArrayOutputStream out) {
+            int count = deflater.deflate(chunk);
+            out.write(chunk, 0, count);
+        }
+
+        private void emitFinal() {
+            if (demand.get() > 0 && !cancelled && finalEmitted.compareAndSet(false, true)) {
+                downstream.onNext(finalBuffer);
+                downstream.onComplete();
+            }
+        }
+
+        private static void writeIntLE(ByteArrayOutputStream out, int value) {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestHedgePolicy;
+
+import java.util.Arrays;
+
+/**
+ * Hedging state of one target (host or configured name): recent latencies, hedge budget and counters.
+ * <p>
+ * The hedge delay is the policy's fixed delay, or the 95th percentile of the last
+ * {@value #WINDOW_SIZE} latencies once at least {@value #MIN_SAMPLES} were observed. Hedges are paid
+ * from a budget credited {@code maxHedgePercent / 100} per call and capped at {@value #MAX_BUDGET}
+ * hedges, so that over time at most that share of calls is hedged, with short bursts allowed.
+ * </p>
+ * <p>
+ * Thread-safe.
+ * </p>
+ */
+public final class Hedger {
+
+    static final int WINDOW_SIZE = 100;
+    static final int MIN_SAMPLES = 20;
+    static final double MAX_BUDGET = 10;
+
+    private final String name;
+    private final RestHedgePolicy policy;
+
+    // Ring buffer of the last WINDOW_SIZE latencies
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private int next;
+    private int recorded;
+
+    // One hedge available from the start, so that the first slow calls can be hedged
+    private double budget = 1;
+
+    private long callsTotal;
+    private long hedgedTotal;
+    private long hedgeWinsTotal;
+    private long budgetExhaustedTotal;
+
+    Hedger(String name, RestHedgePolicy policy) {
+        this.name = name;
+        this.policy = policy;
+    }
+
+    /**
+     * Records a new call and credits the hedge budget.
+     *
+     * @return How long to wait before hedging the call, or -1 if it must not be hedged (not enough
+     *         latencies observed yet for a p95 delay)
+     */
+    public synchronized long onCall() {
+        callsTotal++;
+        budget = Math.min(MAX_BUDGET, budget + policy.maxHedgePercent() / 100);
+        return hedgeDelayMs();
+    }
+
+    /**
+     * Takes a hedge from the budget.
+     *
+     * @return true if the hedge may be sent, false if the hedge rate cap is reached
+     */
+    public synchronized boolean tryHedge() {
+        if (budget < 1) {
+            budgetExhaustedTotal++;
+            return false;
+        }
+        budget -= 1;
+        hedgedTotal++;
+        return true;
+    }
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param latencyMs How long the caller waited for the response
+     * @param hedgeWon  Whether the response came from the hedge
+     */
+    public synchronized void onResult(long latencyMs, boolean hedgeWon) {
+        latencies[next] = latencyMs;
+        next = (next + 1) % WINDOW_SIZE;
+        recorded = Math.min(WINDOW_SIZE, recorded + 1);
+        if (hedgeWon) {
+            hedgeWinsTotal++;
+        }
+    }
+
+    /**
+     * @return The name of the hedger (target host or configured name)
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return A point-in-time snapshot of the hedger
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, hedgeDelayMs(), p95(), callsTotal, hedgedTotal, hedgeWinsTotal,
+                budgetExhaustedTotal);
+    }
+
+    private long hedgeDelayMs() {
+        return policy.delayMs() > 0 ? policy.delayMs() : p95();
+    }
+
+    private long p95() {
+        if (recorded < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(recorded * 0.95) - 1];
+    }
+
+    /**
+     * Snapshot of a hedger.
+     *
+     * @param name                 The hedger name (target host or configured name)
+     * @param hedgeDelayMs         The current hedge delay, or -1 while calls are not hedged
+     * @param p95LatencyMs         The observed 95th percentile latency, or -1 if too few calls were observed
+     * @param calls                Total calls
+     * @param hedgedCalls          Total hedges sent
+     * @param hedgeWins            Total calls answered by their hedge
+     * @param budgetExhaustedCalls Total hedges not sent because of the hedge rate cap
+     */
+    public record Snapshot(String name, long hedgeDelayMs, long p95LatencyMs, long calls, long hedgedCalls,
+                           long hedgeWins, long budgetExhaustedCalls) {}
+}
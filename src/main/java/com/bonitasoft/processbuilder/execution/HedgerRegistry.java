@@ -0,0 +1,226 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.bonitasoft.processbuilder.records.RestHedgePolicy;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * The hedgers of {@link HttpExecutor}, one per target host or configured hedge name.
+ * <p>
+ * A hedged call is sent once; if it is still pending after the hedge delay and the hedge budget
+ * allows it, an identical call is sent. The first response received wins and the other call is
+ * cancelled, which aborts its HTTP exchange, or drops it if it still waits for a rate-limit turn,
+ * a bulkhead slot, a token or a Bonita session. A connection failure does not win while the other
+ * call is still pending. The hedge timer holds no thread.
+ * </p>
+ */
+public final class HedgerRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HedgerRegistry.class);
+
+    private final ConcurrentHashMap<String, Hedger> hedgers = new ConcurrentHashMap<>();
+    private final LongFunction<Executor> delays;
+    private final LongSupplier clock;
+
+    /**
+     * Creates an empty registry.
+     */
+    public HedgerRegistry() {
+        this(delayMs -> CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS),
+                System::currentTimeMillis);
+    }
+
+    HedgerRegistry(LongFunction<Executor> delays, LongSupplier clock) {
+        this.delays = delays;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a request is hedged: its policy is enabled and it is a body-less GET or HEAD
+     * whose response is held in memory (a file or a live stream cannot be discarded by the loser).
+     *
+     * @param request The REST service request
+     * @return true if the request goes through {@link #execute}
+     */
+    static boolean handles(RestServiceRequest request) {
+        RestResponseMode mode = request.responseOptions().mode();
+        return request.hedgePolicy().enabled()
+                && (request.method() == RestHttpMethod.GET || request.method() == RestHttpMethod.HEAD)
+                && !request.hasBody() && !request.hasRawBody() && !request.hasStreamingBody()
+                && (mode == RestResponseMode.STRING || mode == RestResponseMode.BYTES);
+    }
+
+    /**
+     * Sends a call, hedging it if it is still pending after the hedge delay.
+     *
+     * @param request The REST service request (see {@link #handles})
+     * @param send    Sends one call; its future only fails with a {@link CallRejectedException}, and
+     *                cancelling it aborts the call
+     * @return A future completed with the first response received; cancelling it cancels both calls
+     */
+    CompletableFuture<RestServiceResponse> execute(RestServiceRequest request,
+            Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> send) {
+        RestHedgePolicy policy = request.hedgePolicy();
+        Hedger hedger = hedgers.computeIfAbsent(nameOf(request), key -> new Hedger(key, policy));
+        long delayMs = hedger.onCall();
+        Race race = new Race(hedger, clock.getAsLong());
+        race.primary = send.apply(request);
+        race.primary.whenComplete((response, error) -> race.settle(false, response, error));
+        race.result.whenComplete((response, error) -> {
+            if (race.result.isCancelled()) {
+                race.cancelCalls();
+            }
+        });
+        if (delayMs >= 0) {
+            delays.apply(delayMs).execute(() -> {
+                if (race.startHedge()) {
+                    LOGGER.debug("Hedging {} {}: no response after {} ms", request.method(), request.url(), delayMs);
+                    CompletableFuture<RestServiceResponse> hedge = send.apply(request);
+                    race.hedgeSent(hedge);
+                    hedge.whenComplete((response, error) -> race.settle(true, response, error));
+                }
+            });
+        }
+        return race.result;
+    }
+
+    /**
+     * @param name The hedger name (target host as {@code scheme://host:port}, or configured name)
+     * @return The hedger, or null if no call used it yet
+     */
+    public Hedger hedger(String name) {
+        return hedgers.get(name);
+    }
+
+    /**
+     * @return A point-in-time snapshot of every hedger, sorted by name
+     */
+    public List<Hedger.Snapshot> snapshot() {
+        return hedgers.values().stream()
+                .map(Hedger::snapshot)
+                .sorted(Comparator.comparing(Hedger.Snapshot::name))
+                .toList();
+    }
+
+    /**
+     * Removes every hedger: latencies and budgets start over.
+     */
+    public void reset() {
+        hedgers.clear();
+    }
+
+    /**
+     * @param request The REST service request
+     * @return The configured hedge name, or the target host as {@code scheme://host:port}
+     */
+    static String nameOf(RestServiceRequest request) {
+        String configured = request.hedgePolicy().name();
+        return configured != null ? configured : RequestFingerprint.origin(request.url());
+    }
+
+    /**
+     * The primary call and its optional hedge racing for one result.
+     */
+    private final class Race {
+
+        final CompletableFuture<RestServiceResponse> result = new CompletableFuture<>();
+        final Hedger hedger;
+        final long start;
+        CompletableFuture<RestServiceResponse> primary;
+        CompletableFuture<RestServiceResponse> hedge;
+        boolean hedgeStarted;
+        boolean primaryDone;
+        boolean hedgeDone;
+
+        Race(Hedger hedger, long start) {
+            this.hedger = hedger;
+            this.start = start;
+        }
+
+        /**
+         * @return true if the hedge must be sent: no response yet and the budget allows it
+         */
+        boolean startHedge() {
+            synchronized (this) {
+                if (result.isDone() || primaryDone) {
+                    return false;
+                }
+                hedgeStarted = hedger.tryHedge();
+                return hedgeStarted;
+            }
+        }
+
+        void hedgeSent(CompletableFuture<RestServiceResponse> future) {
+            synchronized (this) {
+                hedge = future;
+                if (!result.isDone()) {
+                    return;
+                }
+            }
+            // The primary won while the hedge was being sent
+            future.cancel(true);
+        }
+
+        /**
+         * Cancels both calls once the result itself was cancelled.
+         */
+        void cancelCalls() {
+            CompletableFuture<RestServiceResponse> sentHedge;
+            synchronized (this) {
+                sentHedge = hedge;
+            }
+            primary.cancel(true);
+            if (sentHedge != null) {
+                sentHedge.cancel(true);
+            }
+        }
+
+        void settle(boolean fromHedge, RestServiceResponse response, Throwable error) {
+            CompletableFuture<RestServiceResponse> loser;
+            synchronized (this) {
+                if (fromHedge) {
+                    hedgeDone = true;
+                } else {
+                    primaryDone = true;
+                }
+                if (result.isDone()) {
+                    return;
+                }
+                boolean otherPending = fromHedge ? !primaryDone : hedgeStarted && !hedgeDone;
+                boolean received = error == null && response != null && response.statusCode() > 0;
+                if (!received && otherPending) {
+                    // A failed call does not win while the other one may still answer
+                    return;
+                }
+                if (!CallRejectedException.isCause(error)) {
+                    // A call refused locally (shed by the bulkhead, oversized body) says nothing
+                    // about the target's latency
+                    hedger.onResult(clock.getAsLong() - start, fromHedge);
+                }
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+                loser = otherPending ? (fromHedge ? primary : hedge) : null;
+            }
+            if (loser != null) {
+                loser.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestConnectionOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of shared {@link HttpClient} instances, one per distinct connection behavior.
+ * <p>
+ * A client is keyed by its TLS policy, redirect policy, HTTP version, connect timeout and proxy,
+ * so every configuration gets the connection behavior it declares while requests with the same
+ * behavior keep sharing keep-alive connections. The pool holds at most {@code maxSize} clients
+ * and drops the least recently used one when full; a dropped client finishes its in-flight
+ * exchanges and releases its connections once it is no longer referenced.
+ * </p>
+ */
+public final class HttpClientPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientPool.class);
+
+    /** Default maximum number of pooled clients. */
+    public static final int DEFAULT_MAX_SIZE = 32;
+
+    /**
+     * Connect timeout of requests that declare none. Fixed rather than derived from the request
+     * timeout, so that requests with different timeouts keep sharing a client.
+     */
+    public static final long DEFAULT_CONNECT_TIMEOUT_MS = 30_000L;
+
+    private final int maxSize;
+    private final Map<Key, HttpClient> clients;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile SSLContext trustAllContext;
+
+    /**
+     * Creates a pool holding at most {@code maxSize} clients.
+     *
+     * @param maxSize The maximum number of clients (must be positive)
+     */
+    public HttpClientPool(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.clients = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, HttpClient> eldest) {
+                if (size() > HttpClientPool.this.maxSize) {
+                    evictions.increment();
+                    LOGGER.debug("HttpClient pool full, dropping client {}", eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the shared client for a key, creating it on first use.
+     *
+     * @param key The connection behavior
+     * @return The client
+     */
+    public HttpClient client(Key key) {
+        synchronized (clients) {
+            HttpClient client = clients.get(key);
+            if (client != null) {
+                hits.increment();
+                return client;
+            }
+            client = create(key);
+            clients.put(key, client);
+            creations.increment();
+            LOGGER.debug("Created HttpClient for {}", key);
+            return client;
+        }
+    }
+
+    /**
+     * Returns the shared client matching a request's connection behavior.
+     *
+     * @param request The REST service request
+     * @return The client
+     */
+    public HttpClient client(RestServiceRequest request) {
+        return client(Key.of(request));
+    }
+
+    /**
+     * Drops every pooled client. Statistics are kept.
+     */
+    public void clear() {
+        synchronized (clients) {
+            clients.clear();
+        }
+    }
+
+    /**
+     * @return A point-in-time snapshot of the pool statistics
+     */
+    public Stats stats() {
+        int size;
+        synchronized (clients) {
+            size = clients.size();
+        }
+        return new Stats(hits.sum(), creations.sum(), evictions.sum(), size, maxSize);
+    }
+
+    private HttpClient create(Key key) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(key.connectTimeoutMs()))
+                .followRedirects(key.followRedirects() ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER);
+        // HTTP/2 unless a configuration pins HTTP/1.1: TLS servers negotiate it through ALPN and
+        // multiplex concurrent calls on one connection; servers without HTTP/2 fall back to HTTP/1.1
+        builder.version(key.httpVersion() != null ? key.httpVersion() : HttpClient.Version.HTTP_2);
+        if (key.proxyHost() != null) {
+            builder.proxy(ProxySelector.of(InetSocketAddress.createUnresolved(key.proxyHost(), key.proxyPort())));
+        }
+        if (!key.verifySsl()) {
+            SSLContext sslContext = trustAllContext();
+            if (sslContext != null) {
+                builder.sslContext(sslContext);
+            }
+        }
+        return builder.build();
+    }
+
+    private SSLContext trustAllContext() {
+        SSLContext context = trustAllContext;
+        if (context == null) {
+            try {
+                context = SSLContext.getInstance("TLS");
+                context.init(null, new TrustManager[]{new TrustAllManager()}, new SecureRandom());
+                trustAllContext = context;
+            } catch (Exception e) {
+                LOGGER.warn("Cannot create a trust-all SSL context, certificates will be verified: {}",
+                        e.getMessage());
+                return null;
+            }
+        }
+        return context;
+    }
+
+    /**
+     * The connection behavior a client is built for.
+     *
+     * @param verifySsl        Whether server certificates are verified
+     * @param followRedirects  Whether redirects are followed
+     * @param httpVersion      The preferred HTTP version, or null for HTTP/2 with fallback to HTTP/1.1
+     * @param connectTimeoutMs The connect timeout in milliseconds
+     * @param proxyHost        The HTTP proxy host, or null to connect directly
+     * @param proxyPort        The HTTP proxy port
+     */
+    public record Key(boolean verifySsl, boolean followRedirects, HttpClient.Version httpVersion,
+                      long connectTimeoutMs, String proxyHost, int proxyPort) {
+
+        /**
+         * Derives the key of a request: its connect timeout defaults to {@link #DEFAULT_CONNECT_TIMEOUT_MS}.
+         *
+         * @param request The REST service request
+         * @return The key
+         */
+        public static Key of(RestServiceRequest request) {
+            RestConnectionOptions options = request.connectionOptions();
+            long connectTimeout = options.connectTimeoutMs() > 0
+                    ? options.connectTimeoutMs() : DEFAULT_CONNECT_TIMEOUT_MS;
+            return new Key(request.verifySsl(), request.followRedirects(), options.httpVersion(),
+                    connectTimeout, options.proxyHost(), options.proxyPort());
+        }
+
+        /**
+         * Copies this key with another TLS policy.
+         *
+         * @param verify Whether server certificates are verified
+         * @return The updated key
+         */
+        public Key withVerifySsl(boolean verify) {
+            return new Key(verify, followRedirects, httpVersion, connectTimeoutMs, proxyHost, proxyPort);
+        }
+    }
+
+    /**
+     * Snapshot of client pool statistics.
+     *
+     * @param hits      Lookups served by an existing client
+     * @param creations Clients created
+     * @param evictions Clients dropped because the pool was full
+     * @param size      Current number of clients
+     * @param maxSize   Maximum number of clients
+     */
+    public record Stats(long hits, long creations, long evictions, int size, int maxSize) {}
+
+    private static class TrustAllManager implements X509TrustManager {
+        @Override public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+        @Override public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+        @Override public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+    }
+}
@@ -2,32 +2,46 @@ package com.bonitasoft.processbuilder.execution;
 
 import com.bonitasoft.processbuilder.enums.RestAuthenticationType;
 import com.bonitasoft.processbuilder.enums.RestContentType;
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.bonitasoft.processbuilder.execution.ResponseBodyHandlers.ReceivedBody;
 import com.bonitasoft.processbuilder.records.RestAuthConfig;
+import com.bonitasoft.processbuilder.records.RestResponseOptions;
 import com.bonitasoft.processbuilder.records.RestServiceRequest;
 import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.channels.UnresolvedAddressException;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyFactory;
 import java.security.PrivateKey;
 import java.security.Signature;
-import java.security.cert.X509Certificate;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,7 +50,8 @@ import java.util.regex.Pattern;
  * <p>
  * Extracted from RestServiceExecutor to be shared between REST Extension and custom connector.
  * This is now an instantiable class (not static) to allow proper lifecycle management,
- * but uses shared static clients and caches for connection pooling.
+ * but uses shared static clients and caches for connection pooling: requests are sent by the
+ * {@link HttpClientPool} client matching their TLS, redirect, HTTP version, connect timeout and proxy settings.
  * </p>
  */
 public final class HttpExecutor {
@@ -46,145 +61,353 @@ public final class HttpExecutor {
     private static final int DEFAULT_TIMEOUT_MS = 30_000;
     private static final int MAX_TIMEOUT_MS = 300_000;
 
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    // Token lifetime used when the token response carries no expires_in
+    private static final long DEFAULT_TOKEN_TTL_MS = 55 * 60 * 1000L;
+    // A token is considered expired this long before its real expiry (capped at 10% of its lifetime)
+    private static final long TOKEN_EXPIRY_MARGIN_MS = 60_000L;
+    // Refresh tokens are kept at most this long (providers rarely advertise their lifetime)
+    private static final long REFRESH_TOKEN_TTL_MS = 24 * 60 * 60 * 1000L;
+    // Hot tokens are refreshed in the background once this fraction of their usable lifetime has elapsed
+    private static final double TOKEN_REFRESH_AHEAD_RATIO = 0.8;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private static final Pattern BONITA_API_PATTERN = Pattern.compile(
             "^(https?://[^/]+)/bonita/API/.*", Pattern.CASE_INSENSITIVE);
     private static final String BONITA_LOGIN_PATH = "/bonita/loginservice";
     private static final String JSESSIONID_COOKIE = "JSESSIONID";
     private static final String BONITA_API_TOKEN_COOKIE = "X-Bonita-API-Token";
     private static final String BONITA_API_TOKEN_HEADER = "X-Bonita-API-Token";
+    // Local idle lifetime of a Bonita session, shorter than the server default of 30 minutes
+    private static final long BONITA_SESSION_TTL_MS = 25 * 60 * 1000L;
 
-    // Shared HttpClient instances for connection pooling
-    private static final HttpClient SECURE_CLIENT;
-    private static final HttpClient INSECURE_CLIENT;
+    // Shared HttpClient instances, one per connection behavior (TLS, redirects, version, timeout, proxy)
+    private static final HttpClientPool CLIENTS = new HttpClientPool(HttpClientPool.DEFAULT_MAX_SIZE);
 
-    // OAuth2 token cache (cacheKey -> CachedToken)
-    private static final ConcurrentHashMap<String, CachedToken> TOKEN_CACHE = new ConcurrentHashMap<>();
+    // OAuth2 token cache ((tenant, cacheKey) -> CachedToken)
+    private static final CredentialCache<CachedToken> TOKEN_CACHE =
+            new CredentialCache<>("OAuth2 token", CredentialCache.DEFAULT_MAX_SIZE, CachedToken::expiresAt);
 
-    // Bonita session cache (baseUrl:user -> CachedSession)
-    private static final ConcurrentHashMap<String, CachedSession> BONITA_SESSION_CACHE = new ConcurrentHashMap<>();
+    // OAuth2 refresh tokens, by the same key as the access token they renew
+    private static final CredentialCache<CachedRefreshToken> REFRESH_TOKEN_CACHE = new CredentialCache<>(
+            "OAuth2 refresh token", CredentialCache.DEFAULT_MAX_SIZE, CachedRefreshToken::expiresAt);
 
-    static {
-        SECURE_CLIENT = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMillis(DEFAULT_TIMEOUT_MS))
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
+    // Bonita session cache ((tenant, baseUrl:user) -> CachedSession)
+    private static final CredentialCache<CachedSession> BONITA_SESSION_CACHE =
+            new CredentialCache<>("Bonita session", CredentialCache.DEFAULT_MAX_SIZE, CachedSession::expiresAt);
 
-        HttpClient insecure;
-        try {
-            SSLContext sslContext = SSLContext.getInstance("TLS");
-            sslContext.init(null, new TrustManager[]{new TrustAllManager()}, new java.security.SecureRandom());
-            insecure = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofMillis(DEFAULT_TIMEOUT_MS))
-                    .followRedirects(HttpClient.Redirect.NORMAL)
-                    .sslContext(sslContext)
-                    .build();
-        } catch (Exception e) {
-            insecure = SECURE_CLIENT;
-        }
-        INSECURE_CLIENT = insecure;
+    // In-flight token requests / Bonita logins, one per tenant-scoped cache key
+    private static final SingleFlight<String, String> TOKEN_FETCHES = new SingleFlight<>();
+    private static final SingleFlight<String, CachedSession> SESSION_LOGINS = new SingleFlight<>();
+    // In-flight idempotent requests, one per request fingerprint
+    private static final SingleFlight<String, RestServiceResponse> REQUEST_FLIGHTS = new SingleFlight<>();
+    private static final RetryScheduler RETRIES = new RetryScheduler();
+    private static final CircuitBreakerRegistry CIRCUIT_BREAKERS = new CircuitBreakerRegistry();
+    private static final RateLimiterRegistry RATE_LIMITERS = new RateLimiterRegistry();
+    private static final BulkheadRegistry BULKHEADS = new BulkheadRegistry();
+    private static final HedgerRegistry HEDGERS = new HedgerRegistry();
+
+    private static volatile long globalMaxResponseBytes;
+    private static volatile ResponseCache responseCache = new ResponseCache();
+    private static volatile boolean requestCoalescing = true;
+
+    private final String tenantId;
+
+    /**
+     * Creates an executor whose cached tokens and sessions belong to the default tenant.
+     */
+    public HttpExecutor() {
+        this(CredentialCache.DEFAULT_TENANT);
     }
 
-    public HttpExecutor() {}
+    /**
+     * Creates an executor whose cached tokens and sessions are scoped to a tenant, so that
+     * identical client ids or usernames of different tenants never share a credential.
+     *
+     * @param tenantId The tenant scope (null or blank means the default tenant)
+     */
+    public HttpExecutor(String tenantId) {
+        this.tenantId = tenantId == null || tenantId.isBlank() ? CredentialCache.DEFAULT_TENANT : tenantId;
+    }
 
     /**
-     * Executes a REST service request.
+     * @return The tenant scope of the cached credentials used by this executor
+     */
+    public String tenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Executes a REST service request, blocking until the response is available.
+     * <p>
+     * Thin wrapper around {@link #executeAsync(RestServiceRequest)}.
+     * </p>
      *
      * @param request The REST service request configuration
      * @return The REST service response
      */
     public RestServiceResponse execute(RestServiceRequest request) {
+        return executeAsync(request).join();
+    }
+
+    /**
+     * Executes a REST service request without blocking the calling thread.
+     * <p>
+     * The call is sent with {@link HttpClient#sendAsync}; OAuth2 token and Bonita session
+     * acquisition are chained asynchronously as well. The returned future never completes
+     * exceptionally: failures are mapped to an error {@link RestServiceResponse}.
+     * GET requests with {@link RestServiceRequest#cacheOptions() cache options} go through the
+     * shared {@link ResponseCache}. Identical body-less GET and HEAD requests sent while one of them
+     * is in flight share its response (see {@link #setRequestCoalescing(boolean)}). Failed calls are
+     * retried on a timer as the request's {@link RestServiceRequest#retryPolicy() retry policy} allows.
+     * Requests with {@link RestServiceRequest#circuitBreakerOptions() circuit breaker options} fail fast
+     * with an error response while the breaker of their target is open (see {@link #circuitBreakers()});
+     * the breaker admits and records every attempt, and a rejected attempt ends the retries.
+     * Requests with a {@link RestServiceRequest#rateLimit() rate limit} wait on a timer for their turn
+     * before every attempt, and end with an error response, without retries, when their turn is
+     * further away than the limit's {@code maxWaitMs} (see {@link #rateLimiters()}). Requests with
+     * {@link RestServiceRequest#bulkheadOptions() bulkhead options} wait for a slot of their target's
+     * bulkhead for every call sent, and are shed with an error response when its queue is full
+     * (see {@link #bulkheads()}); a slot is only held during the HTTP exchange, not across retry waits.
+     * GET and HEAD requests with a {@link RestServiceRequest#hedgePolicy() hedging policy} are sent a
+     * second time when slow; the first response wins and the other call is cancelled (see {@link #hedgers()}).
+     * </p>
+     *
+     * @param request The REST service request configuration
+     * @return A future completed with the REST service response
+     */
+    public CompletableFuture<RestServiceResponse> executeAsync(RestServiceRequest request) {
+        ResponseCache cache = responseCache;
+        if (cache.handles(request)) {
+            return cache.execute(request, tenantId, this::retryingSendAsync);
+        }
+        return retryingSendAsync(request);
+    }
+
+    private CompletableFuture<RestServiceResponse> retryingSendAsync(RestServiceRequest request) {
+        // A call refused locally ends the retries and surfaces as an error response
+        CompletableFuture<RestServiceResponse> attempts = RETRIES.execute(request, this::coalescedSendAsync);
+        return InFlightCall.linked(attempts, attempts.exceptionally(e -> rejected(request, unwrap(e))));
+    }
+
+    private CompletableFuture<RestServiceResponse> coalescedSendAsync(RestServiceRequest request) {
+        if (!requestCoalescing || !isCoalescable(request)) {
+            return guardedSendAsync(request);
+        }
+        return REQUEST_FLIGHTS.load(RequestFingerprint.of(request, tenantId), () -> guardedSendAsync(request));
+    }
+
+    private CompletableFuture<RestServiceResponse> guardedSendAsync(RestServiceRequest request) {
+        if (!request.circuitBreakerOptions().enabled()) {
+            return hedgedSendAsync(request);
+        }
+        return CIRCUIT_BREAKERS.execute(request, this::hedgedSendAsync);
+    }
+
+    private CompletableFuture<RestServiceResponse> hedgedSendAsync(RestServiceRequest request) {
+        if (!HedgerRegistry.handles(request)) {
+            return limitedSendAsync(request);
+        }
+        return HEDGERS.execute(request, this::limitedSendAsync);
+    }
+
+    private CompletableFuture<RestServiceResponse> limitedSendAsync(RestServiceRequest request) {
+        if (!request.rateLimit().enabled()) {
+            return isolatedSendAsync(request);
+        }
+        return RATE_LIMITERS.execute(request, tenantId, this::isolatedSendAsync);
+    }
+
+    private CompletableFuture<RestServiceResponse> isolatedSendAsync(RestServiceRequest request) {
+        if (!request.bulkheadOptions().enabled()) {
+            return sendAsync(request);
+        }
+        return BULKHEADS.execute(request, this::sendAsync);
+    }
+
+    /**
+     * Only safe, body-less requests whose response is held in memory can be shared: a file or a
+     * live stream belongs to a single caller, which releases it.
+     */
+    private static boolean isCoalescable(RestServiceRequest request) {
+        RestResponseMode mode = request.responseOptions().mode();
+        return (request.method() == RestHttpMethod.GET || request.method() == RestHttpMethod.HEAD)
+                && !request.hasBody() && !request.hasRawBody() && !request.hasStreamingBody()
+                && (mode == RestResponseMode.STRING || mode == RestResponseMode.BYTES);
+    }
+
+    private CompletableFuture<RestServiceResponse> sendAsync(RestServiceRequest request) {
         long startTime = System.currentTimeMillis();
         String requestUrl = request.buildFullUrl();
 
         try {
             LOGGER.info("Executing REST request: {} {}", request.method(), requestUrl);
 
-            HttpClient client = request.verifySsl() ? SECURE_CLIENT : INSECURE_CLIENT;
-
-            HttpRequest.Builder httpRequestBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(requestUrl))
-                    .timeout(Duration.ofMillis(
-                            Math.min(request.timeoutMs() > 0 ? request.timeoutMs() : DEFAULT_TIMEOUT_MS, MAX_TIMEOUT_MS)));
-
-            // Apply headers
-            Map<String, String> allHeaders = request.buildAllHeaders();
-            allHeaders.forEach(httpRequestBuilder::header);
+            HttpClientPool.Key clientKey = HttpClientPool.Key.of(request);
+            HttpClient client = CLIENTS.client(clientKey);
+            HttpRequest.Builder httpRequestBuilder = buildHttpRequest(request, requestUrl);
 
-            // Handle Bonita session-based authentication (JSESSIONID + CSRF token)
-            if (request.auth() != null && isBasicAuth(request.auth()) && isBonitaApiUrl(requestUrl)) {
+            HttpResponse.BodyHandler<ReceivedBody> bodyHandler =
+                    ResponseBodyHandlers.of(request.responseOptions(), maxResponseBytes(request));
+            CompletableFuture<HttpResponse<ReceivedBody>> exchange;
+            InFlightCall call = new InFlightCall();
+            if (usesBonitaSession(request, requestUrl)) {
+                // Handle Bonita session-based authentication (session cookies + CSRF token)
                 LOGGER.debug("Detected Bonita API URL, using session-based authentication");
-                CachedSession session = getBonitaSession(requestUrl, request.auth(), request.verifySsl());
-                if (session != null) {
-                    httpRequestBuilder.header("Cookie", JSESSIONID_COOKIE + "=" + session.sessionId());
-                    if (session.apiToken() != null && !session.apiToken().isEmpty()) {
-                        httpRequestBuilder.header(BONITA_API_TOKEN_HEADER, session.apiToken());
-                    }
-                }
+                exchange = sendWithBonitaSession(request, requestUrl, client, httpRequestBuilder, bodyHandler, call);
+            } else {
+                // Token endpoints are always called with certificate verification
+                HttpClient tokenClient = CLIENTS.client(clientKey.withVerifySsl(true));
+                exchange = resolveAuthHeaders(request, tokenClient).thenCompose(authHeaders -> {
+                    authHeaders.forEach(httpRequestBuilder::header);
+                    return call.send(() -> client.sendAsync(httpRequestBuilder.build(), bodyHandler));
+                });
             }
 
-            // Handle OAuth2 authentication
-            if (request.auth() != null && isOAuth2Auth(request.auth())) {
-                String token = getOAuth2Token(request.auth());
-                if (token != null) {
-                    httpRequestBuilder.header("Authorization", "Bearer " + token);
-                }
-            }
+            // Cancelling the result (e.g. the losing call of a hedged request) aborts the exchange in
+            // flight, or drops the call while it waits for its credentials
+            return call.cancelledWith(exchange
+                    .thenApply(response -> toRestServiceResponse(request, requestUrl, response, startTime))
+                    .exceptionally(e -> {
+                        if (unwrap(e) instanceof ResponseTooLargeException tooLarge) {
+                            throw refused(request, requestUrl, tooLarge);
+                        }
+                        return failure(request, requestUrl, unwrap(e), startTime);
+                    }));
 
-            // Set HTTP method and body (rawBody takes precedence for multipart)
-            HttpRequest.BodyPublisher bodyPublisher;
-            if (request.hasRawBody()) {
-                bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(request.rawBody());
-            } else if (request.hasBody()) {
-                bodyPublisher = HttpRequest.BodyPublishers.ofString(request.body());
-            } else {
-                bodyPublisher = HttpRequest.BodyPublishers.noBody();
-            }
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(failure(request, requestUrl, e, startTime));
+        }
+    }
 
-            switch (request.method()) {
-                case GET -> httpRequestBuilder.GET();
-                case POST -> httpRequestBuilder.POST(bodyPublisher);
-                case PUT -> httpRequestBuilder.PUT(bodyPublisher);
-                case DELETE -> httpRequestBuilder.DELETE();
-                case PATCH -> httpRequestBuilder.method("PATCH", bodyPublisher);
-                case HEAD -> httpRequestBuilder.method("HEAD", HttpRequest.BodyPublishers.noBody());
-                case OPTIONS -> httpRequestBuilder.method("OPTIONS", HttpRequest.BodyPublishers.noBody());
-                default -> httpRequestBuilder.method(request.method().name(), bodyPublisher);
-            }
+    private HttpRequest.Builder buildHttpRequest(RestServiceRequest request, String requestUrl) {
+        HttpRequest.Builder httpRequestBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(requestUrl))
+                .timeout(Duration.ofMillis(
+                        Math.min(request.timeoutMs() > 0 ? request.timeoutMs() : DEFAULT_TIMEOUT_MS, MAX_TIMEOUT_MS)));
+
+        // Apply headers
+        Map<String, String> allHeaders = request.buildAllHeaders();
+        allHeaders.forEach(httpRequestBuilder::header);
+        if (request.responseOptions().acceptCompression()
+                && allHeaders.keySet().stream().noneMatch(ACCEPT_ENCODING::equalsIgnoreCase)) {
+            httpRequestBuilder.header(ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+        }
 
-            HttpResponse<String> response = client.send(
-                    httpRequestBuilder.build(),
-                    HttpResponse.BodyHandlers.ofString());
+        // Set HTTP method and body (streaming publisher, then rawBody take precedence for multipart)
+        HttpRequest.BodyPublisher bodyPublisher;
+        if (request.hasStreamingBody()) {
+            bodyPublisher = request.bodyPublisher();
+        } else if (request.hasRawBody()) {
+            bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(request.rawBody());
+        } else if (request.hasBody()) {
+            bodyPublisher = HttpRequest.BodyPublishers.ofString(request.body());
+        } else {
+            bodyPublisher = HttpRequest.BodyPublishers.noBody();
+        }
+        if (request.method().supportsBody() && request.requestCompression().appliesTo(bodyPublisher.contentLength())
+                && allHeaders.keySet().stream().noneMatch(CONTENT_ENCODING::equalsIgnoreCase)) {
+            // Compressed while sent; a caller-supplied Content-Encoding means the body is already encoded
+            bodyPublisher = new GzipBodyPublisher(bodyPublisher);
+            httpRequestBuilder.header(CONTENT_ENCODING, "gzip");
+        }
 
-            long executionTime = System.currentTimeMillis() - startTime;
+        switch (request.method()) {
+            case GET -> httpRequestBuilder.GET();
+            case POST -> httpRequestBuilder.POST(bodyPublisher);
+            case PUT -> httpRequestBuilder.PUT(bodyPublisher);
+            case DELETE -> httpRequestBuilder.DELETE();
+            case PATCH -> httpRequestBuilder.method("PATCH", bodyPublisher);
+            case HEAD -> httpRequestBuilder.method("HEAD", HttpRequest.BodyPublishers.noBody());
+            case OPTIONS -> httpRequestBuilder.method("OPTIONS", HttpRequest.BodyPublishers.noBody());
+            default -> httpRequestBuilder.method(request.method().name(), bodyPublisher);
+        }
+        return httpRequestBuilder;
+    }
 
-            Map<String, String> responseHeaders = new HashMap<>();
-            response.headers().map().forEach((key, values) -> {
-                if (!values.isEmpty()) {
-                    responseHeaders.put(key, values.get(0));
-                }
-            });
+    private RestServiceResponse toRestServiceResponse(RestServiceRequest request, String requestUrl,
+                                                      HttpResponse<ReceivedBody> response, long startTime) {
+        long executionTime = System.currentTimeMillis() - startTime;
+
+        ReceivedBody received = response.body();
+        boolean decompressed = received.compressedBytes() >= 0;
+        Map<String, String> responseHeaders = new HashMap<>();
+        response.headers().map().forEach((key, values) -> {
+            // A decompressed body no longer matches its Content-Encoding and Content-Length headers
+            boolean encodingHeader = CONTENT_ENCODING.equalsIgnoreCase(key) || "Content-Length".equalsIgnoreCase(key);
+            if (!values.isEmpty() && !(decompressed && encodingHeader)) {
+                responseHeaders.put(key, values.get(0));
+            }
+        });
 
-            RestContentType contentType = determineContentType(
-                    response.headers().firstValue("Content-Type").orElse("application/json"));
+        RestContentType contentType = determineContentType(
+                response.headers().firstValue("Content-Type").orElse("application/json"));
 
-            LOGGER.info("REST request completed: {} {} -> {} in {}ms",
-                    request.method(), requestUrl, response.statusCode(), executionTime);
+        LOGGER.info("REST request completed: {} {} -> {} in {}ms ({} response)",
+                request.method(), requestUrl, response.statusCode(), executionTime,
+                request.responseOptions().mode().getKey());
 
-            return RestServiceResponse.success(
-                    response.statusCode(), responseHeaders, response.body(),
-                    contentType, executionTime, requestUrl);
+        return RestServiceResponse.success(
+                response.statusCode(), responseHeaders, received.content(),
+                contentType, executionTime, requestUrl)
+                .withTruncated(received.truncated())
+                .withCompressionSizes(received.compressedBytes(), received.uncompressedBytes());
+    }
 
-        } catch (Exception e) {
-            long executionTime = System.currentTimeMillis() - startTime;
-            LOGGER.error("REST request failed: {} {} - {}", request.method(), requestUrl, e.getMessage(), e);
-            return RestServiceResponse.fromException(e, executionTime, requestUrl);
+    private static RestServiceResponse rejected(RestServiceRequest request, Throwable e) {
+        if (e instanceof CallRejectedException) {
+            return RestServiceResponse.error(e.getMessage(), 0, request.buildFullUrl());
         }
+        LOGGER.error("REST request failed: {} {} - {}", request.method(), request.url(), e.getMessage(), e);
+        Exception exception = e instanceof Exception ex ? ex : new IllegalStateException(e);
+        return RestServiceResponse.fromException(exception, 0, request.buildFullUrl());
+    }
+
+    /**
+     * An oversized body is refused locally: sending the call again would download it again, and the
+     * target did not fail. No usable response was received, so it is reported as an error, never as a 2xx.
+     */
+    private static CallRejectedException refused(RestServiceRequest request, String requestUrl,
+            ResponseTooLargeException tooLarge) {
+        LOGGER.warn("REST request aborted: {} {} -> {} - {}", request.method(), requestUrl,
+                tooLarge.statusCode(), tooLarge.getMessage());
+        return new CallRejectedException(tooLarge.getMessage());
+    }
+
+    private RestServiceResponse failure(RestServiceRequest request, String requestUrl, Throwable e, long startTime) {
+        long executionTime = System.currentTimeMillis() - startTime;
+        LOGGER.error("REST request failed: {} {} - {}", request.method(), requestUrl, e.getMessage(), e);
+        Exception exception = e instanceof Exception ex ? ex : new IllegalStateException(e);
+        return RestServiceResponse.fromException(exception, executionTime, requestUrl);
     }
 
     // ========================================================================
     // Authentication helpers
     // ========================================================================
 
+    /**
+     * Resolves the headers that require a round trip (OAuth2 bearer token).
+     * Completes immediately when the request needs none of them.
+     */
+    private CompletableFuture<Map<String, String>> resolveAuthHeaders(RestServiceRequest request, HttpClient client) {
+        RestAuthConfig auth = request.auth();
+        if (auth == null) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        // Handle OAuth2 authentication
+        if (isOAuth2Auth(auth)) {
+            return getOAuth2TokenAsync(auth, client).thenApply(token ->
+                    token != null ? Map.of("Authorization", "Bearer " + token) : Map.<String, String>of());
+        }
+
+        return CompletableFuture.completedFuture(Map.of());
+    }
+
     private boolean isOAuth2Auth(RestAuthConfig auth) {
         RestAuthenticationType type = auth.getAuthType();
         return type == RestAuthenticationType.OAUTH2_CLIENT_CREDENTIALS
@@ -196,6 +419,10 @@ public final class HttpExecutor {
         return auth.getAuthType() == RestAuthenticationType.BASIC;
     }
 
+    private boolean usesBonitaSession(RestServiceRequest request, String requestUrl) {
+        return request.auth() != null && isBasicAuth(request.auth()) && isBonitaApiUrl(requestUrl);
+    }
+
     private boolean isBonitaApiUrl(String url) {
         return BONITA_API_PATTERN.matcher(url).matches();
     }
@@ -205,39 +432,143 @@ public final class HttpExecutor {
         return matcher.matches() ? matcher.group(1) : null;
     }
 
-    private CachedSession getBonitaSession(String requestUrl, RestAuthConfig auth, boolean verifySsl) {
+    private CompletableFuture<CachedSession> getBonitaSessionAsync(String requestUrl, RestAuthConfig auth,
+                                                                   HttpClient client) {
         String baseUrl = extractBonitaBaseUrl(requestUrl);
-        if (baseUrl == null) return null;
+        if (baseUrl == null) return CompletableFuture.completedFuture(null);
 
-        String username = "";
-        if (auth instanceof RestAuthConfig.BasicAuth basicAuth) {
-            username = basicAuth.username();
-        }
-        String cacheKey = baseUrl + ":" + username;
+        String cacheKey = bonitaSessionKey(baseUrl, auth);
 
-        CachedSession cached = BONITA_SESSION_CACHE.get(cacheKey);
-        if (cached != null && !cached.isExpired()) {
+        CachedSession cached = BONITA_SESSION_CACHE.get(tenantId, cacheKey);
+        if (cached != null) {
             LOGGER.debug("Using cached Bonita session for {}", baseUrl);
-            return cached;
+            return CompletableFuture.completedFuture(cached);
         }
 
-        try {
-            CachedSession session = loginToBonita(baseUrl, auth, verifySsl);
-            if (session != null) {
-                BONITA_SESSION_CACHE.put(cacheKey, session);
-                LOGGER.info("Bonita session obtained and cached for {}", baseUrl);
+        // Concurrent misses for the same baseUrl:user share a single login
+        return SESSION_LOGINS.load(tenantId + "|" + cacheKey, () -> {
+            // A login for this key may have completed between the cache check and winning the key
+            CachedSession fresh = BONITA_SESSION_CACHE.peek(tenantId, cacheKey);
+            if (fresh != null && !fresh.isExpired()) {
+                return CompletableFuture.completedFuture(fresh);
             }
-            return session;
-        } catch (Exception e) {
-            LOGGER.error("Failed to login to Bonita at {}: {}", baseUrl, e.getMessage(), e);
-            return null;
+            return loginToBonitaAsync(baseUrl, auth, client)
+                    .thenApply(session -> {
+                        if (session != null) {
+                            BONITA_SESSION_CACHE.put(tenantId, cacheKey, session);
+                            LOGGER.info("Bonita session obtained and cached for {}", baseUrl);
+                        }
+                        return session;
+                    })
+                    .exceptionally(e -> {
+                        LOGGER.error("Failed to login to Bonita at {}: {}", baseUrl, unwrap(e).getMessage(), unwrap(e));
+                        return null;
+                    });
+        });
+    }
+
+    private static String bonitaSessionKey(String baseUrl, RestAuthConfig auth) {
+        String username = auth instanceof RestAuthConfig.BasicAuth basicAuth ? basicAuth.username() : "";
+        return baseUrl + ":" + username;
+    }
+
+    /**
+     * Sends a Bonita API request with the user's session. When Bonita rejects the session
+     * (expired early, server restart, CSRF token no longer valid), the session is dropped,
+     * a new login is performed (shared by all requests that hit the rejection) and the
+     * request is retried once, unless its body can only be sent once. Each exchange is sent
+     * through {@code call}, so that cancelling the call aborts it.
+     */
+    private CompletableFuture<HttpResponse<ReceivedBody>> sendWithBonitaSession(
+            RestServiceRequest request, String requestUrl, HttpClient client,
+            HttpRequest.Builder httpRequestBuilder, HttpResponse.BodyHandler<ReceivedBody> bodyHandler,
+            InFlightCall call) {
+        URI uri = URI.create(requestUrl);
+        return getBonitaSessionAsync(requestUrl, request.auth(), client)
+                .thenCompose(session -> sendInSession(
+                                client, httpRequestBuilder.copy(), uri, session, bodyHandler, call)
+                        .thenCompose(response -> {
+                            if (session == null || !isSessionRejected(response, session)) {
+                                return CompletableFuture.completedFuture(response);
+                            }
+                            if (!request.repeatableBody()) {
+                                LOGGER.warn("Bonita rejected the session with {} for {} {}; its body can only be "
+                                        + "sent once, so it is not sent again", response.statusCode(),
+                                        request.method(), requestUrl);
+                                BONITA_SESSION_CACHE.invalidate(tenantId, bonitaSessionKey(
+                                        extractBonitaBaseUrl(requestUrl), request.auth()), session);
+                                return CompletableFuture.completedFuture(response);
+                            }
+                            LOGGER.info("Bonita rejected the session with {} for {} {}, logging in again",
+                                    response.statusCode(), request.method(), requestUrl);
+                            return reloginToBonitaAsync(requestUrl, request.auth(), client, session)
+                                    .thenCompose(fresh -> {
+                                        if (fresh == null) {
+                                            return CompletableFuture.completedFuture(response);
+                                        }
+                                        // Free the rejected body (open stream or temp file) before retrying
+                                        response.body().content().release();
+                                        return sendInSession(client, httpRequestBuilder.copy(), uri, fresh,
+                                                bodyHandler, call);
+                                    });
+                        }));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendInSession(HttpClient client, HttpRequest.Builder builder,
+                                                                 URI uri, CachedSession session,
+                                                                 HttpResponse.BodyHandler<T> bodyHandler,
+                                                                 InFlightCall call) {
+        if (session != null) {
+            String cookieHeader = session.cookieHeader(uri);
+            if (!cookieHeader.isEmpty()) {
+                builder.header("Cookie", cookieHeader);
+            }
+            String apiToken = session.cookie(BONITA_API_TOKEN_COOKIE);
+            if (apiToken != null && !apiToken.isEmpty()) {
+                builder.header(BONITA_API_TOKEN_HEADER, apiToken);
+            }
+        }
+        return call.send(() -> client.sendAsync(builder.build(), bodyHandler))
+                .thenApply(response -> {
+                    if (session != null && !isSessionRejected(response, session)) {
+                        // Pick up cookies renewed by the server and slide the local expiry
+                        session.store(uri, response.headers());
+                        session.touch();
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * A 401 always means the session is gone. A 403 on a state-changing method is a CSRF rejection
+     * only when the CSRF token ({@code X-Bonita-API-Token}) was missing from the session or the
+     * request; any other 403 is an authorization denial, returned as is with the session kept.
+     */
+    private static boolean isSessionRejected(HttpResponse<?> response, CachedSession session) {
+        int status = response.statusCode();
+        if (status == 401) {
+            return true;
         }
+        return status == 403 && switch (response.request().method()) {
+            case "GET", "HEAD", "OPTIONS" -> false;
+            default -> session.cookie(BONITA_API_TOKEN_COOKIE) == null
+                    || response.request().headers().firstValue(BONITA_API_TOKEN_HEADER).isEmpty();
+        };
+    }
+
+    private CompletableFuture<CachedSession> reloginToBonitaAsync(String requestUrl, RestAuthConfig auth,
+                                                                  HttpClient client, CachedSession rejected) {
+        String cacheKey = bonitaSessionKey(extractBonitaBaseUrl(requestUrl), auth);
+        // Only drop the rejected session: if another request already logged in again, reuse its session
+        BONITA_SESSION_CACHE.invalidate(tenantId, cacheKey, rejected);
+        return getBonitaSessionAsync(requestUrl, auth, client);
     }
 
-    private CachedSession loginToBonita(String baseUrl, RestAuthConfig auth, boolean verifySsl) throws Exception {
+    private CompletableFuture<CachedSession> loginToBonitaAsync(String baseUrl, RestAuthConfig auth,
+                                                                HttpClient client) {
         if (!(auth instanceof RestAuthConfig.BasicAuth basicAuth)) {
             LOGGER.error("Bonita login requires Basic auth config");
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         String loginUrl = baseUrl + BONITA_LOGIN_PATH;
@@ -247,38 +578,29 @@ public final class HttpExecutor {
                 + "&password=" + encode(basicAuth.password())
                 + "&redirect=false";
 
-        HttpClient client = verifySsl ? SECURE_CLIENT : INSECURE_CLIENT;
-
+        URI loginUri = URI.create(loginUrl);
         HttpRequest loginRequest = HttpRequest.newBuilder()
-                .uri(URI.create(loginUrl))
+                .uri(loginUri)
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .POST(HttpRequest.BodyPublishers.ofString(loginBody))
                 .timeout(Duration.ofSeconds(30))
                 .build();
 
-        HttpResponse<String> response = client.send(loginRequest, HttpResponse.BodyHandlers.ofString());
+        return client.sendAsync(loginRequest, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> parseBonitaLoginResponse(loginUri, response));
+    }
 
+    private CachedSession parseBonitaLoginResponse(URI loginUri, HttpResponse<String> response) {
         if (response.statusCode() == 200 || response.statusCode() == 204) {
-            List<String> cookies = response.headers().allValues("Set-Cookie");
-            String sessionId = null;
-            String apiToken = null;
+            CachedSession session = new CachedSession();
+            session.store(loginUri, response.headers());
 
-            for (String cookie : cookies) {
-                if (cookie.startsWith(JSESSIONID_COOKIE + "=")) {
-                    sessionId = cookie.split(";")[0].substring(JSESSIONID_COOKIE.length() + 1);
-                }
-                if (cookie.startsWith(BONITA_API_TOKEN_COOKIE + "=")) {
-                    apiToken = cookie.split(";")[0].substring(BONITA_API_TOKEN_COOKIE.length() + 1);
-                }
-            }
-
-            if (sessionId != null) {
-                if (apiToken == null) {
+            if (session.cookie(JSESSIONID_COOKIE) != null) {
+                if (session.cookie(BONITA_API_TOKEN_COOKIE) == null) {
                     LOGGER.warn("Bonita login succeeded but no X-Bonita-API-Token cookie found. "
                             + "POST/PUT/DELETE requests may fail with CSRF 403.");
                 }
-                return new CachedSession(sessionId, apiToken,
-                        System.currentTimeMillis() + 25 * 60 * 1000);
+                return session;
             }
             LOGGER.warn("Bonita login returned {} but no JSESSIONID cookie found", response.statusCode());
         } else {
@@ -287,49 +609,101 @@ public final class HttpExecutor {
         return null;
     }
 
-    private String getOAuth2Token(RestAuthConfig auth) {
+    private CompletableFuture<String> getOAuth2TokenAsync(RestAuthConfig auth, HttpClient client) {
         if (auth instanceof RestAuthConfig.OAuth2ClientCredentials oauth2) {
             String cacheKey = "cc:" + oauth2.clientId() + ":" + oauth2.tokenUrl();
-            CachedToken cached = TOKEN_CACHE.get(cacheKey);
-            if (cached != null && !cached.isExpired()) {
+            Supplier<CompletableFuture<TokenResponse>> tokenRequest =
+                    () -> requestOAuth2ClientCredentialsTokenAsync(oauth2, client);
+            CachedToken cached = TOKEN_CACHE.get(tenantId, cacheKey);
+            if (cached != null) {
                 LOGGER.debug("Using cached OAuth2 token for {}", oauth2.clientId());
-                return cached.value;
+                return CompletableFuture.completedFuture(use(cached, cacheKey, tokenRequest, "OAuth2"));
             }
-            try {
-                String token = requestOAuth2ClientCredentialsToken(oauth2);
-                if (token != null) {
-                    TOKEN_CACHE.put(cacheKey,
-                            new CachedToken(token, System.currentTimeMillis() + 55 * 60 * 1000));
-                }
-                return token;
-            } catch (Exception e) {
-                LOGGER.error("Failed to get OAuth2 token: {}", e.getMessage(), e);
-                return null;
+            return fetchToken(cacheKey, tokenRequest, "OAuth2");
+        }
+        if (auth instanceof RestAuthConfig.OAuth2Password password) {
+            String cacheKey = "pw:" + password.clientId() + ":" + password.username() + ":" + password.tokenUrl();
+            Supplier<CompletableFuture<TokenResponse>> tokenRequest =
+                    () -> requestPasswordTokenAsync(cacheKey, password, client);
+            CachedToken cached = TOKEN_CACHE.get(tenantId, cacheKey);
+            if (cached != null) {
+                LOGGER.debug("Using cached OAuth2 Password token for {}", password.username());
+                return CompletableFuture.completedFuture(use(cached, cacheKey, tokenRequest, "OAuth2 Password"));
             }
+            return fetchToken(cacheKey, tokenRequest, "OAuth2 Password");
         }
         if (auth instanceof RestAuthConfig.OAuth2JwtBearer jwtBearer) {
             String cacheKey = "jwt:" + jwtBearer.serviceAccountEmail() + ":" + jwtBearer.tokenUrl();
-            CachedToken cached = TOKEN_CACHE.get(cacheKey);
-            if (cached != null && !cached.isExpired()) {
+            Supplier<CompletableFuture<TokenResponse>> tokenRequest =
+                    () -> requestJwtBearerTokenAsync(jwtBearer, client);
+            CachedToken cached = TOKEN_CACHE.get(tenantId, cacheKey);
+            if (cached != null) {
                 LOGGER.debug("Using cached OAuth2 JWT Bearer token for {}", jwtBearer.serviceAccountEmail());
-                return cached.value;
+                return CompletableFuture.completedFuture(use(cached, cacheKey, tokenRequest, "OAuth2 JWT Bearer"));
             }
-            try {
-                String token = requestJwtBearerToken(jwtBearer);
-                if (token != null) {
-                    TOKEN_CACHE.put(cacheKey,
-                            new CachedToken(token, System.currentTimeMillis() + 55 * 60 * 1000));
-                }
-                return token;
-            } catch (Exception e) {
-                LOGGER.error("Failed to get OAuth2 JWT Bearer token: {}", e.getMessage(), e);
-                return null;
+            return fetchToken(cacheKey, tokenRequest, "OAuth2 JWT Bearer");
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Requests a token and caches it. Concurrent misses for the same cache key share a single
+     * token request instead of each calling the token endpoint.
+     */
+    private CompletableFuture<String> fetchToken(String cacheKey,
+                                                 Supplier<CompletableFuture<TokenResponse>> tokenRequest,
+                                                 String flowName) {
+        return TOKEN_FETCHES.load(tenantId + "|" + cacheKey, () -> {
+            // A request for this key may have completed between the cache check and winning the key
+            CachedToken fresh = TOKEN_CACHE.peek(tenantId, cacheKey);
+            if (fresh != null && !fresh.isExpired()) {
+                return CompletableFuture.completedFuture(fresh.value());
             }
+            return requestAndCacheToken(cacheKey, tokenRequest, flowName);
+        });
+    }
+
+    private CompletableFuture<String> requestAndCacheToken(String cacheKey,
+                                                           Supplier<CompletableFuture<TokenResponse>> tokenRequest,
+                                                           String flowName) {
+        return tokenRequest.get()
+                .thenApply(tokenResponse -> {
+                    if (tokenResponse == null) {
+                        return null;
+                    }
+                    long now = System.currentTimeMillis();
+                    CachedToken token = CachedToken.of(tokenResponse, now);
+                    TOKEN_CACHE.put(tenantId, cacheKey, token);
+                    // A response without refresh_token keeps the previous one (RFC 6749 section 6)
+                    if (tokenResponse.refreshToken() != null) {
+                        REFRESH_TOKEN_CACHE.put(tenantId, cacheKey,
+                                new CachedRefreshToken(tokenResponse.refreshToken(), now + REFRESH_TOKEN_TTL_MS));
+                    }
+                    return tokenResponse.accessToken();
+                })
+                .exceptionally(e -> {
+                    LOGGER.error("Failed to get {} token: {}", flowName, unwrap(e).getMessage(), unwrap(e));
+                    return null;
+                });
+    }
+
+    /**
+     * Returns a cached token and, the first time it is used past its refresh-ahead point, renews it
+     * in the background. Idle tokens are left to expire. The refresh is started by a call rather than
+     * a timer: a static timer task would keep the classloader of a redeployed extension alive until
+     * it fires. A failed refresh keeps the current token until it expires.
+     */
+    private String use(CachedToken token, String cacheKey,
+                       Supplier<CompletableFuture<TokenResponse>> tokenRequest, String flowName) {
+        if (token.startRefresh()) {
+            LOGGER.debug("Refreshing {} token ahead of expiry", flowName);
+            TOKEN_FETCHES.load(tenantId + "|" + cacheKey, () -> requestAndCacheToken(cacheKey, tokenRequest, flowName));
         }
-        return null;
+        return token.value();
     }
 
-    private String requestOAuth2ClientCredentialsToken(RestAuthConfig.OAuth2ClientCredentials config) throws Exception {
+    private CompletableFuture<TokenResponse> requestOAuth2ClientCredentialsTokenAsync(
+            RestAuthConfig.OAuth2ClientCredentials config, HttpClient client) {
         LOGGER.info("Requesting OAuth2 Client Credentials token from: {}", config.tokenUrl());
 
         String body = config.getTokenRequestBody();
@@ -342,69 +716,127 @@ public final class HttpExecutor {
 
         tokenHeaders.forEach(reqBuilder::header);
 
-        HttpResponse<String> response = SECURE_CLIENT.send(reqBuilder.build(), HttpResponse.BodyHandlers.ofString());
+        return client.sendAsync(reqBuilder.build(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> readTokenResponse(response, "OAuth2"));
+    }
 
-        if (response.statusCode() >= 200 && response.statusCode() < 300) {
-            String responseBody = response.body();
-            // Simple JSON parsing to avoid Jackson dependency in the critical path
-            int tokenStart = responseBody.indexOf("\"access_token\"");
-            if (tokenStart >= 0) {
-                int valueStart = responseBody.indexOf(":", tokenStart) + 1;
-                int valueEnd = responseBody.indexOf(",", valueStart);
-                if (valueEnd < 0) valueEnd = responseBody.indexOf("}", valueStart);
-                String tokenValue = responseBody.substring(valueStart, valueEnd).trim();
-                if (tokenValue.startsWith("\"")) {
-                    tokenValue = tokenValue.substring(1, tokenValue.length() - 1);
-                }
-                LOGGER.info("OAuth2 token obtained successfully");
-                return tokenValue;
-            }
+    /**
+     * Gets a token for the resource owner password flow. When a previous response returned a
+     * refresh_token, the cheaper refresh grant is used and the user's password is not sent;
+     * if the refresh token is rejected, it is dropped and the full password grant is used.
+     */
+    private CompletableFuture<TokenResponse> requestPasswordTokenAsync(String cacheKey,
+                                                                       RestAuthConfig.OAuth2Password config,
+                                                                       HttpClient client) {
+        CachedRefreshToken refreshToken = REFRESH_TOKEN_CACHE.get(tenantId, cacheKey);
+        if (refreshToken == null) {
+            return postTokenRequest(client, config.tokenUrl(), config.getTokenRequestBody(), "OAuth2 Password");
         }
-
-        LOGGER.error("Failed to get OAuth2 token. Status: {}, Response: {}", response.statusCode(), response.body());
-        return null;
+        return postTokenRequest(client, config.tokenUrl(),
+                config.getRefreshTokenRequestBody(refreshToken.value()), "OAuth2 Refresh Token")
+                .thenCompose(tokenResponse -> {
+                    if (tokenResponse != null) {
+                        return CompletableFuture.completedFuture(tokenResponse);
+                    }
+                    LOGGER.info("OAuth2 refresh token rejected for {}, falling back to password grant",
+                            config.username());
+                    REFRESH_TOKEN_CACHE.invalidate(tenantId, cacheKey, refreshToken);
+                    return postTokenRequest(client, config.tokenUrl(), config.getTokenRequestBody(), "OAuth2 Password");
+                });
     }
 
-    private String requestJwtBearerToken(RestAuthConfig.OAuth2JwtBearer config) throws Exception {
-        LOGGER.info("Requesting OAuth2 JWT Bearer token from: {}", config.tokenUrl());
-
-        String signedJwt = buildSignedJwt(
-                config.serviceAccountEmail(), config.scope(), config.tokenUrl(), config.privateKey());
-        LOGGER.info("JWT assertion built successfully for service account: {}", config.serviceAccountEmail());
-
-        String body = "grant_type=" + encode("urn:ietf:params:oauth:grant-type:jwt-bearer")
-                + "&assertion=" + encode(signedJwt);
+    private CompletableFuture<TokenResponse> postTokenRequest(HttpClient client, String tokenUrl, String body,
+                                                              String flowName) {
+        LOGGER.info("Requesting {} token from: {}", flowName, tokenUrl);
 
         HttpRequest tokenRequest = HttpRequest.newBuilder()
-                .uri(URI.create(config.tokenUrl()))
+                .uri(URI.create(tokenUrl))
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .POST(HttpRequest.BodyPublishers.ofString(body))
                 .timeout(Duration.ofSeconds(30))
                 .build();
 
-        HttpResponse<String> response = SECURE_CLIENT.send(tokenRequest, HttpResponse.BodyHandlers.ofString());
+        return client.sendAsync(tokenRequest, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> readTokenResponse(response, flowName));
+    }
+
+    private CompletableFuture<TokenResponse> requestJwtBearerTokenAsync(RestAuthConfig.OAuth2JwtBearer config,
+                                                                        HttpClient client) {
+        String signedJwt;
+        try {
+            signedJwt = buildSignedJwt(
+                    config.serviceAccountEmail(), config.scope(), config.tokenUrl(), config.privateKey());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        LOGGER.info("JWT assertion built successfully for service account: {}", config.serviceAccountEmail());
+
+        String body = "grant_type=" + encode("urn:ietf:params:oauth:grant-type:jwt-bearer")
+                + "&assertion=" + encode(signedJwt);
 
+        return postTokenRequest(client, config.tokenUrl(), body, "OAuth2 JWT Bearer");
+    }
+
+    private TokenResponse readTokenResponse(HttpResponse<String> response, String flowName) {
         if (response.statusCode() >= 200 && response.statusCode() < 300) {
-            String responseBody = response.body();
-            int tokenStart = responseBody.indexOf("\"access_token\"");
-            if (tokenStart >= 0) {
-                int valueStart = responseBody.indexOf(":", tokenStart) + 1;
-                int valueEnd = responseBody.indexOf(",", valueStart);
-                if (valueEnd < 0) valueEnd = responseBody.indexOf("}", valueStart);
-                String tokenValue = responseBody.substring(valueStart, valueEnd).trim();
-                if (tokenValue.startsWith("\"")) {
-                    tokenValue = tokenValue.substring(1, tokenValue.length() - 1);
-                }
-                LOGGER.info("OAuth2 JWT Bearer token obtained successfully");
-                return tokenValue;
+            TokenResponse tokenResponse = parseTokenResponse(response.body());
+            if (tokenResponse != null) {
+                LOGGER.info("{} token obtained successfully (expires_in={})", flowName,
+                        tokenResponse.expiresInSeconds() != null ? tokenResponse.expiresInSeconds() + "s" : "n/a");
+                return tokenResponse;
             }
         }
 
-        LOGGER.error("Failed to get JWT Bearer token. Status: {}, Response: {}",
-                response.statusCode(), response.body());
+        LOGGER.error("Failed to get {} token. Status: {}, Response: {}",
+                flowName, response.statusCode(), response.body());
         return null;
     }
 
+    /**
+     * Parses an OAuth2 token endpoint response (RFC 6749 section 5.1).
+     *
+     * @param responseBody The JSON response body
+     * @return The token response, or null if the body is not JSON or has no {@code access_token}
+     */
+    static TokenResponse parseTokenResponse(String responseBody) {
+        if (responseBody == null || responseBody.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode json = MAPPER.readTree(responseBody);
+            JsonNode accessToken = json.get("access_token");
+            if (accessToken == null || !accessToken.isTextual() || accessToken.asText().isEmpty()) {
+                return null;
+            }
+            // expires_in is a number per the spec, but some providers send it as a string
+            JsonNode expiresIn = json.get("expires_in");
+            Long expiresInSeconds = null;
+            if (expiresIn != null && (expiresIn.isNumber() || expiresIn.isTextual())) {
+                long value = expiresIn.asLong(-1);
+                expiresInSeconds = value > 0 ? value : null;
+            }
+            JsonNode refreshToken = json.get("refresh_token");
+            return new TokenResponse(accessToken.asText(), expiresInSeconds,
+                    refreshToken != null && refreshToken.isTextual() && !refreshToken.asText().isEmpty()
+                            ? refreshToken.asText() : null);
+        } catch (Exception e) {
+            LOGGER.warn("Token response is not valid JSON: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Computes how long a token may be used: its lifetime minus a one-minute safety margin,
+     * capped at 10% of the lifetime for short-lived tokens.
+     *
+     * @param expiresInSeconds The {@code expires_in} of the token response (null when absent)
+     * @return The usable lifetime in milliseconds
+     */
+    static long usableTokenTtlMs(Long expiresInSeconds) {
+        long ttlMs = expiresInSeconds != null ? expiresInSeconds * 1000 : DEFAULT_TOKEN_TTL_MS;
+        return ttlMs - Math.min(TOKEN_EXPIRY_MARGIN_MS, ttlMs / 10);
+    }
+
     /**
      * Builds a signed JWT (RS256) for the OAuth2 JWT Bearer assertion flow.
      * Uses only standard Java APIs (java.security, java.util.Base64).
@@ -467,24 +899,385 @@ public final class HttpExecutor {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 
-    public static void clearTokenCache() { TOKEN_CACHE.clear(); }
-    public static void clearSessionCache() { BONITA_SESSION_CACHE.clear(); }
+    /**
+     * Unwraps the {@link CompletionException} layers added by {@link CompletableFuture} stages.
+     */
+    private static Throwable unwrap(Throwable e) {
+        Throwable current = e;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    // ========================================================================
+    // Response size limit
+    // ========================================================================
+
+    /**
+     * Sets the executor-wide cap on response bodies, applied to every {@code string} or {@code bytes}
+     * response whose options declare no {@code maxResponseBytes} of their own. {@code file} and
+     * {@code stream} responses never hold the body on the heap and are only limited by their own
+     * {@code maxResponseBytes}. Disabled by default.
+     *
+     * @param maxBytes The maximum body size in bytes (0 or less disables the cap)
+     */
+    public static void setGlobalMaxResponseBytes(long maxBytes) {
+        globalMaxResponseBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * @return The executor-wide cap on response bodies in bytes (0 when disabled)
+     */
+    public static long globalMaxResponseBytes() {
+        return globalMaxResponseBytes;
+    }
+
+    private static long maxResponseBytes(RestServiceRequest request) {
+        RestResponseOptions options = request.responseOptions();
+        if (options.maxResponseBytes() > 0) {
+            return options.maxResponseBytes();
+        }
+        boolean inHeap = options.mode() == RestResponseMode.STRING || options.mode() == RestResponseMode.BYTES;
+        return inHeap ? globalMaxResponseBytes : 0;
+    }
+
+    // ========================================================================
+    // Response cache
+    // ========================================================================
+
+    /**
+     * Replaces the response cache shared by all executors (e.g. to give it a disk tier or
+     * another byte budget). Entries of the previous cache are not carried over.
+     *
+     * @param cache The new response cache
+     */
+    public static void setResponseCache(ResponseCache cache) {
+        responseCache = Objects.requireNonNull(cache, "cache");
+    }
+
+    /**
+     * @return The response cache shared by all executors
+     */
+    public static ResponseCache responseCache() {
+        return responseCache;
+    }
+
+    // ========================================================================
+    // Request coalescing
+    // ========================================================================
+
+    /**
+     * Enables or disables in-flight coalescing of identical GET and HEAD requests for all executors.
+     * <p>
+     * While enabled (the default), a request identical to one still in flight (same tenant, method,
+     * final URL, headers and authentication) does not reach the server: it completes with the
+     * response of the in-flight request. Only requests answered in {@code string} or {@code bytes}
+     * mode are coalesced. Nothing is kept once the shared response is delivered.
+     * </p>
+     *
+     * @param enabled Whether identical in-flight requests are coalesced
+     */
+    public static void setRequestCoalescing(boolean enabled) {
+        requestCoalescing = enabled;
+    }
+
+    /**
+     * @return Whether identical in-flight GET and HEAD requests are coalesced
+     */
+    public static boolean requestCoalescing() {
+        return requestCoalescing;
+    }
+
+    /**
+     * @return A point-in-time snapshot of request coalescing: requests sent, callers that shared
+     *         an in-flight response, and requests currently in flight
+     */
+    public static SingleFlight.Stats requestCoalescingStats() {
+        return REQUEST_FLIGHTS.stats();
+    }
+
+    // ========================================================================
+    // Circuit breakers
+    // ========================================================================
+
+    /**
+     * Gets the circuit breakers shared by all executors, one per target host or configured name.
+     * Use {@link CircuitBreakerRegistry#snapshot()} to read their state and counters, and
+     * {@link CircuitBreakerRegistry#reset()} to close them all.
+     *
+     * @return The circuit breaker registry
+     */
+    public static CircuitBreakerRegistry circuitBreakers() {
+        return CIRCUIT_BREAKERS;
+    }
+
+    // ========================================================================
+    // Rate limiting
+    // ========================================================================
+
+    /**
+     * Gets the rate limiters shared by all executors, one per target host, credential or configured
+     * name. Use {@link RateLimiterRegistry#snapshot()} to read their queue depth and wait times, and
+     * {@link RateLimiterRegistry#reset()} to refill them all.
+     *
+     * @return The rate limiter registry
+     */
+    public static RateLimiterRegistry rateLimiters() {
+        return RATE_LIMITERS;
+    }
+
+    // ========================================================================
+    // Bulkheads
+    // ========================================================================
+
+    /**
+     * Gets the bulkheads shared by all executors, one per target host or configured name. Use
+     * {@link BulkheadRegistry#snapshot()} to read their limits, calls in flight and queues.
+     *
+     * @return The bulkhead registry
+     */
+    public static BulkheadRegistry bulkheads() {
+        return BULKHEADS;
+    }
+
+    // ========================================================================
+    // Hedging
+    // ========================================================================
+
+    /**
+     * Gets the hedgers shared by all executors, one per target host or configured name. Use
+     * {@link HedgerRegistry#snapshot()} to read their hedge delay, hedges sent and hedge wins.
+     *
+     * @return The hedger registry
+     */
+    public static HedgerRegistry hedgers() {
+        return HEDGERS;
+    }
+
+    // ========================================================================
+    // Warm-up
+    // ========================================================================
+
+    /**
+     * Warms up the endpoint of a request ahead of real traffic: resolves its host, opens a connection
+     * through the pooled client the request would be sent with (negotiating HTTP/2 where the server
+     * supports it, so later calls are multiplexed on that connection) and pre-fetches the OAuth2 token
+     * or Bonita session the request needs. The request itself is not sent: a {@code HEAD} probe is.
+     * The returned future never completes exceptionally.
+     *
+     * @param request The request whose endpoint, connection settings and auth are warmed up
+     * @return A future completed with the endpoint readiness
+     */
+    public CompletableFuture<EndpointReadiness> warmUp(RestServiceRequest request) {
+        long startTime = System.currentTimeMillis();
+        // The probe needs no credentials: the URL is used without auth query parameters
+        String requestUrl = request.url();
+        try {
+            URI uri = URI.create(requestUrl);
+            HttpClientPool.Key clientKey = HttpClientPool.Key.of(request);
+            HttpClient client = CLIENTS.client(clientKey);
+            // Through a proxy, the proxy resolves the target host
+            String host = clientKey.proxyHost() != null ? clientKey.proxyHost() : uri.getHost();
+
+            HttpRequest probe = HttpRequest.newBuilder(uri)
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .timeout(Duration.ofMillis(Math.min(request.timeoutMs(), MAX_TIMEOUT_MS)))
+                    .build();
+
+            // The client resolves the host while connecting, on its own threads: no blocking lookup
+            // runs on a shared pool, and the resolution is part of the measured duration
+            return client.sendAsync(probe, HttpResponse.BodyHandlers.discarding())
+                    .thenCombine(prefetchCredentials(request, requestUrl, client, clientKey),
+                            (response, credentialsReady) -> EndpointReadiness.connected(requestUrl,
+                                    response.version(), response.statusCode(), credentialsReady,
+                                    System.currentTimeMillis() - startTime))
+                    .thenApply(readiness -> {
+                        LOGGER.info("Warm-up of {}: {} over {} in {} ms", requestUrl, readiness.status(),
+                                readiness.httpVersion(), readiness.durationMs());
+                        return readiness;
+                    })
+                    .exceptionally(e -> warmUpFailure(requestUrl, host, unwrap(e), startTime));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(warmUpFailure(requestUrl, null, e, startTime));
+        }
+    }
+
+    /**
+     * Fetches and caches the OAuth2 token or Bonita session of a request.
+     *
+     * @return A future completed with false if the credential could not be obtained, true otherwise
+     */
+    private CompletableFuture<Boolean> prefetchCredentials(RestServiceRequest request, String requestUrl,
+                                                           HttpClient client, HttpClientPool.Key clientKey) {
+        RestAuthConfig auth = request.auth();
+        if (isOAuth2Auth(auth)) {
+            return getOAuth2TokenAsync(auth, CLIENTS.client(clientKey.withVerifySsl(true)))
+                    .thenApply(Objects::nonNull);
+        }
+        // Warm-up URLs are base URLs such as https://host/bonita/API
+        String apiUrl = requestUrl.endsWith("/") ? requestUrl : requestUrl + "/";
+        if (usesBonitaSession(request, apiUrl)) {
+            return getBonitaSessionAsync(apiUrl, auth, client).thenApply(Objects::nonNull);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private EndpointReadiness warmUpFailure(String requestUrl, String host, Throwable e, long startTime) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnresolvedAddressException) {
+                message = "Cannot resolve host " + host;
+                break;
+            }
+        }
+        LOGGER.warn("Warm-up of {} failed: {}", requestUrl, message);
+        return EndpointReadiness.failed(requestUrl, message, System.currentTimeMillis() - startTime);
+    }
+
+    // ========================================================================
+    // Client pool
+    // ========================================================================
+
+    /**
+     * @return A point-in-time snapshot of the shared {@link HttpClient} pool
+     */
+    public static HttpClientPool.Stats clientPoolStats() {
+        return CLIENTS.stats();
+    }
+
+    // ========================================================================
+    // Credential caches
+    // ========================================================================
+
+    /**
+     * @return A point-in-time snapshot of the OAuth2 token and Bonita session caches
+     *         and of their in-flight fetches
+     */
+    public static CacheSnapshot cacheSnapshot() {
+        return new CacheSnapshot(TOKEN_CACHE.stats(), REFRESH_TOKEN_CACHE.stats(), BONITA_SESSION_CACHE.stats(),
+                TOKEN_FETCHES.stats(), SESSION_LOGINS.stats());
+    }
+
+    /**
+     * Removes the cached OAuth2 tokens and Bonita sessions of a tenant
+     * (e.g. when its configurations or credentials change).
+     *
+     * @param tenantId The tenant scope
+     * @return The number of entries removed
+     */
+    public static int invalidateTenant(String tenantId) {
+        return TOKEN_CACHE.invalidateTenant(tenantId)
+                + REFRESH_TOKEN_CACHE.invalidateTenant(tenantId)
+                + BONITA_SESSION_CACHE.invalidateTenant(tenantId);
+    }
+
+    /**
+     * Removes every cached OAuth2 token and Bonita session, for all tenants. Statistics are kept.
+     */
+    public static void invalidateAllCredentials() {
+        TOKEN_CACHE.invalidateAll();
+        REFRESH_TOKEN_CACHE.invalidateAll();
+        BONITA_SESSION_CACHE.invalidateAll();
+    }
+
+    /**
+     * @deprecated Use {@link #invalidateTenant(String)} or {@link #invalidateAllCredentials()}
+     */
+    @Deprecated
+    public static void clearTokenCache() {
+        TOKEN_CACHE.invalidateAll();
+        REFRESH_TOKEN_CACHE.invalidateAll();
+    }
+
+    /**
+     * @deprecated Use {@link #invalidateTenant(String)} or {@link #invalidateAllCredentials()}
+     */
+    @Deprecated
+    public static void clearSessionCache() { BONITA_SESSION_CACHE.invalidateAll(); }
+
+    /**
+     * Snapshot of the credential caches used by {@link HttpExecutor}.
+     *
+     * @param tokens        OAuth2 token cache statistics
+     * @param refreshTokens OAuth2 refresh token cache statistics
+     * @param sessions      Bonita session cache statistics
+     * @param tokenFetches  OAuth2 token requests, including callers coalesced onto an in-flight request
+     * @param sessionLogins Bonita logins, including callers coalesced onto an in-flight login
+     */
+    public record CacheSnapshot(CredentialCache.Stats tokens, CredentialCache.Stats refreshTokens,
+                                CredentialCache.Stats sessions,
+                                SingleFlight.Stats tokenFetches, SingleFlight.Stats sessionLogins) {}
 
     // ========================================================================
     // Cache records
     // ========================================================================
 
-    private record CachedToken(String value, long expiresAt) {
+    /**
+     * Parsed OAuth2 token endpoint response.
+     *
+     * @param accessToken      The access token
+     * @param expiresInSeconds The token lifetime in seconds (null when the provider did not send it)
+     * @param refreshToken     The refresh token (null when the provider did not send one)
+     */
+    record TokenResponse(String accessToken, Long expiresInSeconds, String refreshToken) {}
+
+    private record CachedRefreshToken(String value, long expiresAt) {}
+
+    private record CachedToken(String value, long expiresAt, long refreshAt, AtomicBoolean refreshing) {
+        static CachedToken of(TokenResponse response, long now) {
+            long usableTtl = usableTokenTtlMs(response.expiresInSeconds());
+            return new CachedToken(response.accessToken(), now + usableTtl,
+                    now + (long) (usableTtl * TOKEN_REFRESH_AHEAD_RATIO), new AtomicBoolean());
+        }
+
         boolean isExpired() { return System.currentTimeMillis() >= expiresAt; }
+
+        /** @return true for the first call past the refresh-ahead point, which renews the token */
+        boolean startRefresh() {
+            return System.currentTimeMillis() >= refreshAt && refreshing.compareAndSet(false, true);
+        }
     }
 
-    private record CachedSession(String sessionId, String apiToken, long expiresAt) {
+    /**
+     * A Bonita session: the cookie jar of one user on one Bonita server. Cookies set or renewed
+     * by the server on any response are stored in the jar, so the next request sends them back.
+     */
+    private static final class CachedSession {
+        private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ORIGINAL_SERVER);
+        private volatile long expiresAt = System.currentTimeMillis() + BONITA_SESSION_TTL_MS;
+
+        long expiresAt() { return expiresAt; }
+
         boolean isExpired() { return System.currentTimeMillis() >= expiresAt; }
-    }
 
-    private static class TrustAllManager implements X509TrustManager {
-        @Override public void checkClientTrusted(X509Certificate[] chain, String authType) {}
-        @Override public void checkServerTrusted(X509Certificate[] chain, String authType) {}
-        @Override public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+        /** Bonita sessions expire after a period of inactivity: each accepted request extends it. */
+        void touch() { expiresAt = System.currentTimeMillis() + BONITA_SESSION_TTL_MS; }
+
+        void store(URI uri, HttpHeaders headers) {
+            try {
+                cookies.put(uri, headers.map());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        String cookie(String name) {
+            return cookies.getCookieStore().getCookies().stream()
+                    .filter(cookie -> cookie.getName().equals(name))
+                    .map(HttpCookie::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        String cookieHeader(URI uri) {
+            try {
+                List<String> values = cookies.get(uri, Map.of()).getOrDefault("Cookie", List.of());
+                return String.join("; ", values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
@@ -0,0 +1,93 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Carries the cancellation of a call to the step it is currently waiting on.
+ * <p>
+ * Cancelling a dependent future ({@code thenCompose}, {@code thenApply}) does not cancel the future it
+ * was derived from: a call cancelled while it waits for a rate-limit turn, a bulkhead slot, a token
+ * or a session would otherwise still be sent. Each step sent through {@link #send} is cancelled with
+ * the call, and no step is sent once the call is cancelled.
+ * </p>
+ */
+final class InFlightCall {
+
+    private CompletableFuture<?> current;
+    private boolean cancelled;
+
+    /**
+     * Cancels the step in flight, and every later step, when {@code result} is cancelled.
+     *
+     * @param result The future returned for the call
+     * @return {@code result}
+     */
+    <T> CompletableFuture<T> cancelledWith(CompletableFuture<T> result) {
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                cancel();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Cancels {@code source} when {@code dependent}, a future derived from it, is cancelled.
+     *
+     * @param source    The future the call waits on
+     * @param dependent The future returned for the call
+     * @return {@code dependent}
+     */
+    static <T> CompletableFuture<T> linked(CompletableFuture<?> source, CompletableFuture<T> dependent) {
+        dependent.whenComplete((value, error) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+    /**
+     * Starts the next step of the call, unless the call was cancelled.
+     *
+     * @param step Starts the step
+     * @return The step's future, or a cancelled future if the call was cancelled
+     */
+    <T> CompletableFuture<T> send(Supplier<CompletableFuture<T>> step) {
+        synchronized (this) {
+            if (cancelled) {
+                return CompletableFuture.failedFuture(new CancellationException("Call cancelled"));
+            }
+        }
+        CompletableFuture<T> future = step.get();
+        synchronized (this) {
+            if (!cancelled) {
+                current = future;
+                return future;
+            }
+        }
+        // Cancelled while the step was being started
+        future.cancel(true);
+        return future;
+    }
+
+    /**
+     * @return true if the call was cancelled
+     */
+    synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void cancel() {
+        CompletableFuture<?> inFlight;
+        synchronized (this) {
+            cancelled = true;
+            inFlight = current;
+        }
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link ResponseCacheStore} bounded by the bytes of its entries, evicting the least
+ * recently used ones first.
+ * <p>
+ * An optional overflow store (typically a {@link DiskResponseCacheStore}) forms a second tier:
+ * evicted entries and entries too large for memory are moved there, and entries found there are
+ * promoted back to memory on access.
+ * </p>
+ */
+public final class MemoryResponseCacheStore implements ResponseCacheStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryResponseCacheStore.class);
+
+    private final long maxBytes;
+    private final ResponseCacheStore overflow;
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder evictions = new LongAdder();
+    private long bytes;
+
+    /**
+     * Creates a store holding at most {@code maxBytes} of entries.
+     *
+     * @param maxBytes The byte budget (must be positive)
+     */
+    public MemoryResponseCacheStore(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Creates a store holding at most {@code maxBytes} of entries in memory, backed by a second tier.
+     *
+     * @param maxBytes The byte budget of the memory tier (must be positive)
+     * @param overflow The store receiving evicted entries, or null to drop them
+     */
+    public MemoryResponseCacheStore(long maxBytes, ResponseCacheStore overflow) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.overflow = overflow;
+    }
+
+    @Override
+    public CachedResponse get(String key) {
+        synchronized (entries) {
+            CachedResponse response = entries.get(key);
+            if (response != null || overflow == null) {
+                return response;
+            }
+        }
+        CachedResponse promoted = overflow.get(key);
+        if (promoted != null && promoted.sizeBytes() <= maxBytes) {
+            overflow.remove(key);
+            put(key, promoted);
+        }
+        return promoted;
+    }
+
+    @Override
+    public void put(String key, CachedResponse response) {
+        long size = response.sizeBytes();
+        if (size > maxBytes) {
+            remove(key);
+            if (overflow != null) {
+                overflow.put(key, response);
+            }
+            return;
+        }
+        List<Map.Entry<String, CachedResponse>> evicted = new ArrayList<>();
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, response);
+            if (previous != null) {
+                bytes -= previous.sizeBytes();
+            }
+            bytes += size;
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, CachedResponse> entry = eldest.next();
+                bytes -= entry.getValue().sizeBytes();
+                eldest.remove();
+                evicted.add(entry);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            evictions.add(evicted.size());
+            LOGGER.debug("Response cache memory tier full, evicting {} entries", evicted.size());
+            if (overflow != null) {
+                evicted.forEach(entry -> overflow.put(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        synchronized (entries) {
+            CachedResponse previous = entries.remove(key);
+            if (previous != null) {
+                bytes -= previous.sizeBytes();
+            }
+        }
+        if (overflow != null) {
+            overflow.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+        if (overflow != null) {
+            overflow.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        int overflowSize = overflow != null ? overflow.size() : 0;
+        synchronized (entries) {
+            return entries.size() + overflowSize;
+        }
+    }
+
+    @Override
+    public long sizeBytes() {
+        long overflowBytes = overflow != null ? overflow.sizeBytes() : 0;
+        synchronized (entries) {
+            return bytes + overflowBytes;
+        }
+    }
+
+    /**
+     * @return The byte budget of the memory tier
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return The number of entries evicted from memory (moved to the overflow store when there is one)
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+}
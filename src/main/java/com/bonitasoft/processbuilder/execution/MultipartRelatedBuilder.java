@@ -1,7 +1,7 @@
 package com.bonitasoft.processbuilder.execution;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.net.http.HttpRequest;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
@@ -16,6 +16,9 @@ import java.util.UUID;
  *
  * <p>This format is used by Google Drive, Gmail, Cloud Storage, Microsoft Graph,
  * and any API accepting {@code multipart/related} uploads.</p>
+ *
+ * <p>{@link #build} assembles the body in memory; {@link #stream} concatenates body publishers
+ * for the boundaries, the metadata and the file so that the file bytes are streamed as they are sent.</p>
  */
 public final class MultipartRelatedBuilder {
 
@@ -26,6 +29,14 @@ public final class MultipartRelatedBuilder {
      */
     public record MultipartBody(byte[] content, String contentType) {}
 
+    /**
+     * Result of a streaming multipart build: a body publisher and the full Content-Type header value.
+     *
+     * @param publisher   Streams the multipart body; its content length is known when the file length is
+     * @param contentType The Content-Type with boundary
+     */
+    public record StreamingMultipartBody(HttpRequest.BodyPublisher publisher, String contentType) {}
+
     /**
      * Builds a multipart/related body from JSON metadata and binary file content.
      *
@@ -35,34 +46,65 @@ public final class MultipartRelatedBuilder {
      * @return A {@link MultipartBody} containing the assembled bytes and Content-Type with boundary
      */
     public static MultipartBody build(String metadataJson, byte[] fileContent, String fileContentType) {
-        String boundary = "boundary_" + UUID.randomUUID().toString().replace("-", "");
+        String boundary = newBoundary();
+        byte[] head = head(boundary, metadataJson, fileContentType);
+        byte[] tail = tail(boundary);
 
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(head.length + fileContent.length + tail.length);
+        out.write(head, 0, head.length);
+        out.write(fileContent, 0, fileContent.length);
+        out.write(tail, 0, tail.length);
 
-            // Part 1: JSON metadata
-            out.write(("--" + boundary + "\r\n").getBytes(StandardCharsets.UTF_8));
-            out.write("Content-Type: application/json; charset=UTF-8\r\n".getBytes(StandardCharsets.UTF_8));
-            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
-            out.write(metadataJson.getBytes(StandardCharsets.UTF_8));
-            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        return new MultipartBody(out.toByteArray(), contentType(boundary));
+    }
 
-            // Part 2: Binary file
-            out.write(("--" + boundary + "\r\n").getBytes(StandardCharsets.UTF_8));
-            out.write(("Content-Type: " + fileContentType + "\r\n").getBytes(StandardCharsets.UTF_8));
-            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
-            out.write(fileContent);
-            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    /**
+     * Builds a streaming multipart/related body: the file content is read from {@code file}
+     * while the request is sent and never held in memory as a whole.
+     *
+     * @param metadataJson    JSON metadata (Part 1)
+     * @param file            The file content (Part 2)
+     * @param fileContentType MIME type of the file (e.g. "application/pdf")
+     * @return A {@link StreamingMultipartBody} containing the body publisher and Content-Type with boundary
+     */
+    public static StreamingMultipartBody stream(String metadataJson, UploadSource file, String fileContentType) {
+        String boundary = newBoundary();
+        byte[] head = head(boundary, metadataJson, fileContentType);
+        byte[] tail = tail(boundary);
 
-            // Closing boundary
-            out.write(("--" + boundary + "--").getBytes(StandardCharsets.UTF_8));
+        HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofByteArray(head),
+                file.publisher(),
+                HttpRequest.BodyPublishers.ofByteArray(tail));
+        return new StreamingMultipartBody(publisher, contentType(boundary));
+    }
+
+    private static String newBoundary() {
+        return "boundary_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private static String contentType(String boundary) {
+        return "multipart/related; boundary=" + boundary;
+    }
 
-            String contentType = "multipart/related; boundary=" + boundary;
-            return new MultipartBody(out.toByteArray(), contentType);
+    /**
+     * Part 1 (JSON metadata) followed by the headers of Part 2, up to the file content.
+     */
+    private static byte[] head(String boundary, String metadataJson, String fileContentType) {
+        String head = "--" + boundary + "\r\n"
+                + "Content-Type: application/json; charset=UTF-8\r\n"
+                + "\r\n"
+                + metadataJson + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Type: " + fileContentType + "\r\n"
+                + "\r\n";
+        return head.getBytes(StandardCharsets.UTF_8);
+    }
 
-        } catch (IOException e) {
-            // ByteArrayOutputStream never throws IOException in practice
-            throw new IllegalStateException("Failed to build multipart body", e);
-        }
+    /**
+     * End of Part 2 and closing boundary.
+     */
+    private static byte[] tail(String boundary) {
+        return ("\r\n--" + boundary + "--").getBytes(StandardCharsets.UTF_8);
     }
 }
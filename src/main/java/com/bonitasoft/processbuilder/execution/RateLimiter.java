@@ -0,0 +1,117 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestRateLimit;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket spacing the calls to one target (host, credential or configured name).
+ * <p>
+ * The bucket holds up to {@code burst} tokens and refills continuously at {@code permitsPerSecond}.
+ * A call takes a token; when none is left it reserves the next one, so the bucket goes negative and
+ * the call is told how long to wait for its turn. Reservations are granted in arrival order, and a
+ * call whose turn is further away than {@code maxWaitMs} is refused without consuming a token.
+ * </p>
+ * <p>
+ * Thread-safe. Every call granted a wait must report {@link #dequeued()} once its turn comes.
+ * </p>
+ */
+public final class RateLimiter {
+
+    private final String name;
+    private final RestRateLimit limit;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long refilledAt;
+
+    private int queued;
+    private int peakQueued;
+    private long grantedTotal;
+    private long delayedTotal;
+    private long rejectedTotal;
+    private long waitedMsTotal;
+    private long longestWaitMs;
+
+    RateLimiter(String name, RestRateLimit limit, LongSupplier clock) {
+        this.name = name;
+        this.limit = limit;
+        this.clock = clock;
+        this.tokens = limit.burst();
+        this.refilledAt = clock.getAsLong();
+    }
+
+    /**
+     * Reserves the turn of a call.
+     *
+     * @return How long the call must wait before being sent (0 to send it now), or -1 if its turn is
+     *         further away than {@code maxWaitMs} and it must not be sent
+     */
+    public synchronized long reserve() {
+        refill();
+        long waitMs = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * 1000 / limit.permitsPerSecond());
+        if (waitMs > limit.maxWaitMs()) {
+            rejectedTotal++;
+            return -1;
+        }
+        tokens -= 1;
+        grantedTotal++;
+        if (waitMs > 0) {
+            delayedTotal++;
+            queued++;
+            peakQueued = Math.max(peakQueued, queued);
+            waitedMsTotal += waitMs;
+            longestWaitMs = Math.max(longestWaitMs, waitMs);
+        }
+        return waitMs;
+    }
+
+    /**
+     * Records that a call granted a wait by {@link #reserve()} left the queue.
+     */
+    public synchronized void dequeued() {
+        queued = Math.max(0, queued - 1);
+    }
+
+    /**
+     * @return The name of the limiter (target host, credential or configured name)
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return A point-in-time snapshot of the limiter
+     */
+    public synchronized Snapshot snapshot() {
+        refill();
+        return new Snapshot(name, limit.permitsPerSecond(), limit.burst(), Math.max(0, tokens), queued, peakQueued,
+                grantedTotal, delayedTotal, rejectedTotal, delayedTotal == 0 ? 0 : waitedMsTotal / delayedTotal,
+                longestWaitMs);
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(limit.burst(), tokens + (now - refilledAt) * limit.permitsPerSecond() / 1000.0);
+        refilledAt = now;
+    }
+
+    /**
+     * Snapshot of a rate limiter.
+     *
+     * @param name             The limiter name (target host, credential or configured name)
+     * @param permitsPerSecond Sustained number of calls per second
+     * @param burst            Size of the bucket
+     * @param availableTokens  Calls that may be sent right now without waiting
+     * @param queuedCalls      Calls currently waiting for their turn
+     * @param peakQueuedCalls  Largest number of calls that waited at the same time
+     * @param grantedCalls     Total calls sent, with or without waiting
+     * @param delayedCalls     Total calls that waited for their turn
+     * @param rejectedCalls    Total calls not sent because their turn was too far away
+     * @param averageWaitMs    Average wait of the delayed calls
+     * @param longestWaitMs    Longest wait of a delayed call
+     */
+    public record Snapshot(String name, double permitsPerSecond, int burst, double availableTokens, int queuedCalls,
+                           int peakQueuedCalls, long grantedCalls, long delayedCalls, long rejectedCalls,
+                           long averageWaitMs, long longestWaitMs) {}
+}
@@ -0,0 +1,122 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestRateLimit;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * The rate limiters of {@link HttpExecutor}, one per target host, credential or configured name.
+ * <p>
+ * A limiter is created with the rate limit of the first call that uses it; later calls share its
+ * bucket and rate. Calls waiting for their turn wait on a timer: no thread is held. A call cancelled
+ * while it waits is not sent (its turn is not given back).
+ * </p>
+ */
+public final class RateLimiterRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiterRegistry.class);
+
+    private final ConcurrentHashMap<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private final LongFunction<Executor> delays;
+    private final LongSupplier clock;
+
+    /**
+     * Creates an empty registry.
+     */
+    public RateLimiterRegistry() {
+        this(delayMs -> CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS),
+                System::currentTimeMillis);
+    }
+
+    RateLimiterRegistry(LongFunction<Executor> delays, LongSupplier clock) {
+        this.delays = delays;
+        this.clock = clock;
+    }
+
+    /**
+     * Sends a call when its rate limiter gives it a turn.
+     *
+     * @param request  The REST service request (its rate limit must be enabled)
+     * @param tenantId The tenant scope, used by per-credential limits
+     * @param send     Sends the call; its future only fails with a {@link CallRejectedException}, and
+     *                 cancelling it aborts the call
+     * @return A future completed with the response, or completed exceptionally with a
+     *         {@link CallRejectedException} when the call's turn is further away than the rate limit's
+     *         {@code maxWaitMs}; cancelling it aborts the call, or drops it while it waits
+     */
+    CompletableFuture<RestServiceResponse> execute(RestServiceRequest request, String tenantId,
+            Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> send) {
+        RestRateLimit limit = request.rateLimit();
+        String name = nameOf(request, tenantId);
+        RateLimiter limiter = limiters.computeIfAbsent(name, key -> new RateLimiter(key, limit, clock));
+        long waitMs = limiter.reserve();
+        if (waitMs < 0) {
+            LOGGER.warn("Rate limit '{}' exceeded: {} {} not sent", name, request.method(), request.url());
+            return CompletableFuture.failedFuture(new CallRejectedException(
+                    "Rate limit '" + name + "' exceeded: no turn within " + limit.maxWaitMs() + " ms"));
+        }
+        if (waitMs == 0) {
+            return send.apply(request);
+        }
+        LOGGER.debug("Rate limit '{}': {} {} waits {} ms for its turn", name, request.method(), request.url(), waitMs);
+        InFlightCall call = new InFlightCall();
+        return call.cancelledWith(CompletableFuture.runAsync(limiter::dequeued, delays.apply(waitMs))
+                .thenCompose(ignored -> call.send(() -> send.apply(request))));
+    }
+
+    /**
+     * @param name The limiter name (target host as {@code scheme://host:port}, or configured name,
+     *             followed by the credential for per-credential limits)
+     * @return The limiter, or null if no call used it yet
+     */
+    public RateLimiter limiter(String name) {
+        return limiters.get(name);
+    }
+
+    /**
+     * @return A point-in-time snapshot of every limiter, sorted by name
+     */
+    public List<RateLimiter.Snapshot> snapshot() {
+        return limiters.values().stream()
+                .map(RateLimiter::snapshot)
+                .sorted(Comparator.comparing(RateLimiter.Snapshot::name))
+                .toList();
+    }
+
+    /**
+     * Removes every limiter: the next calls start with full buckets.
+     */
+    public void reset() {
+        limiters.clear();
+    }
+
+    /**
+     * Names the bucket of a request. Per-credential buckets append a digest of the tenant and
+     * authentication configuration, so that names never reveal credentials.
+     *
+     * @param request  The REST service request
+     * @param tenantId The tenant scope
+     * @return The limiter name
+     */
+    static String nameOf(RestServiceRequest request, String tenantId) {
+        RestRateLimit limit = request.rateLimit();
+        String base = limit.name() != null ? limit.name() : RequestFingerprint.origin(request.url());
+        if (!limit.perCredential()) {
+            return base;
+        }
+        String tenant = tenantId == null || tenantId.isBlank() ? CredentialCache.DEFAULT_TENANT : tenantId;
+        return base + " credential " + RequestFingerprint.digest(tenant + "\n" + request.auth()).substring(0, 12);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Identifies requests that are interchangeable: same tenant, method, final URL (including query
+ * and API-key parameters), headers, authentication configuration, redirect and TLS settings, and
+ * body representation.
+ * <p>
+ * The fingerprint is a digest, so caches and in-flight maps never hold URLs or credentials.
+ * </p>
+ */
+final class RequestFingerprint {
+
+    private RequestFingerprint() {
+    }
+
+    /**
+     * @param request  The REST service request
+     * @param tenantId The tenant scope (null or blank means the default tenant)
+     * @return The fingerprint of the request
+     */
+    static String of(RestServiceRequest request, String tenantId) {
+        StringBuilder material = new StringBuilder()
+                .append(tenantId == null || tenantId.isBlank() ? CredentialCache.DEFAULT_TENANT : tenantId).append('\n')
+                .append(request.method()).append('\n')
+                .append(request.buildFullUrl()).append('\n')
+                .append(request.responseOptions().mode() == RestResponseMode.STRING ? "text" : "binary").append('\n')
+                .append(request.followRedirects()).append(' ').append(request.verifySsl()).append('\n');
+        new TreeMap<>(request.buildAllHeaders()).forEach((name, value) ->
+                material.append(name.toLowerCase(Locale.ROOT)).append(':').append(value).append('\n'));
+        material.append(request.auth());
+        return digest(material.toString());
+    }
+
+    /**
+     * @param url The request URL
+     * @return The origin of the URL as {@code scheme://host:port} (lower case, default port made
+     *         explicit), or the URL itself when it has no host
+     */
+    static String origin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null || uri.getScheme() == null) {
+                return url;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort() >= 0 ? uri.getPort() : "https".equals(scheme) ? 443 : 80;
+            return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + ":" + port;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * @param value The text to digest
+     * @return The hex SHA-256 digest of the text
+     */
+    static String digest(String value) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestResponseOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Builds the {@link HttpResponse.BodyHandler} matching a request's {@link RestResponseOptions}.
+ * <p>
+ * {@code STRING} decodes the body with the charset of the {@code Content-Type} header (legacy behavior),
+ * {@code BYTES} keeps the raw bytes, {@code STREAM} hands the live connection stream to the caller and
+ * {@code FILE} buffers in memory up to the spill threshold, then continues into a temporary file so a
+ * large download never sits whole on the heap.
+ * </p>
+ * <p>
+ * Every mode is wrapped in a {@link LimitingSubscriber} enforcing {@code maxResponseBytes} while the body
+ * streams in: once the limit is exceeded the subscription is cancelled, which closes the connection, and the
+ * body either fails with a {@link ResponseTooLargeException} or completes with the bytes read so far.
+ * </p>
+ * <p>
+ * When the request accepts compression, a gzip or deflate encoded body is inflated by a
+ * {@link DecompressingSubscriber} as it arrives, ahead of the size limit, so {@code maxResponseBytes}
+ * bounds the decompressed body and every mode receives plain bytes.
+ * </p>
+ */
+final class ResponseBodyHandlers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseBodyHandlers.class);
+
+    private static final String TEMP_FILE_PREFIX = "pb-response-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private ResponseBodyHandlers() {
+    }
+
+    private static final int INFLATE_CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * A received body, whether it was cut at the size limit and its transfer sizes when it was encoded.
+     *
+     * @param content           The body
+     * @param truncated         true if the body was truncated at {@code maxResponseBytes}
+     * @param compressedBytes   Encoded bytes received, or -1 if the body was not encoded
+     * @param uncompressedBytes Decompressed bytes produced, or -1 if the body was not encoded
+     */
+    record ReceivedBody(ResponseBody content, boolean truncated, long compressedBytes, long uncompressedBytes) {
+
+        ReceivedBody(ResponseBody content, boolean truncated) {
+            this(content, truncated, -1, -1);
+        }
+
+        ReceivedBody withCompressionSizes(long compressed, long uncompressed) {
+            return new ReceivedBody(content, truncated, compressed, uncompressed);
+        }
+    }
+
+    /**
+     * @param options  The response options of the request
+     * @param maxBytes The maximum body size in bytes (0 or less for no limit)
+     * @return A body handler producing a {@link ResponseBody} of the requested form
+     */
+    static HttpResponse.BodyHandler<ReceivedBody> of(RestResponseOptions options, long maxBytes) {
+        return responseInfo -> {
+            HttpResponse.BodySubscriber<ResponseBody> subscriber = subscriberFor(options, responseInfo);
+            Encoding encoding = options.acceptCompression() ? Encoding.of(responseInfo.headers()) : null;
+            HttpResponse.BodySubscriber<ReceivedBody> received;
+            if (maxBytes <= 0) {
+                received = HttpResponse.BodySubscribers.mapping(subscriber, body -> new ReceivedBody(body, false));
+            } else {
+                // The Content-Length of an encoded body is its compressed size, not the size being limited
+                long declaredLength = encoding == null
+                        ? responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1L) : -1L;
+                received = new LimitingSubscriber(subscriber, responseInfo.statusCode(), maxBytes,
+                        options.truncateOversized(), declaredLength);
+            }
+            return encoding == null ? received : new DecompressingSubscriber(received, encoding);
+        };
+    }
+
+    private static HttpResponse.BodySubscriber<ResponseBody> subscriberFor(RestResponseOptions options,
+                                                                          HttpResponse.ResponseInfo responseInfo) {
+        Charset charset = charsetOf(responseInfo.headers());
+        return switch (options.mode()) {
+            case STRING -> HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofString(charset), ResponseBody::ofText);
+            case BYTES -> HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofByteArray(), bytes -> ResponseBody.ofBytes(bytes, charset));
+            case STREAM -> HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofInputStream(), in -> new ResponseBody.Stream(in, charset));
+            case FILE -> new SpillingSubscriber(options.spillThresholdBytes(), charset);
+        };
+    }
+
+    /**
+     * Reads the {@code charset} parameter of the {@code Content-Type} header.
+     *
+     * @param headers The response headers
+     * @return The declared charset, or UTF-8 when absent or unsupported
+     */
+    static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                String name = trimmed.substring("charset=".length()).replace("\"", "").trim();
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalArgumentException e) {
+                    LOGGER.debug("Unsupported response charset '{}', using UTF-8", name);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    // ========================================================================
+    // Size limit
+    // ========================================================================
+
+    /**
+     * Forwards the body to the mode subscriber until {@code maxBytes} is exceeded, then cancels the
+     * upstream subscription and fails (or, when truncating, completes) the downstream subscriber.
+     * <p>
+     * In {@code STREAM} mode the body is handed over before it is read, so the limit shows up to the
+     * caller as an {@link IOException} from the stream, or as an early end of stream when truncating.
+     * </p>
+     */
+    static final class LimitingSubscriber implements HttpResponse.BodySubscriber<ReceivedBody> {
+
+        private final HttpResponse.BodySubscriber<ResponseBody> downstream;
+        private final int statusCode;
+        private final long maxBytes;
+        private final boolean truncate;
+        private final long declaredLength;
+        private Flow.Subscription subscription;
+        private long received;
+        private boolean done;
+        private volatile boolean truncated;
+
+        LimitingSubscriber(HttpResponse.BodySubscriber<ResponseBody> downstream, int statusCode, long maxBytes,
+                           boolean truncate, long declaredLength) {
+            this.downstream = downstream;
+            this.statusCode = statusCode;
+            this.maxBytes = maxBytes;
+            this.truncate = truncate;
+            this.declaredLength = declaredLength;
+        }
+
+        @Override
+        public CompletionStage<ReceivedBody> getBody() {
+            return downstream.getBody().thenApply(body -> new ReceivedBody(body, truncated));
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+            if (!truncate && declaredLength > maxBytes) {
+                // The headers already announce an oversized body: abort before reading it
+                abort();
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (done) {
+                return;
+            }
+            long chunk = 0;
+            for (ByteBuffer buffer : buffers) {
+                chunk += buffer.remaining();
+            }
+            if (received + chunk <= maxBytes) {
+                received += chunk;
+                downstream.onNext(buffers);
+                return;
+            }
+            if (!truncate) {
+                abort();
+                return;
+            }
+            List<ByteBuffer> kept = new ArrayList<>();
+            long allowance = maxBytes - received;
+            for (ByteBuffer buffer : buffers) {
+                if (allowance <= 0) {
+                    break;
+                }
+                int take = (int) Math.min(buffer.remaining(), allowance);
+                kept.add(buffer.slice(buffer.position(), take));
+                allowance -= take;
+            }
+            received = maxBytes;
+            done = true;
+            truncated = true;
+            subscription.cancel();
+            LOGGER.warn("Response body truncated at {} bytes (maxResponseBytes)", maxBytes);
+            if (!kept.isEmpty()) {
+                downstream.onNext(kept);
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!done) {
+                done = true;
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        private void abort() {
+            done = true;
+            subscription.cancel();
+            LOGGER.warn("Response body exceeds {} bytes (maxResponseBytes), aborting the exchange", maxBytes);
+            downstream.onError(new ResponseTooLargeException(statusCode, maxBytes));
+        }
+    }
+
+    // ========================================================================
+    // Content-Encoding
+    // ========================================================================
+
+    /**
+     * A {@code Content-Encoding} the executor can decode.
+     */
+    enum Encoding {
+        GZIP,
+        DEFLATE;
+
+        /**
+         * @param headers The response headers
+         * @return The encoding of the body, or null for an identity, missing or unsupported encoding
+         */
+        static Encoding of(HttpHeaders headers) {
+            String value = headers.firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+            return switch (value) {
+                case "gzip", "x-gzip" -> GZIP;
+                case "deflate" -> DEFLATE;
+                case "", "identity" -> null;
+                default -> {
+                    LOGGER.debug("Unsupported response Content-Encoding '{}', body kept encoded", value);
+                    yield null;
+                }
+            };
+        }
+    }
+
+    /**
+     * Inflates a gzip or deflate encoded body chunk by chunk and forwards the decompressed bytes,
+     * so the encoded and decoded bodies are never buffered whole.
+     * <p>
+     * gzip members are parsed and their CRC-32 and size trailers verified; concatenated members are
+     * decoded in sequence. A deflate body is accepted with or without the zlib wrapper, as servers
+     * send both. A chunk that yields no output (e.g. only header bytes) requests the next one itself,
+     * so the downstream demand is preserved. The inflater is ended as soon as downstream cancels; it
+     * is only used while holding this subscriber's lock, so the cancel cannot race a chunk.
+     * </p>
+     */
+    static final class DecompressingSubscriber implements HttpResponse.BodySubscriber<ReceivedBody> {
+
+        private static final int GZIP_MAGIC = 0x8b1f;
+        private static final int GZIP_HEADER_SIZE = 10;
+        private static final int GZIP_TRAILER_SIZE = 8;
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+
+        private enum State { HEADER, BODY, TRAILER, DONE }
+
+        private final HttpResponse.BodySubscriber<ReceivedBody> downstream;
+        private final Encoding encoding;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private final CRC32 crc = new CRC32();
+        private final byte[] chunk = new byte[INFLATE_CHUNK_SIZE];
+        private Flow.Subscription subscription;
+        private Inflater inflater;
+        private State state = State.HEADER;
+        private long memberSize;
+        private long compressed;
+        private long uncompressed;
+        private boolean done;
+
+        DecompressingSubscriber(HttpResponse.BodySubscriber<ReceivedBody> downstream, Encoding encoding) {
+            this.downstream = downstream;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public CompletionStage<ReceivedBody> getBody() {
+            return downstream.getBody().thenApply(body -> body.withCompressionSizes(compressed, uncompressed));
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                    abandon();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            List<ByteBuffer> output = new ArrayList<>();
+            Exception failure = null;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                try {
+                    for (ByteBuffer buffer : buffers) {
+                        compressed += buffer.remaining();
+                        decode(buffer, output);
+                    }
+                } catch (IOException | DataFormatException e) {
+                    done = true;
+                    end();
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                subscription.cancel();
+                downstream.onError(failure instanceof IOException io ? io
+                        : new ZipException("Invalid " + encoding.name().toLowerCase(Locale.ROOT)
+                                + " response body: " + failure.getMessage()));
+                return;
+            }
+            if (output.isEmpty()) {
+                subscription.request(1);
+            } else {
+                downstream.onNext(output);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                end();
+            }
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            boolean complete;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                end();
+                complete = state == State.DONE || (state == State.HEADER && pending.size() == 0);
+            }
+            if (!complete) {
+                downstream.onError(new EOFException("Unexpected end of compressed response body"));
+                return;
+            }
+            if (compressed > 0) {
+                LOGGER.debug("Decompressed {} response body: {} -> {} bytes",
+                        encoding.name().toLowerCase(Locale.ROOT), compressed, uncompressed);
+            }
+            downstream.onComplete();
+        }
+
+        private void decode(ByteBuffer input, List<ByteBuffer> output) throws IOException, DataFormatException {
+            while (input.hasRemaining()) {
+                switch (state) {
+                    case HEADER -> readHeader(input, output);
+                    case BODY -> inflate(input, output);
+                    case TRAILER -> readTrailer(input);
+                    case DONE -> input.position(input.limit());
+                }
+            }
+        }
+
+        private void readHeader(ByteBuffer input, List<ByteBuffer> output) throws IOException, DataFormatException {
+            pending.write(input.get());
+            byte[] header = pending.toByteArray();
+            if (encoding == Encoding.DEFLATE) {
+                if (header.length < 2) {
+                    return;
+                }
+                // zlib wrapper: CM = 8 and (CMF * 256 + FLG) is a multiple of 31; anything else is raw deflate
+                int cmf = header[0] & 0xff;
+                boolean zlib = (cmf & 0x0f) == 8 && ((cmf << 8) | (header[1] & 0xff)) % 31 == 0;
+                inflater = new Inflater(!zlib);
+                pending.reset();
+                state = State.BODY;
+                inflate(ByteBuffer.wrap(header), output);
+                return;
+            }
+            int length = gzipHeaderLength(header);
+            if (length > 0) {
+                pending.reset();
+                if (inflater == null) {
+                    inflater = new Inflater(true);
+                } else {
+                    inflater.reset();
+                }
+                crc.reset();
+                memberSize = 0;
+                state = State.BODY;
+            }
+        }
+
+        /**
+         * @return The length of a complete gzip header, or 0 while more bytes are needed
+         */
+        private static int gzipHeaderLength(byte[] header) throws ZipException {
+            if (header.length >= 2 && ((header[0] & 0xff) | (header[1] & 0xff) << 8) != GZIP_MAGIC) {
+                throw new ZipException("Not in GZIP format");
+            }
+            if (header.length >= 3 && header[2] != 8) {
+                throw new ZipException("Unsupported gzip compression method " + header[2]);
+            }
+            if (header.length < GZIP_HEADER_SIZE) {
+                return 0;
+            }
+            int flags = header[3] & 0xff;
+            int position = GZIP_HEADER_SIZE;
+            if ((flags & FEXTRA) != 0) {
+                if (header.length < position + 2) {
+                    return 0;
+                }
+                position += 2 + ((header[position] & 0xff) | (header[position + 1] & 0xff) << 8);
+            }
+            if ((flags & FNAME) != 0) {
+                position = skipZeroTerminated(header, position);
+            }
+            if ((flags & FCOMMENT) != 0 && position > 0) {
+                position = skipZeroTerminated(header, position);
+            }
+            if ((flags & FHCRC) != 0 && position > 0) {
+                position += 2;
+            }
+            return position > 0 && header.length >= position ? position : 0;
+        }
+
+        private static int skipZeroTerminated(byte[] header, int from) {
+            for (int i = from; i < header.length; i++) {
+                if (header[i] == 0) {
+                    return i + 1;
+                }
+            }
+            return 0;
+        }
+
+        private void inflate(ByteBuffer input, List<ByteBuffer> output) throws DataFormatException, ZipException {
+            inflater.setInput(input);
+            while (!inflater.finished()) {
+                int count = inflater.inflate(chunk);
+                if (count > 0) {
+                    output.add(ByteBuffer.wrap(Arrays.copyOf(chunk, count)));
+                    uncompressed += count;
+                    memberSize += count;
+                    if (encoding == Encoding.GZIP) {
+                        crc.update(chunk, 0, count);
+                    }
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("Compressed response body requires a preset dictionary");
+                } else if (inflater.needsInput()) {
+                    return;
+                }
+            }
+            // The inflater advanced the input past the deflate stream: the rest is the trailer
+            state = encoding == Encoding.GZIP ? State.TRAILER : State.DONE;
+        }
+
+        private void readTrailer(ByteBuffer input) throws ZipException {
+            pending.write(input.get());
+            if (pending.size() < GZIP_TRAILER_SIZE) {
+                return;
+            }
+            ByteBuffer trailer = ByteBuffer.wrap(pending.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+            pending.reset();
+            if ((trailer.getInt() & 0xffffffffL) != crc.getValue()
+                    || (trailer.getInt() & 0xffffffffL) != (memberSize & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            // Another member may follow (concatenated gzip)
+            state = State.HEADER;
+        }
+
+        /**
+         * Drops the rest of the body once downstream has cancelled.
+         */
+        private synchronized void abandon() {
+            if (!done) {
+                done = true;
+                end();
+            }
+        }
+
+        private void end() {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    // ========================================================================
+    // FILE mode
+    // ========================================================================
+
+    /**
+     * Buffers the body in memory until it exceeds the threshold, then moves it to a temporary file
+     * and writes every further chunk there. The file is deleted if the exchange fails.
+     */
+    static final class SpillingSubscriber implements HttpResponse.BodySubscriber<ResponseBody> {
+
+        private final long threshold;
+        private final Charset charset;
+        private final CompletableFuture<ResponseBody> result = new CompletableFuture<>();
+        private final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private Flow.Subscription subscription;
+        private Path file;
+        private FileChannel channel;
+        private long size;
+
+        SpillingSubscriber(long threshold, Charset charset) {
+            this.threshold = threshold;
+            this.charset = charset;
+        }
+
+        @Override
+        public CompletionStage<ResponseBody> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    size += buffer.remaining();
+                    if (channel == null && size > threshold) {
+                        spill();
+                    }
+                    if (channel != null) {
+                        writeFully(buffer);
+                    } else {
+                        byte[] chunk = new byte[buffer.remaining()];
+                        buffer.get(chunk);
+                        memory.write(chunk, 0, chunk.length);
+                    }
+                }
+            } catch (IOException e) {
+                subscription.cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closeChannel();
+            deleteFile();
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (channel == null) {
+                result.complete(ResponseBody.ofBytes(memory.toByteArray(), charset));
+                return;
+            }
+            try {
+                channel.close();
+                result.complete(new ResponseBody.TempFile(file, size, charset));
+            } catch (IOException e) {
+                onError(e);
+            }
+        }
+
+        private void spill() throws IOException {
+            file = Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            writeFully(ByteBuffer.wrap(memory.toByteArray()));
+            memory.reset();
+            LOGGER.debug("Response body exceeded {} bytes, spilling to {}", threshold, file);
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.debug("Cannot close response body file {}", file, e);
+                }
+            }
+        }
+
+        private void deleteFile() {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOGGER.warn("Cannot delete response body file {}", file, e);
+                }
+            }
+        }
+    }
+}
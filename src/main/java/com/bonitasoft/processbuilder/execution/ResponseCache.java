@@ -0,0 +1,362 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestCacheOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * HTTP response cache in front of the network calls of {@link HttpExecutor}, for GET methods that opt in
+ * through their {@link RestCacheOptions}.
+ * <p>
+ * A fresh entry is served without contacting the server. A stale entry still inside its
+ * stale-while-revalidate window is served immediately while one background request revalidates it.
+ * Past that window, an entry carrying an {@code ETag} or {@code Last-Modified} validator is revalidated
+ * with {@code If-None-Match} / {@code If-Modified-Since}: a {@code 304 Not Modified} answer renews the
+ * stored body instead of downloading it again. Freshness follows {@code Cache-Control} and
+ * {@code Expires} unless the method ignores them, and falls back to the configured TTL.
+ * </p>
+ * <p>
+ * Entries are keyed by tenant, URL (including query and API-key parameters), request headers,
+ * authentication configuration and response mode, so responses are never shared between
+ * credentials or tenants. Only complete {@code 200} responses up to {@code maxEntryBytes} are stored;
+ * {@code stream} mode responses are never cached.
+ * </p>
+ */
+public final class ResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+
+    /** Default byte budget of the in-memory store (32 MiB). */
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    /** Default size above which a response is not cached (2 MiB). */
+    public static final long DEFAULT_MAX_ENTRY_BYTES = 2L * 1024L * 1024L;
+
+    private final ResponseCacheStore store;
+    private final long maxEntryBytes;
+    private final LongSupplier clock;
+    private final SingleFlight<String, RestServiceResponse> backgroundRevalidations = new SingleFlight<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Creates a cache backed by an in-memory store of {@link #DEFAULT_MAX_BYTES}.
+     */
+    public ResponseCache() {
+        this(new MemoryResponseCacheStore(DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Creates a cache backed by a store (e.g. a {@link MemoryResponseCacheStore} with a disk tier).
+     *
+     * @param store The storage
+     */
+    public ResponseCache(ResponseCacheStore store) {
+        this(store, DEFAULT_MAX_ENTRY_BYTES);
+    }
+
+    /**
+     * Creates a cache backed by a store, caching responses up to {@code maxEntryBytes}.
+     *
+     * @param store         The storage
+     * @param maxEntryBytes The largest body cached
+     */
+    public ResponseCache(ResponseCacheStore store, long maxEntryBytes) {
+        this(store, maxEntryBytes, System::currentTimeMillis);
+    }
+
+    ResponseCache(ResponseCacheStore store, long maxEntryBytes, LongSupplier clock) {
+        this.store = store;
+        this.maxEntryBytes = maxEntryBytes;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a request goes through the cache.
+     *
+     * @param request The REST service request
+     * @return true for GET requests with caching enabled, outside {@code stream} mode
+     */
+    public boolean handles(RestServiceRequest request) {
+        return request.cacheOptions().enabled()
+                && request.method() == RestHttpMethod.GET
+                && request.responseOptions().mode() != RestResponseMode.STREAM;
+    }
+
+    /**
+     * Serves a request from the cache, revalidating or loading it through {@code network} as needed.
+     *
+     * @param request  The REST service request (see {@link #handles})
+     * @param tenantId The tenant scope of the request
+     * @param network  Sends a request to the server; its future never completes exceptionally
+     * @return A future completed with the cached, revalidated or downloaded response
+     */
+    public CompletableFuture<RestServiceResponse> execute(RestServiceRequest request, String tenantId,
+            Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> network) {
+        long start = clock.getAsLong();
+        String key = RequestFingerprint.of(request, tenantId);
+        CachedResponse cached = store.get(key);
+        if (cached != null && cached.isFresh(start)) {
+            hits.increment();
+            LOGGER.debug("Response cache hit: GET {}", cached.url());
+            return CompletableFuture.completedFuture(
+                    cached.toResponse(request.responseOptions().mode(), clock.getAsLong() - start));
+        }
+        if (cached != null && cached.isStaleServable(start)) {
+            staleHits.increment();
+            LOGGER.debug("Response cache stale hit, revalidating in background: GET {}", cached.url());
+            backgroundRevalidations.load(key, () -> revalidate(key, cached, request, network))
+                    .thenAccept(RestServiceResponse::release);
+            return CompletableFuture.completedFuture(
+                    cached.toResponse(request.responseOptions().mode(), clock.getAsLong() - start));
+        }
+        if (cached != null && cached.hasValidators()) {
+            return revalidate(key, cached, request, network);
+        }
+        misses.increment();
+        return network.apply(request).thenApply(response -> {
+            store(key, request.cacheOptions(), response, clock.getAsLong());
+            return response;
+        });
+    }
+
+    /**
+     * Removes the cached response of a request, e.g. after a write to the same resource.
+     *
+     * @param request  The REST service request
+     * @param tenantId The tenant scope of the request
+     */
+    public void invalidate(RestServiceRequest request, String tenantId) {
+        store.remove(RequestFingerprint.of(request, tenantId));
+    }
+
+    /**
+     * Removes every cached response. Statistics are kept.
+     */
+    public void clear() {
+        store.clear();
+    }
+
+    /**
+     * @return A point-in-time snapshot of the cache statistics
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), staleHits.sum(), misses.sum(), revalidations.sum(), notModified.sum(),
+                stores.sum(), store.size(), store.sizeBytes());
+    }
+
+    private CompletableFuture<RestServiceResponse> revalidate(String key, CachedResponse cached,
+            RestServiceRequest request, Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> network) {
+        revalidations.increment();
+        RestServiceRequest.Builder conditional = request.toBuilder();
+        String etag = cached.header("ETag");
+        String lastModified = cached.header("Last-Modified");
+        if (etag != null) {
+            conditional.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            conditional.header("If-Modified-Since", lastModified);
+        }
+        return network.apply(conditional.build()).thenApply(response -> {
+            long now = clock.getAsLong();
+            if (response.statusCode() != 304) {
+                store(key, request.cacheOptions(), response, now);
+                return response;
+            }
+            notModified.increment();
+            response.release();
+            Freshness freshness = freshness(response.headers(), request.cacheOptions(), now);
+            CachedResponse renewed = cached.revalidated(response.headers(), now,
+                    freshness != null ? freshness.freshUntil() : now, freshness != null ? freshness.staleUntil() : now);
+            store.put(key, renewed);
+            LOGGER.debug("Response cache entry revalidated (304): GET {}", cached.url());
+            return renewed.toResponse(request.responseOptions().mode(), response.executionTimeMs());
+        });
+    }
+
+    private void store(String key, RestCacheOptions options, RestServiceResponse response, long now) {
+        ResponseBody content = response.content();
+        if (response.statusCode() != 200 || response.errorMessage() != null || response.truncated()
+                || content == null || content instanceof ResponseBody.Stream) {
+            return;
+        }
+        if ("*".equals(header(response.headers(), "Vary"))) {
+            return;
+        }
+        Freshness freshness = freshness(response.headers(), options, now);
+        boolean validated = header(response.headers(), "ETag") != null
+                || header(response.headers(), "Last-Modified") != null;
+        if (freshness == null || (freshness.freshUntil() <= now && !validated)) {
+            // Nothing to reuse: no lifetime and no validator to revalidate with
+            store.remove(key);
+            return;
+        }
+        long size = content.size();
+        if (size > maxEntryBytes) {
+            return;
+        }
+        byte[] body = content.bytes();
+        if (body.length > maxEntryBytes) {
+            return;
+        }
+        store.put(key, new CachedResponse(response.statusCode(), response.headers(), body, content.charset(),
+                response.contentType(), response.url(), now, freshness.freshUntil(), freshness.staleUntil()));
+        stores.increment();
+    }
+
+    // ========================================================================
+    // Freshness
+    // ========================================================================
+
+    /**
+     * How long a response may be reused.
+     *
+     * @param freshUntil Until when it is served without contacting the server
+     * @param staleUntil Until when it may be served stale while revalidated
+     */
+    record Freshness(long freshUntil, long staleUntil) {}
+
+    /**
+     * Computes the freshness of a response received at {@code now}.
+     *
+     * @param headers The response headers
+     * @param options The cache options of the request
+     * @param now     When the response was received
+     * @return The freshness, or null if the response must not be stored
+     */
+    static Freshness freshness(Map<String, String> headers, RestCacheOptions options, long now) {
+        long lifetimeMs = options.ttlMs();
+        long staleWindowMs = options.staleWhileRevalidateMs();
+        if (options.honorCacheControl()) {
+            CacheControl cacheControl = CacheControl.parse(header(headers, "Cache-Control"));
+            if (cacheControl.noStore()) {
+                return null;
+            }
+            long ageMs = parseSeconds(header(headers, "Age")) * 1000L;
+            String expires = header(headers, "Expires");
+            if (cacheControl.maxAge() >= 0) {
+                lifetimeMs = Math.max(0, cacheControl.maxAge() * 1000L - Math.max(0, ageMs));
+            } else if (expires != null) {
+                long expiresAt = parseDate(expires);
+                long date = parseDate(header(headers, "Date"));
+                // An invalid Expires value (e.g. "0") means already expired
+                lifetimeMs = expiresAt < 0 ? 0 : Math.max(0, expiresAt - (date >= 0 ? date : now));
+            }
+            if (cacheControl.noCache()) {
+                lifetimeMs = 0;
+            }
+            if (cacheControl.staleWhileRevalidate() >= 0) {
+                staleWindowMs = cacheControl.staleWhileRevalidate() * 1000L;
+            }
+            if (cacheControl.mustRevalidate() || cacheControl.noCache()) {
+                staleWindowMs = 0;
+            }
+        }
+        long freshUntil = now + lifetimeMs;
+        return new Freshness(freshUntil, freshUntil + staleWindowMs);
+    }
+
+    /**
+     * The {@code Cache-Control} directives the cache acts on.
+     *
+     * @param noStore              The response must not be stored
+     * @param noCache              The response must be revalidated before every reuse
+     * @param mustRevalidate       The response must not be served stale
+     * @param maxAge               The freshness lifetime in seconds, or -1 if absent
+     * @param staleWhileRevalidate The stale-while-revalidate window in seconds, or -1 if absent
+     */
+    record CacheControl(boolean noStore, boolean noCache, boolean mustRevalidate, long maxAge,
+                        long staleWhileRevalidate) {
+
+        static CacheControl parse(String value) {
+            boolean noStore = false;
+            boolean noCache = false;
+            boolean mustRevalidate = false;
+            long maxAge = -1;
+            long staleWhileRevalidate = -1;
+            if (value != null) {
+                for (String directive : value.split(",")) {
+                    String[] parts = directive.trim().split("=", 2);
+                    String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                    String argument = parts.length > 1 ? parts[1].trim().replace("\"", "") : null;
+                    switch (name) {
+                        case "no-store" -> noStore = true;
+                        case "no-cache" -> noCache = true;
+                        case "must-revalidate", "proxy-revalidate" -> mustRevalidate = true;
+                        case "max-age" -> maxAge = parseSeconds(argument);
+                        case "stale-while-revalidate" -> staleWhileRevalidate = parseSeconds(argument);
+                        default -> {
+                            // Other directives (private, public, s-maxage, ...) do not affect this cache
+                        }
+                    }
+                }
+            }
+            return new CacheControl(noStore, noCache, mustRevalidate, maxAge, staleWhileRevalidate);
+        }
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long parseDate(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static String header(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Snapshot of response cache statistics.
+     *
+     * @param hits          Requests served from a fresh entry
+     * @param staleHits     Requests served from a stale entry while it was revalidated in the background
+     * @param misses        Requests sent to the server without a usable entry
+     * @param revalidations Conditional requests sent to revalidate an entry
+     * @param notModified   Revalidations answered with {@code 304 Not Modified}
+     * @param stores        Responses stored
+     * @param entries       Current number of entries (all tiers)
+     * @param bytes         Current bytes accounted for the entries (all tiers)
+     */
+    public record Stats(long hits, long staleHits, long misses, long revalidations, long notModified, long stores,
+                        int entries, long bytes) {}
+}
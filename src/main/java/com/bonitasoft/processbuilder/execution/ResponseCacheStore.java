@@ -0,0 +1,49 @@
+package com.bonitasoft.processbuilder.execution;
+
+/**
+ * Storage behind a {@link ResponseCache}.
+ * <p>
+ * The cache decides what is stored and for how long; a store only keeps entries within its own
+ * capacity and may drop any of them at any time. Keys are opaque digests that do not reveal the
+ * request URL or credentials. Implementations must be thread-safe.
+ * </p>
+ *
+ * @see MemoryResponseCacheStore
+ * @see DiskResponseCacheStore
+ */
+public interface ResponseCacheStore {
+
+    /**
+     * @param key The entry key
+     * @return The stored entry (fresh or not), or null if absent
+     */
+    CachedResponse get(String key);
+
+    /**
+     * Stores or replaces an entry.
+     *
+     * @param key      The entry key
+     * @param response The entry
+     */
+    void put(String key, CachedResponse response);
+
+    /**
+     * @param key The entry key
+     */
+    void remove(String key);
+
+    /**
+     * Removes every entry.
+     */
+    void clear();
+
+    /**
+     * @return The number of stored entries
+     */
+    int size();
+
+    /**
+     * @return The bytes accounted for the stored entries
+     */
+    long sizeBytes();
+}
@@ -0,0 +1,34 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.io.IOException;
+
+/**
+ * Signals that a response body exceeded its {@code maxResponseBytes} limit and the exchange was aborted.
+ * <p>
+ * Raised by the body subscriber while the body streams in (or as soon as the headers declare an
+ * oversized {@code Content-Length}) and turned by {@link HttpExecutor} into a
+ * {@link CallRejectedException}: the call is not retried nor counted as a failure of the target, and
+ * ends as an error response with status -1. The HTTP status received is only logged.
+ * </p>
+ */
+final class ResponseTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long limit;
+
+    ResponseTooLargeException(int statusCode, long limit) {
+        super("Response body exceeds the maximum size of " + limit + " bytes (maxResponseBytes)");
+        this.statusCode = statusCode;
+        this.limit = limit;
+    }
+
+    int statusCode() {
+        return statusCode;
+    }
+
+    long limit() {
+        return limit;
+    }
+}
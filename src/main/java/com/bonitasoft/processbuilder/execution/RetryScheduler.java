@@ -0,0 +1,160 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestRetryPolicy;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends a request again, according to its {@link RestRetryPolicy}, while the response calls for it.
+ * <p>
+ * Waits between attempts are timers: no thread is held while a retry is pending. Discarded
+ * responses are released before the next attempt, and the response returned records how many
+ * attempts were made.
+ * </p>
+ */
+final class RetryScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private final LongFunction<Executor> delays;
+    private final DoubleSupplier random;
+    private final LongSupplier clock;
+
+    RetryScheduler() {
+        this(delayMs -> CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS),
+                () -> ThreadLocalRandom.current().nextDouble(), System::currentTimeMillis);
+    }
+
+    RetryScheduler(LongFunction<Executor> delays, DoubleSupplier random, LongSupplier clock) {
+        this.delays = delays;
+        this.random = random;
+        this.clock = clock;
+    }
+
+    /**
+     * Sends a request, retrying it as its policy allows.
+     *
+     * @param request The REST service request
+     * @param send    Sends one attempt; its future only completes exceptionally when the attempt was
+     *                refused locally ({@link CallRejectedException}), which ends the retries
+     * @return A future completed with the last response received, or completed exceptionally like
+     *         the last attempt; cancelling it cancels the attempt in flight and the pending retries
+     */
+    CompletableFuture<RestServiceResponse> execute(RestServiceRequest request,
+            Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> send) {
+        RestRetryPolicy policy = request.retryPolicy();
+        if (!policy.enabled()) {
+            return send.apply(request);
+        }
+        if (!policy.allowsRetryOf(request.method(), request.headers())) {
+            LOGGER.debug("Not retrying {} {}: the method is not idempotent and has no Idempotency-Key",
+                    request.method(), request.url());
+            return send.apply(request);
+        }
+        if (!request.repeatableBody()) {
+            LOGGER.debug("Not retrying {} {}: its body can only be sent once", request.method(), request.url());
+            return send.apply(request);
+        }
+        InFlightCall call = new InFlightCall();
+        CompletableFuture<RestServiceResponse> result = call.cancelledWith(new CompletableFuture<>());
+        attempt(request, policy, call, send, 1, result);
+        return result;
+    }
+
+    private void attempt(RestServiceRequest request, RestRetryPolicy policy, InFlightCall call,
+            Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> send, int attempt,
+            CompletableFuture<RestServiceResponse> result) {
+        call.send(() -> send.apply(request)).whenComplete((response, error) -> {
+            if (error != null) {
+                // e.g. an open circuit breaker: retrying would only be refused again
+                LOGGER.debug("Not retrying {} {}: {}", request.method(), request.url(), error.getMessage());
+                result.completeExceptionally(error);
+                return;
+            }
+            long delay = delayBeforeRetry(policy, response, attempt);
+            if (delay < 0) {
+                RestServiceResponse last = attempt > 1 ? response.withAttempts(attempt) : response;
+                if (!result.complete(last)) {
+                    // Cancelled meanwhile
+                    last.release();
+                }
+                return;
+            }
+            LOGGER.warn("REST request {} {} failed ({}), retrying in {} ms (retry {}/{})", request.method(),
+                    response.url(), describe(response), delay, attempt, policy.maxRetries());
+            response.release();
+            delays.apply(delay).execute(() -> attempt(request, policy, call, send, attempt + 1, result));
+        });
+    }
+
+    /**
+     * @return The wait before the next attempt, or -1 if the response is final
+     */
+    long delayBeforeRetry(RestRetryPolicy policy, RestServiceResponse response, int attempt) {
+        if (attempt > policy.maxRetries() || !policy.retriesStatus(response.statusCode())) {
+            return -1;
+        }
+        long delay = policy.backoffMs(attempt, random.getAsDouble());
+        if (policy.respectRetryAfter()) {
+            long retryAfter = retryAfterMs(response.headers(), clock.getAsLong());
+            if (retryAfter > policy.maxWaitMs()) {
+                LOGGER.debug("Not retrying: Retry-After of {} ms exceeds the {} ms limit",
+                        retryAfter, policy.maxWaitMs());
+                return -1;
+            }
+            if (retryAfter >= 0) {
+                delay = retryAfter;
+            }
+        }
+        return delay;
+    }
+
+    /**
+     * Reads a {@code Retry-After} header, given either as seconds or as an HTTP date.
+     *
+     * @param headers The response headers
+     * @param now     The current epoch millis
+     * @return The requested wait in milliseconds, or -1 if absent or invalid
+     */
+    static long retryAfterMs(Map<String, String> headers, long now) {
+        String value = null;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase("Retry-After")) {
+                value = header.getValue().trim();
+            }
+        }
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value)) * 1000L;
+        } catch (NumberFormatException e) {
+            // Not a number of seconds: HTTP date
+        }
+        try {
+            long at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - now);
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static String describe(RestServiceResponse response) {
+        return response.statusCode() > 0 ? "HTTP " + response.statusCode() : response.errorMessage();
+    }
+}
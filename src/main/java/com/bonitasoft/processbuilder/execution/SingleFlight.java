@@ -0,0 +1,88 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent asynchronous loads of the same key into a single in-flight call.
+ * <p>
+ * The first caller for a key runs the loader; every caller arriving while that load is
+ * still running gets a future completed with the same outcome instead of starting its own
+ * load. Once the load completes the key is released, so the next miss triggers a fresh load.
+ * </p>
+ * <p>
+ * Used by {@link HttpExecutor} so that an expired OAuth2 token or Bonita session is fetched
+ * once, not once per concurrent request, and so that identical concurrent GET requests reach
+ * the server once.
+ * </p>
+ *
+ * @param <K> The key type
+ * @param <V> The loaded value type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedWaits = new LongAdder();
+    private final LongAdder coalescedWaitNanos = new LongAdder();
+
+    /**
+     * Returns the result of the in-flight load for {@code key}, starting one with {@code loader} if none is running.
+     * <p>
+     * The loader should also publish its result (e.g. store it in a cache) before its future completes,
+     * so that callers arriving after the key is released find the value without loading again.
+     * </p>
+     *
+     * @param key    The load key
+     * @param loader Starts the load; only invoked by the caller that wins the key
+     * @return A future completed with the shared load result
+     */
+    public CompletableFuture<V> load(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            coalescedWaits.increment();
+            long waitStart = System.nanoTime();
+            // copy() so a waiter cannot complete or cancel the shared future
+            return existing.copy().whenComplete((value, error) ->
+                    coalescedWaitNanos.add(System.nanoTime() - waitStart));
+        }
+
+        loads.increment();
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((value, error) -> {
+            // Release the key before completing, so dependents that miss again start a new load
+            inFlight.remove(key, promise);
+            if (error != null) {
+                promise.completeExceptionally(error);
+            } else {
+                promise.complete(value);
+            }
+        });
+        return promise.copy();
+    }
+
+    /**
+     * @return A point-in-time snapshot of the coalescing statistics
+     */
+    public Stats stats() {
+        return new Stats(loads.sum(), coalescedWaits.sum(), coalescedWaitNanos.sum() / 1_000_000, inFlight.size());
+    }
+
+    /**
+     * Snapshot of single-flight statistics.
+     *
+     * @param loads            Loads actually started
+     * @param coalescedWaits   Callers that joined an in-flight load instead of starting their own
+     * @param coalescedWaitMs  Total time spent by coalesced callers waiting for the shared load
+     * @param inFlight         Loads currently running
+     */
+    public record Stats(long loads, long coalescedWaits, long coalescedWaitMs, int inFlight) {}
+}
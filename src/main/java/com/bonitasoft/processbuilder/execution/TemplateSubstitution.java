@@ -1,5 +1,7 @@
 package com.bonitasoft.processbuilder.execution;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -44,6 +46,17 @@ public final class TemplateSubstitution {
         return result.toString();
     }
 
+    /**
+     * Pre-parses a template into literal and placeholder segments so that it can be
+     * rendered many times without running the regex again.
+     *
+     * @param template The template string (may be null)
+     * @return The compiled template, rendering with the same semantics as {@link #substitute}
+     */
+    public static CompiledTemplate compile(String template) {
+        return new CompiledTemplate(template);
+    }
+
     /**
      * Builds a final URL by joining baseUrl and path with proper slash handling.
      */
@@ -59,4 +72,67 @@ public final class TemplateSubstitution {
         String cleanPath = path.startsWith("/") ? path.substring(1) : path;
         return cleanBase + "/" + cleanPath;
     }
+
+    /**
+     * A template parsed once into alternating literal and placeholder segments.
+     * Instances are immutable and safe to share between threads.
+     */
+    public static final class CompiledTemplate {
+
+        private final String source;
+        private final List<String> literals;
+        private final List<String> paramNames;
+        private final List<String> rawPlaceholders;
+
+        private CompiledTemplate(String source) {
+            this.source = source;
+            List<String> literalParts = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            List<String> raws = new ArrayList<>();
+            if (source != null && !source.isEmpty()) {
+                Matcher matcher = TEMPLATE_PATTERN.matcher(source);
+                int last = 0;
+                while (matcher.find()) {
+                    literalParts.add(source.substring(last, matcher.start()));
+                    names.add(matcher.group(1).trim());
+                    raws.add(matcher.group(0));
+                    last = matcher.end();
+                }
+                literalParts.add(source.substring(last));
+            }
+            this.literals = List.copyOf(literalParts);
+            this.paramNames = List.copyOf(names);
+            this.rawPlaceholders = List.copyOf(raws);
+        }
+
+        /**
+         * Renders the template. Unresolved placeholders are kept as-is.
+         *
+         * @param params Parameter values (may contain String or Object values)
+         * @return The resolved string
+         */
+        public String render(Map<String, ?> params) {
+            if (paramNames.isEmpty() || params == null || params.isEmpty()) {
+                return source;
+            }
+            StringBuilder result = new StringBuilder(source.length() + 16);
+            for (int i = 0; i < paramNames.size(); i++) {
+                result.append(literals.get(i));
+                Object value = params.get(paramNames.get(i));
+                result.append(value != null ? String.valueOf(value) : rawPlaceholders.get(i));
+            }
+            result.append(literals.get(paramNames.size()));
+            return result.toString();
+        }
+
+        /** @return The original template string */
+        public String source() {
+            return source;
+        }
+
+        /** @return true if the template contains at least one {{param}} placeholder */
+        public boolean hasPlaceholders() {
+            return !paramNames.isEmpty();
+        }
+    }
 }
@@ -0,0 +1,197 @@
+package com.bonitasoft.processbuilder.execution;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * File content to upload, read lazily while the request body is sent.
+ * <p>
+ * A source produces a {@link HttpRequest.BodyPublisher} each time the body is (re)sent, so the
+ * file bytes are streamed from disk or from the caller's stream instead of being loaded on the heap.
+ * Sources built from a {@link Path}, Base64 text or a stream supplier can be sent several times (e.g. when a
+ * rejected Bonita session is renewed); a source built from a single {@link InputStream} cannot, and the
+ * request carrying it is then neither retried nor resent.
+ * </p>
+ *
+ * @param publishers Creates the body publisher streaming the content
+ * @param length     The content length in bytes, or -1 if unknown (the body is then sent chunked)
+ * @param repeatable Whether each publisher sends the whole content again
+ */
+public record UploadSource(Supplier<HttpRequest.BodyPublisher> publishers, long length, boolean repeatable) {
+
+    public UploadSource {
+        if (publishers == null) {
+            throw new IllegalArgumentException("publishers cannot be null");
+        }
+        length = Math.max(-1, length);
+    }
+
+    /**
+     * Creates a source that can be sent several times.
+     *
+     * @param publishers Creates the body publisher streaming the content
+     * @param length     The content length in bytes, or -1 if unknown
+     */
+    public UploadSource(Supplier<HttpRequest.BodyPublisher> publishers, long length) {
+        this(publishers, length, true);
+    }
+
+    /**
+     * Streams a file from disk.
+     *
+     * @param path The file to upload
+     * @return The upload source
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static UploadSource ofPath(Path path) {
+        try {
+            long size = Files.size(path);
+            return new UploadSource(() -> {
+                try {
+                    return HttpRequest.BodyPublishers.ofFile(path);
+                } catch (FileNotFoundException e) {
+                    throw new UncheckedIOException("Upload file not found: " + path, e);
+                }
+            }, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read upload file " + path, e);
+        }
+    }
+
+    /**
+     * Streams content from a supplier opening a new stream for each send.
+     *
+     * @param streams Opens the content stream
+     * @param length  The content length in bytes, or -1 if unknown
+     * @return The upload source
+     */
+    public static UploadSource ofInputStream(Supplier<? extends InputStream> streams, long length) {
+        return new UploadSource(() -> withLength(HttpRequest.BodyPublishers.ofInputStream(streams), length), length);
+    }
+
+    /**
+     * Streams content from a single stream. The request can then be sent only once.
+     *
+     * @param stream The content stream, closed once read
+     * @param length The content length in bytes, or -1 if unknown
+     * @return The upload source
+     */
+    public static UploadSource ofInputStream(InputStream stream, long length) {
+        return new UploadSource(() -> withLength(HttpRequest.BodyPublishers.ofInputStream(() -> stream), length),
+                length, false);
+    }
+
+    /**
+     * Decodes Base64 content lazily while it is sent: the encoded text is read chunk by chunk through
+     * a decoding stream, so the decoded bytes are never held in memory as a whole. The content length
+     * is computed from the encoded length.
+     *
+     * @param base64 The Base64-encoded content (basic alphabet, padding optional)
+     * @return The upload source
+     * @throws IllegalArgumentException if the text is not valid Base64
+     */
+    public static UploadSource ofBase64(String base64) {
+        long length = decodedLength(base64);
+        return ofInputStream(() -> Base64.getDecoder().wrap(new AsciiInputStream(base64)), length);
+    }
+
+    /**
+     * Computes the decoded size of Base64 text, validating its alphabet and length on the way
+     * without allocating.
+     *
+     * @param base64 The Base64-encoded content
+     * @return The number of decoded bytes
+     * @throws IllegalArgumentException if the text is not valid Base64
+     */
+    static long decodedLength(String base64) {
+        int end = base64.length();
+        int padding = 0;
+        while (end > 0 && base64.charAt(end - 1) == '=' && padding < 2) {
+            end--;
+            padding++;
+        }
+        for (int i = 0; i < end; i++) {
+            char c = base64.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '+' || c == '/';
+            if (!valid) {
+                throw new IllegalArgumentException("Illegal base64 character at index " + i);
+            }
+        }
+        if (end % 4 == 1 || (padding > 0 && (end + padding) % 4 != 0)) {
+            throw new IllegalArgumentException("Invalid base64 length: " + base64.length());
+        }
+        return end / 4 * 3L + Math.max(0, end % 4 - 1);
+    }
+
+    /**
+     * Uploads content already held in memory (not copied).
+     *
+     * @param content The content bytes
+     * @return The upload source
+     */
+    public static UploadSource ofBytes(byte[] content) {
+        return new UploadSource(() -> HttpRequest.BodyPublishers.ofByteArray(content), content.length);
+    }
+
+    /**
+     * @return A new body publisher streaming the content
+     */
+    public HttpRequest.BodyPublisher publisher() {
+        return publishers.get();
+    }
+
+    /**
+     * Reads the characters of an ASCII string as bytes, without copying the string.
+     */
+    private static final class AsciiInputStream extends InputStream {
+
+        private final String text;
+        private int position;
+
+        AsciiInputStream(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read() {
+            return position < text.length() ? text.charAt(position++) & 0x7F : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int remaining = text.length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) text.charAt(position++);
+            }
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return text.length() - position;
+        }
+    }
+
+    private static HttpRequest.BodyPublisher withLength(HttpRequest.BodyPublisher publisher, long length) {
+        if (length == 0) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        // A known length lets the body be sent with Content-Length instead of chunked
+        return length > 0 ? HttpRequest.BodyPublishers.fromPublisher(publisher, length) : publisher;
+    }
+}
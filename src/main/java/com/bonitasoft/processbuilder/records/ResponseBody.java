@@ -0,0 +1,296 @@
+package com.bonitasoft.processbuilder.records;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The body of a REST response, held in the form selected by the request's
+ * {@link com.bonitasoft.processbuilder.enums.RestResponseMode}.
+ * <p>
+ * Text bodies are kept as a {@link String} (legacy behavior), binary bodies as a {@code byte[]},
+ * large bodies in a temporary file and streamed bodies as a live {@link InputStream}. Every form
+ * can be read as bytes, as a stream or as text; text is decoded only when asked for, so binary
+ * content is never corrupted by a charset round trip.
+ * </p>
+ * <p>
+ * File and stream bodies hold resources: call {@link #release()} once the body has been consumed.
+ * </p>
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public sealed interface ResponseBody permits
+        ResponseBody.Text,
+        ResponseBody.Bytes,
+        ResponseBody.TempFile,
+        ResponseBody.Stream {
+
+    /**
+     * Gets the body size in bytes.
+     *
+     * @return The size in bytes, or -1 if unknown without reading or encoding the body
+     */
+    long size();
+
+    /**
+     * Reads the whole body into memory.
+     *
+     * @return The body bytes
+     */
+    byte[] bytes();
+
+    /**
+     * Decodes the whole body as text.
+     *
+     * @return The body text
+     */
+    String text();
+
+    /**
+     * Opens a stream over the body. For {@link Stream} bodies the live stream is returned
+     * and can only be read once.
+     *
+     * @return An input stream over the body
+     */
+    InputStream openStream();
+
+    /**
+     * Gets the charset used by {@link #text()}.
+     *
+     * @return The charset declared by the response, UTF-8 by default
+     */
+    Charset charset();
+
+    /**
+     * Checks whether the body is fully held on the heap.
+     *
+     * @return true for text and byte array bodies
+     */
+    default boolean isInMemory() {
+        return false;
+    }
+
+    /**
+     * Releases the resources held by the body (deletes the temporary file, closes the stream).
+     * Does nothing for in-memory bodies.
+     */
+    default void release() {
+    }
+
+    // ========================================================================
+    // Factory Methods
+    // ========================================================================
+
+    /**
+     * Creates a text body.
+     *
+     * @param text The body text
+     * @return A text body
+     */
+    static Text ofText(String text) {
+        return new Text(text);
+    }
+
+    /**
+     * Creates a binary body held in memory.
+     *
+     * @param content The body bytes (not copied)
+     * @param charset The charset used by {@link #text()}
+     * @return A byte array body
+     */
+    static Bytes ofBytes(byte[] content, Charset charset) {
+        return new Bytes(content, charset);
+    }
+
+    // ========================================================================
+    // Implementations
+    // ========================================================================
+
+    /**
+     * A body decoded as text when received.
+     *
+     * @param value The body text
+     */
+    record Text(String value) implements ResponseBody {
+
+        public Text {
+            value = value != null ? value : "";
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public byte[] bytes() {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String text() {
+            return value;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(bytes());
+        }
+
+        @Override
+        public Charset charset() {
+            return StandardCharsets.UTF_8;
+        }
+
+        @Override
+        public boolean isInMemory() {
+            return true;
+        }
+    }
+
+    /**
+     * A binary body held in memory.
+     *
+     * @param content The body bytes
+     * @param charset The charset used to decode the body as text
+     */
+    record Bytes(byte[] content, Charset charset) implements ResponseBody {
+
+        public Bytes {
+            content = content != null ? content : new byte[0];
+            charset = charset != null ? charset : StandardCharsets.UTF_8;
+        }
+
+        /**
+         * @return A copy of the body bytes
+         */
+        @Override
+        public byte[] content() {
+            return content.clone();
+        }
+
+        @Override
+        public long size() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] bytes() {
+            return content.clone();
+        }
+
+        @Override
+        public String text() {
+            return new String(content, charset);
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public boolean isInMemory() {
+            return true;
+        }
+    }
+
+    /**
+     * A body spilled to a temporary file because it exceeded the in-memory threshold.
+     *
+     * @param path    The temporary file
+     * @param size    The file size in bytes
+     * @param charset The charset used to decode the body as text
+     */
+    record TempFile(Path path, long size, Charset charset) implements ResponseBody {
+
+        public TempFile {
+            charset = charset != null ? charset : StandardCharsets.UTF_8;
+        }
+
+        @Override
+        public byte[] bytes() {
+            try {
+                return Files.readAllBytes(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read response body file " + path, e);
+            }
+        }
+
+        @Override
+        public String text() {
+            return new String(bytes(), charset);
+        }
+
+        @Override
+        public InputStream openStream() {
+            try {
+                return Files.newInputStream(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read response body file " + path, e);
+            }
+        }
+
+        @Override
+        public void release() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete response body file " + path, e);
+            }
+        }
+    }
+
+    /**
+     * A body streamed from the connection as it is read. It can be read only once,
+     * and the connection is held until the stream is fully read or released.
+     *
+     * @param stream  The live response stream
+     * @param charset The charset used to decode the body as text
+     */
+    record Stream(InputStream stream, Charset charset) implements ResponseBody {
+
+        public Stream {
+            charset = charset != null ? charset : StandardCharsets.UTF_8;
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public byte[] bytes() {
+            try (InputStream in = stream) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read response body stream", e);
+            }
+        }
+
+        @Override
+        public String text() {
+            return new String(bytes(), charset);
+        }
+
+        @Override
+        public InputStream openStream() {
+            return stream;
+        }
+
+        @Override
+        public void release() {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close response body stream", e);
+            }
+        }
+    }
+}
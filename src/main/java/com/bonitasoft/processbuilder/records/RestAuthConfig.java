@@ -476,6 +476,28 @@ public sealed interface RestAuthConfig permits
             return body.toString();
         }
 
+        /**
+         * Gets the body parameters for renewing a token with a refresh token (RFC 6749 section 6).
+         *
+         * @param refreshToken The refresh token returned by a previous token response
+         * @return Form parameters for token endpoint
+         */
+        public String getRefreshTokenRequestBody(String refreshToken) {
+            StringBuilder body = new StringBuilder("grant_type=refresh_token");
+            body.append("&refresh_token=").append(urlEncode(refreshToken));
+            body.append("&client_id=").append(urlEncode(clientId));
+
+            if (clientSecret != null && !clientSecret.isBlank()) {
+                body.append("&client_secret=").append(urlEncode(clientSecret));
+            }
+
+            if (scope != null && !scope.isBlank()) {
+                body.append("&scope=").append(urlEncode(scope));
+            }
+
+            return body.toString();
+        }
+
         private static String urlEncode(String value) {
             try {
                 return java.net.URLEncoder.encode(value, java.nio.charset.StandardCharsets.UTF_8);
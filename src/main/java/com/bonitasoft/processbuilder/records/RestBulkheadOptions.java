@@ -0,0 +1,126 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes the bulkhead isolating the calls of a REST request: a cap on the calls in flight to one
+ * downstream API, so that a slow API cannot take every caller thread.
+ * <p>
+ * Declared on a PBConfiguration method ({@code bulkhead}, {@code bulkheadName},
+ * {@code bulkheadMaxConcurrent}, {@code bulkheadMaxQueue}, {@code bulkheadAdaptive},
+ * {@code bulkheadMinConcurrent}, {@code bulkheadSlowCallMs}), at the top level as a default for every
+ * method, or set on a {@link RestServiceRequest}. Calls share a bulkhead per target host
+ * ({@code scheme://host:port}) unless a name is given.
+ * </p>
+ * <p>
+ * Up to {@code maxConcurrent} calls are in flight at once; the next {@code maxQueue} calls wait for a
+ * slot and any further call is shed: it fails immediately without being sent. In adaptive mode the
+ * limit follows the API's health (AIMD): every call answered in less than {@code slowCallMs} without
+ * a server error raises it slowly, up to {@code maxConcurrent}; every slow or failed call lowers it
+ * by 10 %, down to {@code minConcurrent}.
+ * </p>
+ *
+ * @param enabled       Whether calls go through a bulkhead
+ * @param name          The bulkhead shared by the calls, or null for one bulkhead per target host
+ * @param maxConcurrent Maximum number of calls in flight (the ceiling of the adaptive limit)
+ * @param maxQueue      Maximum number of calls waiting for a slot (0 sheds every call over the limit)
+ * @param adaptive      Whether the limit adapts to the observed latency and errors
+ * @param minConcurrent Floor of the adaptive limit
+ * @param slowCallMs    Duration from which a call lowers the adaptive limit
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestBulkheadOptions(
+        boolean enabled,
+        String name,
+        int maxConcurrent,
+        int maxQueue,
+        boolean adaptive,
+        int minConcurrent,
+        long slowCallMs
+) {
+
+    /** Default maximum number of calls in flight. */
+    public static final int DEFAULT_MAX_CONCURRENT = 10;
+
+    /** Default maximum number of calls waiting for a slot. */
+    public static final int DEFAULT_MAX_QUEUE = 20;
+
+    /** Default floor of the adaptive limit. */
+    public static final int DEFAULT_MIN_CONCURRENT = 1;
+
+    /** Default duration from which a call lowers the adaptive limit (5 s). */
+    public static final long DEFAULT_SLOW_CALL_MS = 5_000L;
+
+    private static final RestBulkheadOptions DISABLED = new RestBulkheadOptions(false, null,
+            DEFAULT_MAX_CONCURRENT, DEFAULT_MAX_QUEUE, false, DEFAULT_MIN_CONCURRENT, DEFAULT_SLOW_CALL_MS);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestBulkheadOptions {
+        name = name != null && !name.isBlank() ? name.trim() : null;
+        maxConcurrent = maxConcurrent > 0 ? maxConcurrent : DEFAULT_MAX_CONCURRENT;
+        maxQueue = Math.max(0, maxQueue);
+        minConcurrent = Math.min(maxConcurrent, minConcurrent > 0 ? minConcurrent : DEFAULT_MIN_CONCURRENT);
+        slowCallMs = slowCallMs > 0 ? slowCallMs : DEFAULT_SLOW_CALL_MS;
+    }
+
+    /**
+     * Gets the default: calls are not isolated.
+     *
+     * @return The disabled options
+     */
+    public static RestBulkheadOptions disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates options with a fixed limit, one bulkhead per target host.
+     *
+     * @param maxConcurrent Maximum number of calls in flight
+     * @param maxQueue      Maximum number of calls waiting for a slot
+     * @return The enabled options
+     */
+    public static RestBulkheadOptions fixed(int maxConcurrent, int maxQueue) {
+        return new RestBulkheadOptions(true, null, maxConcurrent, maxQueue, false, DEFAULT_MIN_CONCURRENT,
+                DEFAULT_SLOW_CALL_MS);
+    }
+
+    /**
+     * Reads the bulkhead options declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code bulkhead}, {@code bulkhead*})
+     * @return The options (disabled when none are declared)
+     */
+    public static RestBulkheadOptions fromJson(JsonNode node) {
+        return fromJson(node, DISABLED);
+    }
+
+    /**
+     * Reads the bulkhead options declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level bulkhead).
+     *
+     * @param node   The JSON node
+     * @param parent The inherited options
+     * @return The options
+     */
+    public static RestBulkheadOptions fromJson(JsonNode node, RestBulkheadOptions parent) {
+        RestBulkheadOptions inherited = parent != null ? parent : DISABLED;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        return new RestBulkheadOptions(
+                node.has("bulkhead") ? node.get("bulkhead").asBoolean(false) : inherited.enabled(),
+                node.has("bulkheadName") ? node.get("bulkheadName").asText() : inherited.name(),
+                node.has("bulkheadMaxConcurrent")
+                        ? node.get("bulkheadMaxConcurrent").asInt() : inherited.maxConcurrent(),
+                node.has("bulkheadMaxQueue") ? node.get("bulkheadMaxQueue").asInt() : inherited.maxQueue(),
+                node.has("bulkheadAdaptive")
+                        ? node.get("bulkheadAdaptive").asBoolean(false) : inherited.adaptive(),
+                node.has("bulkheadMinConcurrent")
+                        ? node.get("bulkheadMinConcurrent").asInt() : inherited.minConcurrent(),
+                node.has("bulkheadSlowCallMs")
+                        ? node.get("bulkheadSlowCallMs").asLong() : inherited.slowCallMs());
+    }
+}
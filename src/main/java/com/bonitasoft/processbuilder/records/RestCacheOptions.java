@@ -0,0 +1,107 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes whether and how long the responses of a GET request are cached.
+ * <p>
+ * Declared on a PBConfiguration method ({@code cacheResponses}, {@code cacheTtlMs},
+ * {@code cacheStaleWhileRevalidateMs}, {@code cacheHonorCacheControl}), at the top level as a
+ * default for every method, or set on a {@link RestServiceRequest}. Declaring a positive
+ * {@code cacheTtlMs} enables caching. By default the server's {@code Cache-Control} and
+ * {@code Expires} headers take precedence over the configured lifetimes.
+ * </p>
+ *
+ * @param enabled                Whether successful GET responses are cached
+ * @param ttlMs                  Freshness lifetime when the response declares none; 0 caches only
+ *                               responses carrying an explicit lifetime or a validator
+ *                               ({@code ETag}, {@code Last-Modified})
+ * @param staleWhileRevalidateMs How long after expiry a stale response is still served while it
+ *                               is revalidated in the background
+ * @param honorCacheControl      Whether {@code Cache-Control} ({@code no-store}, {@code no-cache},
+ *                               {@code max-age}, {@code must-revalidate}, {@code stale-while-revalidate})
+ *                               and {@code Expires} override the configured lifetimes
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestCacheOptions(
+        boolean enabled,
+        long ttlMs,
+        long staleWhileRevalidateMs,
+        boolean honorCacheControl
+) {
+
+    private static final RestCacheOptions DISABLED = new RestCacheOptions(false, 0, 0, true);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestCacheOptions {
+        ttlMs = Math.max(0, ttlMs);
+        staleWhileRevalidateMs = Math.max(0, staleWhileRevalidateMs);
+    }
+
+    /**
+     * Gets the default: responses are not cached.
+     *
+     * @return The disabled options
+     */
+    public static RestCacheOptions disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates options caching responses for a fixed lifetime, unless the server declares another one.
+     *
+     * @param ttlMs The freshness lifetime in milliseconds
+     * @return The options
+     */
+    public static RestCacheOptions ttl(long ttlMs) {
+        return new RestCacheOptions(true, ttlMs, 0, true);
+    }
+
+    /**
+     * Copies these options with a stale-while-revalidate window.
+     *
+     * @param windowMs How long a stale response is served while it is revalidated
+     * @return The updated options
+     */
+    public RestCacheOptions withStaleWhileRevalidate(long windowMs) {
+        return new RestCacheOptions(enabled, ttlMs, windowMs, honorCacheControl);
+    }
+
+    /**
+     * Reads the cache options declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code cacheResponses}, {@code cacheTtlMs},
+     *             {@code cacheStaleWhileRevalidateMs}, {@code cacheHonorCacheControl})
+     * @return The options (disabled when none are declared)
+     */
+    public static RestCacheOptions fromJson(JsonNode node) {
+        return fromJson(node, DISABLED);
+    }
+
+    /**
+     * Reads the cache options declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level lifetime).
+     *
+     * @param node   The JSON node
+     * @param parent The inherited options
+     * @return The options
+     */
+    public static RestCacheOptions fromJson(JsonNode node, RestCacheOptions parent) {
+        RestCacheOptions inherited = parent != null ? parent : DISABLED;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        long ttl = node.has("cacheTtlMs") ? node.get("cacheTtlMs").asLong(0) : inherited.ttlMs();
+        boolean enabled = node.has("cacheResponses")
+                ? node.get("cacheResponses").asBoolean(false)
+                : inherited.enabled() || (node.has("cacheTtlMs") && ttl > 0);
+        long staleWindow = node.has("cacheStaleWhileRevalidateMs")
+                ? node.get("cacheStaleWhileRevalidateMs").asLong(0) : inherited.staleWhileRevalidateMs();
+        boolean honor = node.has("cacheHonorCacheControl")
+                ? node.get("cacheHonorCacheControl").asBoolean(true) : inherited.honorCacheControl();
+        return new RestCacheOptions(enabled, ttl, staleWindow, honor);
+    }
+}
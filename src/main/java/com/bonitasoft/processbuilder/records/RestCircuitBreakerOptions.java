@@ -0,0 +1,160 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes the circuit breaker guarding the calls of a REST request.
+ * <p>
+ * Declared on a PBConfiguration method ({@code circuitBreaker}, {@code circuitBreakerName},
+ * {@code circuitBreakerFailureRate}, {@code circuitBreakerSlowCallRate}, {@code circuitBreakerSlowCallMs},
+ * {@code circuitBreakerWindowSize}, {@code circuitBreakerMinimumCalls}, {@code circuitBreakerOpenMs},
+ * {@code circuitBreakerHalfOpenCalls}), at the top level as a default for every method, or set on a
+ * {@link RestServiceRequest}. Calls share a breaker per target host ({@code scheme://host:port}) unless
+ * a name is given, e.g. to share one breaker between the methods of a configuration.
+ * </p>
+ * <p>
+ * The breaker opens when, over the last {@code windowSize} calls (at least {@code minimumCalls}), the
+ * percentage of failed calls (connection errors, timeouts, 5xx statuses) or of calls slower than
+ * {@code slowCallMs} reaches its threshold. While open, calls fail immediately. After {@code openMs},
+ * {@code halfOpenCalls} trial calls are let through: the breaker closes if they all succeed in time
+ * and opens again otherwise.
+ * </p>
+ *
+ * @param enabled               Whether calls go through a circuit breaker
+ * @param name                  The breaker shared by the calls, or null for one breaker per target host
+ * @param failureRateThreshold  Percentage of failed calls that opens the breaker (1-100)
+ * @param slowCallRateThreshold Percentage of slow calls that opens the breaker (1-100; 100 only opens
+ *                              when every call is slow)
+ * @param slowCallMs            Duration from which a call counts as slow
+ * @param windowSize            Number of recent calls the rates are computed over
+ * @param minimumCalls          Number of calls recorded before the rates are evaluated
+ * @param openMs                How long the breaker stays open before trial calls
+ * @param halfOpenCalls         Number of trial calls let through once the open period is over
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestCircuitBreakerOptions(
+        boolean enabled,
+        String name,
+        double failureRateThreshold,
+        double slowCallRateThreshold,
+        long slowCallMs,
+        int windowSize,
+        int minimumCalls,
+        long openMs,
+        int halfOpenCalls
+) {
+
+    /** Default failure rate opening the breaker (50 %). */
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+
+    /** Default slow-call rate opening the breaker (100 %: only when every call is slow). */
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+
+    /** Default duration from which a call counts as slow (10 s). */
+    public static final long DEFAULT_SLOW_CALL_MS = 10_000L;
+
+    /** Default number of recent calls evaluated. */
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    /** Default number of calls recorded before the breaker may open. */
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+    /** Default open period (30 s). */
+    public static final long DEFAULT_OPEN_MS = 30_000L;
+
+    /** Default number of trial calls. */
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    private static final RestCircuitBreakerOptions DISABLED = new RestCircuitBreakerOptions(false, null,
+            DEFAULT_FAILURE_RATE_THRESHOLD, DEFAULT_SLOW_CALL_RATE_THRESHOLD, DEFAULT_SLOW_CALL_MS,
+            DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS, DEFAULT_OPEN_MS, DEFAULT_HALF_OPEN_CALLS);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestCircuitBreakerOptions {
+        name = name != null && !name.isBlank() ? name.trim() : null;
+        failureRateThreshold = rate(failureRateThreshold, DEFAULT_FAILURE_RATE_THRESHOLD);
+        slowCallRateThreshold = rate(slowCallRateThreshold, DEFAULT_SLOW_CALL_RATE_THRESHOLD);
+        slowCallMs = slowCallMs > 0 ? slowCallMs : DEFAULT_SLOW_CALL_MS;
+        windowSize = windowSize > 0 ? windowSize : DEFAULT_WINDOW_SIZE;
+        minimumCalls = Math.min(windowSize, minimumCalls > 0 ? minimumCalls : DEFAULT_MINIMUM_CALLS);
+        openMs = openMs > 0 ? openMs : DEFAULT_OPEN_MS;
+        halfOpenCalls = halfOpenCalls > 0 ? halfOpenCalls : DEFAULT_HALF_OPEN_CALLS;
+    }
+
+    private static double rate(double value, double defaultValue) {
+        return value > 0 && value <= 100 ? value : defaultValue;
+    }
+
+    /**
+     * Gets the default: calls are not guarded.
+     *
+     * @return The disabled options
+     */
+    public static RestCircuitBreakerOptions disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates options guarding calls with the default thresholds, one breaker per target host.
+     *
+     * @return The enabled options
+     */
+    public static RestCircuitBreakerOptions defaults() {
+        return DISABLED.withEnabled(true);
+    }
+
+    /**
+     * Copies these options with the breaker switched on or off.
+     *
+     * @param enable Whether calls go through a circuit breaker
+     * @return The updated options
+     */
+    public RestCircuitBreakerOptions withEnabled(boolean enable) {
+        return new RestCircuitBreakerOptions(enable, name, failureRateThreshold, slowCallRateThreshold, slowCallMs,
+                windowSize, minimumCalls, openMs, halfOpenCalls);
+    }
+
+    /**
+     * Reads the circuit breaker options declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code circuitBreaker}, {@code circuitBreaker*})
+     * @return The options (disabled when none are declared)
+     */
+    public static RestCircuitBreakerOptions fromJson(JsonNode node) {
+        return fromJson(node, DISABLED);
+    }
+
+    /**
+     * Reads the circuit breaker options declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level breaker).
+     *
+     * @param node   The JSON node
+     * @param parent The inherited options
+     * @return The options
+     */
+    public static RestCircuitBreakerOptions fromJson(JsonNode node, RestCircuitBreakerOptions parent) {
+        RestCircuitBreakerOptions inherited = parent != null ? parent : DISABLED;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        return new RestCircuitBreakerOptions(
+                node.has("circuitBreaker") ? node.get("circuitBreaker").asBoolean(false) : inherited.enabled(),
+                node.has("circuitBreakerName") ? node.get("circuitBreakerName").asText() : inherited.name(),
+                node.has("circuitBreakerFailureRate")
+                        ? node.get("circuitBreakerFailureRate").asDouble() : inherited.failureRateThreshold(),
+                node.has("circuitBreakerSlowCallRate")
+                        ? node.get("circuitBreakerSlowCallRate").asDouble() : inherited.slowCallRateThreshold(),
+                node.has("circuitBreakerSlowCallMs")
+                        ? node.get("circuitBreakerSlowCallMs").asLong() : inherited.slowCallMs(),
+                node.has("circuitBreakerWindowSize")
+                        ? node.get("circuitBreakerWindowSize").asInt() : inherited.windowSize(),
+                node.has("circuitBreakerMinimumCalls")
+                        ? node.get("circuitBreakerMinimumCalls").asInt() : inherited.minimumCalls(),
+                node.has("circuitBreakerOpenMs") ? node.get("circuitBreakerOpenMs").asLong() : inherited.openMs(),
+                node.has("circuitBreakerHalfOpenCalls")
+                        ? node.get("circuitBreakerHalfOpenCalls").asInt() : inherited.halfOpenCalls());
+    }
+}
@@ -0,0 +1,102 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpClient;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Describes the connection-level behavior of the HTTP client sending a REST request.
+ * <p>
+ * Declared at the top level of a PBConfiguration ({@code httpVersion}, {@code connectTimeoutMs},
+ * {@code proxyHost}, {@code proxyPort}) or set on a {@link RestServiceRequest}. Together with the
+ * request's {@code verifySsl} and {@code followRedirects} flags, these values select the shared
+ * {@link HttpClient} the request is sent with.
+ * </p>
+ *
+ * @param httpVersion      The preferred HTTP version, or null for HTTP/2 with fallback to HTTP/1.1
+ * @param connectTimeoutMs Timeout for establishing the connection; 0 uses the default of 30 s
+ * @param proxyHost        The HTTP proxy host, or null to connect directly
+ * @param proxyPort        The HTTP proxy port (ignored without a proxy host)
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestConnectionOptions(
+        HttpClient.Version httpVersion,
+        int connectTimeoutMs,
+        String proxyHost,
+        int proxyPort
+) {
+
+    /**
+     * Port used when a proxy host is declared without a port.
+     */
+    public static final int DEFAULT_PROXY_PORT = 8080;
+
+    private static final RestConnectionOptions DEFAULTS = new RestConnectionOptions(null, 0, null, 0);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestConnectionOptions {
+        connectTimeoutMs = Math.max(0, connectTimeoutMs);
+        proxyHost = proxyHost != null && !proxyHost.isBlank() ? proxyHost.trim() : null;
+        proxyPort = proxyHost == null ? 0 : (proxyPort > 0 ? proxyPort : DEFAULT_PROXY_PORT);
+    }
+
+    /**
+     * Gets the default options: HTTP/2 preferred, request timeout, no proxy.
+     *
+     * @return The default options
+     */
+    public static RestConnectionOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Checks whether requests go through an HTTP proxy.
+     *
+     * @return true if a proxy host is declared
+     */
+    public boolean hasProxy() {
+        return proxyHost != null;
+    }
+
+    /**
+     * Parses an HTTP version name ({@code HTTP_1_1}, {@code HTTP/1.1}, {@code 1.1},
+     * {@code HTTP_2}, {@code HTTP/2}, {@code 2}, {@code h2}), case-insensitive.
+     *
+     * @param value The version name
+     * @return The matching version, or empty if unknown
+     */
+    public static Optional<HttpClient.Version> parseHttpVersion(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "HTTP_1_1", "HTTP/1.1", "1.1" -> Optional.of(HttpClient.Version.HTTP_1_1);
+            case "HTTP_2", "HTTP/2", "2", "H2" -> Optional.of(HttpClient.Version.HTTP_2);
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * Reads the connection options declared on a configuration or request JSON node.
+     * Unknown HTTP versions fall back to the default (HTTP/2 preferred).
+     *
+     * @param node The JSON node ({@code httpVersion}, {@code connectTimeoutMs}, {@code proxyHost}, {@code proxyPort})
+     * @return The options (defaults when none are declared)
+     */
+    public static RestConnectionOptions fromJson(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return DEFAULTS;
+        }
+        HttpClient.Version version = node.has("httpVersion")
+                ? parseHttpVersion(node.get("httpVersion").asText()).orElse(null) : null;
+        int connectTimeout = node.has("connectTimeoutMs") ? node.get("connectTimeoutMs").asInt(0) : 0;
+        String proxyHost = node.has("proxyHost") ? node.get("proxyHost").asText(null) : null;
+        int proxyPort = node.has("proxyPort") ? node.get("proxyPort").asInt(0) : 0;
+        return new RestConnectionOptions(version, connectTimeout, proxyHost, proxyPort);
+    }
+}
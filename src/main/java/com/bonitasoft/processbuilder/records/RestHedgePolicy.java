@@ -0,0 +1,107 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes when a slow GET or HEAD request is hedged: sent a second time while the first call is
+ * still pending, the first response to arrive being used and the other call cancelled.
+ * <p>
+ * Declared on a PBConfiguration method ({@code hedge}, {@code hedgeDelayMs}, {@code hedgeMaxPercent},
+ * {@code hedgeName}), at the top level as a default for every method, or set on a
+ * {@link RestServiceRequest}. Only body-less GET and HEAD requests answered in {@code string} or
+ * {@code bytes} mode are hedged.
+ * </p>
+ * <p>
+ * The hedge is sent after {@code delayMs}, or, when no delay is given, after the 95th percentile of
+ * the latencies observed for the same target (host or name); until enough calls have been observed
+ * no hedge is sent. Hedges are capped at {@code maxHedgePercent} of the calls, so that hedging cannot
+ * double the load of a struggling upstream.
+ * </p>
+ *
+ * @param enabled         Whether slow calls are hedged
+ * @param delayMs         Wait before the hedge is sent (0 for the observed p95 latency)
+ * @param maxHedgePercent Maximum share of calls that are hedged (1-100)
+ * @param name            The target whose latencies and hedge budget are shared, or null for the host
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestHedgePolicy(
+        boolean enabled,
+        long delayMs,
+        double maxHedgePercent,
+        String name
+) {
+
+    /** Default maximum share of hedged calls (10 %). */
+    public static final double DEFAULT_MAX_HEDGE_PERCENT = 10;
+
+    private static final RestHedgePolicy NONE = new RestHedgePolicy(false, 0, DEFAULT_MAX_HEDGE_PERCENT, null);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestHedgePolicy {
+        delayMs = Math.max(0, delayMs);
+        maxHedgePercent = maxHedgePercent > 0 && maxHedgePercent <= 100 ? maxHedgePercent
+                : DEFAULT_MAX_HEDGE_PERCENT;
+        name = name != null && !name.isBlank() ? name.trim() : null;
+    }
+
+    /**
+     * Gets the default: calls are not hedged.
+     *
+     * @return The disabled policy
+     */
+    public static RestHedgePolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a policy hedging calls still pending after a fixed delay.
+     *
+     * @param delayMs Wait before the hedge is sent
+     * @return The policy
+     */
+    public static RestHedgePolicy after(long delayMs) {
+        return new RestHedgePolicy(true, delayMs, DEFAULT_MAX_HEDGE_PERCENT, null);
+    }
+
+    /**
+     * Creates a policy hedging calls still pending after the observed p95 latency.
+     *
+     * @return The policy
+     */
+    public static RestHedgePolicy atP95() {
+        return new RestHedgePolicy(true, 0, DEFAULT_MAX_HEDGE_PERCENT, null);
+    }
+
+    /**
+     * Reads the hedging policy declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code hedge}, {@code hedge*})
+     * @return The policy (no hedging when none is declared)
+     */
+    public static RestHedgePolicy fromJson(JsonNode node) {
+        return fromJson(node, NONE);
+    }
+
+    /**
+     * Reads the hedging policy declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level policy).
+     *
+     * @param node   The JSON node
+     * @param parent The inherited policy
+     * @return The policy
+     */
+    public static RestHedgePolicy fromJson(JsonNode node, RestHedgePolicy parent) {
+        RestHedgePolicy inherited = parent != null ? parent : NONE;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        return new RestHedgePolicy(
+                node.has("hedge") ? node.get("hedge").asBoolean(false) : inherited.enabled(),
+                node.has("hedgeDelayMs") ? node.get("hedgeDelayMs").asLong() : inherited.delayMs(),
+                node.has("hedgeMaxPercent") ? node.get("hedgeMaxPercent").asDouble() : inherited.maxHedgePercent(),
+                node.has("hedgeName") ? node.get("hedgeName").asText() : inherited.name());
+    }
+}
@@ -0,0 +1,215 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.bonitasoft.processbuilder.enums.RestPaginationType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes how the items of a paginated listing (Jira search, ServiceNow table, Microsoft Graph,
+ * Salesforce query) are read and how the next page is requested.
+ * <p>
+ * Declared on a PBConfiguration method ({@code pagination}, {@code paginationItemsPath},
+ * {@code paginationCursorPath}, {@code paginationCursorParam}, {@code paginationOffsetParam},
+ * {@code paginationLimitParam}, {@code paginationPageSize}, {@code paginationNextLinkPath},
+ * {@code paginationMaxItems}, {@code paginationMaxPages}) or at the top level as a default for
+ * every method. Paths are dot-separated; a field whose name contains dots (e.g.
+ * {@code @odata.nextLink}) is matched as a whole first.
+ * </p>
+ * <ul>
+ *   <li>{@code cursor}: the next page repeats the request with {@code cursorParam} set to the value
+ *       at {@code cursorPath}; listing ends when the response carries no cursor.</li>
+ *   <li>{@code offset}: the next page repeats the request with {@code offsetParam} advanced by the
+ *       number of items received, and {@code limitParam} set to {@code pageSize} when given; listing
+ *       ends on an empty page, or on a page shorter than {@code pageSize}.</li>
+ *   <li>{@code linkHeader}: the next page is the {@code rel="next"} URL of the {@code Link} header.</li>
+ *   <li>{@code nextLink}: the next page is the URL (absolute or relative) at {@code nextLinkPath}.</li>
+ * </ul>
+ *
+ * @param type          How the next page is found ({@link RestPaginationType#NONE} for a single page)
+ * @param itemsPath     Path of the items array in a page, or null when the page body is the array
+ * @param cursorPath    Path of the next cursor in a page ({@code cursor} type)
+ * @param cursorParam   Query parameter carrying the cursor ({@code cursor} type)
+ * @param offsetParam   Query parameter carrying the offset ({@code offset} type)
+ * @param limitParam    Query parameter carrying the page size ({@code offset} type)
+ * @param pageSize      Items requested per page (0 to keep the server default)
+ * @param nextLinkPath  Path of the next page URL in a page ({@code nextLink} type)
+ * @param maxItems      Maximum number of items returned
+ * @param maxPages      Maximum number of pages requested
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestPagination(
+        RestPaginationType type,
+        String itemsPath,
+        String cursorPath,
+        String cursorParam,
+        String offsetParam,
+        String limitParam,
+        int pageSize,
+        String nextLinkPath,
+        int maxItems,
+        int maxPages
+) {
+
+    /** Default cursor field and query parameter. */
+    public static final String DEFAULT_CURSOR = "cursor";
+
+    /** Default offset query parameter. */
+    public static final String DEFAULT_OFFSET_PARAM = "offset";
+
+    /** Default page size query parameter. */
+    public static final String DEFAULT_LIMIT_PARAM = "limit";
+
+    /** Default next page link field (OData, e.g. Microsoft Graph). */
+    public static final String DEFAULT_NEXT_LINK_PATH = "@odata.nextLink";
+
+    /** Default maximum number of items returned (10,000). */
+    public static final int DEFAULT_MAX_ITEMS = 10_000;
+
+    /** Default maximum number of pages requested (100). */
+    public static final int DEFAULT_MAX_PAGES = 100;
+
+    private static final RestPagination NONE = new RestPagination(RestPaginationType.NONE, null, null, null,
+            null, null, 0, null, DEFAULT_MAX_ITEMS, DEFAULT_MAX_PAGES);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestPagination {
+        type = type != null ? type : RestPaginationType.NONE;
+        itemsPath = trimToNull(itemsPath);
+        cursorPath = cursorPath != null && !cursorPath.isBlank() ? cursorPath.trim() : DEFAULT_CURSOR;
+        cursorParam = cursorParam != null && !cursorParam.isBlank() ? cursorParam.trim() : DEFAULT_CURSOR;
+        offsetParam = offsetParam != null && !offsetParam.isBlank() ? offsetParam.trim() : DEFAULT_OFFSET_PARAM;
+        limitParam = limitParam != null && !limitParam.isBlank() ? limitParam.trim() : DEFAULT_LIMIT_PARAM;
+        pageSize = Math.max(0, pageSize);
+        nextLinkPath = nextLinkPath != null && !nextLinkPath.isBlank() ? nextLinkPath.trim()
+                : DEFAULT_NEXT_LINK_PATH;
+        maxItems = maxItems > 0 ? maxItems : DEFAULT_MAX_ITEMS;
+        maxPages = maxPages > 0 ? maxPages : DEFAULT_MAX_PAGES;
+    }
+
+    /**
+     * Gets the default: the response is a single page.
+     *
+     * @return The single-page descriptor
+     */
+    public static RestPagination none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a cursor pagination (e.g. Jira {@code nextPageToken} sent back as {@code nextPageToken}).
+     *
+     * @param itemsPath   Path of the items array, or null when the page body is the array
+     * @param cursorPath  Path of the next cursor in a page
+     * @param cursorParam Query parameter carrying the cursor
+     * @return The descriptor
+     */
+    public static RestPagination cursor(String itemsPath, String cursorPath, String cursorParam) {
+        return new RestPagination(RestPaginationType.CURSOR, itemsPath, cursorPath, cursorParam, null, null, 0,
+                null, DEFAULT_MAX_ITEMS, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Creates an offset pagination (e.g. ServiceNow {@code sysparm_offset} / {@code sysparm_limit}).
+     *
+     * @param itemsPath   Path of the items array, or null when the page body is the array
+     * @param offsetParam Query parameter carrying the offset
+     * @param limitParam  Query parameter carrying the page size
+     * @param pageSize    Items requested per page (0 to keep the server default)
+     * @return The descriptor
+     */
+    public static RestPagination offset(String itemsPath, String offsetParam, String limitParam, int pageSize) {
+        return new RestPagination(RestPaginationType.OFFSET, itemsPath, null, null, offsetParam, limitParam,
+                pageSize, null, DEFAULT_MAX_ITEMS, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Creates a pagination following the {@code Link: <url>; rel="next"} response header.
+     *
+     * @param itemsPath Path of the items array, or null when the page body is the array
+     * @return The descriptor
+     */
+    public static RestPagination linkHeader(String itemsPath) {
+        return new RestPagination(RestPaginationType.LINK_HEADER, itemsPath, null, null, null, null, 0, null,
+                DEFAULT_MAX_ITEMS, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Creates a pagination following a next page URL read from the body
+     * (e.g. Microsoft Graph {@code @odata.nextLink}, Salesforce {@code nextRecordsUrl}).
+     *
+     * @param itemsPath    Path of the items array, or null when the page body is the array
+     * @param nextLinkPath Path of the next page URL
+     * @return The descriptor
+     */
+    public static RestPagination nextLink(String itemsPath, String nextLinkPath) {
+        return new RestPagination(RestPaginationType.NEXT_LINK, itemsPath, null, null, null, null, 0,
+                nextLinkPath, DEFAULT_MAX_ITEMS, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Creates a copy with other caps.
+     *
+     * @param maxItems Maximum number of items returned
+     * @param maxPages Maximum number of pages requested
+     * @return The descriptor
+     */
+    public RestPagination withLimits(int maxItems, int maxPages) {
+        return new RestPagination(type, itemsPath, cursorPath, cursorParam, offsetParam, limitParam, pageSize,
+                nextLinkPath, maxItems, maxPages);
+    }
+
+    /**
+     * @return true if further pages are requested
+     */
+    public boolean enabled() {
+        return type != RestPaginationType.NONE;
+    }
+
+    /**
+     * Reads the pagination declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code pagination}, {@code pagination*})
+     * @return The descriptor (single page when none is declared)
+     */
+    public static RestPagination fromJson(JsonNode node) {
+        return fromJson(node, NONE);
+    }
+
+    /**
+     * Reads the pagination declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level pagination).
+     *
+     * @param node   The JSON node
+     * @param parent The inherited descriptor
+     * @return The descriptor
+     */
+    public static RestPagination fromJson(JsonNode node, RestPagination parent) {
+        RestPagination inherited = parent != null ? parent : NONE;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        return new RestPagination(
+                node.has("pagination")
+                        ? RestPaginationType.fromKey(node.get("pagination").asText()).orElse(RestPaginationType.NONE)
+                        : inherited.type(),
+                text(node, "paginationItemsPath", inherited.itemsPath()),
+                text(node, "paginationCursorPath", inherited.cursorPath()),
+                text(node, "paginationCursorParam", inherited.cursorParam()),
+                text(node, "paginationOffsetParam", inherited.offsetParam()),
+                text(node, "paginationLimitParam", inherited.limitParam()),
+                node.has("paginationPageSize") ? node.get("paginationPageSize").asInt() : inherited.pageSize(),
+                text(node, "paginationNextLinkPath", inherited.nextLinkPath()),
+                node.has("paginationMaxItems") ? node.get("paginationMaxItems").asInt() : inherited.maxItems(),
+                node.has("paginationMaxPages") ? node.get("paginationMaxPages").asInt() : inherited.maxPages());
+    }
+
+    private static String text(JsonNode node, String field, String inherited) {
+        return node.has(field) ? node.get(field).asText() : inherited;
+    }
+
+    private static String trimToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+}
@@ -0,0 +1,121 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes the client-side rate limit applied to the calls of a REST request (token bucket).
+ * <p>
+ * Declared on a PBConfiguration method ({@code rateLimitPerSecond} or {@code rateLimitPerMinute},
+ * {@code rateLimitBurst}, {@code rateLimitMaxWaitMs}, {@code rateLimitScope}, {@code rateLimitName}),
+ * at the top level as a default for every method, or set on a {@link RestServiceRequest}. Calls share
+ * a bucket per target host ({@code scheme://host:port}) unless a name is given; with the
+ * {@code credential} scope, every credential (tenant and authentication) gets its own bucket, matching
+ * APIs whose quota is per API key or per user.
+ * </p>
+ * <p>
+ * The bucket holds up to {@code burst} calls and refills at {@code permitsPerSecond}. A call finding
+ * the bucket empty waits, on a timer, for its turn; a call that would wait longer than
+ * {@code maxWaitMs} is not sent: like a call refused by an open circuit breaker, it ends the retries
+ * and completes with an error response (status -1).
+ * </p>
+ *
+ * @param permitsPerSecond Sustained number of calls per second (0 disables the limit)
+ * @param burst            Number of calls that may be sent at once after an idle period
+ * @param maxWaitMs        Longest a call may wait for its turn
+ * @param name             The bucket shared by the calls, or null for one bucket per target host
+ * @param perCredential    Whether each credential gets its own bucket
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestRateLimit(
+        double permitsPerSecond,
+        int burst,
+        long maxWaitMs,
+        String name,
+        boolean perCredential
+) {
+
+    /** Default number of calls sent at once (1: calls are evenly spaced). */
+    public static final int DEFAULT_BURST = 1;
+
+    /** Default longest wait for a turn (30 s). */
+    public static final long DEFAULT_MAX_WAIT_MS = 30_000L;
+
+    private static final RestRateLimit NONE = new RestRateLimit(0, DEFAULT_BURST, DEFAULT_MAX_WAIT_MS, null, false);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestRateLimit {
+        permitsPerSecond = Math.max(0, permitsPerSecond);
+        burst = burst > 0 ? burst : DEFAULT_BURST;
+        maxWaitMs = maxWaitMs >= 0 ? maxWaitMs : DEFAULT_MAX_WAIT_MS;
+        name = name != null && !name.isBlank() ? name.trim() : null;
+    }
+
+    /**
+     * Gets the default: calls are not limited.
+     *
+     * @return The disabled rate limit
+     */
+    public static RestRateLimit none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a per-host limit with the default burst and wait.
+     *
+     * @param permitsPerSecond Sustained number of calls per second
+     * @return The rate limit
+     */
+    public static RestRateLimit perSecond(double permitsPerSecond) {
+        return new RestRateLimit(permitsPerSecond, DEFAULT_BURST, DEFAULT_MAX_WAIT_MS, null, false);
+    }
+
+    /**
+     * @return true if calls are limited
+     */
+    public boolean enabled() {
+        return permitsPerSecond > 0;
+    }
+
+    /**
+     * Reads the rate limit declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code rateLimitPerSecond}, {@code rateLimitPerMinute}, {@code rateLimit*})
+     * @return The rate limit (disabled when none is declared)
+     */
+    public static RestRateLimit fromJson(JsonNode node) {
+        return fromJson(node, NONE);
+    }
+
+    /**
+     * Reads the rate limit declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level limit).
+     * {@code rateLimitPerSecond} wins over {@code rateLimitPerMinute} when both are declared.
+     *
+     * @param node   The JSON node
+     * @param parent The inherited rate limit
+     * @return The rate limit
+     */
+    public static RestRateLimit fromJson(JsonNode node, RestRateLimit parent) {
+        RestRateLimit inherited = parent != null ? parent : NONE;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        double permitsPerSecond = inherited.permitsPerSecond();
+        if (node.has("rateLimitPerSecond")) {
+            permitsPerSecond = node.get("rateLimitPerSecond").asDouble(0);
+        } else if (node.has("rateLimitPerMinute")) {
+            permitsPerSecond = node.get("rateLimitPerMinute").asDouble(0) / 60.0;
+        }
+        int burst = node.has("rateLimitBurst") ? node.get("rateLimitBurst").asInt() : inherited.burst();
+        long maxWaitMs = node.has("rateLimitMaxWaitMs")
+                ? node.get("rateLimitMaxWaitMs").asLong(DEFAULT_MAX_WAIT_MS) : inherited.maxWaitMs();
+        String name = node.has("rateLimitName") ? node.get("rateLimitName").asText() : inherited.name();
+        boolean perCredential = node.has("rateLimitScope")
+                ? "credential".equalsIgnoreCase(node.get("rateLimitScope").asText().trim())
+                : inherited.perCredential();
+        return new RestRateLimit(permitsPerSecond, burst, maxWaitMs, name, perCredential);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes whether the body of a REST request is sent gzip compressed.
+ * <p>
+ * Declared on a PBConfiguration method ({@code compressRequest}, {@code compressRequestThresholdBytes}),
+ * at the top level as a default for every method, or set on a {@link RestServiceRequest}. When enabled,
+ * bodies of at least {@code thresholdBytes} (and streamed bodies of unknown length) are compressed while
+ * they are sent and carry {@code Content-Encoding: gzip}; smaller bodies go out unchanged. Only enable
+ * it for APIs that accept gzip encoded request bodies.
+ * </p>
+ *
+ * @param enabled        Whether request bodies may be compressed
+ * @param thresholdBytes Minimum body size compressed; smaller bodies are sent as is
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestRequestCompression(
+        boolean enabled,
+        long thresholdBytes
+) {
+
+    /**
+     * Default minimum size of a compressed body (2 KiB): below it gzip saves too little to pay off.
+     */
+    public static final long DEFAULT_THRESHOLD_BYTES = 2048L;
+
+    private static final RestRequestCompression DISABLED = new RestRequestCompression(false, DEFAULT_THRESHOLD_BYTES);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestRequestCompression {
+        thresholdBytes = thresholdBytes >= 0 ? thresholdBytes : DEFAULT_THRESHOLD_BYTES;
+    }
+
+    /**
+     * Gets the default: request bodies are never compressed.
+     *
+     * @return The disabled compression
+     */
+    public static RestRequestCompression disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates an enabled compression.
+     *
+     * @param thresholdBytes Minimum body size compressed
+     * @return The compression
+     */
+    public static RestRequestCompression gzip(long thresholdBytes) {
+        return new RestRequestCompression(true, thresholdBytes);
+    }
+
+    /**
+     * Checks whether a body of the given length is compressed.
+     *
+     * @param contentLength The body length in bytes, or a negative value when unknown (streamed body)
+     * @return true if compression is enabled and the body is neither empty nor under the threshold
+     */
+    public boolean appliesTo(long contentLength) {
+        return enabled && contentLength != 0 && (contentLength < 0 || contentLength >= thresholdBytes);
+    }
+
+    /**
+     * Reads the compression declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code compressRequest}, {@code compressRequestThresholdBytes})
+     * @return The compression (disabled when none is declared)
+     */
+    public static RestRequestCompression fromJson(JsonNode node) {
+        return fromJson(node, DISABLED);
+    }
+
+    /**
+     * Reads the compression declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level setting).
+     *
+     * @param node   The JSON node
+     * @param parent The inherited compression
+     * @return The compression
+     */
+    public static RestRequestCompression fromJson(JsonNode node, RestRequestCompression parent) {
+        RestRequestCompression inherited = parent != null ? parent : DISABLED;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        boolean enabled = node.has("compressRequest")
+                ? node.get("compressRequest").asBoolean(false) : inherited.enabled();
+        long threshold = node.has("compressRequestThresholdBytes")
+                ? node.get("compressRequestThresholdBytes").asLong(-1) : inherited.thresholdBytes();
+        return new RestRequestCompression(enabled, threshold);
+    }
+}
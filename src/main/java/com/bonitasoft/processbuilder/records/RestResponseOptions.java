@@ -0,0 +1,165 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Describes how the body of a REST response is received.
+ * <p>
+ * Declared on a PBConfiguration (top level as a default, or per method: {@code responseMode},
+ * {@code spillThresholdBytes}, {@code maxResponseBytes}, {@code truncateOversizedResponse},
+ * {@code acceptCompression}) or set on a {@link RestServiceRequest}.
+ * </p>
+ *
+ * @param mode                How the body is held (see {@link RestResponseMode})
+ * @param spillThresholdBytes In {@link RestResponseMode#FILE} mode, bodies larger than this are written
+ *                            to a temporary file instead of memory
+ * @param maxResponseBytes    Maximum body size read from the connection; 0 applies the executor-wide limit,
+ *                            if one is set, to {@code string} and {@code bytes} bodies only
+ * @param truncateOversized   When the limit is exceeded, keep the first {@code maxResponseBytes} bytes and
+ *                            flag the response as truncated instead of failing it
+ * @param acceptCompression   Whether the server may send a gzip or deflate encoded body
+ *                            ({@code Accept-Encoding: gzip, deflate}); encoded bodies are decompressed
+ *                            while they stream in and the size limit applies to the decompressed bytes
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestResponseOptions(
+        RestResponseMode mode,
+        long spillThresholdBytes,
+        long maxResponseBytes,
+        boolean truncateOversized,
+        boolean acceptCompression
+) {
+
+    /**
+     * Default in-memory threshold of {@link RestResponseMode#FILE} mode (1 MiB).
+     */
+    public static final long DEFAULT_SPILL_THRESHOLD_BYTES = 1024L * 1024L;
+
+    private static final RestResponseOptions DEFAULTS =
+            new RestResponseOptions(RestResponseMode.STRING, DEFAULT_SPILL_THRESHOLD_BYTES, 0, false, false);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestResponseOptions {
+        mode = mode != null ? mode : RestResponseMode.STRING;
+        spillThresholdBytes = spillThresholdBytes > 0 ? spillThresholdBytes : DEFAULT_SPILL_THRESHOLD_BYTES;
+        maxResponseBytes = Math.max(0, maxResponseBytes);
+    }
+
+    /**
+     * Creates options without response compression.
+     *
+     * @param mode                How the body is held
+     * @param spillThresholdBytes The in-memory threshold of {@link RestResponseMode#FILE} mode
+     * @param maxResponseBytes    The maximum body size (0 for the executor-wide limit)
+     * @param truncateOversized   Whether an oversized body is truncated rather than failed
+     */
+    public RestResponseOptions(RestResponseMode mode, long spillThresholdBytes, long maxResponseBytes,
+                               boolean truncateOversized) {
+        this(mode, spillThresholdBytes, maxResponseBytes, truncateOversized, false);
+    }
+
+    /**
+     * Creates options without a specific size limit.
+     *
+     * @param mode                How the body is held
+     * @param spillThresholdBytes The in-memory threshold of {@link RestResponseMode#FILE} mode
+     */
+    public RestResponseOptions(RestResponseMode mode, long spillThresholdBytes) {
+        this(mode, spillThresholdBytes, 0, false, false);
+    }
+
+    /**
+     * Gets the default options: body decoded as a String, as before response modes existed.
+     *
+     * @return The default options
+     */
+    public static RestResponseOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Creates options for a mode with the default spill threshold.
+     *
+     * @param mode The response mode
+     * @return The options
+     */
+    public static RestResponseOptions of(RestResponseMode mode) {
+        return new RestResponseOptions(mode, DEFAULT_SPILL_THRESHOLD_BYTES);
+    }
+
+    /**
+     * Copies these options with another mode.
+     *
+     * @param newMode The response mode
+     * @return The updated options
+     */
+    public RestResponseOptions withMode(RestResponseMode newMode) {
+        return new RestResponseOptions(newMode, spillThresholdBytes, maxResponseBytes, truncateOversized,
+                acceptCompression);
+    }
+
+    /**
+     * Copies these options with another size limit.
+     *
+     * @param newMaxResponseBytes The maximum body size (0 for the executor-wide limit)
+     * @param truncate            Whether an oversized body is truncated rather than failed
+     * @return The updated options
+     */
+    public RestResponseOptions withMaxResponseBytes(long newMaxResponseBytes, boolean truncate) {
+        return new RestResponseOptions(mode, spillThresholdBytes, newMaxResponseBytes, truncate, acceptCompression);
+    }
+
+    /**
+     * Copies these options with response compression enabled or disabled.
+     *
+     * @param accept Whether the server may send a gzip or deflate encoded body
+     * @return The updated options
+     */
+    public RestResponseOptions withAcceptCompression(boolean accept) {
+        return new RestResponseOptions(mode, spillThresholdBytes, maxResponseBytes, truncateOversized, accept);
+    }
+
+    /**
+     * Reads the response options declared on a method or request JSON node.
+     * Unknown modes fall back to {@link RestResponseMode#STRING}.
+     *
+     * @param node The JSON node ({@code responseMode}, {@code spillThresholdBytes},
+     *             {@code maxResponseBytes}, {@code truncateOversizedResponse}, {@code acceptCompression})
+     * @return The options (defaults when none are declared)
+     */
+    public static RestResponseOptions fromJson(JsonNode node) {
+        return fromJson(node, DEFAULTS);
+    }
+
+    /**
+     * Reads the response options declared on a JSON node, inheriting every undeclared
+     * value from {@code parent} (e.g. a method inheriting the configuration-level limit).
+     * An unknown mode keeps the inherited one.
+     *
+     * @param node   The JSON node
+     * @param parent The inherited options
+     * @return The options
+     */
+    public static RestResponseOptions fromJson(JsonNode node, RestResponseOptions parent) {
+        RestResponseOptions inherited = parent != null ? parent : DEFAULTS;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        RestResponseMode mode = node.has("responseMode")
+                ? RestResponseMode.fromKey(node.get("responseMode").asText()).orElse(inherited.mode())
+                : inherited.mode();
+        long spillThreshold = node.has("spillThresholdBytes")
+                ? node.get("spillThresholdBytes").asLong(0) : inherited.spillThresholdBytes();
+        long maxBytes = node.has("maxResponseBytes")
+                ? node.get("maxResponseBytes").asLong(0) : inherited.maxResponseBytes();
+        boolean truncate = node.has("truncateOversizedResponse")
+                ? node.get("truncateOversizedResponse").asBoolean(false) : inherited.truncateOversized();
+        boolean compression = node.has("acceptCompression")
+                ? node.get("acceptCompression").asBoolean(false) : inherited.acceptCompression();
+        return new RestResponseOptions(mode, spillThreshold, maxBytes, truncate, compression);
+    }
+}
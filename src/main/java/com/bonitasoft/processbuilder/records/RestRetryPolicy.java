@@ -0,0 +1,199 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.bonitasoft.processbuilder.enums.ExecutionConnectorType;
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes when and how a failed REST request is sent again.
+ * <p>
+ * Declared on a PBConfiguration method with the {@link ExecutionConnectorType} settings
+ * ({@code maxRetries}, {@code waitTimeSeconds}) and the optional {@code retryBackoffMultiplier},
+ * {@code retryMaxWaitSeconds}, {@code retryJitter}, {@code retryOnStatus},
+ * {@code retryOnConnectionErrors}, {@code retryRespectRetryAfter} and {@code retryNonIdempotent},
+ * at the top level as a default for every method, or set on a {@link RestServiceRequest}.
+ * </p>
+ * <p>
+ * The wait before retry {@code n} (1-based) is {@code waitTimeMs * backoffMultiplier^(n-1)}, capped
+ * at {@code maxWaitMs} and reduced by up to {@code jitter} of its value at random so that callers
+ * failing together do not retry together. A {@code Retry-After} header replaces the computed wait;
+ * a response asking to wait longer than {@code maxWaitMs} is returned as is. POST and PATCH requests
+ * are only retried when they carry an {@code Idempotency-Key} header or {@code retryNonIdempotent}
+ * is set.
+ * </p>
+ *
+ * @param maxRetries              Maximum number of retries after the first attempt (0 disables retries)
+ * @param waitTimeMs              Wait before the first retry
+ * @param backoffMultiplier       Factor applied to the wait after every retry (1 for a constant wait)
+ * @param maxWaitMs               Upper bound of a single wait, including {@code Retry-After}
+ * @param jitter                  Fraction of each wait randomly removed, between 0 and 1
+ * @param retryOnStatus           HTTP status codes that trigger a retry
+ * @param retryOnConnectionErrors Whether connection failures and timeouts (no HTTP status) trigger a retry
+ * @param respectRetryAfter       Whether a {@code Retry-After} header sets the wait
+ * @param retryNonIdempotent      Whether POST and PATCH requests are retried without an {@code Idempotency-Key}
+ * @author Bonitasoft
+ * @since 1.0
+ */
+public record RestRetryPolicy(
+        int maxRetries,
+        long waitTimeMs,
+        double backoffMultiplier,
+        long maxWaitMs,
+        double jitter,
+        Set<Integer> retryOnStatus,
+        boolean retryOnConnectionErrors,
+        boolean respectRetryAfter,
+        boolean retryNonIdempotent
+) {
+
+    /** Statuses retried by default: timeouts, throttling and transient server errors. */
+    public static final Set<Integer> DEFAULT_RETRY_ON_STATUS = Set.of(408, 425, 429, 500, 502, 503, 504);
+
+    /** Default wait before the first retry (1 s). */
+    public static final long DEFAULT_WAIT_TIME_MS = 1_000L;
+
+    /** Default upper bound of a single wait (60 s). */
+    public static final long DEFAULT_MAX_WAIT_MS = 60_000L;
+
+    private static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
+    private static final double DEFAULT_JITTER = 0.2;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final RestRetryPolicy NONE = new RestRetryPolicy(0, DEFAULT_WAIT_TIME_MS,
+            DEFAULT_BACKOFF_MULTIPLIER, DEFAULT_MAX_WAIT_MS, DEFAULT_JITTER, DEFAULT_RETRY_ON_STATUS,
+            true, true, false);
+
+    /**
+     * Compact constructor with defaults.
+     */
+    public RestRetryPolicy {
+        maxRetries = Math.max(0, maxRetries);
+        waitTimeMs = Math.max(0, waitTimeMs);
+        backoffMultiplier = backoffMultiplier >= 1 ? backoffMultiplier : 1;
+        maxWaitMs = maxWaitMs > 0 ? maxWaitMs : DEFAULT_MAX_WAIT_MS;
+        jitter = Math.min(1, Math.max(0, jitter));
+        retryOnStatus = retryOnStatus != null ? Set.copyOf(retryOnStatus) : DEFAULT_RETRY_ON_STATUS;
+    }
+
+    /**
+     * Gets the default: requests are sent once.
+     *
+     * @return The policy without retries
+     */
+    public static RestRetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a policy retrying the default statuses and connection errors with exponential backoff.
+     *
+     * @param maxRetries Maximum number of retries
+     * @param waitTimeMs Wait before the first retry, doubled after every retry
+     * @return The policy
+     */
+    public static RestRetryPolicy exponential(int maxRetries, long waitTimeMs) {
+        return new RestRetryPolicy(maxRetries, waitTimeMs, DEFAULT_BACKOFF_MULTIPLIER, DEFAULT_MAX_WAIT_MS,
+                DEFAULT_JITTER, DEFAULT_RETRY_ON_STATUS, true, true, false);
+    }
+
+    /**
+     * @return true if a failed request may be sent again
+     */
+    public boolean enabled() {
+        return maxRetries > 0;
+    }
+
+    /**
+     * Checks the idempotency guard: whether a request may be sent more than once.
+     *
+     * @param method  The HTTP method
+     * @param headers The request headers
+     * @return true for idempotent methods, and for POST and PATCH with an {@code Idempotency-Key}
+     *         header or when {@code retryNonIdempotent} is set
+     */
+    public boolean allowsRetryOf(RestHttpMethod method, Map<String, String> headers) {
+        if (method != RestHttpMethod.POST && method != RestHttpMethod.PATCH) {
+            return true;
+        }
+        return retryNonIdempotent
+                || headers.keySet().stream().anyMatch(IDEMPOTENCY_KEY_HEADER::equalsIgnoreCase);
+    }
+
+    /**
+     * Checks whether a response calls for a retry.
+     *
+     * @param statusCode The HTTP status, or a negative value when no response was received
+     * @return true if the status is retried, or if it is a connection failure and those are retried
+     */
+    public boolean retriesStatus(int statusCode) {
+        return statusCode <= 0 ? retryOnConnectionErrors : retryOnStatus.contains(statusCode);
+    }
+
+    /**
+     * Computes the wait before a retry.
+     *
+     * @param retry  The retry number, starting at 1
+     * @param random A random value between 0 (inclusive) and 1 (exclusive)
+     * @return The wait in milliseconds
+     */
+    public long backoffMs(int retry, double random) {
+        double wait = waitTimeMs * Math.pow(backoffMultiplier, Math.max(0, retry - 1));
+        double capped = Math.min(wait, maxWaitMs);
+        return Math.round(capped * (1 - jitter * random));
+    }
+
+    /**
+     * Reads the retry policy declared on a method or request JSON node.
+     *
+     * @param node The JSON node ({@code maxRetries}, {@code waitTimeSeconds}, {@code retry*})
+     * @return The policy (no retries when none is declared)
+     */
+    public static RestRetryPolicy fromJson(JsonNode node) {
+        return fromJson(node, NONE);
+    }
+
+    /**
+     * Reads the retry policy declared on a JSON node, inheriting every undeclared value
+     * from {@code parent} (e.g. a method inheriting the configuration-level policy).
+     *
+     * @param node   The JSON node
+     * @param parent The inherited policy
+     * @return The policy
+     */
+    public static RestRetryPolicy fromJson(JsonNode node, RestRetryPolicy parent) {
+        RestRetryPolicy inherited = parent != null ? parent : NONE;
+        if (node == null || !node.isObject()) {
+            return inherited;
+        }
+        String maxRetriesKey = ExecutionConnectorType.MAX_RETRIES.getKey();
+        String waitTimeKey = ExecutionConnectorType.WAIT_TIME_SECONDS.getKey();
+        int maxRetries = node.has(maxRetriesKey) ? node.get(maxRetriesKey).asInt(0) : inherited.maxRetries();
+        long waitTimeMs = node.has(waitTimeKey)
+                ? Math.round(node.get(waitTimeKey).asDouble(0) * 1000) : inherited.waitTimeMs();
+        double multiplier = node.has("retryBackoffMultiplier")
+                ? node.get("retryBackoffMultiplier").asDouble(DEFAULT_BACKOFF_MULTIPLIER)
+                : inherited.backoffMultiplier();
+        long maxWaitMs = node.has("retryMaxWaitSeconds")
+                ? Math.round(node.get("retryMaxWaitSeconds").asDouble(0) * 1000) : inherited.maxWaitMs();
+        double jitter = node.has("retryJitter") ? node.get("retryJitter").asDouble(DEFAULT_JITTER) : inherited.jitter();
+        Set<Integer> statuses = inherited.retryOnStatus();
+        if (node.has("retryOnStatus") && node.get("retryOnStatus").isArray()) {
+            statuses = new LinkedHashSet<>();
+            for (JsonNode status : node.get("retryOnStatus")) {
+                statuses.add(status.asInt());
+            }
+        }
+        boolean connectionErrors = node.has("retryOnConnectionErrors")
+                ? node.get("retryOnConnectionErrors").asBoolean(true) : inherited.retryOnConnectionErrors();
+        boolean retryAfter = node.has("retryRespectRetryAfter")
+                ? node.get("retryRespectRetryAfter").asBoolean(true) : inherited.respectRetryAfter();
+        boolean nonIdempotent = node.has("retryNonIdempotent")
+                ? node.get("retryNonIdempotent").asBoolean(false) : inherited.retryNonIdempotent();
+        return new RestRetryPolicy(maxRetries, waitTimeMs, multiplier, maxWaitMs, jitter, statuses,
+                connectionErrors, retryAfter, nonIdempotent);
+    }
+}
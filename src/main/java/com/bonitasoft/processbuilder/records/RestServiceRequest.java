@@ -2,11 +2,14 @@ package com.bonitasoft.processbuilder.records;
 
 import com.bonitasoft.processbuilder.enums.RestContentType;
 import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 
+import java.net.http.HttpRequest;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,6 +33,20 @@ import java.util.Map;
  * @param verifySsl           Whether to verify SSL certificates
  * @param rawBody             Optional raw binary body (takes precedence over body when present)
  * @param contentTypeOverride Optional Content-Type string override (e.g. "multipart/related; boundary=...")
+ * @param responseOptions     How the response body is received (String by default)
+ * @param bodyPublisher       Optional streaming body (e.g. a multipart upload read from disk);
+ *                            takes precedence over rawBody and body
+ * @param connectionOptions   Connection-level client settings (HTTP version, connect timeout, proxy)
+ * @param requestCompression  Whether the body is sent gzip compressed (disabled by default)
+ * @param cacheOptions        Whether and how long GET responses are cached (disabled by default)
+ * @param retryPolicy         When and how a failed request is sent again (no retries by default)
+ * @param circuitBreakerOptions The circuit breaker guarding the calls (none by default)
+ * @param rateLimit           The client-side rate limit of the calls (none by default)
+ * @param bulkheadOptions     The bulkhead capping the calls in flight to the target (none by default)
+ * @param hedgePolicy         When a slow GET is sent a second time (no hedging by default)
+ * @param repeatableBody      Whether the streaming body can be sent again (always true without one);
+ *                            a request whose body can be sent only once is neither retried nor resent
+ *                            after a Bonita session renewal
  * @author Bonitasoft
  * @since 1.0
  */
@@ -46,7 +63,18 @@ public record RestServiceRequest(
         boolean followRedirects,
         boolean verifySsl,
         byte[] rawBody,
-        String contentTypeOverride
+        String contentTypeOverride,
+        RestResponseOptions responseOptions,
+        @JsonIgnore HttpRequest.BodyPublisher bodyPublisher,
+        RestConnectionOptions connectionOptions,
+        RestRequestCompression requestCompression,
+        RestCacheOptions cacheOptions,
+        RestRetryPolicy retryPolicy,
+        RestCircuitBreakerOptions circuitBreakerOptions,
+        RestRateLimit rateLimit,
+        RestBulkheadOptions bulkheadOptions,
+        RestHedgePolicy hedgePolicy,
+        @JsonIgnore boolean repeatableBody
 ) {
 
     /**
@@ -69,6 +97,42 @@ public record RestServiceRequest(
         auth = auth != null ? auth : RestAuthConfig.none();
         timeoutMs = timeoutMs > 0 ? timeoutMs : DEFAULT_TIMEOUT_MS;
         rawBody = rawBody != null ? rawBody.clone() : null;
+        responseOptions = responseOptions != null ? responseOptions : RestResponseOptions.defaults();
+        connectionOptions = connectionOptions != null ? connectionOptions : RestConnectionOptions.defaults();
+        requestCompression = requestCompression != null ? requestCompression : RestRequestCompression.disabled();
+        cacheOptions = cacheOptions != null ? cacheOptions : RestCacheOptions.disabled();
+        retryPolicy = retryPolicy != null ? retryPolicy : RestRetryPolicy.none();
+        circuitBreakerOptions = circuitBreakerOptions != null ? circuitBreakerOptions
+                : RestCircuitBreakerOptions.disabled();
+        rateLimit = rateLimit != null ? rateLimit : RestRateLimit.none();
+        bulkheadOptions = bulkheadOptions != null ? bulkheadOptions : RestBulkheadOptions.disabled();
+        hedgePolicy = hedgePolicy != null ? hedgePolicy : RestHedgePolicy.none();
+        repeatableBody = repeatableBody || bodyPublisher == null;
+    }
+
+    /**
+     * Creates a request with the default value of every later option (response, connection,
+     * compression, caching and resilience); set them through {@link #builder(String)}.
+     *
+     * @param url                 The full URL to call
+     * @param method              The HTTP method
+     * @param headers             Additional headers
+     * @param queryParams         Query parameters
+     * @param body                The request body
+     * @param contentType         The content type of the request body
+     * @param auth                Authentication configuration
+     * @param timeoutMs           Timeout in milliseconds
+     * @param followRedirects     Whether to follow redirects
+     * @param verifySsl           Whether to verify SSL certificates
+     * @param rawBody             Optional raw binary body
+     * @param contentTypeOverride Optional Content-Type override
+     */
+    public RestServiceRequest(String url, RestHttpMethod method, Map<String, String> headers,
+                              Map<String, String> queryParams, String body, RestContentType contentType,
+                              RestAuthConfig auth, int timeoutMs, boolean followRedirects, boolean verifySsl,
+                              byte[] rawBody, String contentTypeOverride) {
+        this(url, method, headers, queryParams, body, contentType, auth, timeoutMs, followRedirects, verifySsl,
+                rawBody, contentTypeOverride, null, null, null, null, null, null, null, null, null, null, true);
     }
 
     // ========================================================================
@@ -85,6 +149,52 @@ public record RestServiceRequest(
         return new Builder(url);
     }
 
+    /**
+     * Creates a builder pre-filled with this request's values (e.g. to add a header to a copy).
+     *
+     * @return A new builder instance
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder(url);
+        builder.method = method;
+        builder.headers = new HashMap<>(headers);
+        builder.queryParams = new HashMap<>(queryParams);
+        builder.body = body;
+        builder.contentType = contentType;
+        builder.auth = auth;
+        builder.timeoutMs = timeoutMs;
+        builder.followRedirects = followRedirects;
+        builder.verifySsl = verifySsl;
+        builder.rawBody = rawBody;
+        builder.contentTypeOverride = contentTypeOverride;
+        builder.responseOptions = responseOptions;
+        builder.bodyPublisher = bodyPublisher;
+        builder.connectionOptions = connectionOptions;
+        builder.requestCompression = requestCompression;
+        builder.cacheOptions = cacheOptions;
+        builder.retryPolicy = retryPolicy;
+        builder.circuitBreakerOptions = circuitBreakerOptions;
+        builder.rateLimit = rateLimit;
+        builder.bulkheadOptions = bulkheadOptions;
+        builder.hedgePolicy = hedgePolicy;
+        builder.repeatableBody = repeatableBody;
+        return builder;
+    }
+
+    /**
+     * Creates a copy of this request sent to another URL without the query parameters, which the
+     * new URL carries itself (e.g. the next page link returned by a paginated API).
+     *
+     * @param newUrl The full URL to call
+     * @return A new request
+     */
+    public RestServiceRequest withUrl(String newUrl) {
+        return new RestServiceRequest(newUrl, method, headers, null, body, contentType, auth, timeoutMs,
+                followRedirects, verifySsl, rawBody, contentTypeOverride, responseOptions, bodyPublisher,
+                connectionOptions, requestCompression, cacheOptions, retryPolicy, circuitBreakerOptions, rateLimit,
+                bulkheadOptions, hedgePolicy, repeatableBody);
+    }
+
     /**
      * Builder class for constructing RestServiceRequest instances.
      */
@@ -101,6 +211,17 @@ public record RestServiceRequest(
         private boolean verifySsl = true;
         private byte[] rawBody;
         private String contentTypeOverride;
+        private RestResponseOptions responseOptions = RestResponseOptions.defaults();
+        private HttpRequest.BodyPublisher bodyPublisher;
+        private RestConnectionOptions connectionOptions = RestConnectionOptions.defaults();
+        private RestRequestCompression requestCompression = RestRequestCompression.disabled();
+        private RestCacheOptions cacheOptions = RestCacheOptions.disabled();
+        private RestRetryPolicy retryPolicy = RestRetryPolicy.none();
+        private RestCircuitBreakerOptions circuitBreakerOptions = RestCircuitBreakerOptions.disabled();
+        private RestRateLimit rateLimit = RestRateLimit.none();
+        private RestBulkheadOptions bulkheadOptions = RestBulkheadOptions.disabled();
+        private RestHedgePolicy hedgePolicy = RestHedgePolicy.none();
+        private boolean repeatableBody = true;
 
         private Builder(String url) {
             this.url = url;
@@ -212,11 +333,85 @@ public record RestServiceRequest(
             return this;
         }
 
+        /** A publisher cannot tell whether it can be subscribed to again: the request is sent only once. */
+        public Builder bodyPublisher(HttpRequest.BodyPublisher bodyPublisher) {
+            return bodyPublisher(bodyPublisher, false);
+        }
+
+        /** {@code repeatable}: a new subscription sends the whole body again, so the request can be resent. */
+        public Builder bodyPublisher(HttpRequest.BodyPublisher bodyPublisher, boolean repeatable) {
+            this.bodyPublisher = bodyPublisher;
+            this.repeatableBody = repeatable;
+            return this;
+        }
+
         public Builder contentTypeOverride(String contentTypeOverride) {
             this.contentTypeOverride = contentTypeOverride;
             return this;
         }
 
+        public Builder responseOptions(RestResponseOptions responseOptions) {
+            this.responseOptions = responseOptions != null ? responseOptions : RestResponseOptions.defaults();
+            return this;
+        }
+
+        public Builder maxResponseBytes(long maxResponseBytes, boolean truncate) {
+            this.responseOptions = responseOptions.withMaxResponseBytes(maxResponseBytes, truncate);
+            return this;
+        }
+
+        public Builder responseMode(RestResponseMode mode) {
+            this.responseOptions = responseOptions.withMode(mode);
+            return this;
+        }
+
+        public Builder acceptCompression(boolean accept) {
+            this.responseOptions = responseOptions.withAcceptCompression(accept);
+            return this;
+        }
+
+        public Builder connectionOptions(RestConnectionOptions connectionOptions) {
+            this.connectionOptions = connectionOptions != null ? connectionOptions : RestConnectionOptions.defaults();
+            return this;
+        }
+
+        public Builder requestCompression(RestRequestCompression requestCompression) {
+            this.requestCompression = requestCompression != null ? requestCompression
+                    : RestRequestCompression.disabled();
+            return this;
+        }
+
+        public Builder cacheOptions(RestCacheOptions cacheOptions) {
+            this.cacheOptions = cacheOptions != null ? cacheOptions : RestCacheOptions.disabled();
+            return this;
+        }
+
+        public Builder retryPolicy(RestRetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy != null ? retryPolicy : RestRetryPolicy.none();
+            return this;
+        }
+
+        public Builder circuitBreakerOptions(RestCircuitBreakerOptions circuitBreakerOptions) {
+            this.circuitBreakerOptions = circuitBreakerOptions != null ? circuitBreakerOptions
+                    : RestCircuitBreakerOptions.disabled();
+            return this;
+        }
+
+        public Builder rateLimit(RestRateLimit rateLimit) {
+            this.rateLimit = rateLimit != null ? rateLimit : RestRateLimit.none();
+            return this;
+        }
+
+        public Builder bulkheadOptions(RestBulkheadOptions bulkheadOptions) {
+            this.bulkheadOptions = bulkheadOptions != null ? bulkheadOptions : RestBulkheadOptions.disabled();
+            return this;
+        }
+
+        public Builder hedgePolicy(RestHedgePolicy hedgePolicy) {
+            this.hedgePolicy = hedgePolicy != null ? hedgePolicy : RestHedgePolicy.none();
+            return this;
+        }
+
         /** Returns the current body value without building the request. */
         public String peekBody() {
             return this.body;
@@ -226,7 +421,9 @@ public record RestServiceRequest(
             return new RestServiceRequest(
                     url, method, headers, queryParams, body,
                     contentType, auth, timeoutMs, followRedirects, verifySsl,
-                    rawBody, contentTypeOverride
+                    rawBody, contentTypeOverride, responseOptions, bodyPublisher, connectionOptions,
+                    requestCompression, cacheOptions, retryPolicy, circuitBreakerOptions, rateLimit,
+                    bulkheadOptions, hedgePolicy, repeatableBody
             );
         }
     }
@@ -328,6 +525,33 @@ public record RestServiceRequest(
             builder.verifySsl(sslNode.asBoolean(true));
         }
 
+        // Parse response options (responseMode, spillThresholdBytes)
+        builder.responseOptions(RestResponseOptions.fromJson(requestNode));
+
+        // Parse connection options (httpVersion, connectTimeoutMs, proxyHost, proxyPort)
+        builder.connectionOptions(RestConnectionOptions.fromJson(requestNode));
+
+        // Parse request body compression (compressRequest, compressRequestThresholdBytes)
+        builder.requestCompression(RestRequestCompression.fromJson(requestNode));
+
+        // Parse response caching (cacheResponses, cacheTtlMs, cacheStaleWhileRevalidateMs, cacheHonorCacheControl)
+        builder.cacheOptions(RestCacheOptions.fromJson(requestNode));
+
+        // Parse retries (maxRetries, waitTimeSeconds, retryBackoffMultiplier, retryOnStatus, ...)
+        builder.retryPolicy(RestRetryPolicy.fromJson(requestNode));
+
+        // Parse circuit breaker (circuitBreaker, circuitBreakerName, circuitBreakerFailureRate, ...)
+        builder.circuitBreakerOptions(RestCircuitBreakerOptions.fromJson(requestNode));
+
+        // Parse rate limit (rateLimitPerSecond, rateLimitPerMinute, rateLimitBurst, rateLimitScope, ...)
+        builder.rateLimit(RestRateLimit.fromJson(requestNode));
+
+        // Parse bulkhead (bulkhead, bulkheadMaxConcurrent, bulkheadMaxQueue, bulkheadAdaptive, ...)
+        builder.bulkheadOptions(RestBulkheadOptions.fromJson(requestNode));
+
+        // Parse hedging (hedge, hedgeDelayMs, hedgeMaxPercent, hedgeName)
+        builder.hedgePolicy(RestHedgePolicy.fromJson(requestNode));
+
         return builder.build();
     }
 
@@ -424,6 +648,15 @@ public record RestServiceRequest(
         return rawBody != null && rawBody.length > 0;
     }
 
+    /**
+     * Checks if this request has a streaming body publisher.
+     *
+     * @return true if the body is streamed by a publisher
+     */
+    public boolean hasStreamingBody() {
+        return bodyPublisher != null;
+    }
+
     private static String urlEncode(String value) {
         try {
             return java.net.URLEncoder.encode(value, java.nio.charset.StandardCharsets.UTF_8);
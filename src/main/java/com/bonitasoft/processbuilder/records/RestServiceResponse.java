@@ -1,10 +1,14 @@
 package com.bonitasoft.processbuilder.records;
 
 import com.bonitasoft.processbuilder.enums.RestContentType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
@@ -18,11 +22,17 @@ import java.util.Optional;
  *
  * @param statusCode     The HTTP status code
  * @param headers        Response headers
- * @param body           The response body as a string
+ * @param body           The response body as a string (decoded on first access for binary bodies)
  * @param contentType    The content type of the response
  * @param executionTimeMs Time taken to execute the request in milliseconds
  * @param errorMessage   Error message if the request failed (null if successful)
  * @param url            The URL that was called
+ * @param content        The response body in the form selected by the request's response mode
+ * @param truncated      Whether the body was cut at the request's {@code maxResponseBytes} limit
+ * @param compressedBytes   Size of the gzip or deflate encoded body received, or -1 if the body was not encoded
+ * @param uncompressedBytes Size of the body after decompression, or -1 if the body was not encoded
+ *                          (in {@code stream} mode, both count the bytes received before the stream was handed over)
+ * @param attempts       Number of times the request was sent (1 unless it was retried)
  * @author Bonitasoft
  * @since 1.0
  */
@@ -34,7 +44,12 @@ public record RestServiceResponse(
         RestContentType contentType,
         long executionTimeMs,
         String errorMessage,
-        String url
+        String url,
+        @JsonIgnore ResponseBody content,
+        boolean truncated,
+        long compressedBytes,
+        long uncompressedBytes,
+        int attempts
 ) {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
@@ -44,6 +59,44 @@ public record RestServiceResponse(
      */
     public RestServiceResponse {
         headers = headers != null ? Map.copyOf(headers) : Collections.emptyMap();
+        if (content == null && body != null) {
+            content = ResponseBody.ofText(body);
+        }
+        if (compressedBytes < 0 || uncompressedBytes < 0) {
+            compressedBytes = -1;
+            uncompressedBytes = -1;
+        }
+        attempts = Math.max(1, attempts);
+    }
+
+    /**
+     * Creates a response with a text body.
+     *
+     * @param statusCode      The HTTP status code
+     * @param headers         Response headers
+     * @param body            The response body as a string
+     * @param contentType     The content type of the response
+     * @param executionTimeMs Time taken to execute the request in milliseconds
+     * @param errorMessage    Error message if the request failed (null if successful)
+     * @param url             The URL that was called
+     */
+    public RestServiceResponse(int statusCode, Map<String, String> headers, String body, RestContentType contentType,
+                               long executionTimeMs, String errorMessage, String url) {
+        this(statusCode, headers, body, contentType, executionTimeMs, errorMessage, url, null, false, -1, -1, 1);
+    }
+
+    /**
+     * Gets the response body as a string. Binary bodies are decoded with their charset
+     * on each call; prefer {@link #content()} for bytes, files and streams.
+     *
+     * @return The body text, or null if there is no body
+     */
+    @Override
+    public String body() {
+        if (body != null) {
+            return body;
+        }
+        return content != null ? content.text() : null;
     }
 
     // ========================================================================
@@ -71,6 +124,29 @@ public record RestServiceResponse(
         return new RestServiceResponse(statusCode, headers, body, contentType, executionTimeMs, null, url);
     }
 
+    /**
+     * Creates a successful response whose body is kept as received (bytes, file or stream).
+     *
+     * @param statusCode      The HTTP status code
+     * @param headers         Response headers
+     * @param content         Response body
+     * @param contentType     Content type of the response
+     * @param executionTimeMs Execution time
+     * @param url             The URL called
+     * @return A successful response
+     */
+    public static RestServiceResponse success(
+            int statusCode,
+            Map<String, String> headers,
+            ResponseBody content,
+            RestContentType contentType,
+            long executionTimeMs,
+            String url) {
+        String text = content instanceof ResponseBody.Text textBody ? textBody.value() : null;
+        return new RestServiceResponse(statusCode, headers, text, contentType, executionTimeMs, null, url, content,
+                false, -1, -1, 1);
+    }
+
     /**
      * Creates an error response.
      *
@@ -130,6 +206,15 @@ public record RestServiceResponse(
         return statusCode >= 500 && statusCode < 600;
     }
 
+    /**
+     * Checks if the body was received gzip or deflate encoded and decompressed.
+     *
+     * @return true if the compressed and uncompressed sizes are recorded
+     */
+    public boolean wasCompressed() {
+        return compressedBytes >= 0;
+    }
+
     /**
      * Checks if there was an error (network error or non-success HTTP status).
      *
@@ -158,7 +243,10 @@ public record RestServiceResponse(
      * @return Optional containing the JsonNode, or empty if parsing fails
      */
     public Optional<JsonNode> bodyAsJson() {
-        if (body == null || body.isBlank()) {
+        if (body == null) {
+            return parseContent(OBJECT_MAPPER::readTree);
+        }
+        if (body.isBlank()) {
             return Optional.empty();
         }
         try {
@@ -176,7 +264,10 @@ public record RestServiceResponse(
      * @return Optional containing the parsed object, or empty if parsing fails
      */
     public <T> Optional<T> bodyAs(Class<T> clazz) {
-        if (body == null || body.isBlank()) {
+        if (body == null) {
+            return parseContent(in -> OBJECT_MAPPER.readValue(in, clazz));
+        }
+        if (body.isBlank()) {
             return Optional.empty();
         }
         try {
@@ -205,7 +296,33 @@ public record RestServiceResponse(
      * @return true if the content type is JSON and body is not empty
      */
     public boolean hasJsonBody() {
-        return contentType != null && contentType.isJson() && body != null && !body.isBlank();
+        if (contentType == null || !contentType.isJson()) {
+            return false;
+        }
+        if (body != null) {
+            return !body.isBlank();
+        }
+        return content != null && content.size() != 0;
+    }
+
+    /**
+     * Parses a non-text body straight from its bytes, without decoding it to a String first.
+     */
+    private <T> Optional<T> parseContent(BodyParser<T> parser) {
+        if (content == null || content.size() == 0) {
+            return Optional.empty();
+        }
+        // Decode with the declared charset: Jackson alone only auto-detects UTF-8/16/32
+        try (Reader reader = new InputStreamReader(content.openStream(), content.charset())) {
+            return Optional.ofNullable(parser.parse(reader));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyParser<T> {
+        T parse(Reader reader) throws IOException;
     }
 
     // ========================================================================
@@ -258,6 +375,18 @@ public record RestServiceResponse(
 
         if (body != null) {
             summary.append(" Body: ").append(body.length()).append(" chars");
+        } else if (content != null) {
+            long size = content.size();
+            summary.append(" Body: ").append(size >= 0 ? size + " bytes" : "streamed");
+        }
+        if (truncated) {
+            summary.append(" (truncated)");
+        }
+        if (wasCompressed()) {
+            summary.append(" (").append(compressedBytes).append(" bytes compressed)");
+        }
+        if (attempts > 1) {
+            summary.append(" (").append(attempts).append(" attempts)");
         }
 
         return summary.toString();
@@ -270,7 +399,18 @@ public record RestServiceResponse(
      * @return A new response with the updated body
      */
     public RestServiceResponse withBody(String newBody) {
-        return new RestServiceResponse(statusCode, headers, newBody, contentType, executionTimeMs, errorMessage, url);
+        return new RestServiceResponse(statusCode, headers, newBody, contentType, executionTimeMs, errorMessage, url,
+                null, truncated, compressedBytes, uncompressedBytes, attempts);
+    }
+
+    /**
+     * Releases the resources held by the body (temporary file, open stream).
+     * Safe to call on any response.
+     */
+    public void release() {
+        if (content != null) {
+            content.release();
+        }
     }
 
     /**
@@ -280,6 +420,41 @@ public record RestServiceResponse(
      * @return A new response with the updated error message
      */
     public RestServiceResponse withError(String newErrorMessage) {
-        return new RestServiceResponse(statusCode, headers, body, contentType, executionTimeMs, newErrorMessage, url);
+        return new RestServiceResponse(statusCode, headers, body, contentType, executionTimeMs, newErrorMessage, url,
+                content, truncated, compressedBytes, uncompressedBytes, attempts);
+    }
+
+    /**
+     * Creates a copy of this response flagged as truncated (or not).
+     *
+     * @param isTruncated Whether the body was cut at the size limit
+     * @return A new response with the updated flag
+     */
+    public RestServiceResponse withTruncated(boolean isTruncated) {
+        return new RestServiceResponse(statusCode, headers, body, contentType, executionTimeMs, errorMessage, url,
+                content, isTruncated, compressedBytes, uncompressedBytes, attempts);
+    }
+
+    /**
+     * Creates a copy of this response recording the transfer sizes of a compressed body.
+     *
+     * @param compressed   Size of the encoded body received
+     * @param uncompressed Size of the body after decompression
+     * @return A new response with the updated sizes
+     */
+    public RestServiceResponse withCompressionSizes(long compressed, long uncompressed) {
+        return new RestServiceResponse(statusCode, headers, body, contentType, executionTimeMs, errorMessage, url,
+                content, truncated, compressed, uncompressed, attempts);
+    }
+
+    /**
+     * Creates a copy of this response recording how many times the request was sent.
+     *
+     * @param count The number of attempts (1 for a request that was not retried)
+     * @return A new response with the updated count
+     */
+    public RestServiceResponse withAttempts(int count) {
+        return new RestServiceResponse(statusCode, headers, body, contentType, executionTimeMs, errorMessage, url,
+                content, truncated, compressedBytes, uncompressedBytes, count);
     }
 }
@@ -0,0 +1,119 @@
+package com.bonitasoft.processbuilder.enums;
+
+import net.jqwik.api.*;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Property-based tests for {@link RestPaginationType} enum.
+ * Tests invariants that must hold for any valid input.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+@Label("RestPaginationType Property-Based Tests")
+class RestPaginationTypePropertyTest {
+
+    // =========================================================================
+    // ENUM INVARIANT PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("All enum constants should have non-null key")
+    void allConstantsShouldHaveNonNullKey(@ForAll @From("types") RestPaginationType type) {
+        assertThat(type.getKey()).isNotNull().isNotBlank();
+    }
+
+    @Property(tries = 100)
+    @Label("All enum constants should have non-null description")
+    void allConstantsShouldHaveNonNullDescription(@ForAll @From("types") RestPaginationType type) {
+        assertThat(type.getDescription()).isNotNull().isNotBlank();
+    }
+
+    @Property(tries = 100)
+    @Label("Enum ordinal() should be valid index")
+    void enumOrdinalShouldBeValidIndex(@ForAll @From("types") RestPaginationType type) {
+        assertThat(type.ordinal())
+            .isGreaterThanOrEqualTo(0)
+            .isLessThan(RestPaginationType.values().length);
+    }
+
+    // =========================================================================
+    // IS VALID PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("isValid should return true for all enum names")
+    void isValidShouldReturnTrueForEnumNames(@ForAll @From("types") RestPaginationType type) {
+        assertThat(RestPaginationType.isValid(type.name())).isTrue();
+    }
+
+    @Property(tries = 100)
+    @Label("isValid should return true for all enum keys")
+    void isValidShouldReturnTrueForEnumKeys(@ForAll @From("types") RestPaginationType type) {
+        assertThat(RestPaginationType.isValid(type.getKey())).isTrue();
+    }
+
+    @Property(tries = 100)
+    @Label("isValid should be case insensitive for enum names")
+    void isValidShouldBeCaseInsensitive(@ForAll @From("types") RestPaginationType type) {
+        assertThat(RestPaginationType.isValid(type.name().toLowerCase())).isTrue();
+        assertThat(RestPaginationType.isValid(type.name().toUpperCase())).isTrue();
+    }
+
+    // =========================================================================
+    // FROM KEY PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("fromKey should return present for all enum keys")
+    void fromKeyShouldReturnPresentForEnumKeys(@ForAll @From("types") RestPaginationType type) {
+        assertThat(RestPaginationType.fromKey(type.getKey())).isPresent();
+        assertThat(RestPaginationType.fromKey(type.getKey()).get()).isEqualTo(type);
+    }
+
+    @Property(tries = 100)
+    @Label("fromKey should be case insensitive")
+    void fromKeyShouldBeCaseInsensitive(@ForAll @From("types") RestPaginationType type) {
+        assertThat(RestPaginationType.fromKey(type.getKey().toUpperCase())).isPresent();
+        assertThat(RestPaginationType.fromKey(type.getKey().toLowerCase())).isPresent();
+    }
+
+    // =========================================================================
+    // COLLECTION PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("getAllData should return map with all constants")
+    void getAllDataShouldReturnMapWithAllConstants() {
+        Map<String, String> data = RestPaginationType.getAllData();
+        assertThat(data).hasSize(RestPaginationType.values().length);
+    }
+
+    @Property(tries = 100)
+    @Label("getAllKeysList should return list with all keys")
+    void getAllKeysListShouldReturnListWithAllKeys() {
+        List<String> keys = RestPaginationType.getAllKeysList();
+        assertThat(keys).hasSize(RestPaginationType.values().length);
+    }
+
+    @Property(tries = 100)
+    @Label("getAllData keys should match getAllKeysList")
+    void getAllDataKeysShouldMatchGetAllKeysList() {
+        Map<String, String> data = RestPaginationType.getAllData();
+        List<String> keys = RestPaginationType.getAllKeysList();
+        assertThat(data.keySet()).containsExactlyInAnyOrderElementsOf(keys);
+    }
+
+    // =========================================================================
+    // ARBITRARIES (DATA GENERATORS)
+    // =========================================================================
+
+    @Provide
+    Arbitrary<RestPaginationType> types() {
+        return Arbitraries.of(RestPaginationType.values());
+    }
+}
@@ -0,0 +1,130 @@
+package com.bonitasoft.processbuilder.enums;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestPaginationType} enumeration.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestPaginationTypeTest {
+
+    // =========================================================================
+    // ENUM VALUES TESTS
+    // =========================================================================
+
+    @Test
+    void values_shouldContainAllExpectedConstants() {
+        RestPaginationType[] values = RestPaginationType.values();
+        assertEquals(5, values.length);
+        assertNotNull(RestPaginationType.NONE);
+        assertNotNull(RestPaginationType.CURSOR);
+        assertNotNull(RestPaginationType.OFFSET);
+        assertNotNull(RestPaginationType.LINK_HEADER);
+        assertNotNull(RestPaginationType.NEXT_LINK);
+    }
+
+    // =========================================================================
+    // KEY AND DESCRIPTION TESTS
+    // =========================================================================
+
+    @Test
+    void getKey_shouldReturnCorrectKeyForEachType() {
+        assertEquals("none", RestPaginationType.NONE.getKey());
+        assertEquals("cursor", RestPaginationType.CURSOR.getKey());
+        assertEquals("offset", RestPaginationType.OFFSET.getKey());
+        assertEquals("linkHeader", RestPaginationType.LINK_HEADER.getKey());
+        assertEquals("nextLink", RestPaginationType.NEXT_LINK.getKey());
+    }
+
+    @Test
+    void getDescription_shouldReturnNonEmptyDescription() {
+        for (RestPaginationType type : RestPaginationType.values()) {
+            assertNotNull(type.getDescription());
+            assertFalse(type.getDescription().isBlank());
+        }
+    }
+
+    // =========================================================================
+    // IS VALID TESTS
+    // =========================================================================
+
+    @ParameterizedTest
+    @ValueSource(strings = {"none", "CURSOR", "Offset", "linkHeader", "LINK_HEADER", " nextLink "})
+    void isValid_shouldReturnTrueForValidInputs(String input) {
+        assertTrue(RestPaginationType.isValid(input));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", "invalid", "page", "link"})
+    void isValid_shouldReturnFalseForInvalidInputs(String input) {
+        assertFalse(RestPaginationType.isValid(input));
+    }
+
+    // =========================================================================
+    // FROM KEY TESTS
+    // =========================================================================
+
+    @Test
+    void fromKey_shouldReturnCorrectTypeForValidKey() {
+        assertEquals(Optional.of(RestPaginationType.NONE), RestPaginationType.fromKey("none"));
+        assertEquals(Optional.of(RestPaginationType.CURSOR), RestPaginationType.fromKey("cursor"));
+        assertEquals(Optional.of(RestPaginationType.OFFSET), RestPaginationType.fromKey("offset"));
+        assertEquals(Optional.of(RestPaginationType.LINK_HEADER), RestPaginationType.fromKey("linkHeader"));
+        assertEquals(Optional.of(RestPaginationType.NEXT_LINK), RestPaginationType.fromKey("nextLink"));
+    }
+
+    @Test
+    void fromKey_shouldAcceptConstantNamesCaseInsensitively() {
+        assertEquals(Optional.of(RestPaginationType.NEXT_LINK), RestPaginationType.fromKey("NEXT_LINK"));
+        assertEquals(Optional.of(RestPaginationType.LINK_HEADER), RestPaginationType.fromKey("linkheader"));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", "invalid", "page"})
+    void fromKey_shouldReturnEmptyForInvalidKey(String key) {
+        assertTrue(RestPaginationType.fromKey(key).isEmpty());
+    }
+
+    // =========================================================================
+    // COLLECTION METHODS TESTS
+    // =========================================================================
+
+    @Test
+    void getAllData_shouldReturnMapWithAllConstants() {
+        Map<String, String> data = RestPaginationType.getAllData();
+        assertEquals(5, data.size());
+        assertTrue(data.containsKey("cursor"));
+        assertTrue(data.containsKey("nextLink"));
+    }
+
+    @Test
+    void getAllData_shouldReturnImmutableMap() {
+        Map<String, String> data = RestPaginationType.getAllData();
+        assertThrows(UnsupportedOperationException.class, () -> data.put("new", "value"));
+    }
+
+    @Test
+    void getAllKeysList_shouldReturnKeysInDeclarationOrder() {
+        List<String> keys = RestPaginationType.getAllKeysList();
+        assertEquals(List.of("none", "cursor", "offset", "linkHeader", "nextLink"), keys);
+    }
+
+    @Test
+    void getAllKeysList_shouldReturnImmutableList() {
+        List<String> keys = RestPaginationType.getAllKeysList();
+        assertThrows(UnsupportedOperationException.class, () -> keys.add("new"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.bonitasoft.processbuilder.enums;
+
+import net.jqwik.api.*;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Property-based tests for {@link RestResponseMode} enum.
+ * Tests invariants that must hold for any valid input.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+@Label("RestResponseMode Property-Based Tests")
+class RestResponseModePropertyTest {
+
+    // =========================================================================
+    // ENUM INVARIANT PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("All enum constants should have non-null key")
+    void allConstantsShouldHaveNonNullKey(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(mode.getKey()).isNotNull().isNotBlank();
+    }
+
+    @Property(tries = 100)
+    @Label("All enum constants should have non-null description")
+    void allConstantsShouldHaveNonNullDescription(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(mode.getDescription()).isNotNull().isNotBlank();
+    }
+
+    @Property(tries = 100)
+    @Label("Enum ordinal() should be valid index")
+    void enumOrdinalShouldBeValidIndex(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(mode.ordinal())
+            .isGreaterThanOrEqualTo(0)
+            .isLessThan(RestResponseMode.values().length);
+    }
+
+    // =========================================================================
+    // IS VALID PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("isValid should return true for all enum names")
+    void isValidShouldReturnTrueForEnumNames(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(RestResponseMode.isValid(mode.name())).isTrue();
+    }
+
+    @Property(tries = 100)
+    @Label("isValid should return true for all enum keys")
+    void isValidShouldReturnTrueForEnumKeys(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(RestResponseMode.isValid(mode.getKey())).isTrue();
+    }
+
+    @Property(tries = 100)
+    @Label("isValid should be case insensitive for enum names")
+    void isValidShouldBeCaseInsensitive(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(RestResponseMode.isValid(mode.name().toLowerCase())).isTrue();
+        assertThat(RestResponseMode.isValid(mode.name().toUpperCase())).isTrue();
+    }
+
+    // =========================================================================
+    // FROM KEY PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("fromKey should return present for all enum keys")
+    void fromKeyShouldReturnPresentForEnumKeys(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(RestResponseMode.fromKey(mode.getKey())).isPresent();
+        assertThat(RestResponseMode.fromKey(mode.getKey()).get()).isEqualTo(mode);
+    }
+
+    @Property(tries = 100)
+    @Label("fromKey should be case insensitive")
+    void fromKeyShouldBeCaseInsensitive(@ForAll @From("modes") RestResponseMode mode) {
+        assertThat(RestResponseMode.fromKey(mode.getKey().toUpperCase())).isPresent();
+        assertThat(RestResponseMode.fromKey(mode.getKey().toLowerCase())).isPresent();
+    }
+
+    // =========================================================================
+    // COLLECTION PROPERTIES
+    // =========================================================================
+
+    @Property(tries = 100)
+    @Label("getAllData should return map with all constants")
+    void getAllDataShouldReturnMapWithAllConstants() {
+        Map<String, String> data = RestResponseMode.getAllData();
+        assertThat(data).hasSize(RestResponseMode.values().length);
+    }
+
+    @Property(tries = 100)
+    @Label("getAllKeysList should return list with all keys")
+    void getAllKeysListShouldReturnListWithAllKeys() {
+        List<String> keys = RestResponseMode.getAllKeysList();
+        assertThat(keys).hasSize(RestResponseMode.values().length);
+    }
+
+    @Property(tries = 100)
+    @Label("getAllData keys should match getAllKeysList")
+    void getAllDataKeysShouldMatchGetAllKeysList() {
+        Map<String, String> data = RestResponseMode.getAllData();
+        List<String> keys = RestResponseMode.getAllKeysList();
+        assertThat(data.keySet()).containsExactlyInAnyOrderElementsOf(keys);
+    }
+
+    // =========================================================================
+    // ARBITRARIES (DATA GENERATORS)
+    // =========================================================================
+
+    @Provide
+    Arbitrary<RestResponseMode> modes() {
+        return Arbitraries.of(RestResponseMode.values());
+    }
+}
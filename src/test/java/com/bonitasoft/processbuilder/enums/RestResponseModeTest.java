@@ -0,0 +1,127 @@
+package com.bonitasoft.processbuilder.enums;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestResponseMode} enumeration.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestResponseModeTest {
+
+    // =========================================================================
+    // ENUM VALUES TESTS
+    // =========================================================================
+
+    @Test
+    void values_shouldContainAllExpectedConstants() {
+        RestResponseMode[] values = RestResponseMode.values();
+        assertEquals(4, values.length);
+        assertNotNull(RestResponseMode.STRING);
+        assertNotNull(RestResponseMode.BYTES);
+        assertNotNull(RestResponseMode.STREAM);
+        assertNotNull(RestResponseMode.FILE);
+    }
+
+    // =========================================================================
+    // KEY AND DESCRIPTION TESTS
+    // =========================================================================
+
+    @Test
+    void getKey_shouldReturnCorrectKeyForEachMode() {
+        assertEquals("string", RestResponseMode.STRING.getKey());
+        assertEquals("bytes", RestResponseMode.BYTES.getKey());
+        assertEquals("stream", RestResponseMode.STREAM.getKey());
+        assertEquals("file", RestResponseMode.FILE.getKey());
+    }
+
+    @Test
+    void getDescription_shouldReturnNonEmptyDescription() {
+        for (RestResponseMode mode : RestResponseMode.values()) {
+            assertNotNull(mode.getDescription());
+            assertFalse(mode.getDescription().isBlank());
+        }
+    }
+
+    // =========================================================================
+    // IS VALID TESTS
+    // =========================================================================
+
+    @ParameterizedTest
+    @ValueSource(strings = {"string", "BYTES", "Stream", "file", " file "})
+    void isValid_shouldReturnTrueForValidInputs(String input) {
+        assertTrue(RestResponseMode.isValid(input));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", "invalid", "text", "binary"})
+    void isValid_shouldReturnFalseForInvalidInputs(String input) {
+        assertFalse(RestResponseMode.isValid(input));
+    }
+
+    // =========================================================================
+    // FROM KEY TESTS
+    // =========================================================================
+
+    @Test
+    void fromKey_shouldReturnCorrectModeForValidKey() {
+        assertEquals(Optional.of(RestResponseMode.STRING), RestResponseMode.fromKey("string"));
+        assertEquals(Optional.of(RestResponseMode.BYTES), RestResponseMode.fromKey("bytes"));
+        assertEquals(Optional.of(RestResponseMode.STREAM), RestResponseMode.fromKey("stream"));
+        assertEquals(Optional.of(RestResponseMode.FILE), RestResponseMode.fromKey("file"));
+    }
+
+    @Test
+    void fromKey_shouldBeCaseInsensitive() {
+        assertEquals(Optional.of(RestResponseMode.BYTES), RestResponseMode.fromKey("BYTES"));
+        assertEquals(Optional.of(RestResponseMode.FILE), RestResponseMode.fromKey("File"));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", "invalid", "text"})
+    void fromKey_shouldReturnEmptyForInvalidKey(String key) {
+        assertTrue(RestResponseMode.fromKey(key).isEmpty());
+    }
+
+    // =========================================================================
+    // COLLECTION METHODS TESTS
+    // =========================================================================
+
+    @Test
+    void getAllData_shouldReturnMapWithAllConstants() {
+        Map<String, String> data = RestResponseMode.getAllData();
+        assertEquals(4, data.size());
+        assertTrue(data.containsKey("string"));
+        assertTrue(data.containsKey("file"));
+    }
+
+    @Test
+    void getAllData_shouldReturnImmutableMap() {
+        Map<String, String> data = RestResponseMode.getAllData();
+        assertThrows(UnsupportedOperationException.class, () -> data.put("new", "value"));
+    }
+
+    @Test
+    void getAllKeysList_shouldReturnKeysInDeclarationOrder() {
+        List<String> keys = RestResponseMode.getAllKeysList();
+        assertEquals(List.of("string", "bytes", "stream", "file"), keys);
+    }
+
+    @Test
+    void getAllKeysList_shouldReturnImmutableList() {
+        List<String> keys = RestResponseMode.getAllKeysList();
+        assertThrows(UnsupportedOperationException.class, () -> keys.add("new"));
+    }
+}
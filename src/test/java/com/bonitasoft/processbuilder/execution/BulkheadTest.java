@@ -0,0 +1,152 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestBulkheadOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private static final String URL = "https://api.example.com/items";
+
+    @Test
+    void should_queue_calls_over_the_limit_then_shed_when_the_queue_is_full() {
+        Bulkhead bulkhead = new Bulkhead("api", RestBulkheadOptions.fixed(2, 1));
+
+        CompletableFuture<Void> first = bulkhead.acquire();
+        CompletableFuture<Void> second = bulkhead.acquire();
+        CompletableFuture<Void> queued = bulkhead.acquire();
+        CompletableFuture<Void> shed = bulkhead.acquire();
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(queued).isNotDone();
+        assertThat(shed).isNull();
+        assertThat(bulkhead.snapshot()).satisfies(snapshot -> {
+            assertThat(snapshot.inFlightCalls()).isEqualTo(2);
+            assertThat(snapshot.queuedCalls()).isEqualTo(1);
+            assertThat(snapshot.shedCalls()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void should_hand_a_released_slot_to_the_oldest_queued_call() {
+        Bulkhead bulkhead = new Bulkhead("api", RestBulkheadOptions.fixed(1, 2));
+        bulkhead.acquire();
+        CompletableFuture<Void> oldest = bulkhead.acquire();
+        CompletableFuture<Void> newest = bulkhead.acquire();
+
+        bulkhead.release(10, false);
+
+        assertThat(oldest).isCompleted();
+        assertThat(newest).isNotDone();
+        assertThat(bulkhead.snapshot().inFlightCalls()).isEqualTo(1);
+        assertThat(bulkhead.snapshot().totalQueued()).isEqualTo(2);
+    }
+
+    @Test
+    void adaptive_limit_should_decrease_on_failures_and_recover_on_fast_calls() {
+        Bulkhead bulkhead = new Bulkhead("api", new RestBulkheadOptions(true, null, 10, 0, true, 2, 1_000));
+
+        for (int i = 0; i < 10; i++) {
+            bulkhead.acquire();
+            bulkhead.release(10, true);
+        }
+        assertThat(bulkhead.snapshot().limit()).isEqualTo(3);
+
+        for (int i = 0; i < 20; i++) {
+            bulkhead.acquire();
+            bulkhead.release(5_000, false);
+        }
+        assertThat(bulkhead.snapshot().limit()).isEqualTo(2);
+
+        for (int i = 0; i < 200; i++) {
+            bulkhead.acquire();
+            bulkhead.release(10, false);
+        }
+        assertThat(bulkhead.snapshot().limit()).isEqualTo(10);
+    }
+
+    @Test
+    void fixed_limit_should_not_adapt() {
+        Bulkhead bulkhead = new Bulkhead("api", RestBulkheadOptions.fixed(4, 0));
+
+        for (int i = 0; i < 10; i++) {
+            bulkhead.acquire();
+            bulkhead.release(60_000, true);
+        }
+
+        assertThat(bulkhead.snapshot().limit()).isEqualTo(4);
+    }
+
+    @Test
+    void registry_should_shed_calls_without_sending_them_and_resume_queued_ones() {
+        BulkheadRegistry registry = new BulkheadRegistry(() -> 0L);
+        RestServiceRequest request = RestServiceRequest.builder(URL)
+                .bulkheadOptions(RestBulkheadOptions.fixed(1, 1)).build();
+        List<CompletableFuture<RestServiceResponse>> pending = new ArrayList<>();
+
+        CompletableFuture<RestServiceResponse> first = registry.execute(request, r -> {
+            CompletableFuture<RestServiceResponse> response = new CompletableFuture<>();
+            pending.add(response);
+            return response;
+        });
+        CompletableFuture<RestServiceResponse> queued = registry.execute(request,
+                r -> CompletableFuture.completedFuture(ok()));
+        CompletableFuture<RestServiceResponse> shed = registry.execute(request, r -> {
+            throw new AssertionError("a shed call must not be sent");
+        });
+
+        assertThatThrownBy(shed::join)
+                .hasCauseInstanceOf(CallRejectedException.class)
+                .hasMessageContaining("Bulkhead 'https://api.example.com:443' is full");
+        assertThat(queued).isNotDone();
+
+        pending.get(0).complete(ok());
+
+        assertThat(first.join().statusCode()).isEqualTo(200);
+        assertThat(queued.join().statusCode()).isEqualTo(200);
+        assertThat(registry.snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.inFlightCalls()).isZero();
+            assertThat(snapshot.completedCalls()).isEqualTo(2);
+            assertThat(snapshot.shedCalls()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void registry_should_drop_cancelled_calls_and_abort_the_ones_in_flight() {
+        BulkheadRegistry registry = new BulkheadRegistry(() -> 0L);
+        RestServiceRequest request = RestServiceRequest.builder(URL)
+                .bulkheadOptions(RestBulkheadOptions.fixed(1, 1)).build();
+        CompletableFuture<RestServiceResponse> exchange = new CompletableFuture<>();
+
+        CompletableFuture<RestServiceResponse> first = registry.execute(request, r -> exchange);
+        CompletableFuture<RestServiceResponse> queued = registry.execute(request, r -> {
+            throw new AssertionError("a cancelled call must not be sent");
+        });
+        queued.cancel(true);
+        first.cancel(true);
+
+        assertThat(exchange).isCancelled();
+        assertThat(registry.snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.inFlightCalls()).isZero();
+            assertThat(snapshot.queuedCalls()).isZero();
+            assertThat(snapshot.completedCalls()).isZero();
+        });
+        assertThat(registry.execute(request, r -> CompletableFuture.completedFuture(ok())).join().statusCode())
+                .isEqualTo(200);
+    }
+
+    private static RestServiceResponse ok() {
+        return RestServiceResponse.success(200, Map.of(), ResponseBody.ofText("ok"), null, 1, URL);
+    }
+}
@@ -0,0 +1,193 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestCircuitBreakerOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private static final RestCircuitBreakerOptions OPTIONS =
+            new RestCircuitBreakerOptions(true, null, 50, 100, 1_000, 4, 4, 10_000, 2);
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final CircuitBreaker breaker = new CircuitBreaker("https://api.example.com:443", OPTIONS, now::get);
+
+    private void record(boolean... failures) {
+        for (boolean failed : failures) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onResult(10, failed);
+        }
+    }
+
+    @Test
+    void should_stay_closed_until_minimum_calls_are_recorded() {
+        record(true, true, true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.snapshot().failureRate()).isEqualTo(100.0);
+    }
+
+    @Test
+    void should_open_when_failure_rate_reaches_threshold() {
+        record(false, true, false, true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        CircuitBreaker.Snapshot snapshot = breaker.snapshot();
+        assertThat(snapshot.timesOpened()).isEqualTo(1);
+        assertThat(snapshot.rejectedCalls()).isEqualTo(1);
+        assertThat(snapshot.failedCalls()).isEqualTo(2);
+        assertThat(snapshot.successfulCalls()).isEqualTo(2);
+        assertThat(snapshot.retryAt()).isEqualTo(now.get() + 10_000);
+    }
+
+    @Test
+    void should_evaluate_only_the_most_recent_calls() {
+        record(true, false, false, false, false, true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.snapshot().bufferedCalls()).isEqualTo(4);
+        assertThat(breaker.snapshot().failureRate()).isEqualTo(25.0);
+    }
+
+    @Test
+    void should_open_when_every_call_is_slow() {
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire();
+            breaker.onResult(1_500, false);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.snapshot().slowCalls()).isEqualTo(4);
+    }
+
+    @Test
+    void should_close_after_successful_half_open_trials() {
+        record(true, true, true, true);
+        now.addAndGet(10_000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onResult(10, false);
+        breaker.onResult(10, false);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.snapshot().bufferedCalls()).isZero();
+    }
+
+    @Test
+    void should_reopen_when_a_half_open_trial_fails() {
+        record(true, true, true, true);
+        now.addAndGet(10_000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(10, true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.snapshot().timesOpened()).isEqualTo(2);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void call_not_sent_should_free_its_half_open_trial_without_recording_an_outcome() {
+        record(true, true, true, true);
+        now.addAndGet(10_000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onNotSent();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.snapshot().failedCalls()).isEqualTo(4);
+        assertThat(breaker.snapshot().successfulCalls()).isZero();
+    }
+
+    @Test
+    void registry_should_not_record_calls_refused_further_down() {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(now::get);
+        RestServiceRequest request = RestServiceRequest.builder("https://api.example.com/items")
+                .circuitBreakerOptions(OPTIONS).build();
+
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<RestServiceResponse> shed = registry.execute(request, r ->
+                    CompletableFuture.failedFuture(new CallRejectedException("Bulkhead 'api' is full: call shed")));
+            assertThat(shed).isCompletedExceptionally();
+        }
+
+        assertThat(registry.breaker("https://api.example.com:443").snapshot()).satisfies(snapshot -> {
+            assertThat(snapshot.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(snapshot.failedCalls()).isZero();
+            assertThat(snapshot.bufferedCalls()).isZero();
+        });
+    }
+
+    @Test
+    void should_treat_connection_errors_and_server_errors_as_failures() {
+        String url = "https://api.example.com/items";
+
+        assertThat(CircuitBreaker.isFailure(RestServiceResponse.error("refused", 1, url))).isTrue();
+        assertThat(CircuitBreaker.isFailure(response(503))).isTrue();
+        assertThat(CircuitBreaker.isFailure(response(404))).isFalse();
+        assertThat(CircuitBreaker.isFailure(response(200))).isFalse();
+    }
+
+    @Test
+    void registry_should_share_a_breaker_per_host_and_fail_fast_while_open() {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(now::get);
+        AtomicInteger sent = new AtomicInteger();
+        RestServiceRequest items = RestServiceRequest.builder("https://api.example.com/items")
+                .circuitBreakerOptions(OPTIONS).build();
+        RestServiceRequest orders = RestServiceRequest.builder("https://API.example.com/orders")
+                .circuitBreakerOptions(OPTIONS).build();
+
+        for (int i = 0; i < 4; i++) {
+            registry.execute(i % 2 == 0 ? items : orders, request -> {
+                sent.incrementAndGet();
+                return CompletableFuture.completedFuture(response(500));
+            }).join();
+        }
+        CompletableFuture<RestServiceResponse> rejected = registry.execute(items, request -> {
+            sent.incrementAndGet();
+            return CompletableFuture.completedFuture(response(200));
+        });
+
+        assertThat(sent).hasValue(4);
+        assertThatThrownBy(rejected::join)
+                .hasCauseInstanceOf(CallRejectedException.class)
+                .hasMessageContaining("'https://api.example.com:443' is open");
+        assertThat(registry.snapshot()).extracting(CircuitBreaker.Snapshot::name)
+                .containsExactly("https://api.example.com:443");
+        registry.reset();
+        assertThat(registry.snapshot()).isEmpty();
+    }
+
+    @Test
+    void registry_should_use_configured_name_over_host() {
+        RestServiceRequest request = RestServiceRequest.builder("http://localhost:8080/items")
+                .circuitBreakerOptions(OPTIONS).build();
+        RestServiceRequest named = RestServiceRequest.builder("http://localhost:8080/items")
+                .circuitBreakerOptions(new RestCircuitBreakerOptions(true, "crm", 50, 100, 1_000, 4, 4, 10_000, 2))
+                .build();
+
+        assertThat(CircuitBreakerRegistry.nameOf(request)).isEqualTo("http://localhost:8080");
+        assertThat(CircuitBreakerRegistry.nameOf(named)).isEqualTo("crm");
+    }
+
+    private static RestServiceResponse response(int statusCode) {
+        return RestServiceResponse.success(statusCode, Map.of(), ResponseBody.ofText("status " + statusCode), null,
+                1, "https://api.example.com/items");
+    }
+}
@@ -0,0 +1,121 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.extension.template.RestApiTemplate;
+import com.bonitasoft.processbuilder.extension.template.catalog.RestApiCatalog;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ConnectionWarmer against an embedded JDK HTTP server.
+ */
+class ConnectionWarmerTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger tokenCalls = new AtomicInteger();
+    private final AtomicInteger probes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        HttpExecutor.invalidateAllCredentials();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/token", exchange -> {
+            tokenCalls.incrementAndGet();
+            byte[] body = "{\"access_token\":\"warm-token\",\"expires_in\":3600}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/api", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                probes.incrementAndGet();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        HttpExecutor.invalidateAllCredentials();
+    }
+
+    private String oauthConfig() {
+        return """
+                {"baseUrl": "%s/api", "methods": [{"name": "list", "httpMethod": "GET", "path": "/items"}],
+                 "auth": {"authType": "oauth2ClientCredentials", "tokenUrl": "%s/token",
+                          "clientId": "warm-client", "clientSecret": "secret"}}
+                """.formatted(baseUrl, baseUrl);
+    }
+
+    @Test
+    void warm_up_should_open_connection_and_prefetch_token() {
+        ConnectionWarmer warmer = new ConnectionWarmer(new HttpExecutor(), new ConnectorPlanCache(8));
+
+        List<EndpointReadiness> results = warmer.warmUp(List.of(oauthConfig())).join();
+
+        assertThat(results).singleElement().satisfies(readiness -> {
+            assertThat(readiness.endpoint()).isEqualTo(baseUrl + "/api");
+            assertThat(readiness.isReady()).isTrue();
+            assertThat(readiness.statusCode()).isEqualTo(200);
+            assertThat(readiness.httpVersion()).isNotNull();
+        });
+        assertThat(probes).hasValue(1);
+        assertThat(tokenCalls).hasValue(1);
+
+        // The first real call reuses the pre-fetched token
+        ConnectorResponse response = new ConnectorExecutionEngine(new HttpExecutor())
+                .execute(ConnectorRequest.builder(oauthConfig()).methodName("list").build());
+        assertThat(response.success()).isTrue();
+        assertThat(tokenCalls).hasValue(1);
+    }
+
+    @Test
+    void warm_up_should_report_each_distinct_configuration() {
+        ConnectionWarmer warmer = new ConnectionWarmer(new HttpExecutor(), new ConnectorPlanCache(8));
+        String templated = "{\"baseUrl\": \"https://{{tenant}}.example.com\", \"methods\": []}";
+        String unreachable = "{\"baseUrl\": \"http://127.0.0.1:1/api\", \"methods\": [], \"timeoutMs\": 2000}";
+
+        List<EndpointReadiness> results = warmer.warmUp(
+                List.of(oauthConfig(), templated, "not json", unreachable, oauthConfig())).join();
+
+        assertThat(results).extracting(EndpointReadiness::status).containsExactly(
+                EndpointReadiness.Status.READY,
+                EndpointReadiness.Status.SKIPPED,
+                EndpointReadiness.Status.SKIPPED,
+                EndpointReadiness.Status.FAILED);
+        assertThat(results.get(3).error()).isNotBlank();
+        assertThat(probes).hasValue(1);
+        assertThat(warmer.readiness()).containsOnlyKeys(
+                baseUrl + "/api", "https://{{tenant}}.example.com", "http://127.0.0.1:1/api");
+        assertThat(warmer.readiness(baseUrl + "/api")).get().extracting(EndpointReadiness::isReady).isEqualTo(true);
+    }
+
+    @Test
+    void warm_up_should_accept_catalog_templates() {
+        ConnectionWarmer warmer = new ConnectionWarmer(new HttpExecutor(), new ConnectorPlanCache(8));
+        RestApiTemplate template = RestApiCatalog.noAuth("local", "Local API", baseUrl + "/api")
+                .addMethod("list", "GET", "/items")
+                .build();
+
+        List<EndpointReadiness> results = warmer.warmUpTemplates(List.of(template)).join();
+
+        assertThat(results).singleElement().extracting(EndpointReadiness::status)
+                .isEqualTo(EndpointReadiness.Status.READY);
+        assertThat(probes).hasValue(1);
+    }
+}
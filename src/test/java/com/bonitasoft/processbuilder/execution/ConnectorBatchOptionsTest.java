@@ -0,0 +1,41 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectorBatchOptionsTest {
+
+    @Test
+    void should_create_collect_all_defaults() {
+        ConnectorBatchOptions options = ConnectorBatchOptions.defaults();
+
+        assertThat(options.maxParallelism()).isEqualTo(ConnectorBatchOptions.DEFAULT_MAX_PARALLELISM);
+        assertThat(options.failFast()).isFalse();
+        assertThat(options.deadline()).isNull();
+    }
+
+    @Test
+    void should_build_with_all_options() {
+        ConnectorBatchOptions options = ConnectorBatchOptions.builder()
+                .maxParallelism(3)
+                .failFast(true)
+                .deadline(Duration.ofSeconds(10))
+                .build();
+
+        assertThat(options.maxParallelism()).isEqualTo(3);
+        assertThat(options.failFast()).isTrue();
+        assertThat(options.deadline()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void should_reject_invalid_values() {
+        assertThatThrownBy(() -> ConnectorBatchOptions.builder().maxParallelism(0).build())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConnectorBatchOptions.builder().deadline(Duration.ZERO).build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,18 +1,29 @@
 package com.bonitasoft.processbuilder.execution;
 
+import com.bonitasoft.processbuilder.records.ResponseBody;
 import com.bonitasoft.processbuilder.records.RestServiceRequest;
 import com.bonitasoft.processbuilder.records.RestServiceResponse;
 import com.bonitasoft.processbuilder.enums.RestContentType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -81,6 +92,26 @@ class ConnectorExecutionEngineTest {
         assertThat(captor.getValue().url()).isEqualTo("https://api.example.com/v1/users");
     }
 
+    @Test
+    void should_report_oversized_and_truncated_responses() {
+        RestServiceResponse oversized = new RestServiceResponse(200, Map.of(), null, null, 10L,
+                "Response body exceeds the maximum size of 10 bytes (maxResponseBytes)", "url");
+        RestServiceResponse truncated = RestServiceResponse.success(
+                200, Map.of(), "partial", RestContentType.TEXT_PLAIN, 10L, "url").withTruncated(true);
+        when(mockHttpExecutor.execute(any(RestServiceRequest.class))).thenReturn(oversized, truncated);
+        ConnectorRequest request = ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build();
+
+        ConnectorResponse failed = engine.execute(request);
+        ConnectorResponse partial = engine.execute(request);
+
+        assertThat(failed.success()).isFalse();
+        assertThat(failed.statusCode()).isEqualTo(200);
+        assertThat(failed.errorMessage()).contains("maxResponseBytes");
+        assertThat(partial.success()).isTrue();
+        assertThat(partial.truncated()).isTrue();
+        assertThat(partial.responseBody()).isEqualTo("partial");
+    }
+
     @Test
     void should_substitute_params_in_new_structure() {
         RestServiceResponse httpResponse = RestServiceResponse.success(
@@ -190,18 +221,55 @@ class ConnectorExecutionEngineTest {
         verify(mockHttpExecutor).execute(captor.capture());
         RestServiceRequest captured = captor.getValue();
 
-        // Should have rawBody (multipart) instead of plain text body
-        assertThat(captured.hasRawBody()).isTrue();
+        // The Base64 content is decoded while the multipart body is streamed, never into rawBody
+        assertThat(captured.hasStreamingBody()).isTrue();
+        assertThat(captured.hasRawBody()).isFalse();
         assertThat(captured.contentTypeOverride()).startsWith("multipart/related; boundary=");
 
         // Verify multipart content contains both metadata and file
-        String multipartBody = new String(captured.rawBody(), StandardCharsets.UTF_8);
+        byte[] multipartBytes = MultipartRelatedBuilderTest.readAll(captured.bodyPublisher());
+        assertThat(captured.bodyPublisher().contentLength()).isEqualTo(multipartBytes.length);
+        String multipartBody = new String(multipartBytes, StandardCharsets.UTF_8);
         assertThat(multipartBody).contains("application/json");
         assertThat(multipartBody).contains("\"name\":\"report.pdf\"");
         assertThat(multipartBody).contains("Content-Type: application/pdf");
         assertThat(multipartBody).contains("fake-pdf-bytes");
     }
 
+    @Test
+    void should_stream_multipart_body_when_file_source_provided() {
+        RestServiceResponse httpResponse = RestServiceResponse.success(
+                200, Map.of(), "{\"id\":\"abc\"}", RestContentType.JSON, 100L, "url");
+        when(mockHttpExecutor.execute(any(RestServiceRequest.class))).thenReturn(httpResponse);
+
+        String config = """
+                {
+                    "baseUrl": "https://www.googleapis.com",
+                    "methods": [{"name": "uploadFile", "httpMethod": "POST", "path": "/upload/drive/v3/files"}]
+                }
+                """;
+        byte[] file = "fake-pdf-bytes".getBytes(StandardCharsets.UTF_8);
+
+        ConnectorRequest request = ConnectorRequest.builder(config)
+                .methodName("uploadFile")
+                .body("{\"name\":\"report.pdf\"}")
+                .fileUpload(UploadSource.ofInputStream(() -> new ByteArrayInputStream(file), file.length))
+                .fileContentType("application/pdf")
+                .build();
+
+        engine.execute(request);
+
+        ArgumentCaptor<RestServiceRequest> captor = ArgumentCaptor.forClass(RestServiceRequest.class);
+        verify(mockHttpExecutor).execute(captor.capture());
+        RestServiceRequest captured = captor.getValue();
+
+        // The file is streamed by a publisher, never copied into rawBody
+        assertThat(captured.hasStreamingBody()).isTrue();
+        assertThat(captured.hasRawBody()).isFalse();
+        assertThat(captured.contentTypeOverride()).startsWith("multipart/related; boundary=");
+        assertThat(captured.bodyPublisher().contentLength()).isGreaterThan(file.length);
+    }
+
     @Test
     void should_not_build_multipart_when_no_file_content() {
         RestServiceResponse httpResponse = RestServiceResponse.success(
@@ -727,4 +795,302 @@ class ConnectorExecutionEngineTest {
         assertThat(captor.getValue().headers()).containsEntry("X-Method", "keep");
         assertThat(captor.getValue().queryParams()).containsEntry("q", "keep");
     }
+
+    // ========================================================================
+    // Async execution
+    // ========================================================================
+
+    @Test
+    void should_execute_async_through_http_executor_async() {
+        RestServiceResponse httpResponse = RestServiceResponse.success(
+                200, Map.of(), "{\"users\": []}", RestContentType.JSON, 100L, "https://api.example.com/v1/users");
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(httpResponse));
+
+        ConnectorRequest request = ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUsers")
+                .build();
+
+        ConnectorResponse response = engine.executeAsync(request).join();
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.responseBody()).isEqualTo("{\"users\": []}");
+        verify(mockHttpExecutor, never()).execute(any(RestServiceRequest.class));
+    }
+
+    @Test
+    void should_report_attempts_of_retried_calls() {
+        RestServiceResponse httpResponse = RestServiceResponse.success(
+                200, Map.of(), "{\"users\": []}", RestContentType.JSON, 100L, "https://api.example.com/v1/users")
+                .withAttempts(3);
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(httpResponse));
+
+        ConnectorResponse response = engine.executeAsync(ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUsers")
+                .build()).join();
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.attempts()).isEqualTo(3);
+    }
+
+    @Test
+    void should_complete_async_with_error_when_preparation_fails() {
+        ConnectorRequest request = ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("nonExistent")
+                .build();
+
+        ConnectorResponse response = engine.executeAsync(request).join();
+
+        assertThat(response.success()).isFalse();
+        assertThat(response.errorMessage()).contains("not found");
+        verifyNoInteractions(mockHttpExecutor);
+    }
+
+    @Test
+    void should_complete_async_with_error_when_http_future_fails() {
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        ConnectorResponse response = engine.executeAsync(ConnectorRequest.builder(LEGACY_CONFIG).build()).join();
+
+        assertThat(response.success()).isFalse();
+        assertThat(response.errorMessage()).isEqualTo("boom");
+        assertThat(response.requestUrl()).isEqualTo("https://legacy.example.com/api/users");
+    }
+
+    // ========================================================================
+    // Batch execution
+    // ========================================================================
+
+    @Test
+    void should_execute_batch_in_input_order_with_per_item_errors() {
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class))).thenAnswer(invocation -> {
+            RestServiceRequest sent = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(RestServiceResponse.success(
+                    200, Map.of(), sent.url(), RestContentType.TEXT_PLAIN, 1L, sent.url()));
+        });
+
+        List<ConnectorRequest> requests = List.of(
+                ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build(),
+                ConnectorRequest.builder(NEW_CONFIG).methodName("unknown").build(),
+                ConnectorRequest.builder(NEW_CONFIG).methodName("createUser").build());
+
+        ConnectorBatchResult result = engine.executeAll(requests,
+                ConnectorBatchOptions.builder().maxParallelism(2).build());
+
+        assertThat(result.responses()).hasSize(3);
+        assertThat(result.responses().get(0).responseBody()).isEqualTo("https://api.example.com/v1/users");
+        assertThat(result.responses().get(1).errorMessage()).contains("not found");
+        assertThat(result.responses().get(2).success()).isTrue();
+        assertThat(result.failedIndexes()).containsExactly(1);
+        assertThat(result.aborted()).isFalse();
+    }
+
+    @Test
+    void should_limit_in_flight_calls_to_max_parallelism() {
+        List<CompletableFuture<RestServiceResponse>> pending = new ArrayList<>();
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class))).thenAnswer(invocation -> {
+            CompletableFuture<RestServiceResponse> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        List<ConnectorRequest> requests = Collections.nCopies(5,
+                ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build());
+        CompletableFuture<ConnectorBatchResult> batch = engine.executeAllAsync(requests,
+                ConnectorBatchOptions.builder().maxParallelism(2).build());
+
+        assertThat(pending).hasSize(2);
+        pending.get(0).complete(RestServiceResponse.success(200, Map.of(), "ok", RestContentType.JSON, 1L, "url"));
+        assertThat(pending).hasSize(3);
+        assertThat(batch).isNotDone();
+
+        for (int i = 1; i < 5; i++) {
+            pending.get(i).complete(RestServiceResponse.success(200, Map.of(), "ok", RestContentType.JSON, 1L, "url"));
+        }
+        assertThat(batch.join().successCount()).isEqualTo(5);
+    }
+
+    @Test
+    void should_abort_remaining_items_on_first_failure_when_fail_fast() {
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(RestServiceResponse.success(
+                        200, Map.of(), "ok", RestContentType.JSON, 1L, "url")));
+
+        List<ConnectorRequest> requests = List.of(
+                ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build(),
+                ConnectorRequest.builder(NEW_CONFIG).methodName("unknown").build(),
+                ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build());
+
+        ConnectorBatchResult result = engine.executeAll(requests,
+                ConnectorBatchOptions.builder().maxParallelism(1).failFast(true).build());
+
+        assertThat(result.aborted()).isTrue();
+        assertThat(result.responses().get(0).success()).isTrue();
+        assertThat(result.responses().get(2).errorMessage()).startsWith("Aborted");
+        verify(mockHttpExecutor, times(1)).executeAsync(any(RestServiceRequest.class));
+    }
+
+    @Test
+    void should_report_unfinished_items_when_deadline_expires() {
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class))).thenReturn(new CompletableFuture<>());
+
+        ConnectorBatchResult result = engine.executeAll(
+                List.of(ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build()),
+                ConnectorBatchOptions.builder().deadline(Duration.ofMillis(50)).build());
+
+        assertThat(result.deadlineExceeded()).isTrue();
+        assertThat(result.responses().get(0).errorMessage()).startsWith("Deadline exceeded");
+    }
+
+    @Test
+    void should_cancel_running_items_when_the_batch_is_cut_short() {
+        CompletableFuture<RestServiceResponse> running = new CompletableFuture<>();
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class))).thenReturn(running);
+
+        ConnectorBatchResult result = engine.executeAll(List.of(
+                        ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build(),
+                        ConnectorRequest.builder(NEW_CONFIG).methodName("unknown").build()),
+                ConnectorBatchOptions.builder().maxParallelism(2).failFast(true).build());
+
+        assertThat(result.aborted()).isTrue();
+        assertThat(result.responses().get(0).errorMessage()).startsWith("Aborted");
+        assertThat(running).isCancelled();
+    }
+
+    @Test
+    void should_release_a_response_received_after_the_deadline(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("body.json"), "{}");
+        CompletableFuture<RestServiceResponse> late = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return false; // already answered by the server
+            }
+        };
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class))).thenReturn(late);
+
+        ConnectorBatchResult result = engine.executeAll(
+                List.of(ConnectorRequest.builder(NEW_CONFIG).methodName("getUsers").build()),
+                ConnectorBatchOptions.builder().deadline(Duration.ofMillis(50)).build());
+        late.complete(RestServiceResponse.success(200, Map.of(),
+                new ResponseBody.TempFile(file, 2, StandardCharsets.UTF_8), null, 1L, "url"));
+
+        assertThat(result.deadlineExceeded()).isTrue();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void should_return_empty_result_for_empty_batch() {
+        ConnectorBatchResult result = engine.executeAll(List.of());
+
+        assertThat(result.responses()).isEmpty();
+        assertThat(result.allSuccessful()).isTrue();
+        verifyNoInteractions(mockHttpExecutor);
+    }
+
+    // ========================================================================
+    // Pagination
+    // ========================================================================
+
+    @Test
+    void should_list_items_of_every_page_of_a_paginated_method() {
+        String config = """
+                {
+                    "baseUrl": "https://jira.example.com",
+                    "methods": [
+                        {"name": "search", "httpMethod": "GET", "path": "/rest/api/3/search/jql",
+                         "pagination": "cursor", "paginationItemsPath": "issues",
+                         "paginationCursorPath": "nextPageToken", "paginationCursorParam": "nextPageToken"}
+                    ]
+                }
+                """;
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class))).thenAnswer(invocation -> {
+            RestServiceRequest page = invocation.getArgument(0);
+            String body = page.queryParams().containsKey("nextPageToken")
+                    ? "{\"issues\": [{\"key\": \"PB-3\"}]}"
+                    : "{\"issues\": [{\"key\": \"PB-1\"}, {\"key\": \"PB-2\"}], \"nextPageToken\": \"p2\"}";
+            return CompletableFuture.completedFuture(RestServiceResponse.success(
+                    200, Map.of(), body, RestContentType.JSON, 1L, page.url()));
+        });
+
+        try (ConnectorPages issues = engine.paginate(ConnectorRequest.builder(config).methodName("search").build())) {
+            assertThat(issues.stream().map(issue -> issue.get("key").asText()).toList())
+                    .containsExactly("PB-1", "PB-2", "PB-3");
+            assertThat(issues.pageCount()).isEqualTo(2);
+        }
+
+        ArgumentCaptor<RestServiceRequest> captor = ArgumentCaptor.forClass(RestServiceRequest.class);
+        verify(mockHttpExecutor, times(2)).executeAsync(captor.capture());
+        assertThat(captor.getAllValues().get(1).queryParams()).containsEntry("nextPageToken", "p2");
+    }
+
+    @Test
+    void should_report_preparation_error_as_failed_listing() {
+        ConnectorPages pages = engine.paginate(ConnectorRequest.builder(NEW_CONFIG).methodName("unknown").build());
+
+        assertThat(pages.hasNext()).isFalse();
+        assertThat(pages.failure().errorMessage()).contains("Method 'unknown' not found");
+        verifyNoInteractions(mockHttpExecutor);
+    }
+
+    // ========================================================================
+    // Field mapping
+    // ========================================================================
+
+    @Test
+    void should_extract_field_mapping_values_from_successful_response() {
+        RestServiceResponse httpResponse = RestServiceResponse.success(200, Map.of(),
+                "{\"users\": [{\"id\": 1, \"name\": \"Alice\"}, {\"id\": 2, \"name\": \"Bob\"}], \"total\": 2}",
+                RestContentType.JSON, 10L, "https://api.example.com/v1/users");
+        when(mockHttpExecutor.execute(any(RestServiceRequest.class))).thenReturn(httpResponse);
+        when(mockHttpExecutor.executeAsync(any(RestServiceRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(httpResponse));
+        ConnectorRequest request = ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUsers")
+                .fieldMappingJson("{\"count\": \"total\", \"names\": \"users[*].name\"}")
+                .build();
+
+        ConnectorResponse response = engine.execute(request);
+        ConnectorResponse async = engine.executeAsync(request).join();
+
+        assertThat(response.mappedData()).isEqualTo("{\"count\":2,\"names\":[\"Alice\",\"Bob\"]}");
+        assertThat(async.mappedData()).isEqualTo(response.mappedData());
+        assertThat(response.responseBody()).contains("\"users\"");
+    }
+
+    @Test
+    void should_not_map_error_or_non_json_responses() {
+        RestServiceResponse notFound = new RestServiceResponse(404, Map.of(), "{\"total\": 0}", RestContentType.JSON, 10L,
+                null, "url");
+        RestServiceResponse text = RestServiceResponse.success(
+                200, Map.of(), "plain text", RestContentType.TEXT_PLAIN, 10L, "url");
+        when(mockHttpExecutor.execute(any(RestServiceRequest.class))).thenReturn(notFound, text);
+        ConnectorRequest request = ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUsers")
+                .fieldMappingJson("{\"count\": \"total\"}")
+                .build();
+
+        ConnectorResponse failed = engine.execute(request);
+        ConnectorResponse plain = engine.execute(request);
+
+        assertThat(failed.success()).isFalse();
+        assertThat(failed.mappedData()).isNull();
+        assertThat(plain.success()).isTrue();
+        assertThat(plain.mappedData()).isNull();
+    }
+
+    @Test
+    void should_return_error_for_invalid_field_mapping() {
+        ConnectorRequest request = ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUsers")
+                .fieldMappingJson("{\"first\": \"users[first]\"}")
+                .build();
+
+        ConnectorResponse response = engine.execute(request);
+
+        assertThat(response.success()).isFalse();
+        assertThat(response.errorMessage()).startsWith("Invalid fieldMapping");
+        verifyNoInteractions(mockHttpExecutor);
+    }
 }
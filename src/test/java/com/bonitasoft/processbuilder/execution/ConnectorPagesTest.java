@@ -0,0 +1,194 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestPagination;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectorPagesTest {
+
+    private static final String URL = "https://api.example.com/items";
+
+    private final Map<String, ConnectorResponse> pages = new HashMap<>();
+    private final List<String> requested = new ArrayList<>();
+
+    private CompletableFuture<ConnectorResponse> fetch(RestServiceRequest request) {
+        // Query parameters in name order, so that pages can be keyed by URL
+        String url = request.queryParams().isEmpty() ? request.url() : request.url() + "?"
+                + new TreeMap<>(request.queryParams()).entrySet().stream()
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining("&"));
+        requested.add(url);
+        ConnectorResponse page = pages.get(url);
+        return CompletableFuture.completedFuture(page != null ? page
+                : ConnectorResponse.error(404, null, "HTTP 404", 1, url));
+    }
+
+    private ConnectorPages start(RestServiceRequest first, RestPagination pagination) {
+        return ConnectorPages.start(first, pagination, this::fetch);
+    }
+
+    private static ConnectorResponse page(String body) {
+        return ConnectorResponse.success(200, body, Map.of(), 1, URL);
+    }
+
+    private static List<String> ids(ConnectorPages listing) {
+        List<String> ids = new ArrayList<>();
+        listing.forEachRemaining(item -> ids.add(item.get("id").asText()));
+        return ids;
+    }
+
+    @Test
+    void cursor_pages_should_be_followed_until_no_cursor_is_returned() {
+        pages.put(URL, page("{\"issues\": [{\"id\": \"1\"}, {\"id\": \"2\"}], \"nextPageToken\": \"t2\"}"));
+        pages.put(URL + "?token=t2", page("{\"issues\": [{\"id\": \"3\"}], \"nextPageToken\": \"t3\"}"));
+        pages.put(URL + "?token=t3", page("{\"issues\": [{\"id\": \"4\"}]}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL),
+                RestPagination.cursor("issues", "nextPageToken", "token"));
+
+        assertThat(ids(listing)).containsExactly("1", "2", "3", "4");
+        assertThat(listing.pageCount()).isEqualTo(3);
+        assertThat(listing.failure()).isNull();
+        assertThat(listing.capped()).isFalse();
+    }
+
+    @Test
+    void offset_pages_should_advance_until_a_short_page() {
+        pages.put(URL + "?limit=2", page("[{\"id\": \"1\"}, {\"id\": \"2\"}]"));
+        pages.put(URL + "?limit=2&offset=2", page("[{\"id\": \"3\"}, {\"id\": \"4\"}]"));
+        pages.put(URL + "?limit=2&offset=4", page("[{\"id\": \"5\"}]"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL), RestPagination.offset(null, null, null, 2));
+
+        assertThat(ids(listing)).containsExactly("1", "2", "3", "4", "5");
+        assertThat(requested).hasSize(3);
+    }
+
+    @Test
+    void link_header_should_be_followed_relative_to_the_page_url() {
+        pages.put(URL, ConnectorResponse.success(200, "{\"result\": [{\"id\": \"1\"}]}",
+                Map.of("link", "<https://api.example.com/items?page=1>; rel=\"first\", </items?page=2>; rel=\"next\""),
+                1, URL));
+        pages.put(URL + "?page=2", page("{\"result\": [{\"id\": \"2\"}]}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL), RestPagination.linkHeader("result"));
+
+        assertThat(ids(listing)).containsExactly("1", "2");
+        assertThat(requested).containsExactly(URL, URL + "?page=2");
+    }
+
+    @Test
+    void next_link_field_should_be_followed() {
+        pages.put(URL + "?top=1", page("{\"value\": [{\"id\": \"1\"}], \"@odata.nextLink\": \"" + URL + "?skip=x\"}"));
+        pages.put(URL + "?skip=x", page("{\"value\": [{\"id\": \"2\"}]}"));
+
+        ConnectorPages listing = start(RestServiceRequest.builder(URL).queryParam("top", "1").build(),
+                RestPagination.nextLink("value", null));
+
+        assertThat(ids(listing)).containsExactly("1", "2");
+    }
+
+    @Test
+    void next_page_should_be_requested_before_the_current_one_is_consumed() {
+        pages.put(URL, page("{\"items\": [{\"id\": \"1\"}, {\"id\": \"2\"}], \"cursor\": \"c2\"}"));
+        pages.put(URL + "?cursor=c2", page("{\"items\": [{\"id\": \"3\"}]}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL), RestPagination.cursor("items", null, null));
+
+        assertThat(requested).containsExactly(URL);
+        assertThat(listing.next().get("id").asText()).isEqualTo("1");
+        assertThat(requested).containsExactly(URL, URL + "?cursor=c2");
+    }
+
+    @Test
+    void listing_should_stop_at_max_items_without_requesting_further_pages() {
+        pages.put(URL, page("{\"items\": [{\"id\": \"1\"}, {\"id\": \"2\"}], \"cursor\": \"c2\"}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL),
+                RestPagination.cursor("items", null, null).withLimits(2, 10));
+
+        assertThat(ids(listing)).containsExactly("1", "2");
+        assertThat(listing.capped()).isTrue();
+        assertThat(requested).containsExactly(URL);
+    }
+
+    @Test
+    void listing_should_stop_at_max_pages() {
+        pages.put(URL, page("{\"items\": [{\"id\": \"1\"}], \"cursor\": \"c2\"}"));
+        pages.put(URL + "?cursor=c2", page("{\"items\": [{\"id\": \"2\"}], \"cursor\": \"c3\"}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL),
+                RestPagination.cursor("items", null, null).withLimits(100, 2));
+
+        assertThat(ids(listing)).containsExactly("1", "2");
+        assertThat(listing.capped()).isTrue();
+        assertThat(listing.pageCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failed_page_should_end_the_listing_and_be_reported() {
+        pages.put(URL, page("{\"items\": [{\"id\": \"1\"}], \"cursor\": \"gone\"}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL), RestPagination.cursor("items", null, null));
+
+        assertThat(ids(listing)).containsExactly("1");
+        assertThat(listing.failure()).isNotNull();
+        assertThat(listing.failure().statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void repeated_cursor_should_not_loop() {
+        pages.put(URL, page("{\"items\": [{\"id\": \"1\"}], \"cursor\": \"same\"}"));
+        pages.put(URL + "?cursor=same", page("{\"items\": [{\"id\": \"2\"}], \"cursor\": \"same\"}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL), RestPagination.cursor("items", null, null));
+
+        assertThat(ids(listing)).containsExactly("1", "2");
+        assertThat(requested).hasSize(2);
+    }
+
+    @Test
+    void single_page_should_list_the_items_of_the_response() {
+        pages.put(URL, page("{\"id\": \"only\"}"));
+
+        ConnectorPages listing = start(RestServiceRequest.get(URL), RestPagination.none());
+
+        assertThat(ids(listing)).containsExactly("only");
+    }
+
+    @Test
+    void stream_should_be_lazy_and_close_the_listing() {
+        pages.put(URL, page("{\"items\": [{\"id\": \"1\"}, {\"id\": \"2\"}], \"cursor\": \"c2\"}"));
+        pages.put(URL + "?cursor=c2", page("{\"items\": [{\"id\": \"3\"}]}"));
+        ConnectorPages listing = start(RestServiceRequest.get(URL), RestPagination.cursor("items", null, null));
+
+        List<String> first;
+        try (Stream<JsonNode> items = listing.stream()) {
+            first = items.limit(1).map(item -> item.get("id").asText()).toList();
+        }
+
+        assertThat(first).containsExactly("1");
+        assertThat(listing.hasNext()).isFalse();
+    }
+
+    @Test
+    void next_link_should_be_read_from_link_header_entries() {
+        assertThat(ConnectorPages.nextLink("<https://a/x?p=2>; rel=\"next\"")).isEqualTo("https://a/x?p=2");
+        assertThat(ConnectorPages.nextLink("<https://a/x?p=1>; rel=prev, <https://a/x?p=3>; rel=next"))
+                .isEqualTo("https://a/x?p=3");
+        assertThat(ConnectorPages.nextLink("<https://a/x?p=9>; rel=\"last\"")).isNull();
+        assertThat(ConnectorPages.nextLink(null)).isNull();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectorPlanCacheTest {
+
+    private static final String CONFIG_A = "{\"url\": \"https://a.example.com\"}";
+    private static final String CONFIG_B = "{\"url\": \"https://b.example.com\"}";
+    private static final String CONFIG_C = "{\"url\": \"https://c.example.com\"}";
+
+    @Test
+    void should_return_same_plan_for_same_content() throws Exception {
+        ConnectorPlanCache cache = new ConnectorPlanCache(10);
+
+        ConnectorPlan first = cache.get(CONFIG_A);
+        ConnectorPlan second = cache.get(new String(CONFIG_A.toCharArray()));
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void should_compile_new_plan_when_config_changes() throws Exception {
+        ConnectorPlanCache cache = new ConnectorPlanCache(10);
+
+        ConnectorPlan before = cache.get(CONFIG_A);
+        ConnectorPlan after = cache.get(CONFIG_A.replace("a.example", "a2.example"));
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void should_evict_least_recently_used_plan() throws Exception {
+        ConnectorPlanCache cache = new ConnectorPlanCache(2);
+
+        ConnectorPlan a = cache.get(CONFIG_A);
+        cache.get(CONFIG_B);
+        cache.get(CONFIG_A); // A becomes most recently used
+        cache.get(CONFIG_C); // evicts B
+
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.stats().size()).isEqualTo(2);
+        assertThat(cache.get(CONFIG_A)).isSameAs(a);
+    }
+
+    @Test
+    void should_invalidate_single_and_all_plans() throws Exception {
+        ConnectorPlanCache cache = new ConnectorPlanCache(10);
+        ConnectorPlan a = cache.get(CONFIG_A);
+        cache.get(CONFIG_B);
+
+        assertThat(cache.invalidate(CONFIG_A)).isTrue();
+        assertThat(cache.invalidate(CONFIG_A)).isFalse();
+        assertThat(cache.get(CONFIG_A)).isNotSameAs(a);
+
+        cache.invalidateAll();
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    void should_not_cache_invalid_configs() {
+        ConnectorPlanCache cache = new ConnectorPlanCache(10);
+
+        assertThatThrownBy(() -> cache.get("not json")).isInstanceOf(JsonProcessingException.class);
+        assertThatThrownBy(() -> cache.get("{}")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    void should_reject_non_positive_max_size() {
+        assertThatThrownBy(() -> new ConnectorPlanCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_produce_stable_content_hash() {
+        assertThat(ConnectorPlanCache.contentHash(CONFIG_A))
+                .isEqualTo(ConnectorPlanCache.contentHash(CONFIG_A))
+                .isNotEqualTo(ConnectorPlanCache.contentHash(CONFIG_B))
+                .hasSize(64);
+    }
+}
@@ -0,0 +1,408 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.bonitasoft.processbuilder.records.RestAuthConfig;
+import com.bonitasoft.processbuilder.records.RestBulkheadOptions;
+import com.bonitasoft.processbuilder.records.RestConnectionOptions;
+import com.bonitasoft.processbuilder.records.RestCacheOptions;
+import com.bonitasoft.processbuilder.records.RestCircuitBreakerOptions;
+import com.bonitasoft.processbuilder.records.RestHedgePolicy;
+import com.bonitasoft.processbuilder.records.RestPagination;
+import com.bonitasoft.processbuilder.records.RestRateLimit;
+import com.bonitasoft.processbuilder.records.RestRequestCompression;
+import com.bonitasoft.processbuilder.records.RestRetryPolicy;
+import com.bonitasoft.processbuilder.records.RestResponseOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectorPlanTest {
+
+    private static final String NEW_CONFIG = """
+            {
+                "baseUrl": "https://api.example.com/{{version}}",
+                "headers": {"X-Tenant": "{{tenant}}"},
+                "methods": [
+                    {"name": "getUser", "httpMethod": "GET", "path": "/users/{{id}}",
+                     "queryParams": {"fields": "{{fields}}"},
+                     "placeholderConfig": {
+                         "tenant": {"mode": "FIXED", "value": "acme"},
+                         "fields": {"mode": "DEFAULT", "value": "id,name"}
+                     }},
+                    {"name": "getUser", "httpMethod": "DELETE", "path": "/duplicate"},
+                    {"name": "createUser", "httpMethod": "POST", "path": "/users",
+                     "bodyTemplate": "{\\"name\\": \\"{{name}}\\"}"}
+                ],
+                "auth": {"authType": "bearer", "token": "abc"},
+                "timeoutMs": 5000,
+                "verifySsl": false
+            }
+            """;
+
+    @Test
+    void should_index_methods_by_name_keeping_first_declaration() throws Exception {
+        ConnectorPlan plan = ConnectorPlan.compile(NEW_CONFIG);
+
+        assertThat(plan.structure()).isEqualTo(ConnectorPlan.Structure.NEW);
+        assertThat(plan.methodNames()).containsExactly("getUser", "createUser");
+        assertThat(plan.method("getUser")).get()
+                .extracting(ConnectorPlan.MethodPlan::httpMethod).isEqualTo(RestHttpMethod.GET);
+        assertThat(plan.method("unknown")).isEmpty();
+    }
+
+    @Test
+    void should_resolve_auth_once_at_compile_time() throws Exception {
+        ConnectorPlan plan = ConnectorPlan.compile(NEW_CONFIG);
+
+        assertThat(plan.auth()).isInstanceOf(RestAuthConfig.BearerAuth.class);
+    }
+
+    @Test
+    void should_build_request_with_placeholders_and_base_config() throws Exception {
+        ConnectorPlan plan = ConnectorPlan.compile(NEW_CONFIG);
+
+        RestServiceRequest request = plan.newRequestBuilder(ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUser")
+                .params(Map.of("version", "v2", "id", "42", "tenant", "ignored"))
+                .build()).build();
+
+        assertThat(request.url()).isEqualTo("https://api.example.com/v2/users/42");
+        assertThat(request.headers()).containsEntry("X-Tenant", "acme");
+        assertThat(request.queryParams()).containsEntry("fields", "id,name");
+        assertThat(request.timeoutMs()).isEqualTo(5000);
+        assertThat(request.verifySsl()).isFalse();
+    }
+
+    @Test
+    void should_render_body_template() throws Exception {
+        ConnectorPlan plan = ConnectorPlan.compile(NEW_CONFIG);
+
+        RestServiceRequest request = plan.newRequestBuilder(ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("createUser")
+                .params(Map.of("name", "Alice"))
+                .build()).build();
+
+        assertThat(request.method()).isEqualTo(RestHttpMethod.POST);
+        assertThat(request.body()).isEqualTo("{\"name\": \"Alice\"}");
+    }
+
+    @Test
+    void should_apply_method_response_mode() throws Exception {
+        String config = """
+                {"baseUrl": "https://files.example.com", "methods": [
+                    {"name": "download", "httpMethod": "GET", "path": "/content/{{id}}",
+                     "responseMode": "file", "spillThresholdBytes": 65536},
+                    {"name": "list", "httpMethod": "GET", "path": "/content"}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest download = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("download").params(Map.of("id", "7")).build()).build();
+        RestServiceRequest list = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("list").build()).build();
+
+        assertThat(download.responseOptions().mode()).isEqualTo(RestResponseMode.FILE);
+        assertThat(download.responseOptions().spillThresholdBytes()).isEqualTo(65536);
+        assertThat(list.responseOptions()).isEqualTo(RestResponseOptions.defaults());
+    }
+
+    @Test
+    void methods_should_inherit_config_level_size_limit() throws Exception {
+        String config = """
+                {"baseUrl": "https://files.example.com", "maxResponseBytes": 1048576, "methods": [
+                    {"name": "list", "httpMethod": "GET", "path": "/content"},
+                    {"name": "logs", "httpMethod": "GET", "path": "/logs",
+                     "maxResponseBytes": 4096, "truncateOversizedResponse": true}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        assertThat(plan.method("list")).get()
+                .extracting(method -> method.responseOptions().maxResponseBytes()).isEqualTo(1048576L);
+        assertThat(plan.method("logs")).get()
+                .extracting(ConnectorPlan.MethodPlan::responseOptions)
+                .isEqualTo(new RestResponseOptions(RestResponseMode.STRING, 0, 4096, true));
+    }
+
+    @Test
+    void methods_should_inherit_config_level_compression() throws Exception {
+        String config = """
+                {"baseUrl": "https://api.example.com", "acceptCompression": true, "methods": [
+                    {"name": "list", "httpMethod": "GET", "path": "/items"},
+                    {"name": "download", "httpMethod": "GET", "path": "/archive", "acceptCompression": false}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        assertThat(plan.method("list")).get()
+                .extracting(method -> method.responseOptions().acceptCompression()).isEqualTo(true);
+        assertThat(plan.method("download")).get()
+                .extracting(method -> method.responseOptions().acceptCompression()).isEqualTo(false);
+    }
+
+    @Test
+    void methods_should_declare_request_compression() throws Exception {
+        String config = """
+                {"baseUrl": "https://crm.example.com", "compressRequestThresholdBytes": 4096, "methods": [
+                    {"name": "upsert", "httpMethod": "POST", "path": "/bulk", "compressRequest": true},
+                    {"name": "create", "httpMethod": "POST", "path": "/items"}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest upsert = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("upsert").build()).build();
+        RestServiceRequest create = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("create").build()).build();
+
+        assertThat(upsert.requestCompression()).isEqualTo(RestRequestCompression.gzip(4096));
+        assertThat(create.requestCompression().enabled()).isFalse();
+    }
+
+    @Test
+    void methods_should_inherit_config_level_cache_options() throws Exception {
+        String config = """
+                {"baseUrl": "https://crm.example.com", "cacheTtlMs": 60000, "methods": [
+                    {"name": "list", "httpMethod": "GET", "path": "/items", "cacheStaleWhileRevalidateMs": 5000},
+                    {"name": "live", "httpMethod": "GET", "path": "/live", "cacheResponses": false}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest list = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("list").build()).build();
+        RestServiceRequest live = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("live").build()).build();
+
+        assertThat(list.cacheOptions()).isEqualTo(RestCacheOptions.ttl(60_000).withStaleWhileRevalidate(5_000));
+        assertThat(live.cacheOptions().enabled()).isFalse();
+    }
+
+    @Test
+    void methods_should_inherit_config_level_retry_policy() throws Exception {
+        String config = """
+                {"baseUrl": "https://crm.example.com", "maxRetries": 3, "waitTimeSeconds": 2, "methods": [
+                    {"name": "list", "httpMethod": "GET", "path": "/items"},
+                    {"name": "create", "httpMethod": "POST", "path": "/items", "maxRetries": 0}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest list = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("list").build()).build();
+        RestServiceRequest create = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("create").build()).build();
+
+        assertThat(list.retryPolicy()).isEqualTo(RestRetryPolicy.exponential(3, 2_000));
+        assertThat(create.retryPolicy().enabled()).isFalse();
+    }
+
+    @Test
+    void methods_should_inherit_config_level_circuit_breaker() throws Exception {
+        String config = """
+                {"baseUrl": "https://crm.example.com", "circuitBreaker": true, "circuitBreakerName": "crm",
+                 "methods": [
+                    {"name": "list", "httpMethod": "GET", "path": "/items", "circuitBreakerOpenMs": 5000},
+                    {"name": "export", "httpMethod": "GET", "path": "/export", "circuitBreaker": false}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest list = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("list").build()).build();
+        RestServiceRequest export = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("export").build()).build();
+
+        assertThat(list.circuitBreakerOptions().enabled()).isTrue();
+        assertThat(list.circuitBreakerOptions().name()).isEqualTo("crm");
+        assertThat(list.circuitBreakerOptions().openMs()).isEqualTo(5_000);
+        assertThat(export.circuitBreakerOptions().enabled()).isFalse();
+        assertThat(RestServiceRequest.get("https://crm.example.com").circuitBreakerOptions())
+                .isEqualTo(RestCircuitBreakerOptions.disabled());
+    }
+
+    @Test
+    void methods_should_inherit_config_level_rate_limit() throws Exception {
+        String config = """
+                {"baseUrl": "https://api.hubapi.com", "rateLimitPerSecond": 10, "rateLimitBurst": 5,
+                 "rateLimitScope": "credential", "methods": [
+                    {"name": "list", "httpMethod": "GET", "path": "/contacts"},
+                    {"name": "search", "httpMethod": "POST", "path": "/contacts/search", "rateLimitPerSecond": 4}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest list = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("list").build()).build();
+        RestServiceRequest search = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("search").build()).build();
+
+        assertThat(list.rateLimit()).isEqualTo(new RestRateLimit(10, 5, RestRateLimit.DEFAULT_MAX_WAIT_MS, null, true));
+        assertThat(search.rateLimit().permitsPerSecond()).isEqualTo(4);
+        assertThat(search.rateLimit().burst()).isEqualTo(5);
+    }
+
+    @Test
+    void methods_should_inherit_config_level_bulkhead() throws Exception {
+        String config = """
+                {"baseUrl": "https://erp.example.com", "bulkhead": true, "bulkheadMaxConcurrent": 4,
+                 "methods": [
+                    {"name": "list", "httpMethod": "GET", "path": "/orders"},
+                    {"name": "report", "httpMethod": "GET", "path": "/report", "bulkheadMaxConcurrent": 1,
+                     "bulkheadMaxQueue": 0}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest list = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("list").build()).build();
+        RestServiceRequest report = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("report").build()).build();
+
+        assertThat(list.bulkheadOptions())
+                .isEqualTo(RestBulkheadOptions.fixed(4, RestBulkheadOptions.DEFAULT_MAX_QUEUE));
+        assertThat(report.bulkheadOptions()).isEqualTo(RestBulkheadOptions.fixed(1, 0));
+    }
+
+    @Test
+    void methods_should_inherit_config_level_hedge_policy() throws Exception {
+        String config = """
+                {"baseUrl": "https://geo.example.com", "hedge": true, "hedgeDelayMs": 250,
+                 "methods": [
+                    {"name": "lookup", "httpMethod": "GET", "path": "/lookup"},
+                    {"name": "upload", "httpMethod": "POST", "path": "/upload", "hedge": false}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest lookup = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("lookup").build()).build();
+        RestServiceRequest upload = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("upload").build()).build();
+
+        assertThat(lookup.hedgePolicy()).isEqualTo(RestHedgePolicy.after(250));
+        assertThat(upload.hedgePolicy().enabled()).isFalse();
+    }
+
+    @Test
+    void methods_should_inherit_config_level_pagination() throws Exception {
+        String config = """
+                {"baseUrl": "https://instance.service-now.com", "pagination": "linkHeader",
+                 "paginationItemsPath": "result",
+                 "methods": [
+                    {"name": "incidents", "httpMethod": "GET", "path": "/api/now/table/incident"},
+                    {"name": "incident", "httpMethod": "GET", "path": "/api/now/table/incident/{{id}}",
+                     "pagination": "none"}
+                ]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        assertThat(plan.pagination("incidents")).isEqualTo(RestPagination.linkHeader("result"));
+        assertThat(plan.pagination("incident").enabled()).isFalse();
+        assertThat(plan.pagination("unknown")).isEqualTo(RestPagination.linkHeader("result"));
+    }
+
+    @Test
+    void should_apply_config_level_connection_options() throws Exception {
+        String config = """
+                {"baseUrl": "https://api.example.com", "followRedirects": false,
+                 "httpVersion": "HTTP/1.1", "connectTimeoutMs": 2000,
+                 "proxyHost": "proxy.corp", "proxyPort": 3128,
+                 "methods": [{"name": "list", "httpMethod": "GET", "path": "/items"}]}
+                """;
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        RestServiceRequest request = plan.newRequestBuilder(ConnectorRequest.builder(config)
+                .methodName("list").build()).build();
+
+        assertThat(request.followRedirects()).isFalse();
+        assertThat(request.connectionOptions())
+                .isEqualTo(new RestConnectionOptions(HttpClient.Version.HTTP_1_1, 2000, "proxy.corp", 3128));
+    }
+
+    @Test
+    void warm_up_request_should_probe_base_url_with_config_settings() throws Exception {
+        String config = """
+                {"baseUrl": "https://api.example.com/v1", "verifySsl": false, "timeoutMs": 4000,
+                 "methods": [{"name": "list", "httpMethod": "GET", "path": "/items"}],
+                 "auth": {"authType": "bearer", "token": "abc"}}
+                """;
+
+        ConnectorPlan plan = ConnectorPlan.compile(config);
+
+        assertThat(plan.endpoint()).isEqualTo("https://api.example.com/v1");
+        assertThat(plan.warmUpRequest()).get().satisfies(request -> {
+            assertThat(request.url()).isEqualTo("https://api.example.com/v1");
+            assertThat(request.method()).isEqualTo(RestHttpMethod.HEAD);
+            assertThat(request.verifySsl()).isFalse();
+            assertThat(request.timeoutMs()).isEqualTo(4000);
+            assertThat(request.auth()).isInstanceOf(RestAuthConfig.BearerAuth.class);
+        });
+    }
+
+    @Test
+    void warm_up_request_should_be_empty_for_templated_base_url() throws Exception {
+        assertThat(ConnectorPlan.compile(NEW_CONFIG).warmUpRequest()).isEmpty();
+    }
+
+    @Test
+    void should_reuse_plan_for_different_requests() throws Exception {
+        ConnectorPlan plan = ConnectorPlan.compile(NEW_CONFIG);
+
+        RestServiceRequest first = plan.newRequestBuilder(ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUser").params(Map.of("id", "1")).build()).build();
+        RestServiceRequest second = plan.newRequestBuilder(ConnectorRequest.builder(NEW_CONFIG)
+                .methodName("getUser").params(Map.of("id", "2")).build()).build();
+
+        assertThat(first.url()).endsWith("/users/1");
+        assertThat(second.url()).endsWith("/users/2");
+    }
+
+    @Test
+    void should_compile_legacy_structure() throws Exception {
+        String legacy = """
+                {"url": "https://legacy.example.com/api", "method": "PUT",
+                 "headers": {"Accept": "application/json"}, "queryParams": {"a": "1"}}
+                """;
+
+        ConnectorPlan plan = ConnectorPlan.compile(legacy);
+        RestServiceRequest request = plan.newRequestBuilder(ConnectorRequest.builder(legacy)
+                .queryParam("b", "2").build()).build();
+
+        assertThat(plan.structure()).isEqualTo(ConnectorPlan.Structure.LEGACY);
+        assertThat(plan.methodNames()).isEmpty();
+        assertThat(request.method()).isEqualTo(RestHttpMethod.PUT);
+        assertThat(request.queryParams()).containsEntry("a", "1").containsEntry("b", "2");
+        assertThat(request.headers()).containsEntry("Accept", "application/json");
+    }
+
+    @Test
+    void should_reject_invalid_structures() {
+        assertThatThrownBy(() -> ConnectorPlan.compile("{}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid configuration");
+        assertThatThrownBy(() -> ConnectorPlan.compile("{\"baseUrl\": \"https://x\", \"methods\": {}}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'methods' array");
+    }
+
+    @Test
+    void should_reject_missing_or_unknown_method_name() throws Exception {
+        ConnectorPlan plan = ConnectorPlan.compile(NEW_CONFIG);
+
+        assertThatThrownBy(() -> plan.newRequestBuilder(ConnectorRequest.builder(NEW_CONFIG).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("methodName is required")
+                .hasMessageContaining("getUser, createUser");
+        assertThatThrownBy(() -> plan.newRequestBuilder(ConnectorRequest.builder(NEW_CONFIG).methodName("x").build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Method 'x' not found");
+    }
+}
@@ -77,6 +77,20 @@ class ConnectorRequestTest {
         assertThat(request.pathOverride()).isEmpty();
     }
 
+    @Test
+    void should_carry_streamed_file_upload() {
+        UploadSource source = UploadSource.ofBytes(new byte[]{1, 2, 3});
+
+        ConnectorRequest streamed = ConnectorRequest.builder("{}").fileUpload(source).build();
+        ConnectorRequest encoded = ConnectorRequest.builder("{}").fileContentBase64("AQID").build();
+
+        assertThat(streamed.fileUpload()).isSameAs(source);
+        assertThat(streamed.hasFileUpload()).isTrue();
+        assertThat(encoded.fileUpload()).isNull();
+        assertThat(encoded.hasFileUpload()).isTrue();
+        assertThat(ConnectorRequest.builder("{}").build().hasFileUpload()).isFalse();
+    }
+
     @Test
     void should_make_params_immutable() {
         ConnectorRequest request = ConnectorRequest.builder("{}")
@@ -0,0 +1,124 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CredentialCacheTest {
+
+    private record Credential(String value, long expiresAt) {}
+
+    private static Credential valid(String value) {
+        return new Credential(value, System.currentTimeMillis() + 60_000);
+    }
+
+    private static Credential expired(String value) {
+        return new Credential(value, System.currentTimeMillis() - 1);
+    }
+
+    private final CredentialCache<Credential> cache = new CredentialCache<>("test", 2, Credential::expiresAt);
+
+    @Test
+    void should_count_hits_misses_and_loads() {
+        assertThat(cache.get("t1", "key")).isNull();
+        cache.put("t1", "key", valid("v"));
+
+        assertThat(cache.get("t1", "key").value()).isEqualTo("v");
+
+        CredentialCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.loads()).isEqualTo(1);
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void should_scope_entries_by_tenant() {
+        cache.put("t1", "key", valid("one"));
+        cache.put("t2", "key", valid("two"));
+
+        assertThat(cache.get("t1", "key").value()).isEqualTo("one");
+        assertThat(cache.get("t2", "key").value()).isEqualTo("two");
+        assertThat(cache.invalidateTenant("t1")).isEqualTo(1);
+        assertThat(cache.get("t1", "key")).isNull();
+        assertThat(cache.get("t2", "key")).isNotNull();
+    }
+
+    @Test
+    void should_map_blank_tenant_to_default_tenant() {
+        cache.put(null, "key", valid("v"));
+
+        assertThat(cache.get(CredentialCache.DEFAULT_TENANT, "key")).isNotNull();
+        assertThat(cache.get(" ", "key")).isNotNull();
+    }
+
+    @Test
+    void should_evict_least_recently_used_entry_when_full() {
+        cache.put("t", "a", valid("a"));
+        cache.put("t", "b", valid("b"));
+        cache.get("t", "a");
+        cache.put("t", "c", valid("c"));
+
+        assertThat(cache.peek("t", "a")).isNotNull();
+        assertThat(cache.peek("t", "b")).isNull();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_drop_expired_entry_on_lookup() {
+        cache.put("t", "key", expired("v"));
+
+        assertThat(cache.peek("t", "key")).isNotNull();
+        assertThat(cache.get("t", "key")).isNull();
+        assertThat(cache.peek("t", "key")).isNull();
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void should_sweep_expired_entries() {
+        cache.put("t", "old", expired("old"));
+        cache.put("t", "new", valid("new"));
+
+        assertThat(cache.sweepExpired()).isEqualTo(1);
+        assertThat(cache.stats().size()).isEqualTo(1);
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void should_sweep_on_writes_at_most_once_per_interval() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        CredentialCache<Credential> swept = new CredentialCache<>("test", 10, Credential::expiresAt, now::get);
+        swept.put("t", "old", new Credential("old", now.get() + 10));
+
+        now.addAndGet(100);
+        swept.put("t", "within", new Credential("within", now.get() + 10));
+        assertThat(swept.stats().size()).isEqualTo(2);
+
+        now.addAndGet(CredentialCache.SWEEP_INTERVAL_MS);
+        swept.put("t", "new", new Credential("new", now.get() + 60_000));
+        assertThat(swept.stats().size()).isEqualTo(1);
+        assertThat(swept.stats().expirations()).isEqualTo(2);
+    }
+
+    @Test
+    void should_invalidate_single_entry_and_all_entries() {
+        cache.put("t", "a", valid("a"));
+        cache.put("t", "b", valid("b"));
+
+        assertThat(cache.invalidate("t", "a")).isTrue();
+        assertThat(cache.invalidate("t", "a")).isFalse();
+        cache.invalidateAll();
+        assertThat(cache.stats().size()).isZero();
+        assertThat(cache.stats().loads()).isEqualTo(2);
+    }
+
+    @Test
+    void should_reject_non_positive_max_size() {
+        assertThatThrownBy(() -> new CredentialCache<Credential>("bad", 0, Credential::expiresAt))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestContentType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskResponseCacheStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static CachedResponse entry(String body) {
+        return new CachedResponse(200, Map.of("ETag", "\"v1\""), body.getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.ISO_8859_1, RestContentType.JSON, "https://api.example.com", 5, 10, 20);
+    }
+
+    @Test
+    void should_round_trip_entries() {
+        DiskResponseCacheStore store = new DiskResponseCacheStore(directory, 1024 * 1024);
+
+        store.put("key", entry("{\"id\":1}"));
+        CachedResponse read = store.get("key");
+
+        assertThat(new String(read.body(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        assertThat(read.headers()).containsEntry("ETag", "\"v1\"");
+        assertThat(read.charset()).isEqualTo(StandardCharsets.ISO_8859_1);
+        assertThat(read.contentType()).isEqualTo(RestContentType.JSON);
+        assertThat(read.freshUntil()).isEqualTo(10);
+        assertThat(read.staleUntil()).isEqualTo(20);
+    }
+
+    @Test
+    void should_reload_entries_after_restart() {
+        new DiskResponseCacheStore(directory, 1024 * 1024).put("key", entry("cached"));
+
+        DiskResponseCacheStore reopened = new DiskResponseCacheStore(directory, 1024 * 1024);
+
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get("key")).isNotNull();
+    }
+
+    @Test
+    void should_evict_over_byte_budget() {
+        DiskResponseCacheStore store = new DiskResponseCacheStore(directory, 1024 * 1024);
+        store.put("a", entry("x".repeat(600)));
+        long entryBytes = store.sizeBytes();
+        DiskResponseCacheStore bounded = new DiskResponseCacheStore(directory, entryBytes * 2);
+
+        bounded.put("b", entry("x".repeat(600)));
+        bounded.put("c", entry("x".repeat(600)));
+
+        assertThat(bounded.get("a")).isNull();
+        assertThat(bounded.size()).isEqualTo(2);
+        assertThat(bounded.sizeBytes()).isLessThanOrEqualTo(entryBytes * 2);
+    }
+
+    @Test
+    void should_hash_keys_that_are_not_file_names() {
+        DiskResponseCacheStore store = new DiskResponseCacheStore(directory, 1024 * 1024);
+
+        store.put("../escape:key", entry("value"));
+
+        assertThat(store.get("../escape:key")).isNotNull();
+        assertThat(directory.getParent().resolve("escape:key.entry")).doesNotExist();
+    }
+
+    @Test
+    void should_drop_unreadable_files() throws Exception {
+        DiskResponseCacheStore store = new DiskResponseCacheStore(directory, 1024 * 1024);
+        store.put("key", entry("value"));
+        Files.write(directory.resolve("key.entry"), new byte[] {0, 0, 0, 1, 0});
+
+        assertThat(store.get("key")).isNull();
+        assertThat(store.size()).isZero();
+    }
+}
@@ -0,0 +1,153 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldMappingTest {
+
+    private static final String USER = """
+            {
+                "data": {
+                    "id": "u-1",
+                    "profile": {"name": "Alice", "tags": ["admin", "ops"]},
+                    "emails": [{"value": "alice@example.com"}, {"value": "a@example.com"}]
+                },
+                "@odata.count": 1,
+                "deleted": null
+            }
+            """;
+
+    @Test
+    void should_extract_values_by_path_in_declaration_order() throws IOException {
+        FieldMapping mapping = FieldMapping.compile("""
+                {"name": "data.profile.name", "id": "$.data.id", "email": "data.emails[1].value",
+                 "profile": "data.profile", "count": "['@odata.count']"}
+                """);
+
+        ObjectNode mapped = mapping.apply(USER);
+
+        assertThat(mapping.names()).containsExactly("name", "id", "email", "profile", "count");
+        assertThat(mapped.toString()).isEqualTo("{\"name\":\"Alice\",\"id\":\"u-1\",\"email\":\"a@example.com\","
+                + "\"profile\":{\"name\":\"Alice\",\"tags\":[\"admin\",\"ops\"]},\"count\":1}");
+    }
+
+    @Test
+    void wildcard_paths_should_collect_every_match() throws IOException {
+        FieldMapping mapping = FieldMapping.compile(
+                "{\"emails\": \"data.emails[*].value\", \"ids\": \"items[*].id\", \"tags\": \"data.profile.tags[*]\"}");
+
+        ObjectNode mapped = mapping.apply(USER);
+
+        assertThat(mapped.get("emails").toString()).isEqualTo("[\"alice@example.com\",\"a@example.com\"]");
+        assertThat(mapped.get("ids").isArray()).isTrue();
+        assertThat(mapped.get("ids")).isEmpty();
+        assertThat(mapped.get("tags")).hasSize(2);
+    }
+
+    @Test
+    void paths_below_a_captured_value_should_be_resolved_on_it() throws IOException {
+        FieldMapping mapping = FieldMapping.compile(
+                "{\"profile\": \"data.profile\", \"firstTag\": \"data.profile.tags[0]\"}");
+
+        ObjectNode mapped = mapping.apply(USER);
+
+        assertThat(mapped.get("profile").get("name").asText()).isEqualTo("Alice");
+        assertThat(mapped.get("firstTag").asText()).isEqualTo("admin");
+    }
+
+    @Test
+    void missing_and_null_values_should_be_mapped_to_null() throws IOException {
+        FieldMapping mapping = FieldMapping.compile(
+                "{\"missing\": \"data.unknown\", \"deleted\": \"deleted\", \"beyond\": \"data.emails[5].value\"}");
+
+        ObjectNode mapped = mapping.apply(USER);
+
+        assertThat(mapped.get("missing").isNull()).isTrue();
+        assertThat(mapped.get("deleted").isNull()).isTrue();
+        assertThat(mapped.get("beyond").isNull()).isTrue();
+    }
+
+    @Test
+    void reading_should_stop_once_every_value_is_found() throws IOException {
+        AtomicInteger read = new AtomicInteger();
+        byte[] json = ("{\"id\": 7, \"rest\": \"" + "x".repeat(200_000) + "\"}").getBytes(StandardCharsets.UTF_8);
+        InputStream counted = new ByteArrayInputStream(json) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                int n = super.read(b, off, len);
+                read.addAndGet(Math.max(n, 0));
+                return n;
+            }
+        };
+
+        ObjectNode mapped = FieldMapping.compile("{\"id\": \"id\"}")
+                .apply(new ResponseBody.Stream(counted, StandardCharsets.UTF_8));
+
+        assertThat(mapped.get("id").asInt()).isEqualTo(7);
+        assertThat(read.get()).isLessThan(json.length);
+    }
+
+    @Test
+    void should_read_bytes_and_file_bodies_in_their_charset(@TempDir Path dir) throws IOException {
+        FieldMapping mapping = FieldMapping.compile("{\"name\": \"data.profile.name\"}");
+        String json = USER.replace("Alice", "Zoë");
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+        Path file = dir.resolve("body.json");
+        Files.write(file, json.getBytes(latin1));
+
+        ObjectNode fromBytes = mapping.apply(ResponseBody.ofBytes(json.getBytes(latin1), latin1));
+        ObjectNode fromFile = mapping.apply(new ResponseBody.TempFile(file, Files.size(file), latin1));
+        ObjectNode fromUtf8 = mapping.apply(ResponseBody.ofBytes(json.getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8));
+
+        assertThat(fromBytes.get("name").asText()).isEqualTo("Zoë");
+        assertThat(fromFile.get("name").asText()).isEqualTo("Zoë");
+        assertThat(fromUtf8.get("name").asText()).isEqualTo("Zoë");
+        assertThat(file).exists();
+    }
+
+    @Test
+    void should_reject_invalid_json() {
+        FieldMapping mapping = FieldMapping.compile("{\"id\": \"id\"}");
+
+        assertThatThrownBy(() -> mapping.apply("not json")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void should_reject_invalid_mappings() {
+        assertThatThrownBy(() -> FieldMapping.compile("[\"id\"]"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expected an object");
+        assertThatThrownBy(() -> FieldMapping.compile("{\"id\": 1}"))
+                .hasMessageContaining("must be a string");
+        assertThatThrownBy(() -> FieldMapping.compile("{\"id\": \"items[x]\"}"))
+                .hasMessageContaining("path 'items[x]'");
+        assertThatThrownBy(() -> FieldMapping.compile("{\"id\": \"items[0\"}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldMapping.compile("{broken"))
+                .hasMessageStartingWith("Invalid fieldMapping JSON");
+    }
+
+    @Test
+    void of_should_cache_compiled_mappings() {
+        String json = "{\"id\": \"data.id\"}";
+
+        assertThat(FieldMapping.of(json)).isSameAs(FieldMapping.of(json));
+        assertThat(FieldMapping.of(null)).isNull();
+        assertThat(FieldMapping.of("  ")).isNull();
+    }
+}
@@ -0,0 +1,134 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipBodyPublisherTest {
+
+    private static final byte[] JSON = "{\"id\":1,\"name\":\"item\"},".repeat(20_000).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void should_gzip_body_chunk_by_chunk() throws IOException {
+        // 7-byte chunks: most of them deflate to nothing and must not stall the exchange
+        HttpRequest.BodyPublisher source = HttpRequest.BodyPublishers.ofInputStream(() -> trickle(JSON, 7));
+
+        byte[] compressed = collect(new GzipBodyPublisher(source));
+
+        assertThat(gunzip(compressed)).isEqualTo(JSON);
+        assertThat(compressed.length).isLessThan(JSON.length / 10);
+    }
+
+    @Test
+    void should_have_unknown_length_and_support_resubscription() throws IOException {
+        GzipBodyPublisher publisher = new GzipBodyPublisher(HttpRequest.BodyPublishers.ofByteArray(JSON));
+
+        assertThat(publisher.contentLength()).isEqualTo(-1);
+        assertThat(gunzip(collect(publisher))).isEqualTo(JSON);
+        assertThat(gunzip(collect(publisher))).isEqualTo(JSON);
+    }
+
+    @Test
+    void should_produce_valid_gzip_for_empty_body() throws IOException {
+        byte[] compressed = collect(new GzipBodyPublisher(HttpRequest.BodyPublishers.noBody()));
+
+        assertThat(gunzip(compressed)).isEmpty();
+    }
+
+    @Test
+    void should_stop_compressing_once_the_client_cancels() {
+        HttpRequest.BodyPublisher source = HttpRequest.BodyPublishers.ofInputStream(() -> trickle(JSON, 4096));
+        List<String> signals = new ArrayList<>();
+
+        new GzipBodyPublisher(source).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                signals.add("next");
+                subscription.cancel();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add("error " + throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+        });
+
+        assertThat(signals).containsExactly("next");
+    }
+
+    private static InputStream trickle(byte[] bytes, int chunkSize) {
+        return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, chunkSize));
+            }
+        };
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /** Subscribes like the HTTP client does, one buffer at a time. */
+    private static byte[] collect(HttpRequest.BodyPublisher publisher) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                out.write(bytes, 0, bytes.length);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(out.toByteArray());
+            }
+        });
+        return done.join();
+    }
+}
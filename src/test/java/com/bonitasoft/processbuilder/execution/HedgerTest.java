@@ -0,0 +1,143 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestHedgePolicy;
+import com.bonitasoft.processbuilder.records.RestRateLimit;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgerTest {
+
+    private static final String URL = "https://api.example.com/rates";
+
+    private final List<Runnable> timers = new ArrayList<>();
+    private final List<Long> timerDelays = new ArrayList<>();
+    private final HedgerRegistry registry = new HedgerRegistry(delayMs -> {
+        timerDelays.add(delayMs);
+        return timers::add;
+    }, () -> 0L);
+    private final List<CompletableFuture<RestServiceResponse>> calls = new ArrayList<>();
+
+    private CompletableFuture<RestServiceResponse> send(RestServiceRequest request) {
+        CompletableFuture<RestServiceResponse> call = new CompletableFuture<>();
+        calls.add(call);
+        return call;
+    }
+
+    private static RestServiceRequest get(RestHedgePolicy policy) {
+        return RestServiceRequest.builder(URL).hedgePolicy(policy).build();
+    }
+
+    @Test
+    void should_use_p95_delay_once_enough_latencies_are_observed() {
+        Hedger hedger = new Hedger("api", RestHedgePolicy.atP95());
+
+        assertThat(hedger.onCall()).isEqualTo(-1);
+        for (int i = 1; i <= 100; i++) {
+            hedger.onResult(i, false);
+        }
+
+        assertThat(hedger.onCall()).isEqualTo(95);
+        assertThat(hedger.snapshot().p95LatencyMs()).isEqualTo(95);
+    }
+
+    @Test
+    void should_cap_hedges_at_the_configured_share_of_calls() {
+        Hedger hedger = new Hedger("api", new RestHedgePolicy(true, 100, 10, null));
+
+        int hedges = 0;
+        for (int i = 0; i < 100; i++) {
+            hedger.onCall();
+            if (hedger.tryHedge()) {
+                hedges++;
+            }
+        }
+
+        assertThat(hedges).isEqualTo(10);
+        assertThat(hedger.snapshot().budgetExhaustedCalls()).isEqualTo(90);
+    }
+
+    @Test
+    void hedge_should_win_when_it_answers_first_and_cancel_the_primary() {
+        CompletableFuture<RestServiceResponse> result = registry.execute(get(RestHedgePolicy.after(100)), this::send);
+        timers.get(0).run();
+        calls.get(1).complete(response(200, "hedge"));
+
+        assertThat(timerDelays).containsExactly(100L);
+        assertThat(result.join().body()).isEqualTo("hedge");
+        assertThat(calls.get(0)).isCancelled();
+        assertThat(registry.snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.hedgedCalls()).isEqualTo(1);
+            assertThat(snapshot.hedgeWins()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void fast_primary_should_not_be_hedged() {
+        CompletableFuture<RestServiceResponse> result = registry.execute(get(RestHedgePolicy.after(100)), this::send);
+        calls.get(0).complete(response(200, "primary"));
+        timers.get(0).run();
+
+        assertThat(result.join().body()).isEqualTo("primary");
+        assertThat(calls).hasSize(1);
+        assertThat(registry.snapshot().get(0).hedgedCalls()).isZero();
+    }
+
+    @Test
+    void connection_failure_should_not_win_while_the_other_call_is_pending() {
+        CompletableFuture<RestServiceResponse> result = registry.execute(get(RestHedgePolicy.after(100)), this::send);
+        timers.get(0).run();
+        calls.get(0).complete(RestServiceResponse.error("Connection reset", 5, URL));
+
+        assertThat(result).isNotDone();
+        calls.get(1).complete(response(200, "hedge"));
+
+        assertThat(result.join().body()).isEqualTo("hedge");
+    }
+
+    @Test
+    void losing_hedge_should_not_be_sent_once_its_rate_limit_turn_comes() {
+        RateLimiterRegistry limiters = new RateLimiterRegistry(delayMs -> {
+            timerDelays.add(delayMs);
+            return timers::add;
+        }, () -> 0L);
+        RestServiceRequest request = RestServiceRequest.builder(URL).hedgePolicy(RestHedgePolicy.after(100))
+                .rateLimit(new RestRateLimit(1, 1, 5_000, null, false)).build();
+
+        CompletableFuture<RestServiceResponse> result =
+                registry.execute(request, r -> limiters.execute(r, null, this::send));
+        // The hedge starts, then waits a second for its turn while the primary answers
+        timers.get(0).run();
+        calls.get(0).complete(response(200, "primary"));
+        timers.get(1).run();
+
+        assertThat(timerDelays).containsExactly(100L, 1_000L);
+        assertThat(result.join().body()).isEqualTo("primary");
+        assertThat(calls).hasSize(1);
+        assertThat(registry.snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.hedgedCalls()).isEqualTo(1);
+            assertThat(snapshot.hedgeWins()).isZero();
+        });
+        assertThat(limiters.snapshot().get(0).queuedCalls()).isZero();
+    }
+
+    @Test
+    void should_not_hedge_requests_with_side_effects_or_unbuffered_bodies() {
+        assertThat(HedgerRegistry.handles(get(RestHedgePolicy.after(100)))).isTrue();
+        assertThat(HedgerRegistry.handles(get(RestHedgePolicy.none()))).isFalse();
+        assertThat(HedgerRegistry.handles(RestServiceRequest.builder(URL).post().body("{}")
+                .hedgePolicy(RestHedgePolicy.after(100)).build())).isFalse();
+    }
+
+    private static RestServiceResponse response(int statusCode, String body) {
+        return RestServiceResponse.success(statusCode, Map.of(), ResponseBody.ofText(body), null, 1, URL);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.RestConnectionOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpClientPoolTest {
+
+    private static final HttpClientPool.Key DEFAULT_KEY =
+            new HttpClientPool.Key(true, true, null, 30_000, null, 0);
+
+    @Test
+    void same_key_should_reuse_the_client() {
+        HttpClientPool pool = new HttpClientPool(4);
+
+        HttpClient first = pool.client(DEFAULT_KEY);
+        HttpClient second = pool.client(new HttpClientPool.Key(true, true, null, 30_000, null, 0));
+
+        assertThat(second).isSameAs(first);
+        assertThat(pool.stats()).isEqualTo(new HttpClientPool.Stats(1, 1, 0, 1, 4));
+    }
+
+    @Test
+    void client_should_honor_the_key() {
+        HttpClientPool pool = new HttpClientPool(4);
+
+        HttpClient client = pool.client(new HttpClientPool.Key(false, false, HttpClient.Version.HTTP_1_1,
+                1_500, "proxy.corp", 3128));
+
+        assertThat(client.followRedirects()).isEqualTo(HttpClient.Redirect.NEVER);
+        assertThat(client.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+        assertThat(client.connectTimeout()).contains(Duration.ofMillis(1_500));
+        assertThat(client.proxy()).isPresent();
+        assertThat(client.sslContext()).isNotSameAs(pool.client(DEFAULT_KEY).sslContext());
+    }
+
+    @Test
+    void client_should_prefer_http2_by_default() {
+        HttpClientPool pool = new HttpClientPool(4);
+
+        assertThat(pool.client(DEFAULT_KEY).version()).isEqualTo(HttpClient.Version.HTTP_2);
+    }
+
+    @Test
+    void distinct_keys_should_get_distinct_clients() {
+        HttpClientPool pool = new HttpClientPool(4);
+
+        HttpClient secure = pool.client(DEFAULT_KEY);
+        HttpClient insecure = pool.client(DEFAULT_KEY.withVerifySsl(false));
+
+        assertThat(insecure).isNotSameAs(secure);
+        assertThat(pool.stats().creations()).isEqualTo(2);
+    }
+
+    @Test
+    void full_pool_should_drop_least_recently_used_client() {
+        HttpClientPool pool = new HttpClientPool(2);
+        HttpClientPool.Key shortTimeout = new HttpClientPool.Key(true, true, null, 1_000, null, 0);
+        HttpClientPool.Key noRedirects = new HttpClientPool.Key(true, false, null, 30_000, null, 0);
+
+        HttpClient first = pool.client(DEFAULT_KEY);
+        pool.client(shortTimeout);
+        pool.client(DEFAULT_KEY);
+        pool.client(noRedirects);
+
+        assertThat(pool.stats().evictions()).isEqualTo(1);
+        assertThat(pool.stats().size()).isEqualTo(2);
+        assertThat(pool.client(DEFAULT_KEY)).isSameAs(first);
+    }
+
+    @Test
+    void key_should_default_to_a_fixed_connect_timeout_shared_by_every_request_timeout() {
+        RestServiceRequest request = RestServiceRequest.builder("https://api.example.com")
+                .timeout(5_000).verifySsl(false).followRedirects(false).build();
+        RestServiceRequest longer = RestServiceRequest.builder("https://api.example.com")
+                .timeout(60_000).verifySsl(false).followRedirects(false).build();
+
+        assertThat(HttpClientPool.Key.of(request)).isEqualTo(new HttpClientPool.Key(false, false, null,
+                HttpClientPool.DEFAULT_CONNECT_TIMEOUT_MS, null, 0));
+        assertThat(HttpClientPool.Key.of(longer)).isEqualTo(HttpClientPool.Key.of(request));
+    }
+
+    @Test
+    void key_should_use_declared_connection_options() {
+        RestServiceRequest request = RestServiceRequest.builder("https://api.example.com")
+                .connectionOptions(new RestConnectionOptions(HttpClient.Version.HTTP_2, 800, "proxy.corp", 0))
+                .build();
+
+        assertThat(HttpClientPool.Key.of(request)).isEqualTo(new HttpClientPool.Key(true, true,
+                HttpClient.Version.HTTP_2, 800, "proxy.corp", RestConnectionOptions.DEFAULT_PROXY_PORT));
+    }
+
+    @Test
+    void invalid_size_should_be_rejected() {
+        assertThatThrownBy(() -> new HttpClientPool(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,1011 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestAuthConfig;
+import com.bonitasoft.processbuilder.records.RestBulkheadOptions;
+import com.bonitasoft.processbuilder.records.RestCacheOptions;
+import com.bonitasoft.processbuilder.records.RestCircuitBreakerOptions;
+import com.bonitasoft.processbuilder.records.RestHedgePolicy;
+import com.bonitasoft.processbuilder.records.RestRateLimit;
+import com.bonitasoft.processbuilder.records.RestRequestCompression;
+import com.bonitasoft.processbuilder.records.RestResponseOptions;
+import com.bonitasoft.processbuilder.records.RestRetryPolicy;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for HttpExecutor against an embedded JDK HTTP server.
+ */
+class HttpExecutorTest {
+
+    private static final byte[] BINARY = new byte[200_000];
+
+    static {
+        new Random(42).nextBytes(BINARY);
+    }
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger tokenCalls = new AtomicInteger();
+    private final AtomicInteger shortTokenCalls = new AtomicInteger();
+    private final AtomicInteger bonitaLogins = new AtomicInteger();
+    private final AtomicInteger passwordGrants = new AtomicInteger();
+    private final AtomicInteger refreshGrants = new AtomicInteger();
+    private final AtomicInteger catalogCalls = new AtomicInteger();
+    private final AtomicInteger notModifiedCalls = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+    private final AtomicInteger serverErrorCalls = new AtomicInteger();
+    private final AtomicInteger firstSlowCalls = new AtomicInteger();
+    private final AtomicInteger binaryCalls = new AtomicInteger();
+    private volatile boolean rejectRefreshTokens;
+    private final Set<String> validBonitaSessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean nextBonitaLoginWithoutApiToken;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        HttpExecutor.invalidateAllCredentials();
+        HttpExecutor.circuitBreakers().reset();
+        HttpExecutor.rateLimiters().reset();
+        HttpExecutor.bulkheads().reset();
+        HttpExecutor.hedgers().reset();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/token", exchange -> {
+            tokenCalls.incrementAndGet();
+            respond(exchange, 200, "{\"access_token\":\"token-1\",\"token_type\":\"Bearer\"}");
+        });
+        server.createContext("/short-token", exchange -> {
+            int call = shortTokenCalls.incrementAndGet();
+            respond(exchange, 200, "{\"access_token\":\"short-" + call + "\",\"expires_in\":1}");
+        });
+        server.createContext("/password-token", exchange -> {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (form.startsWith("grant_type=password")) {
+                int call = passwordGrants.incrementAndGet();
+                respond(exchange, 200, "{\"access_token\":\"pw-" + call
+                        + "\",\"expires_in\":1,\"refresh_token\":\"rt-1\"}");
+            } else if (form.contains("refresh_token=rt-1") && !rejectRefreshTokens) {
+                int call = refreshGrants.incrementAndGet();
+                respond(exchange, 200, "{\"access_token\":\"refreshed-" + call + "\",\"expires_in\":1}");
+            } else {
+                respond(exchange, 400, "{\"error\":\"invalid_grant\"}");
+            }
+        });
+        server.createContext("/echo-auth", exchange ->
+                respond(exchange, 200, String.valueOf(exchange.getRequestHeaders().getFirst("Authorization"))));
+        server.createContext("/bonita/loginservice", exchange -> {
+            String session = "S" + bonitaLogins.incrementAndGet();
+            validBonitaSessions.add(session);
+            exchange.getResponseHeaders().add("Set-Cookie", "JSESSIONID=" + session + "; Path=/bonita; HttpOnly");
+            if (nextBonitaLoginWithoutApiToken) {
+                nextBonitaLoginWithoutApiToken = false;
+            } else {
+                exchange.getResponseHeaders().add("Set-Cookie", "X-Bonita-API-Token=T-" + session + "; Path=/bonita");
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.createContext("/bonita/API/", exchange -> {
+            String cookies = String.valueOf(exchange.getRequestHeaders().getFirst("Cookie"));
+            boolean valid = validBonitaSessions.stream().anyMatch(session -> cookies.contains("JSESSIONID=" + session));
+            if (!valid) {
+                respond(exchange, 401, "");
+                return;
+            }
+            boolean readOnly = List.of("GET", "HEAD", "OPTIONS").contains(exchange.getRequestMethod());
+            if (exchange.getRequestURI().getPath().endsWith("/forbidden")
+                    || (!readOnly && exchange.getRequestHeaders().getFirst("X-Bonita-API-Token") == null)) {
+                respond(exchange, 403, "forbidden");
+                return;
+            }
+            exchange.getResponseHeaders().add("Set-Cookie", "renewed=yes; Path=/bonita");
+            respond(exchange, 200, cookies + " token=" + exchange.getRequestHeaders().getFirst("X-Bonita-API-Token"));
+        });
+        server.createContext("/status/500", exchange -> {
+            serverErrorCalls.incrementAndGet();
+            respond(exchange, 500, "server error");
+        });
+        server.createContext("/redirect", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/echo-auth");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/gzip", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] body = acceptEncoding != null && acceptEncoding.contains("gzip") ? gzip(BINARY) : BINARY;
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            if (body != BINARY) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/upload", exchange -> {
+            String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            byte[] received = exchange.getRequestBody().readAllBytes();
+            byte[] body = "gzip".equals(contentEncoding)
+                    ? new GZIPInputStream(new ByteArrayInputStream(received)).readAllBytes() : received;
+            respond(exchange, 200, contentEncoding + " " + received.length + " " + Arrays.equals(body, BINARY));
+        });
+        server.createContext("/catalog", exchange -> {
+            catalogCalls.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedCalls.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, 200, "catalog");
+        });
+        server.createContext("/slow", exchange -> {
+            int call = slowCalls.incrementAndGet();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slow-" + call);
+        });
+        server.createContext("/first-slow", exchange -> {
+            int call = firstSlowCalls.incrementAndGet();
+            if (call == 1) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            respond(exchange, 200, "answer-" + call);
+        });
+        server.createContext("/flaky", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            int call = flakyCalls.incrementAndGet();
+            if (call < 3) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                respond(exchange, 503, "unavailable");
+                return;
+            }
+            respond(exchange, 200, "recovered-" + call);
+        });
+        server.createContext("/binary", exchange -> {
+            binaryCalls.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, BINARY.length);
+            exchange.getResponseBody().write(BINARY);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        HttpExecutor.invalidateAllCredentials();
+        HttpExecutor.circuitBreakers().reset();
+        HttpExecutor.rateLimiters().reset();
+        HttpExecutor.bulkheads().reset();
+        HttpExecutor.hedgers().reset();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Test
+    void execute_async_should_complete_with_response() {
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/echo-auth").bearerAuth("abc").build();
+
+        RestServiceResponse response = new HttpExecutor().executeAsync(request).join();
+
+        assertThat(response.isSuccessful()).isTrue();
+        assertThat(response.body()).isEqualTo("Bearer abc");
+    }
+
+    @Test
+    void execute_should_return_same_result_as_async() {
+        RestServiceRequest request = RestServiceRequest.get(baseUrl + "/status/500");
+
+        RestServiceResponse response = new HttpExecutor().execute(request);
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).isEqualTo("server error");
+    }
+
+    @Test
+    void execute_async_should_map_connection_failure_to_error_response() {
+        RestServiceRequest request = RestServiceRequest.get("http://127.0.0.1:1/unreachable");
+
+        RestServiceResponse response = new HttpExecutor().executeAsync(request).join();
+
+        assertThat(response.statusCode()).isEqualTo(-1);
+        assertThat(response.errorMessage()).isNotBlank();
+    }
+
+    @Test
+    void execute_async_should_fetch_oauth2_token_without_blocking_and_cache_it() {
+        RestAuthConfig auth = RestAuthConfig.oauth2ClientCredentials(baseUrl + "/token", "client", "secret");
+        HttpExecutor executor = new HttpExecutor();
+
+        RestServiceResponse first = executor.executeAsync(
+                RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build()).join();
+        RestServiceResponse second = executor.executeAsync(
+                RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build()).join();
+
+        assertThat(first.body()).isEqualTo("Bearer token-1");
+        assertThat(second.body()).isEqualTo("Bearer token-1");
+        assertThat(tokenCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrent_token_misses_should_share_a_single_token_request() {
+        RestAuthConfig auth = RestAuthConfig.oauth2ClientCredentials(baseUrl + "/token", "client", "secret");
+        HttpExecutor executor = new HttpExecutor();
+        long loadsBefore = HttpExecutor.cacheSnapshot().tokenFetches().loads();
+
+        List<CompletableFuture<RestServiceResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.executeAsync(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build()));
+        }
+
+        futures.forEach(future -> assertThat(future.join().body()).isEqualTo("Bearer token-1"));
+        assertThat(tokenCalls.get()).isEqualTo(1);
+        assertThat(HttpExecutor.cacheSnapshot().tokenFetches().loads() - loadsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void parse_token_response_should_read_access_token_and_expires_in() {
+        HttpExecutor.TokenResponse response = HttpExecutor.parseTokenResponse(
+                "{\"token_type\":\"Bearer\",\"access_token\":\"a,b}c\",\"expires_in\":300}");
+
+        assertThat(response.accessToken()).isEqualTo("a,b}c");
+        assertThat(response.expiresInSeconds()).isEqualTo(300L);
+    }
+
+    @Test
+    void parse_token_response_should_accept_string_expires_in_and_missing_expires_in() {
+        assertThat(HttpExecutor.parseTokenResponse("{\"access_token\":\"t\",\"expires_in\":\"3600\"}")
+                .expiresInSeconds()).isEqualTo(3600L);
+        assertThat(HttpExecutor.parseTokenResponse("{\"access_token\":\"t\"}").expiresInSeconds()).isNull();
+    }
+
+    @Test
+    void parse_token_response_should_return_null_without_access_token() {
+        assertThat(HttpExecutor.parseTokenResponse("{\"error\":\"invalid_client\"}")).isNull();
+        assertThat(HttpExecutor.parseTokenResponse("not json")).isNull();
+        assertThat(HttpExecutor.parseTokenResponse("")).isNull();
+    }
+
+    @Test
+    void usable_token_ttl_should_subtract_safety_margin() {
+        // 24h token: one-minute margin
+        assertThat(HttpExecutor.usableTokenTtlMs(86_400L)).isEqualTo(86_340_000L);
+        // 5 min token: margin capped at 10% of the lifetime
+        assertThat(HttpExecutor.usableTokenTtlMs(300L)).isEqualTo(270_000L);
+        // No expires_in: 55 min default lifetime
+        assertThat(HttpExecutor.usableTokenTtlMs(null)).isEqualTo(55 * 60 * 1000L - 60_000L);
+    }
+
+    @Test
+    void hot_token_should_be_refreshed_in_background_before_expiry() throws InterruptedException {
+        RestAuthConfig auth = RestAuthConfig.oauth2ClientCredentials(baseUrl + "/short-token", "client", "secret");
+        HttpExecutor executor = new HttpExecutor();
+
+        RestServiceResponse first = executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+        // Keep using the token: the first call past its refresh-ahead point renews it in the background
+        RestServiceResponse afterRefresh = first;
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ("Bearer short-1".equals(afterRefresh.body()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            afterRefresh = executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+        }
+
+        assertThat(first.body()).isEqualTo("Bearer short-1");
+        assertThat(shortTokenCalls.get()).isGreaterThanOrEqualTo(2);
+        assertThat(afterRefresh.body()).isNotEqualTo("Bearer short-1");
+    }
+
+    @Test
+    void tokens_should_be_scoped_by_tenant() {
+        RestAuthConfig auth = RestAuthConfig.oauth2ClientCredentials(baseUrl + "/token", "client", "secret");
+
+        new HttpExecutor("tenant-a").execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+        new HttpExecutor("tenant-b").execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+        new HttpExecutor("tenant-a").execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+
+        assertThat(tokenCalls.get()).isEqualTo(2);
+        assertThat(HttpExecutor.invalidateTenant("tenant-a")).isEqualTo(1);
+        assertThat(HttpExecutor.cacheSnapshot().tokens().size()).isEqualTo(1);
+    }
+
+    @Test
+    void bonita_session_should_send_cookie_jar_and_api_token() {
+        RestAuthConfig auth = RestAuthConfig.basic("walter.bates", "bpm");
+        HttpExecutor executor = new HttpExecutor();
+
+        RestServiceResponse first = executor.execute(
+                RestServiceRequest.builder(baseUrl + "/bonita/API/bpm/case").auth(auth).build());
+        RestServiceResponse second = executor.execute(
+                RestServiceRequest.builder(baseUrl + "/bonita/API/bpm/case").auth(auth).build());
+
+        assertThat(first.body()).contains("JSESSIONID=S1").endsWith("token=T-S1");
+        // Cookie set by the server on the first API response is sent back
+        assertThat(second.body()).contains("renewed=yes");
+        assertThat(bonitaLogins.get()).isEqualTo(1);
+    }
+
+    @Test
+    void bonita_session_rejected_with_401_should_log_in_again_once_and_retry() {
+        RestAuthConfig auth = RestAuthConfig.basic("walter.bates", "bpm");
+        HttpExecutor executor = new HttpExecutor();
+        executor.execute(RestServiceRequest.builder(baseUrl + "/bonita/API/bpm/case").auth(auth).build());
+
+        // Server expires the session before the local expiry
+        validBonitaSessions.clear();
+        List<CompletableFuture<RestServiceResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(executor.executeAsync(
+                    RestServiceRequest.builder(baseUrl + "/bonita/API/bpm/case").auth(auth).build()));
+        }
+
+        futures.forEach(future -> assertThat(future.join().statusCode()).isEqualTo(200));
+        assertThat(bonitaLogins.get()).isEqualTo(2);
+    }
+
+    @Test
+    void bonita_403_on_get_should_not_trigger_relogin() {
+        RestAuthConfig auth = RestAuthConfig.basic("walter.bates", "bpm");
+
+        RestServiceResponse response = new HttpExecutor().execute(
+                RestServiceRequest.builder(baseUrl + "/bonita/API/forbidden").auth(auth).build());
+
+        assertThat(response.statusCode()).isEqualTo(403);
+        assertThat(bonitaLogins.get()).isEqualTo(1);
+    }
+
+    @Test
+    void bonita_403_on_post_without_csrf_token_should_log_in_again_and_retry_once() {
+        RestAuthConfig auth = RestAuthConfig.basic("walter.bates", "bpm");
+        nextBonitaLoginWithoutApiToken = true;
+
+        RestServiceResponse response = new HttpExecutor().execute(
+                RestServiceRequest.builder(baseUrl + "/bonita/API/bpm/case")
+                        .method(RestHttpMethod.POST).body("{}").auth(auth).build());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("token=T-S2");
+        assertThat(bonitaLogins.get()).isEqualTo(2);
+    }
+
+    @Test
+    void bonita_403_on_post_with_csrf_token_should_be_returned_without_relogin() {
+        RestAuthConfig auth = RestAuthConfig.basic("walter.bates", "bpm");
+
+        RestServiceResponse response = new HttpExecutor().execute(
+                RestServiceRequest.builder(baseUrl + "/bonita/API/forbidden")
+                        .method(RestHttpMethod.POST).body("{}").auth(auth).build());
+
+        assertThat(response.statusCode()).isEqualTo(403);
+        assertThat(bonitaLogins.get()).isEqualTo(1);
+    }
+
+    @Test
+    void bonita_rejection_of_a_body_that_can_only_be_sent_once_should_not_resend_it() {
+        RestAuthConfig auth = RestAuthConfig.basic("walter.bates", "bpm");
+        UploadSource upload = UploadSource.ofInputStream(new ByteArrayInputStream("{}".getBytes()), 2);
+        nextBonitaLoginWithoutApiToken = true;
+
+        RestServiceResponse response = new HttpExecutor().execute(
+                RestServiceRequest.builder(baseUrl + "/bonita/API/bpm/case").put().auth(auth)
+                        .bodyPublisher(upload.publisher(), upload.repeatable()).build());
+
+        assertThat(response.statusCode()).isEqualTo(403);
+        assertThat(bonitaLogins.get()).isEqualTo(1);
+    }
+
+    @Test
+    void parse_token_response_should_read_refresh_token() {
+        assertThat(HttpExecutor.parseTokenResponse("{\"access_token\":\"t\",\"refresh_token\":\"r\"}")
+                .refreshToken()).isEqualTo("r");
+        assertThat(HttpExecutor.parseTokenResponse("{\"access_token\":\"t\"}").refreshToken()).isNull();
+    }
+
+    @Test
+    void password_grant_should_send_bearer_token_and_cache_it() {
+        RestAuthConfig auth = new RestAuthConfig.OAuth2Password(
+                baseUrl + "/password-token", "client", "secret", "walter", "bpm", null);
+        HttpExecutor executor = new HttpExecutor();
+
+        RestServiceResponse first = executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+        RestServiceResponse second = executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+
+        assertThat(first.body()).isEqualTo("Bearer pw-1");
+        assertThat(second.body()).isEqualTo("Bearer pw-1");
+        assertThat(passwordGrants.get()).isEqualTo(1);
+    }
+
+    @Test
+    void password_grant_should_be_renewed_with_refresh_token() throws InterruptedException {
+        RestAuthConfig auth = new RestAuthConfig.OAuth2Password(
+                baseUrl + "/password-token", "client", "secret", "walter", "bpm", null);
+        HttpExecutor executor = new HttpExecutor();
+
+        executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+        awaitTokenExpiry();
+        RestServiceResponse renewed = executor.execute(
+                RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+
+        assertThat(renewed.body()).startsWith("Bearer refreshed-");
+        assertThat(passwordGrants.get()).isEqualTo(1);
+        assertThat(HttpExecutor.cacheSnapshot().refreshTokens().size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejected_refresh_token_should_fall_back_to_password_grant() throws InterruptedException {
+        RestAuthConfig auth = new RestAuthConfig.OAuth2Password(
+                baseUrl + "/password-token", "client", "secret", "walter", "bpm", null);
+        HttpExecutor executor = new HttpExecutor();
+
+        executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+        rejectRefreshTokens = true;
+        awaitTokenExpiry();
+        RestServiceResponse renewed = executor.execute(
+                RestServiceRequest.builder(baseUrl + "/echo-auth").auth(auth).build());
+
+        assertThat(renewed.body()).isEqualTo("Bearer pw-2");
+        assertThat(refreshGrants.get()).isZero();
+    }
+
+    @Test
+    void bytes_mode_should_keep_binary_body_intact() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                .responseMode(RestResponseMode.BYTES).build());
+
+        assertThat(response.content()).isInstanceOf(ResponseBody.Bytes.class);
+        assertThat(response.content().size()).isEqualTo(BINARY.length);
+        assertThat(response.content().bytes()).isEqualTo(BINARY);
+    }
+
+    @Test
+    void file_mode_should_spill_large_body_to_temp_file() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                .responseOptions(new RestResponseOptions(RestResponseMode.FILE, 64 * 1024)).build());
+
+        assertThat(response.content()).isInstanceOf(ResponseBody.TempFile.class);
+        ResponseBody.TempFile file = (ResponseBody.TempFile) response.content();
+        assertThat(file.size()).isEqualTo(BINARY.length);
+        assertThat(file.bytes()).isEqualTo(BINARY);
+
+        response.release();
+
+        assertThat(Files.exists(file.path())).isFalse();
+    }
+
+    @Test
+    void file_mode_should_keep_small_body_in_memory() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/echo-auth")
+                .bearerAuth("abc").responseMode(RestResponseMode.FILE).build());
+
+        assertThat(response.content().isInMemory()).isTrue();
+        assertThat(response.body()).isEqualTo("Bearer abc");
+    }
+
+    @Test
+    void stream_mode_should_hand_over_live_stream() throws IOException {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                .responseMode(RestResponseMode.STREAM).build());
+
+        assertThat(response.content()).isInstanceOf(ResponseBody.Stream.class);
+        try (var in = response.content().openStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(BINARY);
+        }
+    }
+
+    @Test
+    void oversized_body_should_abort_exchange_with_error_response() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                .responseMode(RestResponseMode.BYTES).maxResponseBytes(10_000, false).build());
+
+        assertThat(response.statusCode()).isEqualTo(-1);
+        assertThat(response.isSuccessful()).isFalse();
+        assertThat(response.isError()).isTrue();
+        assertThat(response.errorMessage()).contains("10000 bytes");
+        assertThat(response.content()).isNull();
+    }
+
+    @Test
+    void oversized_body_should_not_be_retried_nor_counted_against_the_target() {
+        RestCircuitBreakerOptions breaker = new RestCircuitBreakerOptions(true, "oversized", 50, 100, 10_000, 1, 1,
+                60_000, 1);
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                .responseMode(RestResponseMode.BYTES).maxResponseBytes(10_000, false)
+                .retryPolicy(RestRetryPolicy.exponential(3, 10)).circuitBreakerOptions(breaker).build());
+
+        assertThat(binaryCalls).hasValue(1);
+        assertThat(response.statusCode()).isEqualTo(-1);
+        assertThat(response.errorMessage()).contains("10000 bytes");
+        assertThat(HttpExecutor.circuitBreakers().snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(snapshot.failedCalls()).isZero();
+        });
+    }
+
+    @Test
+    void oversized_body_should_be_truncated_when_requested() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                .responseMode(RestResponseMode.BYTES).maxResponseBytes(10_000, true).build());
+
+        assertThat(response.isSuccessful()).isTrue();
+        assertThat(response.truncated()).isTrue();
+        assertThat(response.content().bytes()).isEqualTo(Arrays.copyOf(BINARY, 10_000));
+    }
+
+    @Test
+    void global_limit_should_apply_when_request_declares_none() {
+        long previous = HttpExecutor.globalMaxResponseBytes();
+        HttpExecutor.setGlobalMaxResponseBytes(1_000);
+        try {
+            RestServiceResponse limited = new HttpExecutor().execute(RestServiceRequest.get(baseUrl + "/binary"));
+            RestServiceResponse ownLimit = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                    .responseMode(RestResponseMode.BYTES).maxResponseBytes(BINARY.length, false).build());
+
+            assertThat(limited.errorMessage()).contains("maxResponseBytes");
+            assertThat(ownLimit.content().size()).isEqualTo(BINARY.length);
+        } finally {
+            HttpExecutor.setGlobalMaxResponseBytes(previous);
+        }
+    }
+
+    @Test
+    void global_limit_should_be_disabled_by_default_and_skip_file_and_stream_bodies() throws IOException {
+        assertThat(HttpExecutor.globalMaxResponseBytes()).isZero();
+        HttpExecutor.setGlobalMaxResponseBytes(1_000);
+        try {
+            RestServiceResponse file = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                    .responseOptions(new RestResponseOptions(RestResponseMode.FILE, 64 * 1024)).build());
+            RestServiceResponse stream = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/binary")
+                    .responseMode(RestResponseMode.STREAM).build());
+
+            assertThat(file.isSuccessful()).isTrue();
+            assertThat(file.content().size()).isEqualTo(BINARY.length);
+            file.release();
+            try (var in = stream.content().openStream()) {
+                assertThat(in.readAllBytes()).isEqualTo(BINARY);
+            }
+        } finally {
+            HttpExecutor.setGlobalMaxResponseBytes(0);
+        }
+    }
+
+    @Test
+    void compressed_response_should_be_decompressed_when_accepted() throws IOException {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/gzip")
+                .responseMode(RestResponseMode.BYTES).acceptCompression(true).build());
+
+        assertThat(response.content().bytes()).isEqualTo(BINARY);
+        assertThat(response.wasCompressed()).isTrue();
+        assertThat(response.compressedBytes()).isEqualTo(gzip(BINARY).length);
+        assertThat(response.uncompressedBytes()).isEqualTo(BINARY.length);
+        assertThat(response.headers()).doesNotContainKeys("content-encoding", "content-length");
+    }
+
+    @Test
+    void compressed_stream_should_be_decompressed_while_read() throws IOException {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/gzip")
+                .responseMode(RestResponseMode.STREAM).acceptCompression(true).build());
+
+        try (var in = response.content().openStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(BINARY);
+        }
+    }
+
+    @Test
+    void size_limit_should_apply_to_decompressed_body() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/gzip")
+                .responseMode(RestResponseMode.BYTES).acceptCompression(true)
+                .maxResponseBytes(BINARY.length - 1, true).build());
+
+        assertThat(response.truncated()).isTrue();
+        assertThat(response.content().bytes()).isEqualTo(Arrays.copyOf(BINARY, BINARY.length - 1));
+    }
+
+    @Test
+    void compression_should_not_be_requested_by_default() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/gzip")
+                .responseMode(RestResponseMode.BYTES).build());
+
+        assertThat(response.content().bytes()).isEqualTo(BINARY);
+        assertThat(response.wasCompressed()).isFalse();
+        assertThat(response.compressedBytes()).isEqualTo(-1);
+    }
+
+    @Test
+    void request_body_should_be_gzipped_above_threshold() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/upload")
+                .method(RestHttpMethod.POST).rawBody(BINARY)
+                .requestCompression(RestRequestCompression.gzip(1024)).build());
+
+        assertThat(response.body()).startsWith("gzip ").endsWith(" true");
+    }
+
+    @Test
+    void request_body_under_threshold_should_be_sent_unchanged() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.builder(baseUrl + "/upload")
+                .method(RestHttpMethod.POST).rawBody(BINARY)
+                .requestCompression(RestRequestCompression.gzip(BINARY.length + 1)).build());
+
+        assertThat(response.body()).isEqualTo("null " + BINARY.length + " true");
+    }
+
+    @Test
+    void cached_get_should_be_revalidated_with_etag() {
+        HttpExecutor.setResponseCache(new ResponseCache());
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/catalog")
+                .cacheOptions(RestCacheOptions.ttl(60_000)).build();
+
+        RestServiceResponse first = new HttpExecutor().execute(request);
+        RestServiceResponse second = new HttpExecutor().execute(request);
+
+        assertThat(first.body()).isEqualTo("catalog");
+        assertThat(second.statusCode()).isEqualTo(200);
+        assertThat(second.body()).isEqualTo("catalog");
+        assertThat(catalogCalls).hasValue(2);
+        assertThat(notModifiedCalls).hasValue(1);
+        assertThat(HttpExecutor.responseCache().stats().notModified()).isEqualTo(1);
+    }
+
+    @Test
+    void uncached_get_should_always_reach_the_server() {
+        RestServiceRequest request = RestServiceRequest.get(baseUrl + "/catalog");
+
+        new HttpExecutor().execute(request);
+        new HttpExecutor().execute(request);
+
+        assertThat(catalogCalls).hasValue(2);
+        assertThat(notModifiedCalls).hasValue(0);
+    }
+
+    @Test
+    void identical_concurrent_gets_should_share_one_upstream_call() {
+        HttpExecutor executor = new HttpExecutor();
+        long loadsBefore = HttpExecutor.requestCoalescingStats().loads();
+
+        List<CompletableFuture<RestServiceResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(executor.executeAsync(RestServiceRequest.get(baseUrl + "/slow")));
+        }
+
+        futures.forEach(future -> assertThat(future.join().body()).isEqualTo("slow-1"));
+        assertThat(slowCalls).hasValue(1);
+        assertThat(HttpExecutor.requestCoalescingStats().loads() - loadsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void concurrent_posts_and_other_tenants_should_not_be_coalesced() {
+        List<CompletableFuture<RestServiceResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(new HttpExecutor().executeAsync(
+                    RestServiceRequest.builder(baseUrl + "/slow").post().body("{}").build()));
+        }
+        futures.add(new HttpExecutor("tenant-a").executeAsync(RestServiceRequest.get(baseUrl + "/slow")));
+        futures.add(new HttpExecutor("tenant-b").executeAsync(RestServiceRequest.get(baseUrl + "/slow")));
+
+        futures.forEach(CompletableFuture::join);
+        assertThat(slowCalls).hasValue(4);
+    }
+
+    @Test
+    void concurrent_gets_should_each_be_sent_when_coalescing_is_disabled() {
+        HttpExecutor.setRequestCoalescing(false);
+        try {
+            List<CompletableFuture<RestServiceResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(new HttpExecutor().executeAsync(RestServiceRequest.get(baseUrl + "/slow")));
+            }
+
+            futures.forEach(CompletableFuture::join);
+            assertThat(slowCalls).hasValue(3);
+        } finally {
+            HttpExecutor.setRequestCoalescing(true);
+        }
+    }
+
+    @Test
+    void transient_failures_should_be_retried_on_a_timer() {
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/flaky")
+                .retryPolicy(RestRetryPolicy.exponential(3, 10)).build();
+
+        RestServiceResponse response = new HttpExecutor().execute(request);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("recovered-3");
+        assertThat(response.attempts()).isEqualTo(3);
+    }
+
+    @Test
+    void post_without_idempotency_key_should_not_be_retried() {
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/flaky").post().body("{}")
+                .retryPolicy(RestRetryPolicy.exponential(3, 10)).build();
+
+        RestServiceResponse response = new HttpExecutor().execute(request);
+
+        assertThat(response.statusCode()).isEqualTo(503);
+        assertThat(response.attempts()).isEqualTo(1);
+        assertThat(flakyCalls).hasValue(1);
+    }
+
+    @Test
+    void open_circuit_breaker_should_fail_fast_without_reaching_the_server() {
+        RestCircuitBreakerOptions breaker = new RestCircuitBreakerOptions(true, "status-500", 50, 100, 10_000, 4, 2,
+                60_000, 1);
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/status/500")
+                .circuitBreakerOptions(breaker).build();
+        HttpExecutor executor = new HttpExecutor();
+
+        executor.execute(request);
+        executor.execute(request);
+        RestServiceResponse rejected = executor.execute(request);
+
+        assertThat(serverErrorCalls).hasValue(2);
+        assertThat(rejected.isSuccessful()).isFalse();
+        assertThat(rejected.errorMessage()).contains("Circuit breaker 'status-500' is open");
+        assertThat(HttpExecutor.circuitBreakers().snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.state()).isEqualTo(CircuitBreaker.State.OPEN);
+            assertThat(snapshot.failedCalls()).isEqualTo(2);
+            assertThat(snapshot.rejectedCalls()).isEqualTo(1);
+            assertThat(snapshot.timesOpened()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void circuit_breaker_should_record_every_retry_and_end_the_retries_once_open() {
+        RestCircuitBreakerOptions breaker = new RestCircuitBreakerOptions(true, "retried-500", 50, 100, 10_000, 4, 2,
+                60_000, 1);
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/status/500")
+                .retryPolicy(RestRetryPolicy.exponential(5, 10)).circuitBreakerOptions(breaker).build();
+
+        RestServiceResponse response = new HttpExecutor().execute(request);
+
+        assertThat(serverErrorCalls).hasValue(2);
+        assertThat(response.statusCode()).isEqualTo(-1);
+        assertThat(response.errorMessage()).contains("Circuit breaker 'retried-500' is open");
+        assertThat(HttpExecutor.circuitBreakers().snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.state()).isEqualTo(CircuitBreaker.State.OPEN);
+            assertThat(snapshot.failedCalls()).isEqualTo(2);
+            assertThat(snapshot.rejectedCalls()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void requests_without_circuit_breaker_should_always_reach_the_server() {
+        HttpExecutor executor = new HttpExecutor();
+
+        for (int i = 0; i < 3; i++) {
+            executor.execute(RestServiceRequest.get(baseUrl + "/status/500"));
+        }
+
+        assertThat(serverErrorCalls).hasValue(3);
+        assertThat(HttpExecutor.circuitBreakers().snapshot()).isEmpty();
+    }
+
+    @Test
+    void rate_limited_calls_should_queue_for_their_turn() {
+        RestRateLimit limit = new RestRateLimit(10, 1, 5_000, null, false);
+        HttpExecutor executor = new HttpExecutor();
+        // Warm the client up so that the calls below are only spaced by the limiter
+        executor.execute(RestServiceRequest.get(baseUrl + "/echo-auth"));
+        long start = System.nanoTime();
+
+        List<CompletableFuture<RestServiceResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(executor.executeAsync(RestServiceRequest.builder(baseUrl + "/echo-auth")
+                    .queryParam("call", String.valueOf(i)).rateLimit(limit).build()));
+        }
+        calls.forEach(CompletableFuture::join);
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(250);
+        assertThat(calls).allSatisfy(call -> assertThat(call.join().statusCode()).isEqualTo(200));
+        assertThat(HttpExecutor.rateLimiters().snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.grantedCalls()).isEqualTo(4);
+            assertThat(snapshot.delayedCalls()).isEqualTo(3);
+            assertThat(snapshot.queuedCalls()).isZero();
+            assertThat(snapshot.longestWaitMs()).isGreaterThan(200);
+        });
+    }
+
+    @Test
+    void rate_limited_calls_beyond_max_wait_should_not_reach_the_server() {
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/status/500")
+                .rateLimit(new RestRateLimit(0.5, 1, 100, "strict-quota", false)).build();
+        HttpExecutor executor = new HttpExecutor();
+
+        executor.execute(request);
+        RestServiceResponse throttled = executor.execute(request);
+
+        assertThat(serverErrorCalls).hasValue(1);
+        assertThat(throttled.statusCode()).isEqualTo(-1);
+        assertThat(throttled.errorMessage()).contains("Rate limit 'strict-quota' exceeded");
+    }
+
+    @Test
+    void rate_limit_refusal_should_end_the_retries() {
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/status/500")
+                .rateLimit(new RestRateLimit(0.5, 1, 100, "retried-quota", false))
+                .retryPolicy(RestRetryPolicy.exponential(3, 10)).build();
+
+        RestServiceResponse response = new HttpExecutor().execute(request);
+
+        assertThat(serverErrorCalls).hasValue(1);
+        assertThat(response.statusCode()).isEqualTo(-1);
+        assertThat(response.errorMessage()).contains("Rate limit 'retried-quota' exceeded");
+        assertThat(HttpExecutor.rateLimiters().snapshot()).singleElement()
+                .satisfies(snapshot -> assertThat(snapshot.rejectedCalls()).isEqualTo(1));
+    }
+
+    @Test
+    void bulkhead_should_cap_calls_in_flight_and_shed_the_excess() {
+        RestBulkheadOptions bulkhead = new RestBulkheadOptions(true, "slow-api", 1, 1, false, 1, 5_000);
+        HttpExecutor executor = new HttpExecutor();
+
+        List<CompletableFuture<RestServiceResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(executor.executeAsync(RestServiceRequest.builder(baseUrl + "/slow")
+                    .queryParam("call", String.valueOf(i)).bulkheadOptions(bulkhead).build()));
+        }
+        List<RestServiceResponse> responses = calls.stream().map(CompletableFuture::join).toList();
+
+        assertThat(slowCalls).hasValue(2);
+        assertThat(responses).filteredOn(RestServiceResponse::isSuccessful).hasSize(2);
+        assertThat(responses).filteredOn(response -> !response.isSuccessful()).singleElement()
+                .satisfies(shed -> assertThat(shed.errorMessage()).contains("Bulkhead 'slow-api' is full"));
+        assertThat(HttpExecutor.bulkheads().snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.peakInFlight()).isEqualTo(1);
+            assertThat(snapshot.inFlightCalls()).isZero();
+            assertThat(snapshot.shedCalls()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void bulkhead_slot_should_not_be_held_while_a_retry_waits() throws InterruptedException {
+        RestBulkheadOptions bulkhead = new RestBulkheadOptions(true, "retried-api", 1, 0, false, 1, 5_000);
+        HttpExecutor executor = new HttpExecutor();
+
+        CompletableFuture<RestServiceResponse> retried = executor.executeAsync(
+                RestServiceRequest.builder(baseUrl + "/status/500")
+                        .retryPolicy(RestRetryPolicy.exponential(1, 1_000)).bulkheadOptions(bulkhead).build());
+        Bulkhead slots = HttpExecutor.bulkheads().bulkhead("retried-api");
+        while (slots.snapshot().completedCalls() == 0) {
+            Thread.sleep(5);
+        }
+        RestServiceResponse during = executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth")
+                .bulkheadOptions(bulkhead).build());
+
+        assertThat(during.isSuccessful()).isTrue();
+        assertThat(retried.join().attempts()).isEqualTo(2);
+        assertThat(slots.snapshot().shedCalls()).isZero();
+        assertThat(slots.snapshot().completedCalls()).isEqualTo(3);
+    }
+
+    @Test
+    void calls_refused_by_the_circuit_breaker_should_not_reach_the_bulkhead() {
+        RestBulkheadOptions bulkhead = new RestBulkheadOptions(true, "guarded-api", 4, 0, true, 1, 5_000);
+        RestCircuitBreakerOptions breaker = new RestCircuitBreakerOptions(true, "guarded-api", 50, 100, 10_000, 4, 2,
+                60_000, 1);
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/status/500")
+                .circuitBreakerOptions(breaker).bulkheadOptions(bulkhead).build();
+        HttpExecutor executor = new HttpExecutor();
+
+        for (int i = 0; i < 4; i++) {
+            executor.execute(request);
+        }
+
+        assertThat(serverErrorCalls).hasValue(2);
+        assertThat(HttpExecutor.bulkheads().snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.completedCalls()).isEqualTo(2);
+            // Two failed calls: 4 * 0.9 * 0.9
+            assertThat(snapshot.limit()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void slow_get_should_be_hedged_and_answered_by_the_hedge() {
+        HttpExecutor executor = new HttpExecutor();
+        // Warm the client up so that the first call reaches the server before its hedge
+        executor.execute(RestServiceRequest.get(baseUrl + "/echo-auth"));
+
+        long start = System.currentTimeMillis();
+        RestServiceResponse response = executor.execute(RestServiceRequest.builder(baseUrl + "/first-slow")
+                .hedgePolicy(RestHedgePolicy.after(100)).build());
+
+        assertThat(response.body()).isEqualTo("answer-2");
+        assertThat(System.currentTimeMillis() - start).isLessThan(1_500);
+        assertThat(firstSlowCalls).hasValue(2);
+        assertThat(HttpExecutor.hedgers().snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.hedgedCalls()).isEqualTo(1);
+            assertThat(snapshot.hedgeWins()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void redirects_should_be_followed_by_default() {
+        RestServiceResponse response = new HttpExecutor().execute(RestServiceRequest.get(baseUrl + "/redirect"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.url()).endsWith("/redirect");
+    }
+
+    @Test
+    void redirects_should_not_be_followed_when_disabled() {
+        RestServiceRequest request = RestServiceRequest.builder(baseUrl + "/redirect").followRedirects(false).build();
+
+        RestServiceResponse response = new HttpExecutor().execute(request);
+
+        assertThat(response.statusCode()).isEqualTo(302);
+        assertThat(response.headers()).containsEntry("location", "/echo-auth");
+    }
+
+    @Test
+    void requests_with_same_connection_behavior_should_share_a_client() {
+        HttpExecutor executor = new HttpExecutor();
+        executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").timeout(12_345).build());
+        HttpClientPool.Stats before = HttpExecutor.clientPoolStats();
+
+        executor.execute(RestServiceRequest.builder(baseUrl + "/echo-auth").timeout(12_345).build());
+        HttpClientPool.Stats after = HttpExecutor.clientPoolStats();
+
+        assertThat(after.creations()).isEqualTo(before.creations());
+        assertThat(after.hits()).isGreaterThan(before.hits());
+    }
+
+    private static void awaitTokenExpiry() throws InterruptedException {
+        // Tokens of the test endpoints live 1s, of which 0.9s are usable
+        Thread.sleep(1_000);
+    }
+}
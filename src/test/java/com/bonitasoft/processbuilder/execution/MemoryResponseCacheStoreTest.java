@@ -0,0 +1,68 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoryResponseCacheStoreTest {
+
+    private static CachedResponse entry(int bodyBytes) {
+        return new CachedResponse(200, Map.of("ETag", "\"v1\""), new byte[bodyBytes], null, null,
+                "https://api.example.com", 0, 10, 20);
+    }
+
+    @Test
+    void should_evict_least_recently_used_entries_over_byte_budget() {
+        MemoryResponseCacheStore store = new MemoryResponseCacheStore(entry(300).sizeBytes() * 2);
+        store.put("a", entry(300));
+        store.put("b", entry(300));
+        store.get("a");
+
+        store.put("c", entry(300));
+
+        assertThat(store.get("a")).isNotNull();
+        assertThat(store.get("b")).isNull();
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.sizeBytes()).isEqualTo(entry(300).sizeBytes() * 2);
+        assertThat(store.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void should_not_keep_entries_larger_than_budget() {
+        MemoryResponseCacheStore store = new MemoryResponseCacheStore(100);
+
+        store.put("a", entry(1000));
+
+        assertThat(store.get("a")).isNull();
+        assertThat(store.sizeBytes()).isZero();
+    }
+
+    @Test
+    void should_demote_evicted_entries_to_disk_and_promote_them_back(@TempDir Path directory) {
+        DiskResponseCacheStore disk = new DiskResponseCacheStore(directory, 1024 * 1024);
+        MemoryResponseCacheStore store = new MemoryResponseCacheStore(entry(300).sizeBytes(), disk);
+        store.put("a", entry(300));
+        store.put("b", entry(300));
+
+        assertThat(disk.size()).isEqualTo(1);
+        CachedResponse promoted = store.get("a");
+
+        assertThat(promoted.body()).hasSize(300);
+        assertThat(promoted.header("etag")).isEqualTo("\"v1\"");
+        assertThat(store.size()).isEqualTo(2);
+
+        store.clear();
+        assertThat(store.size()).isZero();
+        assertThat(disk.size()).isZero();
+    }
+
+    @Test
+    void should_reject_non_positive_budget() {
+        assertThatThrownBy(() -> new MemoryResponseCacheStore(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,8 +1,19 @@
 package com.bonitasoft.processbuilder.execution;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -73,4 +84,78 @@ class MultipartRelatedBuilderTest {
 
         assertThat(result1.contentType()).isNotEqualTo(result2.contentType());
     }
+
+    @Test
+    void streaming_body_should_match_in_memory_layout() {
+        String metadata = "{\"name\":\"test.pdf\"}";
+        byte[] fileContent = {0x25, 0x50, 0x44, 0x46, 0x00, (byte) 0xFF};
+
+        MultipartRelatedBuilder.StreamingMultipartBody streamed =
+                MultipartRelatedBuilder.stream(metadata, UploadSource.ofBytes(fileContent), "application/pdf");
+        MultipartRelatedBuilder.MultipartBody built = MultipartRelatedBuilder.build(metadata, fileContent, "application/pdf");
+
+        String streamedBoundary = streamed.contentType().replace("multipart/related; boundary=", "");
+        String builtBoundary = built.contentType().replace("multipart/related; boundary=", "");
+        byte[] body = readAll(streamed.publisher());
+
+        assertThat(streamed.publisher().contentLength()).isEqualTo(built.content().length);
+        assertThat(new String(body, StandardCharsets.ISO_8859_1).replace(streamedBoundary, builtBoundary))
+                .isEqualTo(new String(built.content(), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void streaming_body_should_read_file_from_disk(@TempDir Path dir) throws IOException {
+        byte[] fileContent = new byte[100_000];
+        new Random(7).nextBytes(fileContent);
+        Path file = Files.write(dir.resolve("upload.bin"), fileContent);
+
+        MultipartRelatedBuilder.StreamingMultipartBody streamed =
+                MultipartRelatedBuilder.stream("{}", UploadSource.ofPath(file), "application/octet-stream");
+        byte[] body = readAll(streamed.publisher());
+
+        assertThat(body.length).isEqualTo(streamed.publisher().contentLength());
+        assertThat(body.length - fileContent.length).isLessThan(300);
+        String boundary = streamed.contentType().replace("multipart/related; boundary=", "");
+        assertThat(new String(body, StandardCharsets.ISO_8859_1)).endsWith("\r\n--" + boundary + "--");
+    }
+
+    @Test
+    void streaming_body_with_unknown_length_should_be_sent_chunked() {
+        UploadSource source = UploadSource.ofInputStream(() -> new ByteArrayInputStream(new byte[]{1, 2, 3}), -1);
+
+        MultipartRelatedBuilder.StreamingMultipartBody streamed =
+                MultipartRelatedBuilder.stream("{}", source, "application/octet-stream");
+
+        assertThat(streamed.publisher().contentLength()).isEqualTo(-1);
+        assertThat(readAll(streamed.publisher())).contains(1, 2, 3);
+    }
+
+    static byte[] readAll(HttpRequest.BodyPublisher publisher) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                out.write(chunk, 0, chunk.length);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(out.toByteArray());
+            }
+        });
+        return done.join();
+    }
 }
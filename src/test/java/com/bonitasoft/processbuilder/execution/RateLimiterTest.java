@@ -0,0 +1,129 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestAuthConfig;
+import com.bonitasoft.processbuilder.records.RestRateLimit;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final String URL = "https://api.example.com/items";
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void should_send_a_burst_then_space_calls_at_the_rate() {
+        RateLimiter limiter = new RateLimiter("api", new RestRateLimit(2, 3, 10_000, null, false), now::get);
+
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isEqualTo(500);
+        assertThat(limiter.reserve()).isEqualTo(1_000);
+
+        RateLimiter.Snapshot snapshot = limiter.snapshot();
+        assertThat(snapshot.grantedCalls()).isEqualTo(5);
+        assertThat(snapshot.delayedCalls()).isEqualTo(2);
+        assertThat(snapshot.queuedCalls()).isEqualTo(2);
+        assertThat(snapshot.averageWaitMs()).isEqualTo(750);
+        assertThat(snapshot.longestWaitMs()).isEqualTo(1_000);
+    }
+
+    @Test
+    void should_refill_over_time_up_to_the_burst() {
+        RateLimiter limiter = new RateLimiter("api", new RestRateLimit(1, 2, 10_000, null, false), now::get);
+        limiter.reserve();
+        limiter.reserve();
+
+        now.addAndGet(60_000);
+
+        assertThat(limiter.snapshot().availableTokens()).isEqualTo(2.0);
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isEqualTo(1_000);
+    }
+
+    @Test
+    void should_refuse_calls_whose_turn_exceeds_max_wait() {
+        RateLimiter limiter = new RateLimiter("api", new RestRateLimit(1, 1, 1_500, null, false), now::get);
+
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isEqualTo(1_000);
+        assertThat(limiter.reserve()).isEqualTo(-1);
+
+        limiter.dequeued();
+        RateLimiter.Snapshot snapshot = limiter.snapshot();
+        assertThat(snapshot.rejectedCalls()).isEqualTo(1);
+        assertThat(snapshot.queuedCalls()).isZero();
+        assertThat(snapshot.peakQueuedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void registry_should_delay_excess_calls_on_a_timer_and_throttle_beyond_max_wait() {
+        List<Long> delays = new ArrayList<>();
+        RateLimiterRegistry registry = new RateLimiterRegistry(delayMs -> {
+            delays.add(delayMs);
+            return Runnable::run;
+        }, now::get);
+        AtomicInteger sent = new AtomicInteger();
+        RestServiceRequest request = RestServiceRequest.builder(URL)
+                .rateLimit(new RestRateLimit(10, 1, 150, null, false)).build();
+
+        for (int i = 0; i < 2; i++) {
+            registry.execute(request, null, r -> {
+                sent.incrementAndGet();
+                return CompletableFuture.completedFuture(ok());
+            }).join();
+        }
+        CompletableFuture<RestServiceResponse> throttled = registry.execute(request, null, r -> {
+            sent.incrementAndGet();
+            return CompletableFuture.completedFuture(ok());
+        });
+
+        assertThat(sent).hasValue(2);
+        assertThat(delays).containsExactly(100L);
+        assertThatThrownBy(throttled::join)
+                .hasCauseInstanceOf(CallRejectedException.class)
+                .hasMessageContaining("Rate limit 'https://api.example.com:443' exceeded");
+        assertThat(registry.snapshot()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.queuedCalls()).isZero();
+            assertThat(snapshot.rejectedCalls()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void registry_should_name_buckets_by_host_name_or_credential() {
+        RestServiceRequest byHost = RestServiceRequest.builder(URL).rateLimit(RestRateLimit.perSecond(1)).build();
+        RestServiceRequest byName = RestServiceRequest.builder(URL)
+                .rateLimit(new RestRateLimit(1, 1, 1_000, "hubspot", false)).build();
+        RestRateLimit perCredential = new RestRateLimit(1, 1, 1_000, null, true);
+        RestServiceRequest alice = RestServiceRequest.builder(URL).rateLimit(perCredential)
+                .auth(RestAuthConfig.bearer("alice")).build();
+        RestServiceRequest bob = RestServiceRequest.builder(URL).rateLimit(perCredential)
+                .auth(RestAuthConfig.bearer("bob")).build();
+
+        assertThat(RateLimiterRegistry.nameOf(byHost, null)).isEqualTo("https://api.example.com:443");
+        assertThat(RateLimiterRegistry.nameOf(byName, null)).isEqualTo("hubspot");
+        assertThat(RateLimiterRegistry.nameOf(alice, "t1"))
+                .startsWith("https://api.example.com:443 credential ")
+                .doesNotContain("alice")
+                .isNotEqualTo(RateLimiterRegistry.nameOf(bob, "t1"))
+                .isNotEqualTo(RateLimiterRegistry.nameOf(alice, "t2"));
+    }
+
+    private static RestServiceResponse ok() {
+        return RestServiceResponse.success(200, Map.of(), ResponseBody.ofText("ok"), null, 1, URL);
+    }
+}
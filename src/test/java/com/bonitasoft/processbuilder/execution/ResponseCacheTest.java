@@ -0,0 +1,172 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestCacheOptions;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private static final String URL = "https://api.example.com/items";
+
+    private long now = 1_000;
+    private final ResponseCache cache = new ResponseCache(new MemoryResponseCacheStore(1024 * 1024),
+            ResponseCache.DEFAULT_MAX_ENTRY_BYTES, () -> now);
+    private final List<RestServiceRequest> sent = new ArrayList<>();
+    private Map<String, String> responseHeaders = Map.of();
+    private int responseStatus = 200;
+
+    private final Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> network = request -> {
+        sent.add(request);
+        ResponseBody body = responseStatus == 304 ? null : ResponseBody.ofText("body-" + sent.size());
+        return CompletableFuture.completedFuture(
+                RestServiceResponse.success(responseStatus, responseHeaders, body, null, 1, URL));
+    };
+
+    private static RestServiceRequest get(RestCacheOptions options) {
+        return RestServiceRequest.builder(URL).cacheOptions(options).build();
+    }
+
+    private String fetch(RestServiceRequest request) {
+        return cache.execute(request, "t1", network).join().body();
+    }
+
+    @Test
+    void should_only_handle_get_requests_with_caching_enabled() {
+        assertThat(cache.handles(get(RestCacheOptions.ttl(1000)))).isTrue();
+        assertThat(cache.handles(get(RestCacheOptions.disabled()))).isFalse();
+        assertThat(cache.handles(RestServiceRequest.builder(URL).method(RestHttpMethod.POST)
+                .cacheOptions(RestCacheOptions.ttl(1000)).build())).isFalse();
+    }
+
+    @Test
+    void should_serve_fresh_entries_without_network() {
+        RestServiceRequest request = get(RestCacheOptions.ttl(1000));
+
+        assertThat(fetch(request)).isEqualTo("body-1");
+        now += 999;
+        assertThat(fetch(request)).isEqualTo("body-1");
+        now += 1;
+        assertThat(fetch(request)).isEqualTo("body-2");
+
+        ResponseCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(2);
+        assertThat(stats.entries()).isEqualTo(1);
+    }
+
+    @Test
+    void should_scope_entries_by_tenant_and_headers() {
+        RestServiceRequest request = get(RestCacheOptions.ttl(1000));
+
+        fetch(request);
+        cache.execute(request, "t2", network).join();
+        fetch(request.toBuilder().header("Accept-Language", "fr").build());
+
+        assertThat(sent).hasSize(3);
+    }
+
+    @Test
+    void should_serve_stale_entry_while_revalidating_in_background() {
+        RestServiceRequest request = get(RestCacheOptions.ttl(100).withStaleWhileRevalidate(1000));
+        fetch(request);
+
+        now += 500;
+        assertThat(fetch(request)).isEqualTo("body-1");
+        assertThat(sent).hasSize(2);
+        assertThat(fetch(request)).isEqualTo("body-2");
+        assertThat(cache.stats().staleHits()).isEqualTo(1);
+    }
+
+    @Test
+    void should_revalidate_with_validators_and_keep_body_on_not_modified() {
+        responseHeaders = Map.of("ETag", "\"v1\"", "Last-Modified", "Thu, 01 Jan 2026 00:00:00 GMT");
+        RestServiceRequest request = get(RestCacheOptions.ttl(100));
+        fetch(request);
+
+        now += 200;
+        responseStatus = 304;
+        RestServiceResponse revalidated = cache.execute(request, "t1", network).join();
+
+        assertThat(revalidated.statusCode()).isEqualTo(200);
+        assertThat(revalidated.body()).isEqualTo("body-1");
+        assertThat(sent.get(1).headers()).containsEntry("If-None-Match", "\"v1\"")
+                .containsEntry("If-Modified-Since", "Thu, 01 Jan 2026 00:00:00 GMT");
+        assertThat(cache.stats().notModified()).isEqualTo(1);
+
+        now += 50;
+        assertThat(fetch(request)).isEqualTo("body-1");
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    void should_honor_cache_control_unless_disabled() {
+        responseHeaders = Map.of("Cache-Control", "no-store");
+        fetch(get(RestCacheOptions.ttl(1000)));
+        fetch(get(RestCacheOptions.ttl(1000)));
+        assertThat(sent).hasSize(2);
+
+        RestServiceRequest ignoring = get(new RestCacheOptions(true, 1000, 0, false));
+        fetch(ignoring);
+        fetch(ignoring);
+        assertThat(sent).hasSize(3);
+    }
+
+    @Test
+    void should_use_max_age_minus_age_over_configured_ttl() {
+        responseHeaders = Map.of("Cache-Control", "max-age=10", "Age", "4");
+        RestServiceRequest request = get(RestCacheOptions.ttl(60_000));
+        fetch(request);
+
+        now += 5_999;
+        fetch(request);
+        now += 1;
+        fetch(request);
+
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    void should_not_store_error_responses() {
+        responseStatus = 500;
+        RestServiceRequest request = get(RestCacheOptions.ttl(1000));
+
+        fetch(request);
+        fetch(request);
+
+        assertThat(sent).hasSize(2);
+        assertThat(cache.stats().stores()).isZero();
+    }
+
+    @Test
+    void invalidate_should_drop_the_entry() {
+        RestServiceRequest request = get(RestCacheOptions.ttl(1000));
+        fetch(request);
+
+        cache.invalidate(request, "t1");
+
+        assertThat(fetch(request)).isEqualTo("body-2");
+    }
+
+    @Test
+    void freshness_should_fall_back_to_expires_and_ttl() {
+        RestCacheOptions options = RestCacheOptions.ttl(5_000);
+
+        assertThat(ResponseCache.freshness(Map.of("Date", "Thu, 01 Jan 2026 00:00:00 GMT",
+                "Expires", "Thu, 01 Jan 2026 00:01:00 GMT"), options, 0).freshUntil()).isEqualTo(60_000);
+        assertThat(ResponseCache.freshness(Map.of("Expires", "0"), options, 0).freshUntil()).isZero();
+        assertThat(ResponseCache.freshness(Map.of(), options, 7).freshUntil()).isEqualTo(5_007);
+        assertThat(ResponseCache.freshness(Map.of("Cache-Control", "max-age=1, must-revalidate"),
+                options.withStaleWhileRevalidate(9_000), 0).staleUntil()).isEqualTo(1_000);
+    }
+}
@@ -0,0 +1,188 @@
+package com.bonitasoft.processbuilder.execution;
+
+import com.bonitasoft.processbuilder.records.ResponseBody;
+import com.bonitasoft.processbuilder.records.RestRetryPolicy;
+import com.bonitasoft.processbuilder.records.RestServiceRequest;
+import com.bonitasoft.processbuilder.records.RestServiceResponse;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetrySchedulerTest {
+
+    private static final String URL = "https://api.example.com/items";
+
+    private final List<Long> delays = new ArrayList<>();
+    private final RetryScheduler scheduler = new RetryScheduler(delayMs -> {
+        delays.add(delayMs);
+        return Runnable::run;
+    }, () -> 0.0, () -> 0L);
+    private final Deque<RestServiceResponse> responses = new ArrayDeque<>();
+    private final List<RestServiceResponse> sent = new ArrayList<>();
+    private final Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> send = request -> {
+        RestServiceResponse response = responses.isEmpty() ? status(200) : responses.poll();
+        sent.add(response);
+        return CompletableFuture.completedFuture(response);
+    };
+
+    private static RestServiceResponse status(int statusCode) {
+        return status(statusCode, Map.of());
+    }
+
+    private static RestServiceResponse status(int statusCode, Map<String, String> headers) {
+        return RestServiceResponse.success(statusCode, headers, ResponseBody.ofText("status " + statusCode), null,
+                1, URL);
+    }
+
+    private static RestServiceRequest get(RestRetryPolicy policy) {
+        return RestServiceRequest.builder(URL).retryPolicy(policy).build();
+    }
+
+    @Test
+    void should_retry_with_exponential_backoff_until_success() {
+        responses.add(status(503));
+        responses.add(RestServiceResponse.error("Connection refused", 1, URL));
+
+        RestServiceResponse response = scheduler.execute(get(RestRetryPolicy.exponential(3, 100)), send).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.attempts()).isEqualTo(3);
+        assertThat(delays).containsExactly(100L, 200L);
+    }
+
+    @Test
+    void should_stop_retrying_when_an_attempt_is_refused_locally() {
+        responses.add(status(503));
+        int[] attempts = {0};
+        Function<RestServiceRequest, CompletableFuture<RestServiceResponse>> breaker = request ->
+                ++attempts[0] == 1 ? send.apply(request)
+                        : CompletableFuture.failedFuture(new CallRejectedException("Circuit breaker 'api' is open"));
+
+        CompletableFuture<RestServiceResponse> result =
+                scheduler.execute(get(RestRetryPolicy.exponential(3, 100)), breaker);
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(attempts[0]).isEqualTo(2);
+        assertThat(delays).containsExactly(100L);
+    }
+
+    @Test
+    void cancelling_should_abort_the_attempt_in_flight_and_send_no_retry() {
+        List<CompletableFuture<RestServiceResponse>> attempts = new ArrayList<>();
+        CompletableFuture<RestServiceResponse> result = scheduler.execute(get(RestRetryPolicy.exponential(3, 100)),
+                request -> {
+                    CompletableFuture<RestServiceResponse> attempt = new CompletableFuture<>();
+                    attempts.add(attempt);
+                    return attempt;
+                });
+
+        result.cancel(true);
+
+        assertThat(attempts).singleElement().satisfies(attempt -> assertThat(attempt).isCancelled());
+        assertThat(delays).isEmpty();
+    }
+
+    @Test
+    void should_return_last_response_when_retries_are_exhausted() {
+        responses.add(status(503));
+        responses.add(status(502));
+        responses.add(status(500));
+
+        RestServiceResponse response = scheduler.execute(get(RestRetryPolicy.exponential(2, 100)), send).join();
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.attempts()).isEqualTo(3);
+    }
+
+    @Test
+    void should_not_retry_other_statuses() {
+        responses.add(status(404));
+
+        RestServiceResponse response = scheduler.execute(get(RestRetryPolicy.exponential(3, 100)), send).join();
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(response.attempts()).isEqualTo(1);
+        assertThat(delays).isEmpty();
+    }
+
+    @Test
+    void should_wait_as_long_as_retry_after_asks() {
+        responses.add(status(429, Map.of("Retry-After", "3")));
+
+        scheduler.execute(get(RestRetryPolicy.exponential(3, 100)), send).join();
+
+        assertThat(delays).containsExactly(3_000L);
+    }
+
+    @Test
+    void should_give_up_when_retry_after_exceeds_max_wait() {
+        responses.add(status(503, Map.of("Retry-After", "3600")));
+
+        RestServiceResponse response = scheduler.execute(get(RestRetryPolicy.exponential(3, 100)), send).join();
+
+        assertThat(response.statusCode()).isEqualTo(503);
+        assertThat(sent).hasSize(1);
+    }
+
+    @Test
+    void should_only_retry_post_with_idempotency_key() {
+        RestRetryPolicy policy = RestRetryPolicy.exponential(3, 100);
+        responses.add(status(503));
+
+        RestServiceResponse plain = scheduler.execute(
+                RestServiceRequest.builder(URL).post().body("{}").retryPolicy(policy).build(), send).join();
+        responses.add(status(503));
+        RestServiceResponse keyed = scheduler.execute(RestServiceRequest.builder(URL).post().body("{}")
+                .header("Idempotency-Key", "order-42").retryPolicy(policy).build(), send).join();
+
+        assertThat(plain.statusCode()).isEqualTo(503);
+        assertThat(keyed.statusCode()).isEqualTo(200);
+        assertThat(keyed.attempts()).isEqualTo(2);
+    }
+
+    @Test
+    void should_not_retry_a_body_that_can_only_be_sent_once() {
+        RestRetryPolicy policy = RestRetryPolicy.exponential(3, 100);
+        responses.add(status(503));
+
+        RestServiceResponse once = scheduler.execute(RestServiceRequest.builder(URL).put()
+                .bodyPublisher(HttpRequest.BodyPublishers.ofString("{}")).retryPolicy(policy).build(), send).join();
+        responses.add(status(503));
+        RestServiceResponse repeatable = scheduler.execute(RestServiceRequest.builder(URL).put()
+                .bodyPublisher(HttpRequest.BodyPublishers.ofString("{}"), true).retryPolicy(policy).build(), send)
+                .join();
+
+        assertThat(once.statusCode()).isEqualTo(503);
+        assertThat(repeatable.statusCode()).isEqualTo(200);
+        assertThat(repeatable.attempts()).isEqualTo(2);
+        assertThat(sent).hasSize(3);
+    }
+
+    @Test
+    void should_send_once_without_policy() {
+        responses.add(status(503));
+
+        RestServiceResponse response = scheduler.execute(RestServiceRequest.get(URL), send).join();
+
+        assertThat(response.statusCode()).isEqualTo(503);
+        assertThat(sent).hasSize(1);
+    }
+
+    @Test
+    void retry_after_should_accept_seconds_and_http_dates() {
+        assertThat(RetryScheduler.retryAfterMs(Map.of("Retry-After", "2"), 0)).isEqualTo(2_000);
+        assertThat(RetryScheduler.retryAfterMs(Map.of("retry-after", "Thu, 01 Jan 1970 00:00:05 GMT"), 1_000))
+                .isEqualTo(4_000);
+        assertThat(RetryScheduler.retryAfterMs(Map.of("Retry-After", "soon"), 0)).isEqualTo(-1);
+        assertThat(RetryScheduler.retryAfterMs(Map.of(), 0)).isEqualTo(-1);
+    }
+}
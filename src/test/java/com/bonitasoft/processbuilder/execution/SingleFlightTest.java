@@ -0,0 +1,91 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void should_share_in_flight_load_between_concurrent_callers() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.load("key", () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = singleFlight.load("key", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        pending.complete("value");
+
+        assertThat(first.join()).isEqualTo("value");
+        assertThat(second.join()).isEqualTo("value");
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.stats().loads()).isEqualTo(1);
+        assertThat(singleFlight.stats().coalescedWaits()).isEqualTo(1);
+        assertThat(singleFlight.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void should_not_coalesce_different_keys() {
+        CompletableFuture<String> a = singleFlight.load("a", CompletableFuture::new);
+        CompletableFuture<String> b = singleFlight.load("b", CompletableFuture::new);
+
+        assertThat(a).isNotSameAs(b);
+        assertThat(singleFlight.stats().loads()).isEqualTo(2);
+        assertThat(singleFlight.stats().coalescedWaits()).isZero();
+        assertThat(singleFlight.stats().inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void should_start_new_load_once_previous_one_completed() {
+        singleFlight.load("key", () -> CompletableFuture.completedFuture("v1")).join();
+        String second = singleFlight.load("key", () -> CompletableFuture.completedFuture("v2")).join();
+
+        assertThat(second).isEqualTo("v2");
+        assertThat(singleFlight.stats().loads()).isEqualTo(2);
+    }
+
+    @Test
+    void should_propagate_failure_to_all_waiters_and_release_key() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.load("key", () -> pending);
+        CompletableFuture<String> second = singleFlight.load("key", () -> pending);
+
+        pending.completeExceptionally(new IllegalStateException("boom"));
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompletedExceptionally();
+        assertThat(singleFlight.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void should_map_loader_exception_to_failed_future() {
+        CompletableFuture<String> result = singleFlight.load("key", () -> {
+            throw new IllegalArgumentException("bad");
+        });
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(singleFlight.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void should_not_let_waiter_cancel_shared_load() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.load("key", () -> pending);
+        CompletableFuture<String> second = singleFlight.load("key", () -> pending);
+
+        second.cancel(true);
+        pending.complete("value");
+
+        assertThat(first.join()).isEqualTo("value");
+    }
+}
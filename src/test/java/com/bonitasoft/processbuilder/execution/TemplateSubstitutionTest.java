@@ -111,4 +111,25 @@ class TemplateSubstitutionTest {
                 "https://www.googleapis.com/upload/drive/v3/files"))
                 .isEqualTo("https://www.googleapis.com/upload/drive/v3/files");
     }
+
+    @Test
+    void compiled_template_should_render_like_substitute() {
+        String template = "{{baseUrl}}/api/{{ version }}/{{missing}}?q={{q}}";
+        Map<String, String> params = Map.of("baseUrl", "https://api.com", "version", "v3", "q", "$1\\x");
+
+        TemplateSubstitution.CompiledTemplate compiled = TemplateSubstitution.compile(template);
+
+        assertThat(compiled.render(params)).isEqualTo(TemplateSubstitution.substitute(template, params));
+        assertThat(compiled.render(params)).isEqualTo("https://api.com/api/v3/{{missing}}?q=$1\\x");
+        assertThat(compiled.hasPlaceholders()).isTrue();
+    }
+
+    @Test
+    void compiled_template_should_return_source_when_params_empty_or_no_placeholder() {
+        assertThat(TemplateSubstitution.compile("https://api.com/{{v}}").render(Collections.emptyMap()))
+                .isEqualTo("https://api.com/{{v}}");
+        assertThat(TemplateSubstitution.compile("plain").render(Map.of("a", "b"))).isEqualTo("plain");
+        assertThat(TemplateSubstitution.compile("plain").hasPlaceholders()).isFalse();
+        assertThat(TemplateSubstitution.compile(null).render(Map.of("a", "b"))).isNull();
+    }
 }
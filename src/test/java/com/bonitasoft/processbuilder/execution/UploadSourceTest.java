@@ -0,0 +1,104 @@
+package com.bonitasoft.processbuilder.execution;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadSourceTest {
+
+    @Test
+    void path_source_should_know_file_length(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("doc.pdf"), new byte[1234]);
+
+        UploadSource source = UploadSource.ofPath(file);
+
+        assertThat(source.length()).isEqualTo(1234);
+        assertThat(source.publisher().contentLength()).isEqualTo(1234);
+    }
+
+    @Test
+    void missing_file_should_be_rejected(@TempDir Path dir) {
+        assertThatThrownBy(() -> UploadSource.ofPath(dir.resolve("missing.bin")))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("missing.bin");
+    }
+
+    @Test
+    void supplier_source_should_open_a_stream_per_publisher() {
+        AtomicInteger opened = new AtomicInteger();
+        UploadSource source = UploadSource.ofInputStream(() -> {
+            opened.incrementAndGet();
+            return new ByteArrayInputStream(new byte[]{1, 2});
+        }, 2);
+
+        assertThat(source.publisher().contentLength()).isEqualTo(2);
+        assertThat(source.publisher().contentLength()).isEqualTo(2);
+        // Streams are opened on subscription, not when the publisher is created
+        assertThat(opened).hasValue(0);
+    }
+
+    @Test
+    void only_a_single_stream_source_should_be_sent_once(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("doc.pdf"), new byte[]{1});
+
+        assertThat(UploadSource.ofInputStream(new ByteArrayInputStream(new byte[]{1}), 1).repeatable()).isFalse();
+        assertThat(UploadSource.ofInputStream(() -> new ByteArrayInputStream(new byte[]{1}), 1).repeatable()).isTrue();
+        assertThat(UploadSource.ofPath(file).repeatable()).isTrue();
+        assertThat(UploadSource.ofBase64("AQ==").repeatable()).isTrue();
+        assertThat(UploadSource.ofBytes(new byte[]{1}).repeatable()).isTrue();
+    }
+
+    @Test
+    void unknown_and_empty_lengths_should_be_normalized() {
+        assertThat(UploadSource.ofInputStream(new ByteArrayInputStream(new byte[0]), -5).length()).isEqualTo(-1);
+        assertThat(UploadSource.ofInputStream(new ByteArrayInputStream(new byte[0]), 0).publisher().contentLength())
+                .isZero();
+        assertThat(UploadSource.ofBytes(new byte[]{1}).length()).isEqualTo(1);
+    }
+
+    @Test
+    void base64_source_should_decode_while_streaming_with_exact_length() {
+        byte[] content = new byte[100_003];
+        new Random(7).nextBytes(content);
+        String encoded = Base64.getEncoder().encodeToString(content);
+
+        UploadSource source = UploadSource.ofBase64(encoded);
+
+        assertThat(source.length()).isEqualTo(content.length);
+        assertThat(source.publisher().contentLength()).isEqualTo(content.length);
+        assertThat(MultipartRelatedBuilderTest.readAll(source.publisher())).isEqualTo(content);
+        // Each publisher decodes the text again, so the body can be resent
+        assertThat(MultipartRelatedBuilderTest.readAll(source.publisher())).isEqualTo(content);
+    }
+
+    @Test
+    void base64_length_should_account_for_padding() {
+        assertThat(UploadSource.decodedLength("")).isZero();
+        assertThat(UploadSource.decodedLength("QQ==")).isEqualTo(1);
+        assertThat(UploadSource.decodedLength("QUI=")).isEqualTo(2);
+        assertThat(UploadSource.decodedLength("QUJD")).isEqualTo(3);
+        assertThat(UploadSource.decodedLength("QUJDRA")).isEqualTo(4);
+    }
+
+    @Test
+    void invalid_base64_should_be_rejected_before_sending() {
+        assertThatThrownBy(() -> UploadSource.ofBase64("QU#D"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("index 2");
+        assertThatThrownBy(() -> UploadSource.ofBase64("QUJDR"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UploadSource.ofBase64("QUJ=="))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
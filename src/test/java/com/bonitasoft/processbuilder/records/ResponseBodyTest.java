@@ -0,0 +1,106 @@
+package com.bonitasoft.processbuilder.records;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ResponseBody} implementations.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class ResponseBodyTest {
+
+    private static final byte[] BINARY = {(byte) 0x89, 'P', 'N', 'G', 0x00, (byte) 0xFF};
+
+    @Test
+    void text_shouldBeInMemoryWithUnknownSize() throws IOException {
+        ResponseBody body = ResponseBody.ofText("héllo");
+
+        assertTrue(body.isInMemory());
+        assertEquals(-1, body.size());
+        assertEquals("héllo", body.text());
+        assertArrayEquals("héllo".getBytes(StandardCharsets.UTF_8), body.bytes());
+        try (InputStream in = body.openStream()) {
+            assertArrayEquals(body.bytes(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void text_withNull_shouldBeEmpty() {
+        assertEquals("", ResponseBody.ofText(null).text());
+    }
+
+    @Test
+    void bytes_shouldKeepBinaryContentIntact() {
+        ResponseBody.Bytes body = ResponseBody.ofBytes(BINARY.clone(), null);
+
+        assertTrue(body.isInMemory());
+        assertEquals(BINARY.length, body.size());
+        assertArrayEquals(BINARY, body.bytes());
+        assertEquals(StandardCharsets.UTF_8, body.charset());
+    }
+
+    @Test
+    void bytes_shouldNotExposeInternalArray() {
+        ResponseBody.Bytes body = ResponseBody.ofBytes(BINARY.clone(), null);
+
+        body.content()[0] = 0;
+        body.bytes()[1] = 0;
+
+        assertArrayEquals(BINARY, body.bytes());
+    }
+
+    @Test
+    void bytes_shouldDecodeTextWithCharset() {
+        byte[] latin1 = "café".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertEquals("café", ResponseBody.ofBytes(latin1, StandardCharsets.ISO_8859_1).text());
+    }
+
+    @Test
+    void tempFile_shouldReadFromDiskAndDeleteOnRelease(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("body.bin");
+        Files.write(file, BINARY);
+        ResponseBody body = new ResponseBody.TempFile(file, BINARY.length, null);
+
+        assertFalse(body.isInMemory());
+        assertEquals(BINARY.length, body.size());
+        assertArrayEquals(BINARY, body.bytes());
+        try (InputStream in = body.openStream()) {
+            assertArrayEquals(BINARY, in.readAllBytes());
+        }
+
+        body.release();
+
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void stream_shouldReturnLiveStreamOnce() throws IOException {
+        ResponseBody body = new ResponseBody.Stream(new ByteArrayInputStream(BINARY), null);
+
+        assertFalse(body.isInMemory());
+        assertEquals(-1, body.size());
+        assertArrayEquals(BINARY, body.openStream().readAllBytes());
+        assertEquals(0, body.bytes().length);
+    }
+
+    @Test
+    void release_onInMemoryBody_shouldDoNothing() {
+        ResponseBody body = ResponseBody.ofBytes(BINARY.clone(), null);
+
+        body.release();
+
+        assertArrayEquals(BINARY, body.bytes());
+    }
+}
@@ -220,6 +220,22 @@ class RestAuthConfigTest {
         assertTrue(body.contains("scope=read+write"));
     }
 
+    @Test
+    void oauth2Password_shouldGenerateRefreshTokenRequestBodyWithoutPassword() {
+        RestAuthConfig.OAuth2Password oauth2 = new RestAuthConfig.OAuth2Password(
+                "https://auth.example.com/token", "client-id", "client-secret",
+                "user", "pass", "read");
+
+        String body = oauth2.getRefreshTokenRequestBody("rt/1");
+
+        assertTrue(body.startsWith("grant_type=refresh_token"));
+        assertTrue(body.contains("refresh_token=rt%2F1"));
+        assertTrue(body.contains("client_id=client-id"));
+        assertTrue(body.contains("client_secret=client-secret"));
+        assertTrue(body.contains("scope=read"));
+        assertFalse(body.contains("password="));
+    }
+
     // =========================================================================
     // CustomAuth Tests
     // =========================================================================
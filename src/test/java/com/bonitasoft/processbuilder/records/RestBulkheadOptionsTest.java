@@ -0,0 +1,86 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestBulkheadOptions} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestBulkheadOptionsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void disabled_shouldNotIsolateCalls() {
+        RestBulkheadOptions options = RestBulkheadOptions.disabled();
+
+        assertFalse(options.enabled());
+        assertFalse(options.adaptive());
+        assertEquals(RestBulkheadOptions.DEFAULT_MAX_CONCURRENT, options.maxConcurrent());
+    }
+
+    @Test
+    void fixed_shouldBeEnabledWithoutAdaptation() {
+        RestBulkheadOptions options = RestBulkheadOptions.fixed(4, 0);
+
+        assertTrue(options.enabled());
+        assertFalse(options.adaptive());
+        assertEquals(4, options.maxConcurrent());
+        assertEquals(0, options.maxQueue());
+    }
+
+    @Test
+    void constructor_withInvalidValues_shouldUseDefaults() {
+        RestBulkheadOptions options = new RestBulkheadOptions(true, " ", 0, -5, true, 0, 0);
+
+        assertNull(options.name());
+        assertEquals(RestBulkheadOptions.DEFAULT_MAX_CONCURRENT, options.maxConcurrent());
+        assertEquals(0, options.maxQueue());
+        assertEquals(RestBulkheadOptions.DEFAULT_MIN_CONCURRENT, options.minConcurrent());
+        assertEquals(RestBulkheadOptions.DEFAULT_SLOW_CALL_MS, options.slowCallMs());
+    }
+
+    @Test
+    void constructor_withMinimumAboveMaximum_shouldCapToMaximum() {
+        RestBulkheadOptions options = new RestBulkheadOptions(true, null, 3, 10, true, 8, 1000);
+
+        assertEquals(3, options.minConcurrent());
+    }
+
+    @Test
+    void fromJson_shouldReadEveryKey() throws Exception {
+        RestBulkheadOptions options = RestBulkheadOptions.fromJson(mapper.readTree("""
+                {"bulkhead": true, "bulkheadName": "erp", "bulkheadMaxConcurrent": 8, "bulkheadMaxQueue": 4,
+                 "bulkheadAdaptive": true, "bulkheadMinConcurrent": 2, "bulkheadSlowCallMs": 1500}
+                """));
+
+        assertEquals(new RestBulkheadOptions(true, "erp", 8, 4, true, 2, 1500), options);
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestBulkheadOptions parent = new RestBulkheadOptions(true, "erp", 8, 4, true, 2, 1500);
+
+        RestBulkheadOptions options = RestBulkheadOptions.fromJson(
+                mapper.readTree("{\"bulkheadMaxConcurrent\": 3}"), parent);
+
+        assertTrue(options.enabled());
+        assertEquals("erp", options.name());
+        assertEquals(3, options.maxConcurrent());
+        assertEquals(2, options.minConcurrent());
+        assertTrue(options.adaptive());
+    }
+
+    @Test
+    void fromJson_withNullNode_shouldReturnParent() {
+        RestBulkheadOptions parent = RestBulkheadOptions.fixed(2, 2);
+
+        assertSame(parent, RestBulkheadOptions.fromJson(null, parent));
+        assertEquals(RestBulkheadOptions.disabled(), RestBulkheadOptions.fromJson(null));
+    }
+}
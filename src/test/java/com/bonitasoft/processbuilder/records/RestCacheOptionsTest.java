@@ -0,0 +1,77 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestCacheOptions} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestCacheOptionsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void disabled_shouldNotCacheAndHonorCacheControl() {
+        RestCacheOptions options = RestCacheOptions.disabled();
+
+        assertFalse(options.enabled());
+        assertEquals(0, options.ttlMs());
+        assertTrue(options.honorCacheControl());
+    }
+
+    @Test
+    void ttl_withStaleWhileRevalidate_shouldKeepLifetime() {
+        RestCacheOptions options = RestCacheOptions.ttl(60_000).withStaleWhileRevalidate(5_000);
+
+        assertTrue(options.enabled());
+        assertEquals(60_000, options.ttlMs());
+        assertEquals(5_000, options.staleWhileRevalidateMs());
+    }
+
+    @Test
+    void constructor_withNegativeDurations_shouldClampToZero() {
+        RestCacheOptions options = new RestCacheOptions(true, -1, -1, true);
+
+        assertEquals(0, options.ttlMs());
+        assertEquals(0, options.staleWhileRevalidateMs());
+    }
+
+    @Test
+    void fromJson_withPositiveTtl_shouldEnableCaching() throws Exception {
+        RestCacheOptions options = RestCacheOptions.fromJson(mapper.readTree(
+                "{\"cacheTtlMs\":30000,\"cacheStaleWhileRevalidateMs\":10000,\"cacheHonorCacheControl\":false}"));
+
+        assertEquals(new RestCacheOptions(true, 30_000, 10_000, false), options);
+    }
+
+    @Test
+    void fromJson_withFlagOnly_shouldCacheWithoutDefaultLifetime() throws Exception {
+        RestCacheOptions options = RestCacheOptions.fromJson(mapper.readTree("{\"cacheResponses\":true}"));
+
+        assertTrue(options.enabled());
+        assertEquals(0, options.ttlMs());
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestCacheOptions parent = RestCacheOptions.ttl(60_000);
+
+        RestCacheOptions inherited = RestCacheOptions.fromJson(mapper.readTree("{}"), parent);
+        RestCacheOptions optedOut = RestCacheOptions.fromJson(mapper.readTree("{\"cacheResponses\":false}"), parent);
+
+        assertEquals(parent, inherited);
+        assertFalse(optedOut.enabled());
+        assertEquals(60_000, optedOut.ttlMs());
+    }
+
+    @Test
+    void fromJson_withMissingNode_shouldReturnDisabled() throws Exception {
+        assertEquals(RestCacheOptions.disabled(), RestCacheOptions.fromJson(null));
+        assertEquals(RestCacheOptions.disabled(), RestCacheOptions.fromJson(mapper.readTree("[]")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestCircuitBreakerOptions} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestCircuitBreakerOptionsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void disabled_shouldNotGuardCalls() {
+        RestCircuitBreakerOptions options = RestCircuitBreakerOptions.disabled();
+
+        assertFalse(options.enabled());
+        assertNull(options.name());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_WINDOW_SIZE, options.windowSize());
+    }
+
+    @Test
+    void defaults_shouldBeEnabledWithDefaultThresholds() {
+        RestCircuitBreakerOptions options = RestCircuitBreakerOptions.defaults();
+
+        assertTrue(options.enabled());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_FAILURE_RATE_THRESHOLD, options.failureRateThreshold());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_OPEN_MS, options.openMs());
+    }
+
+    @Test
+    void constructor_withInvalidValues_shouldUseDefaults() {
+        RestCircuitBreakerOptions options = new RestCircuitBreakerOptions(true, "  ", 0, 150, -1, 0, 0, 0, 0);
+
+        assertNull(options.name());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_FAILURE_RATE_THRESHOLD, options.failureRateThreshold());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_SLOW_CALL_RATE_THRESHOLD, options.slowCallRateThreshold());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_SLOW_CALL_MS, options.slowCallMs());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_MINIMUM_CALLS, options.minimumCalls());
+        assertEquals(RestCircuitBreakerOptions.DEFAULT_HALF_OPEN_CALLS, options.halfOpenCalls());
+    }
+
+    @Test
+    void constructor_withMinimumCallsAboveWindow_shouldCapToWindowSize() {
+        RestCircuitBreakerOptions options = new RestCircuitBreakerOptions(true, null, 50, 100, 1000, 5, 10, 1000, 1);
+
+        assertEquals(5, options.minimumCalls());
+    }
+
+    @Test
+    void fromJson_withoutCircuitBreaker_shouldBeDisabled() throws Exception {
+        RestCircuitBreakerOptions options = RestCircuitBreakerOptions.fromJson(
+                mapper.readTree("{\"circuitBreakerOpenMs\": 1000}"));
+
+        assertFalse(options.enabled());
+        assertEquals(1000, options.openMs());
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestCircuitBreakerOptions parent = new RestCircuitBreakerOptions(true, "crm", 30, 80, 2000, 10, 5, 10_000, 2);
+
+        RestCircuitBreakerOptions options = RestCircuitBreakerOptions.fromJson(
+                mapper.readTree("{\"circuitBreakerFailureRate\": 60, \"circuitBreakerWindowSize\": 50}"), parent);
+
+        assertTrue(options.enabled());
+        assertEquals("crm", options.name());
+        assertEquals(60, options.failureRateThreshold());
+        assertEquals(80, options.slowCallRateThreshold());
+        assertEquals(50, options.windowSize());
+        assertEquals(5, options.minimumCalls());
+        assertEquals(10_000, options.openMs());
+    }
+
+    @Test
+    void fromJson_withNullNode_shouldReturnParent() {
+        RestCircuitBreakerOptions parent = RestCircuitBreakerOptions.defaults();
+
+        assertSame(parent, RestCircuitBreakerOptions.fromJson(null, parent));
+        assertEquals(RestCircuitBreakerOptions.disabled(), RestCircuitBreakerOptions.fromJson(null));
+    }
+}
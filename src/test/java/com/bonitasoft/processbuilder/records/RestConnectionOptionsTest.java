@@ -0,0 +1,76 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestConnectionOptions} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestConnectionOptionsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void defaults_shouldConnectDirectlyWithClientDefaults() {
+        RestConnectionOptions options = RestConnectionOptions.defaults();
+
+        assertNull(options.httpVersion());
+        assertEquals(0, options.connectTimeoutMs());
+        assertFalse(options.hasProxy());
+    }
+
+    @Test
+    void constructor_withInvalidValues_shouldApplyDefaults() {
+        RestConnectionOptions options = new RestConnectionOptions(null, -1, "  ", 3128);
+
+        assertEquals(0, options.connectTimeoutMs());
+        assertNull(options.proxyHost());
+        assertEquals(0, options.proxyPort());
+    }
+
+    @Test
+    void constructor_withProxyHostOnly_shouldUseDefaultPort() {
+        RestConnectionOptions options = new RestConnectionOptions(null, 0, " proxy.corp ", 0);
+
+        assertEquals("proxy.corp", options.proxyHost());
+        assertEquals(RestConnectionOptions.DEFAULT_PROXY_PORT, options.proxyPort());
+    }
+
+    @Test
+    void parseHttpVersion_shouldAcceptCommonNames() {
+        assertEquals(Optional.of(HttpClient.Version.HTTP_1_1), RestConnectionOptions.parseHttpVersion("http/1.1"));
+        assertEquals(Optional.of(HttpClient.Version.HTTP_1_1), RestConnectionOptions.parseHttpVersion("HTTP_1_1"));
+        assertEquals(Optional.of(HttpClient.Version.HTTP_2), RestConnectionOptions.parseHttpVersion("h2"));
+        assertEquals(Optional.of(HttpClient.Version.HTTP_2), RestConnectionOptions.parseHttpVersion(" 2 "));
+        assertTrue(RestConnectionOptions.parseHttpVersion("3").isEmpty());
+        assertTrue(RestConnectionOptions.parseHttpVersion(null).isEmpty());
+    }
+
+    @Test
+    void fromJson_shouldReadAllOptions() throws Exception {
+        RestConnectionOptions options = RestConnectionOptions.fromJson(mapper.readTree(
+                "{\"httpVersion\":\"1.1\",\"connectTimeoutMs\":2500,\"proxyHost\":\"proxy\",\"proxyPort\":3128}"));
+
+        assertEquals(new RestConnectionOptions(HttpClient.Version.HTTP_1_1, 2500, "proxy", 3128), options);
+    }
+
+    @Test
+    void fromJson_withUnknownVersion_shouldUseClientDefault() throws Exception {
+        RestConnectionOptions options = RestConnectionOptions.fromJson(mapper.readTree("{\"httpVersion\":\"spdy\"}"));
+
+        assertNull(options.httpVersion());
+    }
+
+    @Test
+    void fromJson_withNullNode_shouldReturnDefaults() {
+        assertSame(RestConnectionOptions.defaults(), RestConnectionOptions.fromJson(null));
+    }
+}
@@ -0,0 +1,79 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestHedgePolicy} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestHedgePolicyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void none_shouldNotHedge() {
+        RestHedgePolicy policy = RestHedgePolicy.none();
+
+        assertFalse(policy.enabled());
+        assertEquals(RestHedgePolicy.DEFAULT_MAX_HEDGE_PERCENT, policy.maxHedgePercent());
+    }
+
+    @Test
+    void after_shouldUseFixedDelay() {
+        RestHedgePolicy policy = RestHedgePolicy.after(150);
+
+        assertTrue(policy.enabled());
+        assertEquals(150, policy.delayMs());
+    }
+
+    @Test
+    void atP95_shouldUseObservedLatency() {
+        RestHedgePolicy policy = RestHedgePolicy.atP95();
+
+        assertTrue(policy.enabled());
+        assertEquals(0, policy.delayMs());
+    }
+
+    @Test
+    void constructor_withInvalidValues_shouldUseDefaults() {
+        RestHedgePolicy policy = new RestHedgePolicy(true, -10, 150, " ");
+
+        assertEquals(0, policy.delayMs());
+        assertEquals(RestHedgePolicy.DEFAULT_MAX_HEDGE_PERCENT, policy.maxHedgePercent());
+        assertNull(policy.name());
+    }
+
+    @Test
+    void fromJson_shouldReadEveryKey() throws Exception {
+        RestHedgePolicy policy = RestHedgePolicy.fromJson(mapper.readTree("""
+                {"hedge": true, "hedgeDelayMs": 200, "hedgeMaxPercent": 5, "hedgeName": "geoip"}
+                """));
+
+        assertEquals(new RestHedgePolicy(true, 200, 5, "geoip"), policy);
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestHedgePolicy parent = new RestHedgePolicy(true, 200, 5, "geoip");
+
+        RestHedgePolicy policy = RestHedgePolicy.fromJson(mapper.readTree("{\"hedgeDelayMs\": 50}"), parent);
+
+        assertTrue(policy.enabled());
+        assertEquals(50, policy.delayMs());
+        assertEquals(5, policy.maxHedgePercent());
+        assertEquals("geoip", policy.name());
+    }
+
+    @Test
+    void fromJson_withNullNode_shouldReturnParent() {
+        RestHedgePolicy parent = RestHedgePolicy.after(100);
+
+        assertSame(parent, RestHedgePolicy.fromJson(null, parent));
+        assertEquals(RestHedgePolicy.none(), RestHedgePolicy.fromJson(null));
+    }
+}
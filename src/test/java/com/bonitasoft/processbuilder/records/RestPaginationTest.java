@@ -0,0 +1,105 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.bonitasoft.processbuilder.enums.RestPaginationType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestPagination} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestPaginationTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void none_shouldReadSinglePage() {
+        RestPagination pagination = RestPagination.none();
+
+        assertFalse(pagination.enabled());
+        assertEquals(RestPaginationType.NONE, pagination.type());
+        assertNull(pagination.itemsPath());
+        assertEquals(RestPagination.DEFAULT_MAX_ITEMS, pagination.maxItems());
+        assertEquals(RestPagination.DEFAULT_MAX_PAGES, pagination.maxPages());
+    }
+
+    @Test
+    void factories_shouldSetTheirType() {
+        assertEquals(RestPaginationType.CURSOR, RestPagination.cursor("issues", "nextPageToken", "token").type());
+        assertEquals(RestPaginationType.OFFSET, RestPagination.offset("result", "start", "limit", 100).type());
+        assertEquals(RestPaginationType.LINK_HEADER, RestPagination.linkHeader("result").type());
+        assertEquals(RestPaginationType.NEXT_LINK, RestPagination.nextLink("value", null).type());
+        assertTrue(RestPagination.linkHeader(null).enabled());
+    }
+
+    @Test
+    void constructor_withMissingValues_shouldUseDefaults() {
+        RestPagination pagination = new RestPagination(null, " ", null, "", null, null, -5, null, 0, -1);
+
+        assertEquals(RestPaginationType.NONE, pagination.type());
+        assertNull(pagination.itemsPath());
+        assertEquals(RestPagination.DEFAULT_CURSOR, pagination.cursorPath());
+        assertEquals(RestPagination.DEFAULT_CURSOR, pagination.cursorParam());
+        assertEquals(RestPagination.DEFAULT_OFFSET_PARAM, pagination.offsetParam());
+        assertEquals(RestPagination.DEFAULT_LIMIT_PARAM, pagination.limitParam());
+        assertEquals(0, pagination.pageSize());
+        assertEquals(RestPagination.DEFAULT_NEXT_LINK_PATH, pagination.nextLinkPath());
+        assertEquals(RestPagination.DEFAULT_MAX_ITEMS, pagination.maxItems());
+        assertEquals(RestPagination.DEFAULT_MAX_PAGES, pagination.maxPages());
+    }
+
+    @Test
+    void withLimits_shouldKeepEverythingElse() {
+        RestPagination pagination = RestPagination.offset("issues", "startAt", "maxResults", 50).withLimits(200, 4);
+
+        assertEquals(RestPagination.offset("issues", "startAt", "maxResults", 50),
+                pagination.withLimits(RestPagination.DEFAULT_MAX_ITEMS, RestPagination.DEFAULT_MAX_PAGES));
+        assertEquals(200, pagination.maxItems());
+        assertEquals(4, pagination.maxPages());
+    }
+
+    @Test
+    void fromJson_shouldReadEveryKey() throws Exception {
+        RestPagination pagination = RestPagination.fromJson(mapper.readTree("""
+                {"pagination": "offset", "paginationItemsPath": "issues", "paginationOffsetParam": "startAt",
+                 "paginationLimitParam": "maxResults", "paginationPageSize": 50, "paginationMaxItems": 500,
+                 "paginationMaxPages": 10}
+                """));
+
+        assertEquals(RestPagination.offset("issues", "startAt", "maxResults", 50).withLimits(500, 10), pagination);
+    }
+
+    @Test
+    void fromJson_withUnknownType_shouldReadSinglePage() throws Exception {
+        RestPagination pagination = RestPagination.fromJson(mapper.readTree("{\"pagination\": \"pages\"}"));
+
+        assertFalse(pagination.enabled());
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestPagination parent = RestPagination.nextLink("value", null).withLimits(1000, 20);
+
+        RestPagination pagination = RestPagination.fromJson(mapper.readTree("""
+                {"paginationItemsPath": "records", "paginationNextLinkPath": "nextRecordsUrl"}
+                """), parent);
+
+        assertEquals(RestPaginationType.NEXT_LINK, pagination.type());
+        assertEquals("records", pagination.itemsPath());
+        assertEquals("nextRecordsUrl", pagination.nextLinkPath());
+        assertEquals(1000, pagination.maxItems());
+        assertEquals(20, pagination.maxPages());
+    }
+
+    @Test
+    void fromJson_withNullNode_shouldReturnParent() {
+        RestPagination parent = RestPagination.linkHeader("result");
+
+        assertSame(parent, RestPagination.fromJson(null, parent));
+        assertEquals(RestPagination.none(), RestPagination.fromJson(null));
+    }
+}
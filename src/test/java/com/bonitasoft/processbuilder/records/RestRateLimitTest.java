@@ -0,0 +1,88 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestRateLimit} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestRateLimitTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void none_shouldNotLimitCalls() {
+        RestRateLimit limit = RestRateLimit.none();
+
+        assertFalse(limit.enabled());
+        assertEquals(RestRateLimit.DEFAULT_BURST, limit.burst());
+    }
+
+    @Test
+    void perSecond_shouldUseDefaultBurstAndWait() {
+        RestRateLimit limit = RestRateLimit.perSecond(5);
+
+        assertTrue(limit.enabled());
+        assertEquals(5, limit.permitsPerSecond());
+        assertEquals(RestRateLimit.DEFAULT_BURST, limit.burst());
+        assertEquals(RestRateLimit.DEFAULT_MAX_WAIT_MS, limit.maxWaitMs());
+        assertNull(limit.name());
+        assertFalse(limit.perCredential());
+    }
+
+    @Test
+    void constructor_withInvalidValues_shouldUseDefaults() {
+        RestRateLimit limit = new RestRateLimit(-2, 0, -1, " ", false);
+
+        assertFalse(limit.enabled());
+        assertEquals(RestRateLimit.DEFAULT_BURST, limit.burst());
+        assertEquals(RestRateLimit.DEFAULT_MAX_WAIT_MS, limit.maxWaitMs());
+        assertNull(limit.name());
+    }
+
+    @Test
+    void fromJson_withPerMinute_shouldConvertToPerSecond() throws Exception {
+        RestRateLimit limit = RestRateLimit.fromJson(mapper.readTree("""
+                {"rateLimitPerMinute": 5, "rateLimitBurst": 2, "rateLimitScope": "credential"}
+                """));
+
+        assertEquals(5 / 60.0, limit.permitsPerSecond(), 1e-9);
+        assertEquals(2, limit.burst());
+        assertTrue(limit.perCredential());
+    }
+
+    @Test
+    void fromJson_withBothRates_shouldPreferPerSecond() throws Exception {
+        RestRateLimit limit = RestRateLimit.fromJson(mapper.readTree("""
+                {"rateLimitPerSecond": 10, "rateLimitPerMinute": 5}
+                """));
+
+        assertEquals(10, limit.permitsPerSecond());
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestRateLimit parent = new RestRateLimit(2, 4, 5_000, "hubspot", true);
+
+        RestRateLimit limit = RestRateLimit.fromJson(mapper.readTree("{\"rateLimitMaxWaitMs\": 1000}"), parent);
+
+        assertEquals(2, limit.permitsPerSecond());
+        assertEquals(4, limit.burst());
+        assertEquals(1_000, limit.maxWaitMs());
+        assertEquals("hubspot", limit.name());
+        assertTrue(limit.perCredential());
+    }
+
+    @Test
+    void fromJson_withNullNode_shouldReturnParent() {
+        RestRateLimit parent = RestRateLimit.perSecond(1);
+
+        assertSame(parent, RestRateLimit.fromJson(null, parent));
+        assertEquals(RestRateLimit.none(), RestRateLimit.fromJson(null));
+    }
+}
@@ -0,0 +1,70 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestRequestCompression} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestRequestCompressionTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void disabled_shouldNeverApply() {
+        RestRequestCompression compression = RestRequestCompression.disabled();
+
+        assertFalse(compression.enabled());
+        assertFalse(compression.appliesTo(10_000_000));
+        assertFalse(compression.appliesTo(-1));
+    }
+
+    @Test
+    void appliesTo_shouldHonorThreshold() {
+        RestRequestCompression compression = RestRequestCompression.gzip(1024);
+
+        assertFalse(compression.appliesTo(0));
+        assertFalse(compression.appliesTo(1023));
+        assertTrue(compression.appliesTo(1024));
+        assertTrue(compression.appliesTo(-1));
+    }
+
+    @Test
+    void constructor_withNegativeThreshold_shouldApplyDefault() {
+        assertEquals(RestRequestCompression.DEFAULT_THRESHOLD_BYTES,
+                new RestRequestCompression(true, -1).thresholdBytes());
+    }
+
+    @Test
+    void fromJson_shouldReadFlagAndThreshold() throws Exception {
+        RestRequestCompression compression = RestRequestCompression.fromJson(
+                mapper.readTree("{\"compressRequest\":true,\"compressRequestThresholdBytes\":4096}"));
+
+        assertTrue(compression.enabled());
+        assertEquals(4096, compression.thresholdBytes());
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestRequestCompression parent = RestRequestCompression.gzip(512);
+
+        RestRequestCompression inherited = RestRequestCompression.fromJson(mapper.readTree("{}"), parent);
+        RestRequestCompression overridden = RestRequestCompression.fromJson(
+                mapper.readTree("{\"compressRequest\":false}"), parent);
+
+        assertEquals(parent, inherited);
+        assertFalse(overridden.enabled());
+        assertEquals(512, overridden.thresholdBytes());
+    }
+
+    @Test
+    void fromJson_withMissingNode_shouldReturnDisabled() throws Exception {
+        assertEquals(RestRequestCompression.disabled(), RestRequestCompression.fromJson(null));
+        assertEquals(RestRequestCompression.disabled(), RestRequestCompression.fromJson(mapper.readTree("[]")));
+    }
+}
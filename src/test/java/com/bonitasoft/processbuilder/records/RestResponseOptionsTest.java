@@ -0,0 +1,106 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestResponseOptions} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestResponseOptionsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void defaults_shouldDecodeBodyAsString() {
+        RestResponseOptions options = RestResponseOptions.defaults();
+
+        assertEquals(RestResponseMode.STRING, options.mode());
+        assertEquals(RestResponseOptions.DEFAULT_SPILL_THRESHOLD_BYTES, options.spillThresholdBytes());
+    }
+
+    @Test
+    void constructor_withInvalidValues_shouldApplyDefaults() {
+        RestResponseOptions options = new RestResponseOptions(null, -5);
+
+        assertEquals(RestResponseMode.STRING, options.mode());
+        assertEquals(RestResponseOptions.DEFAULT_SPILL_THRESHOLD_BYTES, options.spillThresholdBytes());
+    }
+
+    @Test
+    void fromJson_shouldReadModeAndThreshold() throws Exception {
+        RestResponseOptions options = RestResponseOptions.fromJson(
+                mapper.readTree("{\"responseMode\":\"FILE\",\"spillThresholdBytes\":4096}"));
+
+        assertEquals(RestResponseMode.FILE, options.mode());
+        assertEquals(4096, options.spillThresholdBytes());
+    }
+
+    @Test
+    void fromJson_withUnknownMode_shouldFallBackToString() throws Exception {
+        RestResponseOptions options = RestResponseOptions.fromJson(mapper.readTree("{\"responseMode\":\"blob\"}"));
+
+        assertEquals(RestResponseMode.STRING, options.mode());
+    }
+
+    @Test
+    void fromJson_withUnknownMode_shouldKeepInheritedMode() throws Exception {
+        RestResponseOptions parent = RestResponseOptions.fromJson(mapper.readTree("{\"responseMode\":\"FILE\"}"));
+
+        RestResponseOptions options = RestResponseOptions.fromJson(mapper.readTree("{\"responseMode\":\"fiel\"}"),
+                parent);
+
+        assertEquals(RestResponseMode.FILE, options.mode());
+    }
+
+    @Test
+    void fromJson_shouldReadSizeLimit() throws Exception {
+        RestResponseOptions options = RestResponseOptions.fromJson(
+                mapper.readTree("{\"maxResponseBytes\":1000,\"truncateOversizedResponse\":true}"));
+
+        assertEquals(1000, options.maxResponseBytes());
+        assertTrue(options.truncateOversized());
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestResponseOptions parent = new RestResponseOptions(RestResponseMode.BYTES, 2048, 5000, true);
+
+        RestResponseOptions options = RestResponseOptions.fromJson(
+                mapper.readTree("{\"responseMode\":\"file\"}"), parent);
+
+        assertEquals(RestResponseMode.FILE, options.mode());
+        assertEquals(2048, options.spillThresholdBytes());
+        assertEquals(5000, options.maxResponseBytes());
+        assertTrue(options.truncateOversized());
+    }
+
+    @Test
+    void fromJson_withAcceptCompression_shouldEnableItAndBeInherited() throws Exception {
+        RestResponseOptions parent = RestResponseOptions.fromJson(mapper.readTree("{\"acceptCompression\":true}"));
+
+        RestResponseOptions options = RestResponseOptions.fromJson(
+                mapper.readTree("{\"responseMode\":\"bytes\"}"), parent);
+
+        assertTrue(parent.acceptCompression());
+        assertTrue(options.acceptCompression());
+        assertFalse(RestResponseOptions.defaults().acceptCompression());
+        assertFalse(options.withAcceptCompression(false).acceptCompression());
+    }
+
+    @Test
+    void constructor_withNegativeLimit_shouldMeanNoSpecificLimit() {
+        assertEquals(0, new RestResponseOptions(RestResponseMode.STRING, 0, -1, false).maxResponseBytes());
+    }
+
+    @Test
+    void fromJson_withMissingNode_shouldReturnDefaults() throws Exception {
+        assertEquals(RestResponseOptions.defaults(), RestResponseOptions.fromJson(null));
+        assertEquals(RestResponseOptions.defaults(), RestResponseOptions.fromJson(mapper.readTree("[]")));
+    }
+}
@@ -0,0 +1,102 @@
+package com.bonitasoft.processbuilder.records;
+
+import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RestRetryPolicy} record.
+ *
+ * @author Bonitasoft
+ * @since 1.0
+ */
+class RestRetryPolicyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void none_shouldNotRetry() {
+        RestRetryPolicy policy = RestRetryPolicy.none();
+
+        assertFalse(policy.enabled());
+        assertEquals(0, policy.maxRetries());
+    }
+
+    @Test
+    void backoffMs_shouldGrowExponentiallyUpToMaxWait() {
+        RestRetryPolicy policy = new RestRetryPolicy(10, 1_000, 2.0, 5_000, 0, null, true, true, false);
+
+        assertEquals(1_000, policy.backoffMs(1, 0.5));
+        assertEquals(2_000, policy.backoffMs(2, 0.5));
+        assertEquals(4_000, policy.backoffMs(3, 0.5));
+        assertEquals(5_000, policy.backoffMs(4, 0.5));
+    }
+
+    @Test
+    void backoffMs_withJitter_shouldRemoveUpToTheJitterFraction() {
+        RestRetryPolicy policy = new RestRetryPolicy(3, 1_000, 1.0, 60_000, 0.2, null, true, true, false);
+
+        assertEquals(1_000, policy.backoffMs(1, 0.0));
+        assertEquals(900, policy.backoffMs(1, 0.5));
+        assertEquals(800, policy.backoffMs(1, 1.0));
+    }
+
+    @Test
+    void retriesStatus_shouldUseStatusSetAndConnectionErrorFlag() {
+        RestRetryPolicy policy = RestRetryPolicy.exponential(3, 100);
+        RestRetryPolicy noConnectionErrors = new RestRetryPolicy(3, 100, 2, 0, 0, Set.of(503), false, true, false);
+
+        assertTrue(policy.retriesStatus(503));
+        assertTrue(policy.retriesStatus(429));
+        assertTrue(policy.retriesStatus(-1));
+        assertFalse(policy.retriesStatus(404));
+        assertFalse(noConnectionErrors.retriesStatus(-1));
+        assertFalse(noConnectionErrors.retriesStatus(500));
+    }
+
+    @Test
+    void allowsRetryOf_shouldGuardNonIdempotentMethods() {
+        RestRetryPolicy policy = RestRetryPolicy.exponential(3, 100);
+
+        assertTrue(policy.allowsRetryOf(RestHttpMethod.GET, Map.of()));
+        assertTrue(policy.allowsRetryOf(RestHttpMethod.PUT, Map.of()));
+        assertTrue(policy.allowsRetryOf(RestHttpMethod.DELETE, Map.of()));
+        assertFalse(policy.allowsRetryOf(RestHttpMethod.POST, Map.of()));
+        assertFalse(policy.allowsRetryOf(RestHttpMethod.PATCH, Map.of()));
+        assertTrue(policy.allowsRetryOf(RestHttpMethod.POST, Map.of("idempotency-key", "abc")));
+    }
+
+    @Test
+    void fromJson_shouldReadExecutionConnectorSettings() throws Exception {
+        RestRetryPolicy policy = RestRetryPolicy.fromJson(mapper.readTree("""
+                {"maxRetries": 4, "waitTimeSeconds": 1.5, "retryBackoffMultiplier": 3,
+                 "retryMaxWaitSeconds": 20, "retryJitter": 0, "retryOnStatus": [502, 503],
+                 "retryOnConnectionErrors": false, "retryRespectRetryAfter": false, "retryNonIdempotent": true}
+                """));
+
+        assertEquals(new RestRetryPolicy(4, 1_500, 3.0, 20_000, 0, Set.of(502, 503), false, false, true), policy);
+    }
+
+    @Test
+    void fromJson_withParent_shouldInheritUndeclaredValues() throws Exception {
+        RestRetryPolicy parent = RestRetryPolicy.exponential(3, 500);
+
+        RestRetryPolicy inherited = RestRetryPolicy.fromJson(mapper.readTree("{}"), parent);
+        RestRetryPolicy overridden = RestRetryPolicy.fromJson(mapper.readTree("{\"maxRetries\":0}"), parent);
+
+        assertEquals(parent, inherited);
+        assertFalse(overridden.enabled());
+        assertEquals(500, overridden.waitTimeMs());
+    }
+
+    @Test
+    void fromJson_withMissingNode_shouldReturnNone() throws Exception {
+        assertEquals(RestRetryPolicy.none(), RestRetryPolicy.fromJson(null));
+        assertEquals(RestRetryPolicy.none(), RestRetryPolicy.fromJson(mapper.readTree("[]")));
+    }
+}
@@ -3,6 +3,7 @@ package com.bonitasoft.processbuilder.records;
 import com.bonitasoft.processbuilder.enums.RestApiKeyLocation;
 import com.bonitasoft.processbuilder.enums.RestContentType;
 import com.bonitasoft.processbuilder.enums.RestHttpMethod;
+import com.bonitasoft.processbuilder.enums.RestResponseMode;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -207,6 +210,24 @@ class RestServiceRequestTest {
         assertFalse(request.verifySsl());
     }
 
+    @Test
+    void builder_shouldDefaultToStringResponseMode() {
+        RestServiceRequest request = RestServiceRequest.builder(TEST_URL).build();
+
+        assertEquals(RestResponseOptions.defaults(), request.responseOptions());
+    }
+
+    @Test
+    void builder_responseMode_shouldKeepSpillThreshold() {
+        RestServiceRequest request = RestServiceRequest.builder(TEST_URL)
+                .responseOptions(new RestResponseOptions(RestResponseMode.STRING, 2048))
+                .responseMode(RestResponseMode.FILE)
+                .build();
+
+        assertEquals(RestResponseMode.FILE, request.responseOptions().mode());
+        assertEquals(2048, request.responseOptions().spillThresholdBytes());
+    }
+
     // =========================================================================
     // Factory Method Tests
     // =========================================================================
@@ -289,6 +310,215 @@ class RestServiceRequestTest {
         assertInstanceOf(RestAuthConfig.BasicAuth.class, request.auth());
     }
 
+    @Test
+    void fromJson_withResponseMode_shouldParseResponseOptions() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/files/1",
+                    "responseMode": "bytes"
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertEquals(RestResponseMode.BYTES, request.responseOptions().mode());
+    }
+
+    @Test
+    void fromJson_withConnectionOptions_shouldParseThem() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "httpVersion": "HTTP_1_1",
+                    "connectTimeoutMs": 1500
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertEquals(HttpClient.Version.HTTP_1_1, request.connectionOptions().httpVersion());
+        assertEquals(1500, request.connectionOptions().connectTimeoutMs());
+        assertFalse(request.connectionOptions().hasProxy());
+    }
+
+    @Test
+    void fromJson_withCacheTtl_shouldEnableCaching() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "cacheTtlMs": 30000,
+                    "cacheStaleWhileRevalidateMs": 5000
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertEquals(RestCacheOptions.ttl(30_000).withStaleWhileRevalidate(5_000), request.cacheOptions());
+        assertEquals(RestCacheOptions.disabled(), RestServiceRequest.get("https://api.example.com").cacheOptions());
+    }
+
+    @Test
+    void fromJson_withMaxRetries_shouldParseRetryPolicy() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "maxRetries": 2,
+                    "waitTimeSeconds": 0.5
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertEquals(RestRetryPolicy.exponential(2, 500), request.retryPolicy());
+        assertEquals(RestRetryPolicy.none(), RestServiceRequest.get("https://api.example.com").retryPolicy());
+    }
+
+    @Test
+    void toBuilder_shouldCopyEveryField() {
+        RestServiceRequest request = RestServiceRequest.builder("https://api.example.com/items")
+                .method(RestHttpMethod.POST)
+                .header("X-Trace", "1")
+                .queryParam("page", "2")
+                .body("{}")
+                .timeout(5000)
+                .cacheOptions(RestCacheOptions.ttl(1000))
+                .retryPolicy(RestRetryPolicy.exponential(2, 100))
+                .circuitBreakerOptions(RestCircuitBreakerOptions.defaults())
+                .rateLimit(RestRateLimit.perSecond(5))
+                .bulkheadOptions(RestBulkheadOptions.fixed(4, 8))
+                .hedgePolicy(RestHedgePolicy.after(200))
+                .build();
+
+        assertEquals(request, request.toBuilder().build());
+    }
+
+    @Test
+    void withUrl_shouldReplaceUrlAndDropQueryParams() {
+        RestServiceRequest request = RestServiceRequest.builder("https://graph.example.com/v1.0/users")
+                .queryParam("$top", "100")
+                .auth(RestAuthConfig.bearer("token"))
+                .timeout(5000)
+                .build();
+
+        RestServiceRequest next = request.withUrl("https://graph.example.com/v1.0/users?$skiptoken=abc");
+
+        assertEquals("https://graph.example.com/v1.0/users?$skiptoken=abc", next.buildFullUrl());
+        assertTrue(next.queryParams().isEmpty());
+        assertEquals(request.auth(), next.auth());
+        assertEquals(5000, next.timeoutMs());
+    }
+
+    @Test
+    void fromJson_withCircuitBreaker_shouldParseOptions() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "circuitBreaker": true,
+                    "circuitBreakerFailureRate": 25,
+                    "circuitBreakerOpenMs": 5000
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertTrue(request.circuitBreakerOptions().enabled());
+        assertEquals(25, request.circuitBreakerOptions().failureRateThreshold());
+        assertEquals(5000, request.circuitBreakerOptions().openMs());
+        assertFalse(RestServiceRequest.get("https://api.example.com").circuitBreakerOptions().enabled());
+    }
+
+    @Test
+    void fromJson_withRateLimit_shouldParseIt() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "rateLimitPerMinute": 120,
+                    "rateLimitBurst": 10
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertEquals(2, request.rateLimit().permitsPerSecond());
+        assertEquals(10, request.rateLimit().burst());
+        assertEquals(RestRateLimit.none(), RestServiceRequest.get("https://api.example.com").rateLimit());
+    }
+
+    @Test
+    void fromJson_withBulkhead_shouldParseOptions() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "bulkhead": true,
+                    "bulkheadMaxConcurrent": 5,
+                    "bulkheadAdaptive": true
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertTrue(request.bulkheadOptions().enabled());
+        assertTrue(request.bulkheadOptions().adaptive());
+        assertEquals(5, request.bulkheadOptions().maxConcurrent());
+        assertFalse(RestServiceRequest.get("https://api.example.com").bulkheadOptions().enabled());
+    }
+
+    @Test
+    void fromJson_withHedge_shouldParsePolicy() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "hedge": true,
+                    "hedgeMaxPercent": 5
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertTrue(request.hedgePolicy().enabled());
+        assertEquals(0, request.hedgePolicy().delayMs());
+        assertEquals(5, request.hedgePolicy().maxHedgePercent());
+        assertFalse(RestServiceRequest.get("https://api.example.com").hedgePolicy().enabled());
+    }
+
+    @Test
+    void fromJson_withCompressRequest_shouldParseIt() throws Exception {
+        JsonNode node = MAPPER.readTree("""
+                {
+                    "url": "https://api.example.com/items",
+                    "method": "POST",
+                    "compressRequest": true,
+                    "compressRequestThresholdBytes": 8192
+                }
+                """);
+
+        RestServiceRequest request = RestServiceRequest.fromJson(node, null);
+
+        assertEquals(RestRequestCompression.gzip(8192), request.requestCompression());
+        assertEquals(RestRequestCompression.disabled(), RestServiceRequest.get("https://api.example.com")
+                .requestCompression());
+    }
+
+    @Test
+    void bodyPublisher_shouldBeSentOnceUnlessDeclaredRepeatable() {
+        HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofString("{}");
+
+        assertTrue(RestServiceRequest.builder(TEST_URL).build().repeatableBody());
+        assertTrue(RestServiceRequest.builder(TEST_URL).body("{}").build().repeatableBody());
+        assertFalse(RestServiceRequest.builder(TEST_URL).bodyPublisher(publisher).build().repeatableBody());
+        assertTrue(RestServiceRequest.builder(TEST_URL).bodyPublisher(publisher, true).build().repeatableBody());
+        assertFalse(RestServiceRequest.builder(TEST_URL).bodyPublisher(publisher).build().toBuilder().build()
+                .repeatableBody());
+    }
+
+    @Test
+    void constructor_withoutConnectionOptions_shouldUseDefaults() {
+        RestServiceRequest request = new RestServiceRequest("https://api.example.com", null, null, null, null,
+                null, null, 0, true, true, null, null);
+
+        assertEquals(RestConnectionOptions.defaults(), request.connectionOptions());
+    }
+
     @Test
     void fromJson_nullNode_shouldThrowException() {
         assertThrows(IllegalArgumentException.class, () ->
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
 
@@ -348,6 +352,21 @@ class RestServiceResponseTest {
         assertEquals(original.statusCode(), modified.statusCode());
     }
 
+    @Test
+    void withBody_shouldKeepAttemptsTruncationAndCompressionSizes() {
+        RestServiceResponse original = RestServiceResponse.success(
+                200, Map.of(), "original", RestContentType.JSON, 100L, TEST_URL)
+                .withTruncated(true).withCompressionSizes(10, 40).withAttempts(3);
+
+        RestServiceResponse modified = original.withBody("modified");
+
+        assertEquals("modified", modified.content().text());
+        assertTrue(modified.truncated());
+        assertEquals(10, modified.compressedBytes());
+        assertEquals(40, modified.uncompressedBytes());
+        assertEquals(3, modified.attempts());
+    }
+
     @Test
     void withError_shouldCreateNewResponseWithError() {
         RestServiceResponse original = RestServiceResponse.success(
@@ -381,6 +400,101 @@ class RestServiceResponseTest {
                 response.headers().put("New", "Value"));
     }
 
+    // =========================================================================
+    // Binary Body Tests
+    // =========================================================================
+
+    @Test
+    void success_withBinaryContent_shouldKeepBytesAndDecodeBodyOnDemand() {
+        byte[] bytes = {(byte) 0xFF, 0x00, (byte) 0xD8, 0x7F};
+        RestServiceResponse response = RestServiceResponse.success(
+                200, Map.of(), ResponseBody.ofBytes(bytes, StandardCharsets.ISO_8859_1),
+                RestContentType.TEXT_PLAIN, 10L, TEST_URL);
+
+        assertArrayEquals(bytes, response.content().bytes());
+        assertEquals(new String(bytes, StandardCharsets.ISO_8859_1), response.body());
+        assertTrue(response.toSummary().contains("4 bytes"));
+    }
+
+    @Test
+    void bodyAsJson_withBinaryContent_shouldParseUsingDeclaredCharset() {
+        byte[] bytes = "{\"name\":\"caf\u00e9\"}".getBytes(StandardCharsets.ISO_8859_1);
+        RestServiceResponse response = RestServiceResponse.success(
+                200, Map.of(), ResponseBody.ofBytes(bytes, StandardCharsets.ISO_8859_1),
+                RestContentType.JSON, 10L, TEST_URL);
+
+        assertTrue(response.hasJsonBody());
+        assertEquals(Optional.of("caf\u00e9"), response.getJsonField("name"));
+        assertEquals("caf\u00e9", response.bodyAs(TestDto.class).map(dto -> dto.name).orElse(null));
+    }
+
+    @Test
+    void constructor_withTextBody_shouldExposeTextContent() {
+        RestServiceResponse response = new RestServiceResponse(
+                200, Map.of(), "hello", RestContentType.TEXT_PLAIN, 0L, null, TEST_URL);
+
+        assertEquals(ResponseBody.ofText("hello"), response.content());
+        assertNull(RestServiceResponse.error("boom", 0L, TEST_URL).content());
+    }
+
+    @Test
+    void withTruncated_shouldFlagResponseAndSummary() {
+        RestServiceResponse response = RestServiceResponse.success(
+                200, Map.of(), "partial", RestContentType.TEXT_PLAIN, 10L, TEST_URL).withTruncated(true);
+
+        assertTrue(response.truncated());
+        assertEquals("partial", response.body());
+        assertTrue(response.toSummary().contains("(truncated)"));
+        assertFalse(response.withTruncated(false).truncated());
+    }
+
+    @Test
+    void withCompressionSizes_shouldRecordSizesAndSummary() {
+        RestServiceResponse response = RestServiceResponse.success(
+                200, Map.of(), "{}", RestContentType.JSON, 10L, TEST_URL).withCompressionSizes(120, 900);
+
+        assertTrue(response.wasCompressed());
+        assertEquals(120, response.compressedBytes());
+        assertEquals(900, response.uncompressedBytes());
+        assertTrue(response.toSummary().contains("(120 bytes compressed)"));
+        assertEquals(120, response.withTruncated(true).compressedBytes());
+    }
+
+    @Test
+    void withAttempts_shouldRecordCountAndSummary() {
+        RestServiceResponse response = RestServiceResponse.success(
+                200, Map.of(), "{}", RestContentType.JSON, 10L, TEST_URL);
+
+        assertEquals(1, response.attempts());
+        assertFalse(response.toSummary().contains("attempts"));
+        assertEquals(3, response.withAttempts(3).attempts());
+        assertTrue(response.withAttempts(3).toSummary().contains("(3 attempts)"));
+        assertEquals(3, response.withAttempts(3).withError("late").attempts());
+    }
+
+    @Test
+    void constructor_withTextBody_shouldNotBeCompressed() {
+        RestServiceResponse response = new RestServiceResponse(
+                200, Map.of(), "{}", RestContentType.JSON, 0L, null, TEST_URL);
+
+        assertFalse(response.wasCompressed());
+        assertEquals(-1, response.compressedBytes());
+        assertEquals(-1, response.uncompressedBytes());
+    }
+
+    @Test
+    void release_withTempFileContent_shouldDeleteFile() throws IOException {
+        Path file = Files.createTempFile("response-test-", ".bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        RestServiceResponse response = RestServiceResponse.success(
+                200, Map.of(), new ResponseBody.TempFile(file, 3, null), RestContentType.JSON, 0L, TEST_URL);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, response.content().bytes());
+        response.release();
+
+        assertFalse(Files.exists(file));
+    }
+
     // =========================================================================
     // Helper Class
     // =========================================================================